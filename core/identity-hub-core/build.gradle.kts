@@ -9,8 +9,10 @@ dependencies {
     api(project(":spi:participant-context-spi"))
     api(project(":spi:did-spi"))
     implementation(project(":core:lib:accesstoken-lib"))
+    implementation(project(":core:lib:cache-lib"))
     implementation(libs.edc.spi.dcp) //SignatureSuiteRegistry
     implementation(libs.edc.spi.jwt.signer)
+    implementation(libs.edc.spi.http) // status list cache
     implementation(libs.edc.core.connector) // for the CriterionToPredicateConverterImpl
     implementation(libs.edc.jsonld) // for the JSON-LD mapper
     implementation(libs.edc.lib.util)
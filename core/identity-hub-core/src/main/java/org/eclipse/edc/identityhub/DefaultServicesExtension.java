@@ -14,6 +14,7 @@
 
 package org.eclipse.edc.identityhub;
 
+import org.eclipse.edc.http.spi.EdcHttpClient;
 import org.eclipse.edc.iam.identitytrust.spi.verification.SignatureSuiteRegistry;
 import org.eclipse.edc.iam.verifiablecredentials.revocation.RevocationServiceRegistryImpl;
 import org.eclipse.edc.iam.verifiablecredentials.revocation.bitstring.BitstringStatusListRevocationService;
@@ -23,14 +24,19 @@ import org.eclipse.edc.iam.verifiablecredentials.spi.model.revocation.bitstrings
 import org.eclipse.edc.iam.verifiablecredentials.spi.model.revocation.statuslist2021.StatusList2021Status;
 import org.eclipse.edc.identityhub.accesstoken.rules.ClaimIsPresentRule;
 import org.eclipse.edc.identityhub.defaults.EdcScopeToCriterionTransformer;
+import org.eclipse.edc.identityhub.defaults.LocalClusterEventRouter;
+import org.eclipse.edc.identityhub.defaults.revocation.CachingRevocationListService;
+import org.eclipse.edc.identityhub.defaults.revocation.StatusListCache;
 import org.eclipse.edc.identityhub.defaults.store.InMemoryCredentialStore;
 import org.eclipse.edc.identityhub.defaults.store.InMemoryKeyPairResourceStore;
 import org.eclipse.edc.identityhub.defaults.store.InMemoryParticipantContextStore;
 import org.eclipse.edc.identityhub.defaults.store.InMemorySignatureSuiteRegistry;
+import org.eclipse.edc.identityhub.spi.cluster.ClusterEventRouter;
 import org.eclipse.edc.identityhub.spi.keypair.store.KeyPairResourceStore;
 import org.eclipse.edc.identityhub.spi.participantcontext.store.ParticipantContextStore;
 import org.eclipse.edc.identityhub.spi.transformation.ScopeToCriterionTransformer;
 import org.eclipse.edc.identityhub.spi.verifiablecredentials.store.CredentialStore;
+import org.eclipse.edc.identityhub.spi.verifiablecredentials.store.StatusListCacheStore;
 import org.eclipse.edc.jwt.signer.spi.JwsSignerProvider;
 import org.eclipse.edc.jwt.validation.jti.JtiValidationStore;
 import org.eclipse.edc.keys.spi.PrivateKeyResolver;
@@ -39,12 +45,15 @@ import org.eclipse.edc.runtime.metamodel.annotation.Inject;
 import org.eclipse.edc.runtime.metamodel.annotation.Provider;
 import org.eclipse.edc.runtime.metamodel.annotation.Setting;
 import org.eclipse.edc.security.token.jwt.DefaultJwsSignerProvider;
+import org.eclipse.edc.spi.event.EventRouter;
 import org.eclipse.edc.spi.system.ServiceExtension;
 import org.eclipse.edc.spi.system.ServiceExtensionContext;
 import org.eclipse.edc.spi.types.TypeManager;
 import org.eclipse.edc.token.spi.TokenValidationRulesRegistry;
 import org.eclipse.edc.verifiablecredentials.jwt.rules.JtiValidationRule;
 
+import java.time.Clock;
+
 import static org.eclipse.edc.identityhub.DefaultServicesExtension.NAME;
 import static org.eclipse.edc.identityhub.spi.verification.SelfIssuedTokenConstants.ACCESS_TOKEN_SCOPE_CLAIM;
 import static org.eclipse.edc.identityhub.spi.verification.SelfIssuedTokenConstants.DCP_ACCESS_TOKEN_CONTEXT;
@@ -56,11 +65,19 @@ public class DefaultServicesExtension implements ServiceExtension {
 
     public static final String NAME = "IdentityHub Default Services Extension";
     public static final long DEFAULT_REVOCATION_CACHE_VALIDITY_MILLIS = 15 * 60 * 1000L;
+    public static final int DEFAULT_REVOCATION_MAX_LIST_SIZE = 16 * 1024 * 1024;
     static final String ACCESSTOKEN_JTI_VALIDATION_ACTIVATE = "edc.iam.accesstoken.jti.validation";
     @Setting(description = "Activates the JTI check: access tokens can only be used once to guard against replay attacks", defaultValue = "false", key = ACCESSTOKEN_JTI_VALIDATION_ACTIVATE)
     private boolean activateJtiCheck;
-    @Setting(description = "Validity period of cached StatusList2021 credential entries in milliseconds.", defaultValue = DEFAULT_REVOCATION_CACHE_VALIDITY_MILLIS + "", key = "edc.iam.credential.revocation.cache.validity")
+    @Setting(description = "Validity period of cached status list credential entries in milliseconds. Expired entries are revalidated with a conditional request.",
+            defaultValue = DEFAULT_REVOCATION_CACHE_VALIDITY_MILLIS + "", key = "edc.iam.credential.revocation.cache.validity")
     private long revocationCacheValidity;
+    @Setting(description = "Whether cached status lists are persisted, so that they survive restarts. Requires a StatusListCacheStore, e.g. the SQL credential store.",
+            defaultValue = "false", key = "edc.iam.credential.revocation.cache.persistent")
+    private boolean persistentRevocationCache;
+    @Setting(description = "Maximum size in bytes of a status list credential, and of the decompressed bitstring it contains. Larger status lists are rejected.",
+            defaultValue = DEFAULT_REVOCATION_MAX_LIST_SIZE + "", min = 1, key = "edc.iam.credential.revocation.cache.max.size")
+    private int maxStatusListSize;
     @Inject
     private TokenValidationRulesRegistry registry;
     @Inject
@@ -70,6 +87,14 @@ public class DefaultServicesExtension implements ServiceExtension {
     private PrivateKeyResolver privateKeyResolver;
     @Inject
     private JtiValidationStore jwtValidationStore;
+    @Inject
+    private EventRouter eventRouter;
+    @Inject(required = false)
+    private EdcHttpClient httpClient;
+    @Inject(required = false)
+    private StatusListCacheStore statusListCacheStore;
+    @Inject
+    private Clock clock;
 
     @Override
     public String name() {
@@ -118,12 +143,27 @@ public class DefaultServicesExtension implements ServiceExtension {
     public RevocationServiceRegistry createRevocationListService(ServiceExtensionContext context) {
         if (revocationService == null) {
             revocationService = new RevocationServiceRegistryImpl(context.getMonitor());
-            revocationService.addService(StatusList2021Status.TYPE, new StatusList2021RevocationService(typeManager.getMapper(), revocationCacheValidity));
-            revocationService.addService(BitstringStatusListStatus.TYPE, new BitstringStatusListRevocationService(typeManager.getMapper(), revocationCacheValidity));
+            if (httpClient != null) {
+                var cache = createStatusListCache(context);
+                revocationService.addService(StatusList2021Status.TYPE, new CachingRevocationListService(StatusList2021Status.TYPE, cache));
+                revocationService.addService(BitstringStatusListStatus.TYPE, new CachingRevocationListService(BitstringStatusListStatus.TYPE, cache));
+            } else {
+                revocationService.addService(StatusList2021Status.TYPE, new StatusList2021RevocationService(typeManager.getMapper(), revocationCacheValidity));
+                revocationService.addService(BitstringStatusListStatus.TYPE, new BitstringStatusListRevocationService(typeManager.getMapper(), revocationCacheValidity));
+            }
         }
         return revocationService;
     }
 
+    private StatusListCache createStatusListCache(ServiceExtensionContext context) {
+        var monitor = context.getMonitor().withPrefix("StatusListCache");
+        if (persistentRevocationCache && statusListCacheStore == null) {
+            monitor.warning("Persistent status list caching is enabled, but no StatusListCacheStore is available. Status lists are only cached in memory.");
+        }
+        var store = persistentRevocationCache ? statusListCacheStore : null;
+        return new StatusListCache(httpClient, typeManager.getMapper(), store, clock, revocationCacheValidity, maxStatusListSize, monitor);
+    }
+
     @Provider(isDefault = true)
     public SignatureSuiteRegistry createSignatureSuiteRegistry() {
         return new InMemorySignatureSuiteRegistry();
@@ -133,4 +173,9 @@ public class DefaultServicesExtension implements ServiceExtension {
     public JwsSignerProvider defaultSignerProvider() {
         return new DefaultJwsSignerProvider(privateKeyResolver);
     }
+
+    @Provider(isDefault = true)
+    public ClusterEventRouter createLocalClusterEventRouter() {
+        return new LocalClusterEventRouter(eventRouter);
+    }
 }
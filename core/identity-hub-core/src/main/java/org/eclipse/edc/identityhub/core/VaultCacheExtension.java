@@ -0,0 +1,98 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.core;
+
+import org.eclipse.edc.identityhub.core.vault.CachingVault;
+import org.eclipse.edc.identityhub.spi.cluster.ClusterEventRouter;
+import org.eclipse.edc.identityhub.spi.keypair.events.KeyPairRevoked;
+import org.eclipse.edc.identityhub.spi.keypair.events.KeyPairRotated;
+import org.eclipse.edc.identityhub.spi.participantcontext.events.ParticipantContextApiTokenRegenerated;
+import org.eclipse.edc.identityhub.spi.participantcontext.events.ParticipantContextDeleting;
+import org.eclipse.edc.runtime.metamodel.annotation.Extension;
+import org.eclipse.edc.runtime.metamodel.annotation.Inject;
+import org.eclipse.edc.runtime.metamodel.annotation.Provides;
+import org.eclipse.edc.runtime.metamodel.annotation.Setting;
+import org.eclipse.edc.spi.security.Vault;
+import org.eclipse.edc.spi.system.ServiceExtension;
+import org.eclipse.edc.spi.system.ServiceExtensionContext;
+
+import java.time.Clock;
+import java.time.Duration;
+
+import static org.eclipse.edc.identityhub.core.VaultCacheExtension.NAME;
+
+/**
+ * Decorates the {@link Vault} with a {@link CachingVault}, if a cache TTL is configured. The extension declares that it
+ * provides the {@link Vault}, so that it is initialized before all extensions that use it.
+ */
+@Extension(value = NAME)
+@Provides(Vault.class)
+public class VaultCacheExtension implements ServiceExtension {
+    public static final String NAME = "IdentityHub Vault Cache Extension";
+
+    @Setting(description = "Time (in milliseconds) for which resolved secrets are cached. Cached secrets stay in memory for up to this time, in addition to " +
+            "the copies that callers of the vault hold. Configuring a number <=0 disables the cache.",
+            defaultValue = "0", key = "edc.iam.vault.cache.ttl")
+    private long ttl;
+    @Setting(description = "Maximum number of cached secrets. If exceeded, the least recently used secret is evicted.",
+            defaultValue = "1000", key = "edc.iam.vault.cache.size", min = 1)
+    private int maxSize;
+
+    @Inject
+    private Vault vault;
+    @Inject
+    private Clock clock;
+    private CachingVault cachingVault;
+    private ServiceExtensionContext context;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public void initialize(ServiceExtensionContext context) {
+        this.context = context;
+        if (ttl <= 0) {
+            return;
+        }
+        cachingVault = new CachingVault(vault, clock, Duration.ofMillis(ttl), maxSize);
+        context.registerService(Vault.class, cachingVault);
+    }
+
+    @Override
+    public void start() {
+        if (cachingVault == null) {
+            return;
+        }
+        // the cluster event router is looked up rather than injected, because its provider depends on the vault
+        var clusterEventRouter = context.getService(ClusterEventRouter.class, true);
+        if (clusterEventRouter != null) {
+            clusterEventRouter.registerSubscriber(KeyPairRotated.class, cachingVault);
+            clusterEventRouter.registerSubscriber(KeyPairRevoked.class, cachingVault);
+            clusterEventRouter.registerSubscriber(ParticipantContextApiTokenRegenerated.class, cachingVault);
+            clusterEventRouter.registerSubscriber(ParticipantContextDeleting.class, cachingVault);
+        } else {
+            context.getMonitor().warning("No ClusterEventRouter is available, secrets that change on other nodes are only refreshed after the cache TTL.");
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        if (cachingVault != null) {
+            cachingVault.invalidateAll();
+        }
+    }
+}
@@ -131,6 +131,8 @@ public class CredentialQueryResolverImpl implements CredentialQueryResolver {
             monitor.warning("Credential '%s' is expired.".formatted(credential.getId()));
             return false;
         }
+        // presentations are checked on the caller's thread with the full validity rules of the revocation services. The batched
+        // status checks of the CredentialStatusCheckService are meant for the watchdog only.
         var credentialStatus = credential.getCredentialStatus();
         var revocationResult = (credentialStatus == null || credentialStatus.isEmpty()) ? Result.success() : revocationServiceRegistry.checkValidity(credential);
         if (revocationResult.failed()) {
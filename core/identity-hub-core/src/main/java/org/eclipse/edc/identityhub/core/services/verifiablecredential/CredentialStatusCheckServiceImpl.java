@@ -14,6 +14,7 @@
 
 package org.eclipse.edc.identityhub.core.services.verifiablecredential;
 
+import org.eclipse.edc.iam.verifiablecredentials.spi.model.CredentialStatus;
 import org.eclipse.edc.iam.verifiablecredentials.spi.model.RevocationServiceRegistry;
 import org.eclipse.edc.identityhub.spi.verifiablecredentials.CredentialStatusCheckService;
 import org.eclipse.edc.identityhub.spi.verifiablecredentials.model.VcStatus;
@@ -23,21 +24,45 @@ import org.eclipse.edc.spi.result.Result;
 import org.jetbrains.annotations.Nullable;
 
 import java.time.Clock;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
 
 import static org.eclipse.edc.spi.result.Result.failure;
 import static org.eclipse.edc.spi.result.Result.success;
 
-
+/**
+ * Default implementation of the {@link CredentialStatusCheckService}.
+ * <p>
+ * Batch checks group the credentials by the status list(s) they reference. The groups are checked concurrently on the given
+ * executor, and within a group the credentials are checked one after the other. This way every distinct status list is fetched
+ * only once per batch: the revocation services cache fetched status lists, so all but the first credential of a group are
+ * served from that cache. Unless an executor is given, the groups are checked on the caller's thread. Callers that check many
+ * credentials in the background pass their own executor to check the groups concurrently.
+ */
 public class CredentialStatusCheckServiceImpl implements CredentialStatusCheckService {
     private static final String SUSPENSION = "suspension";
     private static final String REVOCATION = "revocation";
+    private static final String STATUS_LIST_CREDENTIAL = "statusListCredential";
     private final RevocationServiceRegistry revocationServiceRegistry;
     private final Clock clock;
+    private final Executor executor;
 
 
     public CredentialStatusCheckServiceImpl(RevocationServiceRegistry revocationServiceRegistry, Clock clock) {
+        this(revocationServiceRegistry, clock, Runnable::run);
+    }
+
+    public CredentialStatusCheckServiceImpl(RevocationServiceRegistry revocationServiceRegistry, Clock clock, Executor executor) {
         this.revocationServiceRegistry = revocationServiceRegistry;
         this.clock = clock;
+        this.executor = executor;
     }
 
     @Override
@@ -54,10 +79,12 @@ public class CredentialStatusCheckServiceImpl implements CredentialStatusCheckSe
         }
 
         try {
-            if (isRevoked(resource)) {
+            // the revocation status is fetched only once, and evaluated for both purposes
+            var revocationStatus = fetchRevocationStatus(resource);
+            if (REVOCATION.equalsIgnoreCase(revocationStatus)) {
                 return success(VcStatus.REVOKED); //irreversible, cannot be overwritten
             }
-            if (isSuspended(resource)) {
+            if (SUSPENSION.equalsIgnoreCase(revocationStatus)) {
                 targetStatus = VcStatus.SUSPENDED;
             }
 
@@ -67,6 +94,71 @@ public class CredentialStatusCheckServiceImpl implements CredentialStatusCheckSe
         return success(targetStatus);
     }
 
+    @Override
+    public Map<String, Result<VcStatus>> checkStatuses(Collection<VerifiableCredentialResource> resources) {
+        return checkStatuses(resources, executor);
+    }
+
+    @Override
+    public Map<String, Result<VcStatus>> checkStatuses(Collection<VerifiableCredentialResource> resources, Executor statusListExecutor) {
+        var groups = resources.stream()
+                .collect(Collectors.groupingBy(this::statusListKey, LinkedHashMap::new, Collectors.toList()));
+
+        var futures = groups.values().stream()
+                .map(group -> CompletableFuture.supplyAsync(() -> checkSequentially(group), statusListExecutor))
+                .toList();
+
+        var results = new HashMap<String, Result<VcStatus>>();
+        futures.forEach(future -> results.putAll(future.join()));
+
+        var ordered = new LinkedHashMap<String, Result<VcStatus>>();
+        resources.forEach(resource -> ordered.put(resource.getId(), results.get(resource.getId())));
+        return ordered;
+    }
+
+    private Map<String, Result<VcStatus>> checkSequentially(List<VerifiableCredentialResource> group) {
+        var results = new HashMap<String, Result<VcStatus>>();
+        for (var resource : group) {
+            try {
+                results.put(resource.getId(), checkStatus(resource));
+            } catch (RuntimeException ex) {
+                results.put(resource.getId(), failure(ex.getMessage()));
+            }
+        }
+        return results;
+    }
+
+    // identifies the status list(s) a credential references, credentials without a status share the empty key
+    private String statusListKey(VerifiableCredentialResource resource) {
+        var cred = resource.getVerifiableCredential().credential();
+        if (cred == null || cred.getCredentialStatus() == null) {
+            return "";
+        }
+        return cred.getCredentialStatus().stream()
+                .map(this::statusListUrl)
+                .filter(Objects::nonNull)
+                .sorted()
+                .distinct()
+                .collect(Collectors.joining(" "));
+    }
+
+    @Nullable
+    private String statusListUrl(CredentialStatus status) {
+        var properties = status.additionalProperties();
+        if (properties != null) {
+            // the property may be compacted or expanded to a full IRI, depending on how the credential was parsed
+            var url = properties.entrySet().stream()
+                    .filter(e -> e.getKey().endsWith(STATUS_LIST_CREDENTIAL) && e.getValue() != null)
+                    .map(e -> e.getValue().toString())
+                    .findFirst();
+            if (url.isPresent()) {
+                return url.get();
+            }
+        }
+        // status entry IDs conventionally are the URL of the status list, with the index as fragment
+        return status.id() != null ? status.id().split("#")[0] : null;
+    }
+
     // returns true if the expiration date is not null and is before NOW
     private boolean isExpired(VerifiableCredentialResource resource) {
         var cred = resource.getVerifiableCredential().credential();
@@ -91,16 +183,6 @@ public class CredentialStatusCheckServiceImpl implements CredentialStatusCheckSe
         return cred.getIssuanceDate().isAfter(now);
     }
 
-    // returns true if the revocation service returns "suspension"
-    private boolean isSuspended(VerifiableCredentialResource resource) {
-        return SUSPENSION.equalsIgnoreCase(fetchRevocationStatus(resource));
-    }
-
-    // returns true if the revocation service returns "revocation"
-    private boolean isRevoked(VerifiableCredentialResource resource) {
-        return REVOCATION.equalsIgnoreCase(fetchRevocationStatus(resource));
-    }
-
     @Nullable
     private String fetchRevocationStatus(VerifiableCredentialResource resource) {
         var cred = resource.getVerifiableCredential().credential();
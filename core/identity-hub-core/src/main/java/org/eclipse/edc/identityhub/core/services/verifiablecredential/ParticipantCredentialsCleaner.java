@@ -0,0 +1,50 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.core.services.verifiablecredential;
+
+import org.eclipse.edc.identityhub.spi.participantcontext.events.ParticipantContextDeleted;
+import org.eclipse.edc.identityhub.spi.verifiablecredentials.store.CredentialStore;
+import org.eclipse.edc.spi.event.Event;
+import org.eclipse.edc.spi.event.EventEnvelope;
+import org.eclipse.edc.spi.event.EventSubscriber;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.transaction.spi.TransactionContext;
+
+/**
+ * Hard-deletes all credentials of a participant context once it is deleted, with one statement regardless of the number of
+ * credentials.
+ */
+public class ParticipantCredentialsCleaner implements EventSubscriber {
+    private final CredentialStore credentialStore;
+    private final TransactionContext transactionContext;
+    private final Monitor monitor;
+
+    public ParticipantCredentialsCleaner(CredentialStore credentialStore, TransactionContext transactionContext, Monitor monitor) {
+        this.credentialStore = credentialStore;
+        this.transactionContext = transactionContext;
+        this.monitor = monitor;
+    }
+
+    @Override
+    public <E extends Event> void on(EventEnvelope<E> eventEnvelope) {
+        var payload = eventEnvelope.getPayload();
+        if (payload instanceof ParticipantContextDeleted deleted) {
+            transactionContext.execute(() -> credentialStore.deleteByParticipantContextId(deleted.getParticipantContextId())
+                    .onFailure(f -> monitor.warning("Removing credentials from a deleted ParticipantContext failed: %s".formatted(f.getFailureDetail()))));
+        } else {
+            monitor.warning("Received event with unexpected payload type: %s".formatted(payload.getClass()));
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.core.vault;
+
+import org.eclipse.edc.identityhub.cache.TtlCache;
+import org.eclipse.edc.identityhub.spi.keypair.events.KeyPairEvent;
+import org.eclipse.edc.identityhub.spi.participantcontext.events.ParticipantContextApiTokenRegenerated;
+import org.eclipse.edc.identityhub.spi.participantcontext.events.ParticipantContextDeleting;
+import org.eclipse.edc.spi.event.Event;
+import org.eclipse.edc.spi.event.EventEnvelope;
+import org.eclipse.edc.spi.event.EventSubscriber;
+import org.eclipse.edc.spi.result.Result;
+import org.eclipse.edc.spi.security.Vault;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * {@link Vault} decorator that caches resolved secrets, so that hot paths like API authentication, signing presentations
+ * and activating key pairs do not need a roundtrip to a remote vault every time.
+ * <p>
+ * Every secret expires individually after the TTL, and if more than the maximum number of secrets are cached, the least
+ * recently used one is evicted. Secrets that do not exist are not cached.
+ * <p>
+ * Cached secrets are held as byte arrays, which are zeroed when the secret expires, is evicted or is invalidated. This only
+ * bounds how long the cache itself holds a secret. It does not keep secrets out of the heap: {@link Vault#resolveSecret(String)}
+ * returns a {@link String}, so every resolution, including every cache hit, creates a copy of the secret that cannot be
+ * zeroed and remains in memory until it is garbage collected. Compared to an uncached vault, a cached secret therefore
+ * additionally stays in memory for up to the TTL, e.g. in heap dumps.
+ * <p>
+ * Storing or deleting a secret through this vault invalidates it, which covers key rotation and API token regeneration on
+ * this node. When subscribed to key pair and participant context events of the cluster, secrets that were replaced or
+ * deleted on other nodes are invalidated as well. All other changes to secrets on other nodes become visible after the TTL.
+ */
+public class CachingVault implements Vault, EventSubscriber {
+    private final Vault delegate;
+    private final TtlCache<String, CachedSecret> cache;
+
+    /**
+     * Creates a new caching vault.
+     *
+     * @param delegate the vault that actually holds the secrets
+     * @param ttl      how long a secret is cached after it was resolved
+     * @param maxSize  the maximum number of cached secrets
+     */
+    public CachingVault(Vault delegate, Clock clock, Duration ttl, int maxSize) {
+        this.delegate = delegate;
+        this.cache = new TtlCache<>(clock, ttl, maxSize, CachedSecret::clear);
+    }
+
+    @Override
+    public @Nullable String resolveSecret(String key) {
+        var cached = cache.get(key, alias -> {
+            var secret = delegate.resolveSecret(alias);
+            return secret != null ? new CachedSecret(secret) : null;
+        });
+        if (cached == null) {
+            return null;
+        }
+        var secret = cached.read();
+        // a secret that was cleared in the meantime has expired, was evicted or invalidated, and must be resolved again
+        return secret != null ? secret : delegate.resolveSecret(key);
+    }
+
+    @Override
+    public Result<Void> storeSecret(String key, String value) {
+        var result = delegate.storeSecret(key, value);
+        invalidate(key);
+        return result;
+    }
+
+    @Override
+    public Result<Void> deleteSecret(String key) {
+        var result = delegate.deleteSecret(key);
+        invalidate(key);
+        return result;
+    }
+
+    /**
+     * Removes the secret with the given alias from the cache, if it is cached.
+     */
+    public void invalidate(String key) {
+        cache.invalidate(key);
+    }
+
+    /**
+     * Removes all secrets from the cache.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * The number of cached secrets, c.f. {@link TtlCache#size()}.
+     */
+    public int size() {
+        return cache.size();
+    }
+
+    @Override
+    public <E extends Event> void on(EventEnvelope<E> event) {
+        var payload = event.getPayload();
+        if (payload instanceof KeyPairEvent keyPairEvent && keyPairEvent.getKeyPairResource() != null) {
+            var alias = keyPairEvent.getKeyPairResource().getPrivateKeyAlias();
+            if (alias != null) {
+                invalidate(alias);
+            }
+        } else if (payload instanceof ParticipantContextApiTokenRegenerated regenerated && regenerated.getApiTokenAlias() != null) {
+            invalidate(regenerated.getApiTokenAlias());
+        } else if (payload instanceof ParticipantContextDeleting deleting && deleting.getParticipantContext() != null) {
+            invalidate(deleting.getParticipantContext().getApiTokenAlias());
+        }
+    }
+
+    private static final class CachedSecret {
+        private final byte[] value;
+        private boolean cleared;
+
+        private CachedSecret(String value) {
+            this.value = value.getBytes(StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Returns a copy of the secret, which is owned by the caller and cannot be zeroed, see the class documentation.
+         *
+         * @return the secret, or null if it was cleared already.
+         */
+        private synchronized @Nullable String read() {
+            return cleared ? null : new String(value, StandardCharsets.UTF_8);
+        }
+
+        private synchronized void clear() {
+            cleared = true;
+            Arrays.fill(value, (byte) 0);
+        }
+    }
+}
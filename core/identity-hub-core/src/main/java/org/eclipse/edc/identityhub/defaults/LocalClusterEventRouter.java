@@ -0,0 +1,36 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.defaults;
+
+import org.eclipse.edc.identityhub.spi.cluster.ClusterEventRouter;
+import org.eclipse.edc.spi.event.Event;
+import org.eclipse.edc.spi.event.EventRouter;
+import org.eclipse.edc.spi.event.EventSubscriber;
+
+/**
+ * Default {@link ClusterEventRouter} for single-node deployments, which only delivers local events.
+ */
+public class LocalClusterEventRouter implements ClusterEventRouter {
+    private final EventRouter eventRouter;
+
+    public LocalClusterEventRouter(EventRouter eventRouter) {
+        this.eventRouter = eventRouter;
+    }
+
+    @Override
+    public <E extends Event> void registerSubscriber(Class<E> eventKind, EventSubscriber subscriber) {
+        eventRouter.registerSync(eventKind, subscriber);
+    }
+}
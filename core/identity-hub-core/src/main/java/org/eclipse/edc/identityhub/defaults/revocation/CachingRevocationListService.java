@@ -0,0 +1,149 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.defaults.revocation;
+
+import org.eclipse.edc.iam.verifiablecredentials.spi.model.CredentialStatus;
+import org.eclipse.edc.iam.verifiablecredentials.spi.model.RevocationListService;
+import org.eclipse.edc.iam.verifiablecredentials.spi.model.VerifiableCredential;
+import org.eclipse.edc.spi.result.Result;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static org.eclipse.edc.spi.result.Result.failure;
+import static org.eclipse.edc.spi.result.Result.success;
+
+/**
+ * {@link RevocationListService} for status list based credential status entries (StatusList2021 and BitstringStatusList),
+ * that looks up the status lists in the {@link StatusListCache}. Only single-bit status entries are supported.
+ */
+public class CachingRevocationListService implements RevocationListService {
+    private static final String STATUS_LIST_CREDENTIAL = "statusListCredential";
+    private static final String STATUS_LIST_INDEX = "statusListIndex";
+    private static final String STATUS_PURPOSE = "statusPurpose";
+    private static final String REVOCATION = "revocation";
+
+    private final String statusEntryType;
+    private final StatusListCache cache;
+
+    /**
+     * Creates a new service.
+     *
+     * @param statusEntryType the type of credential status entries this service handles, e.g. {@code StatusList2021Entry}
+     * @param cache           the status list cache
+     */
+    public CachingRevocationListService(String statusEntryType, StatusListCache cache) {
+        this.statusEntryType = statusEntryType;
+        this.cache = cache;
+    }
+
+    @Override
+    public Result<Void> checkValidity(CredentialStatus status) {
+        var isSet = isSet(status);
+        if (isSet.failed()) {
+            return failure(isSet.getFailureMessages());
+        }
+        return isSet.getContent() ?
+                failure("Credential status is '%s', status at index %s is '1'".formatted(property(status, STATUS_PURPOSE), property(status, STATUS_LIST_INDEX))) :
+                success();
+    }
+
+    @Override
+    public Result<String> getStatusPurpose(VerifiableCredential credential) {
+        var purposes = new ArrayList<String>();
+        for (var status : credential.getCredentialStatus()) {
+            if (!statusEntryType.equals(status.type())) {
+                continue;
+            }
+            var isSet = isSet(status);
+            if (isSet.failed()) {
+                return failure(isSet.getFailureMessages());
+            }
+            if (isSet.getContent()) {
+                purposes.add(purposeOf(status));
+            }
+        }
+        if (purposes.isEmpty()) {
+            return success(null);
+        }
+        // a revocation is irreversible, so it takes precedence over any other status
+        return success(purposes.contains(REVOCATION) ? REVOCATION : purposes.get(0));
+    }
+
+    private Result<Boolean> isSet(CredentialStatus status) {
+        var url = property(status, STATUS_LIST_CREDENTIAL);
+        var index = property(status, STATUS_LIST_INDEX);
+        if (url == null || index == null) {
+            return failure("Credential status '%s' does not reference a status list index".formatted(status.id()));
+        }
+        int bit;
+        try {
+            bit = Integer.parseInt(index);
+        } catch (NumberFormatException e) {
+            return failure("Invalid status list index '%s' in credential status '%s'".formatted(index, status.id()));
+        }
+        var list = cache.get(url);
+        if (list.failed()) {
+            return failure(list.getFailureMessages());
+        }
+        var length = list.getContent().length();
+        if (bit < 0 || bit >= length) {
+            return failure("Status list index %d in credential status '%s' is out of range, status list '%s' has %d entries".formatted(bit, status.id(), url, length));
+        }
+        return success(list.getContent().statusBits().get(bit));
+    }
+
+    private String purposeOf(CredentialStatus status) {
+        var purpose = property(status, STATUS_PURPOSE);
+        if (purpose == null) {
+            var url = property(status, STATUS_LIST_CREDENTIAL);
+            purpose = cache.get(url).map(list -> list.statusPurpose()).orElse(f -> null);
+        }
+        return purpose;
+    }
+
+    /**
+     * Returns the value of a property of the status entry. Depending on how the credential was parsed, the name of the property
+     * may be expanded to a full IRI, and the value may be wrapped in a JSON-LD value object.
+     */
+    @Nullable
+    private String property(CredentialStatus status, String name) {
+        var properties = status.additionalProperties();
+        if (properties == null) {
+            return null;
+        }
+        return properties.entrySet().stream()
+                .filter(e -> e.getKey().equals(name) || e.getKey().endsWith("#" + name) || e.getKey().endsWith("/" + name))
+                .map(e -> unwrap(e.getValue()))
+                .filter(Objects::nonNull)
+                .findFirst()
+                .orElse(null);
+    }
+
+    @Nullable
+    private String unwrap(Object value) {
+        if (value instanceof List<?> list) {
+            return list.isEmpty() ? null : unwrap(list.get(0));
+        }
+        if (value instanceof Map<?, ?> map) {
+            var inner = map.containsKey("@value") ? map.get("@value") : map.get("@id");
+            return inner != null ? unwrap(inner) : null;
+        }
+        return value != null ? value.toString() : null;
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.defaults.revocation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import okhttp3.Request;
+import org.eclipse.edc.http.spi.EdcHttpClient;
+import org.eclipse.edc.identityhub.spi.verifiablecredentials.store.CachedStatusList;
+import org.eclipse.edc.identityhub.spi.verifiablecredentials.store.StatusListCacheStore;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.result.Result;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.eclipse.edc.spi.result.Result.failure;
+import static org.eclipse.edc.spi.result.Result.success;
+
+/**
+ * Cache for decoded status list credentials, shared by all revocation list services of the IdentityHub.
+ * <ul>
+ *     <li>entries are kept as {@link java.util.BitSet}s instead of the (potentially multi-megabyte) credentials</li>
+ *     <li>once an entry is older than the validity period, it is revalidated with a conditional GET ({@code If-None-Match},
+ *     {@code If-Modified-Since}). If the list has not changed, the issuer only answers with {@code 304 Not Modified}, and the
+ *     list is neither downloaded nor decoded again</li>
+ *     <li>concurrent requests for the same list are collapsed into one fetch (single-flight)</li>
+ *     <li>responses and decompressed bitstrings that exceed the maximum list size are rejected, so that an issuer cannot
+ *     exhaust the memory of the IdentityHub</li>
+ *     <li>if a {@link StatusListCacheStore} is configured, entries are persisted, so that the cache survives restarts and is
+ *     shared by all instances that use the same database</li>
+ * </ul>
+ */
+public class StatusListCache {
+    private final EdcHttpClient httpClient;
+    private final StatusListCredentialDecoder decoder;
+    private final StatusListCacheStore store;
+    private final Clock clock;
+    private final long validityMillis;
+    private final int maxListSize;
+    private final Monitor monitor;
+    private final Map<String, CachedStatusList> entries = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Result<CachedStatusList>>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new cache.
+     *
+     * @param httpClient     the client to fetch status list credentials with
+     * @param objectMapper   the mapper to parse status list credentials with
+     * @param store          the store to persist entries in, or null to only keep them in memory
+     * @param clock          the clock
+     * @param validityMillis for how long an entry is used without revalidating it
+     * @param maxListSize    the maximum size in bytes of a status list credential, and of the bitstring it contains
+     * @param monitor        the monitor
+     */
+    public StatusListCache(EdcHttpClient httpClient, ObjectMapper objectMapper, @Nullable StatusListCacheStore store, Clock clock,
+                           long validityMillis, int maxListSize, Monitor monitor) {
+        this.httpClient = httpClient;
+        this.decoder = new StatusListCredentialDecoder(objectMapper, maxListSize);
+        this.store = store;
+        this.clock = clock;
+        this.validityMillis = validityMillis;
+        this.maxListSize = maxListSize;
+        this.monitor = monitor;
+    }
+
+    /**
+     * Returns the status list that is published at the given URL, fetching or revalidating it if necessary.
+     */
+    public Result<CachedStatusList> get(String url) {
+        var entry = entries.get(url);
+        if (entry != null && isFresh(entry)) {
+            return success(entry);
+        }
+
+        var flight = new CompletableFuture<Result<CachedStatusList>>();
+        var existing = inFlight.putIfAbsent(url, flight);
+        if (existing != null) {
+            return existing.join();
+        }
+        try {
+            var result = load(url);
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            var result = Result.<CachedStatusList>failure("Error fetching status list '%s': %s".formatted(url, e.getMessage()));
+            flight.complete(result);
+            return result;
+        } finally {
+            inFlight.remove(url, flight);
+        }
+    }
+
+    private Result<CachedStatusList> load(String url) {
+        var cached = entries.get(url);
+        if (cached == null && store != null) {
+            cached = lookup(url);
+        }
+        if (cached != null && isFresh(cached)) {
+            // refreshed by another instance, or by a flight that completed since the entry was checked
+            entries.put(url, cached);
+            return success(cached);
+        }
+
+        var result = fetch(url, cached);
+        if (result.succeeded()) {
+            var list = result.getContent();
+            entries.put(url, list);
+            persist(list);
+        }
+        return result;
+    }
+
+    private Result<CachedStatusList> fetch(String url, @Nullable CachedStatusList cached) {
+        var request = new Request.Builder().url(url).get();
+        if (cached != null) {
+            if (cached.etag() != null) {
+                request.header("If-None-Match", cached.etag());
+            }
+            if (cached.lastModified() != null) {
+                request.header("If-Modified-Since", cached.lastModified());
+            }
+        }
+
+        try (var response = httpClient.execute(request.build())) {
+            var now = clock.millis();
+            if (response.code() == 304 && cached != null) {
+                monitor.debug(() -> "Status list '%s' was not modified".formatted(url));
+                return success(cached.revalidatedAt(now));
+            }
+            var body = response.body();
+            if (!response.isSuccessful() || body == null) {
+                return failure("Error fetching status list '%s': HTTP %d".formatted(url, response.code()));
+            }
+            if (body.contentLength() > maxListSize) {
+                return failure("Status list '%s' exceeds the maximum size of %d bytes".formatted(url, maxListSize));
+            }
+            // the Content-Length header is optional, so the body is read up to one byte more than allowed
+            byte[] content;
+            try (var stream = body.byteStream()) {
+                content = stream.readNBytes(maxListSize + 1);
+            }
+            if (content.length > maxListSize) {
+                return failure("Status list '%s' exceeds the maximum size of %d bytes".formatted(url, maxListSize));
+            }
+            return decoder.decode(url, new String(content, StandardCharsets.UTF_8), response.header("ETag"), response.header("Last-Modified"), now);
+        } catch (IOException e) {
+            return failure("Error fetching status list '%s': %s".formatted(url, e.getMessage()));
+        }
+    }
+
+    private CachedStatusList lookup(String url) {
+        try {
+            return store.findByUrl(url);
+        } catch (RuntimeException e) {
+            monitor.warning("Failed to load persisted status list '%s'".formatted(url), e);
+            return null;
+        }
+    }
+
+    private void persist(CachedStatusList list) {
+        if (store == null) {
+            return;
+        }
+        try {
+            store.save(list);
+        } catch (RuntimeException e) {
+            // the in-memory entry is still valid, persisting it is only an optimization
+            monitor.warning("Failed to persist status list '%s'".formatted(list.url()), e);
+        }
+    }
+
+    private boolean isFresh(CachedStatusList entry) {
+        return clock.millis() - entry.fetchedAt() < validityMillis;
+    }
+}
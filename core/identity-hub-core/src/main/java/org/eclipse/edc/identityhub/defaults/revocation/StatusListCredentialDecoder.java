@@ -0,0 +1,125 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.defaults.revocation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eclipse.edc.identityhub.spi.verifiablecredentials.store.CachedStatusList;
+import org.eclipse.edc.spi.result.Result;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.zip.GZIPInputStream;
+
+import static org.eclipse.edc.spi.result.Result.failure;
+import static org.eclipse.edc.spi.result.Result.success;
+
+/**
+ * Decodes status list credentials (StatusList2021 and BitstringStatusList) in JSON or JWT format. The GZIP-compressed,
+ * base64-encoded bitstring is decoded into a {@link BitSet}, which is far more compact than the credential itself.
+ * <p>
+ * Note that the signature of the status list credential is not verified.
+ */
+class StatusListCredentialDecoder {
+    private static final String MULTIBASE_BASE64URL_PREFIX = "u";
+    private final ObjectMapper objectMapper;
+    private final int maxListSize;
+
+    /**
+     * Creates a new decoder.
+     *
+     * @param objectMapper the mapper to parse status list credentials with
+     * @param maxListSize  the maximum size of a decompressed bitstring in bytes. Larger lists are rejected instead of being
+     *                     inflated into memory.
+     */
+    StatusListCredentialDecoder(ObjectMapper objectMapper, int maxListSize) {
+        this.objectMapper = objectMapper;
+        this.maxListSize = maxListSize;
+    }
+
+    /**
+     * Converts a bitstring as defined by the status list specifications, in which index 0 is the left-most bit of the first
+     * byte, into a {@link BitSet}.
+     */
+    static BitSet toBitSet(byte[] bitstring) {
+        var bits = new BitSet(bitstring.length * 8);
+        for (var i = 0; i < bitstring.length; i++) {
+            var value = bitstring[i] & 0xff;
+            if (value == 0) {
+                continue;
+            }
+            for (var j = 0; j < 8; j++) {
+                if ((value & (0x80 >>> j)) != 0) {
+                    bits.set(i * 8 + j);
+                }
+            }
+        }
+        return bits;
+    }
+
+    Result<CachedStatusList> decode(String url, String body, String etag, String lastModified, long fetchedAt) {
+        try {
+            var credential = parseCredential(body.trim());
+            if (credential == null) {
+                return failure("Status list credential '%s' is neither JSON nor a JWT".formatted(url));
+            }
+            var subject = credential.get("credentialSubject");
+            if (subject != null && subject.isArray()) {
+                subject = subject.isEmpty() ? null : subject.get(0);
+            }
+            if (subject == null || !subject.hasNonNull("encodedList")) {
+                return failure("Status list credential '%s' does not contain an encoded list".formatted(url));
+            }
+            var purpose = subject.get("statusPurpose");
+            var bitstring = gunzip(decodeBase64(subject.get("encodedList").asText()));
+            if (bitstring.length > maxListSize) {
+                return failure("Status list credential '%s' exceeds the maximum size of %d bytes".formatted(url, maxListSize));
+            }
+            return success(new CachedStatusList(url, etag, lastModified, fetchedAt, purpose != null && purpose.isTextual() ? purpose.asText() : null,
+                    toBitSet(bitstring), bitstring.length * 8));
+        } catch (IOException | IllegalArgumentException e) {
+            return failure("Error decoding status list credential '%s': %s".formatted(url, e.getMessage()));
+        }
+    }
+
+    private JsonNode parseCredential(String body) throws IOException {
+        if (body.startsWith("{")) {
+            return objectMapper.readTree(body);
+        }
+        var parts = body.split("\\.");
+        if (parts.length < 2) {
+            return null;
+        }
+        var payload = objectMapper.readTree(Base64.getUrlDecoder().decode(parts[1]));
+        // VC 1.1 JWTs wrap the credential in the "vc" claim, VC 2.0 JWTs contain the credential directly
+        return payload.has("vc") ? payload.get("vc") : payload;
+    }
+
+    private byte[] decodeBase64(String encodedList) {
+        // BitstringStatusList uses multibase base64url, StatusList2021 plain base64. Base64-encoded GZIP data always starts
+        // with "H4sI", so a leading 'u' can only be the multibase prefix
+        var encoded = encodedList.startsWith(MULTIBASE_BASE64URL_PREFIX) ? encodedList.substring(1) : encodedList;
+        return Base64.getUrlDecoder().decode(encoded.replace('+', '-').replace('/', '_').replace("=", ""));
+    }
+
+    private byte[] gunzip(byte[] compressed) throws IOException {
+        // reads at most one byte more than allowed, which is enough to detect that the list is too large
+        try (var stream = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return stream.readNBytes(maxListSize + 1);
+        }
+    }
+}
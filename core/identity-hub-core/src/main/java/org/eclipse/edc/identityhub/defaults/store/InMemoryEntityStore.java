@@ -14,6 +14,9 @@
 
 package org.eclipse.edc.identityhub.defaults.store;
 
+import org.eclipse.edc.identityhub.spi.participantcontext.model.ParticipantResource;
+import org.eclipse.edc.identityhub.spi.participantcontext.store.ComparisonOperators;
+import org.eclipse.edc.identityhub.spi.participantcontext.store.OptimisticLocking;
 import org.eclipse.edc.query.CriterionOperatorRegistryImpl;
 import org.eclipse.edc.spi.query.CriterionOperatorRegistry;
 import org.eclipse.edc.spi.query.QueryResolver;
@@ -33,7 +36,7 @@ import static org.eclipse.edc.spi.result.StoreResult.success;
 /**
  * Base class for in-mem entity stores, that implement basic CRUD operations.
  */
-abstract class InMemoryEntityStore<T> {
+abstract class InMemoryEntityStore<T extends ParticipantResource> {
     protected final Map<String, T> store = new HashMap<>();
     protected final ReentrantReadWriteLock lock = new ReentrantReadWriteLock(true);
     protected final QueryResolver<T> queryResolver;
@@ -41,6 +44,7 @@ abstract class InMemoryEntityStore<T> {
 
     protected InMemoryEntityStore() {
         criterionOperatorRegistry = CriterionOperatorRegistryImpl.ofDefaults();
+        ComparisonOperators.register(criterionOperatorRegistry);
         queryResolver = createQueryResolver();
     }
 
@@ -57,6 +61,7 @@ abstract class InMemoryEntityStore<T> {
             if (store.containsKey(id)) {
                 return alreadyExists("An entity with ID %s already exists".formatted(id));
             }
+            newObject.setVersion(1);
             store.put(id, newObject);
             return success(null);
         } finally {
@@ -82,18 +87,24 @@ abstract class InMemoryEntityStore<T> {
     }
 
     /**
-     * Replaces an existing entity with a new object.
+     * Replaces an existing entity with a new object, if the versions match.
      *
      * @param newObject the new entity
-     * @return failure if an object with the same ID was not found.
+     * @return failure if an object with the same ID was not found, or if it has a different version.
      */
     public StoreResult<Void> update(T newObject) {
         lock.writeLock().lock();
         try {
             var id = getId(newObject);
-            if (!store.containsKey(id)) {
+            var existing = store.get(id);
+            if (existing == null) {
                 return notFound("An entity with ID '%s' does not exist.".formatted(id));
             }
+            var expectedVersion = newObject.getVersion() == 0 ? existing.getVersion() : newObject.getVersion();
+            if (existing.getVersion() != expectedVersion) {
+                return OptimisticLocking.versionConflict("Entity", id);
+            }
+            newObject.setVersion(expectedVersion + 1);
             store.put(id, newObject);
             return success();
         } finally {
@@ -120,6 +131,23 @@ abstract class InMemoryEntityStore<T> {
         }
     }
 
+    /**
+     * Deletes all objects of the given participant context
+     *
+     * @param participantContextId The ID of the participant context.
+     * @return the number of deleted objects.
+     */
+    public StoreResult<Integer> deleteByParticipantContextId(String participantContextId) {
+        lock.writeLock().lock();
+        try {
+            var sizeBefore = store.size();
+            store.values().removeIf(entity -> participantContextId.equals(entity.getParticipantContextId()));
+            return success(sizeBefore - store.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
     protected abstract String getId(T newObject);
 
     protected abstract QueryResolver<T> createQueryResolver();
@@ -14,7 +14,9 @@
 
 package org.eclipse.edc.identityhub.core.services.verifiablecredential;
 
+import org.assertj.core.api.Assertions;
 import org.eclipse.edc.iam.verifiablecredentials.spi.model.CredentialFormat;
+import org.eclipse.edc.iam.verifiablecredentials.spi.model.CredentialStatus;
 import org.eclipse.edc.iam.verifiablecredentials.spi.model.CredentialSubject;
 import org.eclipse.edc.iam.verifiablecredentials.spi.model.Issuer;
 import org.eclipse.edc.iam.verifiablecredentials.spi.model.RevocationServiceRegistry;
@@ -29,12 +31,17 @@ import org.junit.jupiter.api.Test;
 import java.time.Clock;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.eclipse.edc.junit.assertions.AbstractResultAssert.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
@@ -251,6 +258,54 @@ class CredentialStatusCheckServiceImplTest {
         verifyNoInteractions(revocationServiceRegistry);
     }
 
+    @Test
+    void checkStatus_fetchesRevocationStatusOnce() {
+        when(revocationServiceRegistry.getRevocationStatus(any())).thenReturn(Result.success("suspension"));
+        var credential = createCredentialBuilder(createVerifiableCredential().build()).build();
+
+        assertThat(service.checkStatus(credential)).isSucceeded().isEqualTo(VcStatus.SUSPENDED);
+        verify(revocationServiceRegistry, times(1)).getRevocationStatus(any());
+    }
+
+    @Test
+    void checkStatuses_groupsByStatusList() {
+        var tasks = new AtomicInteger();
+        var service = new CredentialStatusCheckServiceImpl(revocationServiceRegistry, clock, runnable -> {
+            tasks.incrementAndGet();
+            runnable.run();
+        });
+        when(revocationServiceRegistry.getRevocationStatus(argThat(vc -> vc.getId().equals("did:web:revoked"))))
+                .thenReturn(Result.success("revocation"));
+        var list1Revoked = createCredentialBuilder(createVerifiableCredential().id("did:web:revoked").credentialStatus(statusEntry("https://example.com/list1", 1)).build()).build();
+        var list1 = createCredentialBuilder(createVerifiableCredential().credentialStatus(statusEntry("https://example.com/list1", 2)).build()).build();
+        var list2 = createCredentialBuilder(createVerifiableCredential().credentialStatus(statusEntry("https://example.com/list2", 1)).build()).build();
+        var noStatus = createCredentialBuilder(createVerifiableCredential().build()).build();
+
+        var results = service.checkStatuses(List.of(list1Revoked, list2, noStatus, list1));
+
+        assertThat(tasks.get()).isEqualTo(3);
+        Assertions.assertThat(results).containsOnlyKeys(list1Revoked.getId(), list2.getId(), noStatus.getId(), list1.getId());
+        Assertions.assertThat(results.keySet()).containsExactly(list1Revoked.getId(), list2.getId(), noStatus.getId(), list1.getId());
+        assertThat(results.get(list1Revoked.getId())).isSucceeded().isEqualTo(VcStatus.REVOKED);
+        assertThat(results.get(list1.getId())).isSucceeded().isEqualTo(VcStatus.ISSUED);
+        assertThat(results.get(list2.getId())).isSucceeded().isEqualTo(VcStatus.ISSUED);
+    }
+
+    @Test
+    void checkStatuses_whenCheckFails_shouldReturnFailureForCredential() {
+        when(revocationServiceRegistry.getRevocationStatus(any())).thenReturn(Result.failure("failed"));
+        var credential = createCredentialBuilder(createVerifiableCredential().credentialStatus(statusEntry("https://example.com/list1", 1)).build()).build();
+
+        var results = service.checkStatuses(List.of(credential));
+
+        assertThat(results.get(credential.getId())).isFailed().detail().isEqualTo("failed");
+    }
+
+    private CredentialStatus statusEntry(String statusListUrl, int index) {
+        return new CredentialStatus(statusListUrl + "#" + index, "StatusList2021Entry",
+                Map.of("statusListCredential", statusListUrl, "statusPurpose", "revocation", "statusListIndex", index));
+    }
+
     private VerifiableCredentialResource.Builder createCredentialBuilder(VerifiableCredential credential) {
 
         return VerifiableCredentialResource.Builder.newInstance()
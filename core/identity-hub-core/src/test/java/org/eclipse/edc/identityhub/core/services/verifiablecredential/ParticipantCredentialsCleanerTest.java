@@ -0,0 +1,65 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.core.services.verifiablecredential;
+
+import org.eclipse.edc.identityhub.spi.participantcontext.events.ParticipantContextDeleted;
+import org.eclipse.edc.identityhub.spi.verifiablecredentials.store.CredentialStore;
+import org.eclipse.edc.spi.event.Event;
+import org.eclipse.edc.spi.event.EventEnvelope;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.result.StoreResult;
+import org.eclipse.edc.transaction.spi.NoopTransactionContext;
+import org.junit.jupiter.api.Test;
+
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+class ParticipantCredentialsCleanerTest {
+    private final CredentialStore credentialStore = mock();
+    private final Monitor monitor = mock();
+    private final ParticipantCredentialsCleaner cleaner = new ParticipantCredentialsCleaner(credentialStore, new NoopTransactionContext(), monitor);
+
+    @Test
+    void onParticipantContextDeleted_shouldDeleteAllCredentials() {
+        when(credentialStore.deleteByParticipantContextId("test-participant")).thenReturn(StoreResult.success(3));
+
+        cleaner.on(envelope(ParticipantContextDeleted.Builder.newInstance().participantContextId("test-participant").build()));
+
+        verify(credentialStore).deleteByParticipantContextId("test-participant");
+        verifyNoMoreInteractions(credentialStore);
+        verifyNoInteractions(monitor);
+    }
+
+    @Test
+    void onParticipantContextDeleted_whenDeleteFails_shouldLogWarning() {
+        when(credentialStore.deleteByParticipantContextId("test-participant")).thenReturn(StoreResult.generalError("test failure"));
+
+        cleaner.on(envelope(ParticipantContextDeleted.Builder.newInstance().participantContextId("test-participant").build()));
+
+        verify(monitor).warning(startsWith("Removing credentials from a deleted ParticipantContext failed"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private EventEnvelope<Event> envelope(Event event) {
+        return EventEnvelope.Builder.newInstance()
+                .at(System.currentTimeMillis())
+                .payload(event)
+                .build();
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.core.vault;
+
+import org.eclipse.edc.identityhub.spi.keypair.events.KeyPairRevoked;
+import org.eclipse.edc.identityhub.spi.keypair.model.KeyPairResource;
+import org.eclipse.edc.identityhub.spi.participantcontext.events.ParticipantContextApiTokenRegenerated;
+import org.eclipse.edc.spi.event.Event;
+import org.eclipse.edc.spi.event.EventEnvelope;
+import org.eclipse.edc.spi.result.Result;
+import org.eclipse.edc.spi.security.Vault;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CachingVaultTest {
+
+    private final InMemoryVault delegate = new InMemoryVault();
+    private final Clock clock = mock();
+    private final CachingVault vault = new CachingVault(delegate, clock, Duration.ofSeconds(10), 2);
+
+    @BeforeEach
+    void setUp() {
+        when(clock.millis()).thenReturn(1000L);
+        delegate.storeSecret("alias-1", "secret-1");
+        delegate.storeSecret("alias-2", "secret-2");
+        delegate.storeSecret("alias-3", "secret-3");
+    }
+
+    @Test
+    void resolveSecret_shouldCache() {
+        assertThat(vault.resolveSecret("alias-1")).isEqualTo("secret-1");
+        assertThat(vault.resolveSecret("alias-1")).isEqualTo("secret-1");
+
+        assertThat(delegate.resolved).isEqualTo(1);
+    }
+
+    @Test
+    void resolveSecret_whenNotExists_shouldNotCache() {
+        assertThat(vault.resolveSecret("not-exist")).isNull();
+        delegate.storeSecret("not-exist", "now-it-does");
+
+        assertThat(vault.resolveSecret("not-exist")).isEqualTo("now-it-does");
+        assertThat(delegate.resolved).isEqualTo(2);
+    }
+
+    @Test
+    void resolveSecret_whenExpired_shouldResolveAgain() {
+        vault.resolveSecret("alias-1");
+        delegate.storeSecret("alias-1", "secret-1-new");
+
+        when(clock.millis()).thenReturn(1000L + 9_999);
+        assertThat(vault.resolveSecret("alias-1")).isEqualTo("secret-1");
+        when(clock.millis()).thenReturn(1000L + 10_000);
+        assertThat(vault.resolveSecret("alias-1")).isEqualTo("secret-1-new");
+        assertThat(delegate.resolved).isEqualTo(2);
+    }
+
+    @Test
+    void resolveSecret_whenMaxSizeExceeded_shouldEvictLeastRecentlyUsed() {
+        vault.resolveSecret("alias-1");
+        vault.resolveSecret("alias-2");
+        vault.resolveSecret("alias-1");
+        vault.resolveSecret("alias-3");
+
+        assertThat(vault.size()).isEqualTo(2);
+        vault.resolveSecret("alias-1");
+        assertThat(delegate.resolved).isEqualTo(3);
+        vault.resolveSecret("alias-2");
+        assertThat(delegate.resolved).isEqualTo(4);
+    }
+
+    @Test
+    void storeSecret_shouldInvalidate() {
+        vault.resolveSecret("alias-1");
+
+        vault.storeSecret("alias-1", "secret-1-new");
+
+        assertThat(vault.resolveSecret("alias-1")).isEqualTo("secret-1-new");
+    }
+
+    @Test
+    void deleteSecret_shouldInvalidate() {
+        vault.resolveSecret("alias-1");
+
+        vault.deleteSecret("alias-1");
+
+        assertThat(vault.resolveSecret("alias-1")).isNull();
+    }
+
+    @Test
+    void onKeyPairEvent_shouldInvalidatePrivateKey() {
+        vault.resolveSecret("alias-1");
+        vault.resolveSecret("alias-2");
+        delegate.deleteSecret("alias-1");
+
+        vault.on(envelope(KeyPairRevoked.Builder.newInstance()
+                .participantContextId("test-participant")
+                .keyId("key-1")
+                .keyPairResource(KeyPairResource.Builder.newInstance().id("id-1").privateKeyAlias("alias-1").build())
+                .build()));
+
+        assertThat(vault.resolveSecret("alias-1")).isNull();
+        assertThat(vault.resolveSecret("alias-2")).isEqualTo("secret-2");
+        assertThat(vault.size()).isEqualTo(1);
+    }
+
+    @Test
+    void onApiTokenRegenerated_shouldInvalidateApiToken() {
+        vault.resolveSecret("alias-1");
+        delegate.storeSecret("alias-1", "secret-1-new");
+
+        vault.on(envelope(ParticipantContextApiTokenRegenerated.Builder.newInstance()
+                .participantContextId("test-participant")
+                .apiTokenAlias("alias-1")
+                .build()));
+
+        assertThat(vault.resolveSecret("alias-1")).isEqualTo("secret-1-new");
+    }
+
+    @Test
+    void invalidateAll() {
+        vault.resolveSecret("alias-1");
+        vault.resolveSecret("alias-2");
+
+        vault.invalidateAll();
+
+        assertThat(vault.size()).isZero();
+    }
+
+    @SuppressWarnings("unchecked")
+    private EventEnvelope<Event> envelope(Event event) {
+        return EventEnvelope.Builder.newInstance()
+                .at(System.currentTimeMillis())
+                .payload(event)
+                .build();
+    }
+
+    private static class InMemoryVault implements Vault {
+        private final Map<String, String> secrets = new HashMap<>();
+        private int resolved;
+
+        @Override
+        public String resolveSecret(String key) {
+            resolved++;
+            return secrets.get(key);
+        }
+
+        @Override
+        public Result<Void> storeSecret(String key, String value) {
+            secrets.put(key, value);
+            return Result.success();
+        }
+
+        @Override
+        public Result<Void> deleteSecret(String key) {
+            secrets.remove(key);
+            return Result.success();
+        }
+    }
+}
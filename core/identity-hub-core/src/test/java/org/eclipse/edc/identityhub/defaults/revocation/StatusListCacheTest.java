@@ -0,0 +1,212 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.defaults.revocation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.eclipse.edc.http.spi.EdcHttpClient;
+import org.eclipse.edc.iam.verifiablecredentials.spi.model.CredentialStatus;
+import org.eclipse.edc.identityhub.spi.verifiablecredentials.store.CachedStatusList;
+import org.eclipse.edc.identityhub.spi.verifiablecredentials.store.StatusListCacheStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Clock;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.eclipse.edc.junit.assertions.AbstractResultAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StatusListCacheTest {
+
+    private static final String URL = "https://issuer.example/status/1";
+    private static final long VALIDITY = 60_000;
+    private static final int MAX_LIST_SIZE = 16 * 1024;
+    private final EdcHttpClient httpClient = mock();
+    private final StatusListCacheStore store = mock();
+    private final Clock clock = mock();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private StatusListCache cache;
+
+    @BeforeEach
+    void setUp() {
+        when(clock.millis()).thenReturn(1_000_000L);
+        cache = new StatusListCache(httpClient, objectMapper, store, clock, VALIDITY, MAX_LIST_SIZE, mock());
+    }
+
+    @Test
+    void toBitSet_usesLeftmostBitAsIndexZero() {
+        var bits = StatusListCredentialDecoder.toBitSet(new byte[]{(byte) 0b1000_0001, 0, 0b0000_0100});
+
+        assertThat(bits.stream().toArray()).containsExactly(0, 7, 21);
+    }
+
+    @Test
+    void get_decodesJsonCredential() throws IOException {
+        when(httpClient.execute(any())).thenAnswer(i -> response(i.getArgument(0), 200, statusListCredential("revocation", 3, 42), "\"v1\""));
+
+        var result = cache.get(URL);
+
+        assertThat(result).isSucceeded().satisfies(list -> {
+            assertThat(list.statusBits().get(3)).isTrue();
+            assertThat(list.statusBits().get(42)).isTrue();
+            assertThat(list.statusBits().get(4)).isFalse();
+            assertThat(list.length()).isEqualTo(131_072);
+            assertThat(list.statusPurpose()).isEqualTo("revocation");
+            assertThat(list.etag()).isEqualTo("\"v1\"");
+        });
+        verify(store).save(argThat(list -> list.url().equals(URL)));
+    }
+
+    @Test
+    void get_whenFresh_shouldNotFetchAgain() throws IOException {
+        when(httpClient.execute(any())).thenAnswer(i -> response(i.getArgument(0), 200, statusListCredential("revocation", 3), "\"v1\""));
+
+        cache.get(URL);
+        when(clock.millis()).thenReturn(1_000_000L + VALIDITY - 1);
+        cache.get(URL);
+
+        verify(httpClient, times(1)).execute(any());
+    }
+
+    @Test
+    void get_whenStale_shouldRevalidate() throws IOException {
+        when(httpClient.execute(any())).thenAnswer(i -> response(i.getArgument(0), 200, statusListCredential("revocation", 3), "\"v1\""));
+        cache.get(URL);
+
+        when(clock.millis()).thenReturn(1_000_000L + VALIDITY);
+        when(httpClient.execute(any())).thenAnswer(i -> response(i.getArgument(0), 304, null, "\"v1\""));
+        var result = cache.get(URL);
+
+        assertThat(result).isSucceeded().satisfies(list -> {
+            assertThat(list.statusBits().get(3)).isTrue();
+            assertThat(list.fetchedAt()).isEqualTo(1_000_000L + VALIDITY);
+        });
+        verify(httpClient).execute(argThat(rq -> "\"v1\"".equals(rq.header("If-None-Match"))));
+    }
+
+    @Test
+    void get_whenPersisted_shouldRevalidateInsteadOfDownload() throws IOException {
+        var bits = new BitSet();
+        bits.set(5);
+        when(store.findByUrl(URL)).thenReturn(new CachedStatusList(URL, "\"v1\"", null, 0, "suspension", bits, 131_072));
+        when(httpClient.execute(any())).thenAnswer(i -> response(i.getArgument(0), 304, null, "\"v1\""));
+
+        var result = cache.get(URL);
+
+        assertThat(result).isSucceeded().satisfies(list -> assertThat(list.statusBits().get(5)).isTrue());
+        verify(httpClient).execute(argThat(rq -> "\"v1\"".equals(rq.header("If-None-Match"))));
+    }
+
+    @Test
+    void get_whenFetchFails_shouldReturnFailure() throws IOException {
+        when(httpClient.execute(any())).thenAnswer(i -> response(i.getArgument(0), 500, "", null));
+
+        assertThat(cache.get(URL)).isFailed().detail().contains("HTTP 500");
+    }
+
+    @Test
+    void get_whenResponseTooLarge_shouldReturnFailure() throws IOException {
+        when(httpClient.execute(any())).thenAnswer(i -> response(i.getArgument(0), 200, "x".repeat(MAX_LIST_SIZE + 1), null));
+
+        assertThat(cache.get(URL)).isFailed().detail().contains("exceeds the maximum size");
+    }
+
+    @Test
+    void get_whenDecompressedListTooLarge_shouldReturnFailure() throws IOException {
+        var cache = new StatusListCache(httpClient, objectMapper, store, clock, VALIDITY, MAX_LIST_SIZE - 1, mock());
+        when(httpClient.execute(any())).thenAnswer(i -> response(i.getArgument(0), 200, statusListCredential("revocation", 3), null));
+
+        assertThat(cache.get(URL)).isFailed().detail().contains("exceeds the maximum size");
+    }
+
+    @Test
+    void revocationListService_whenIndexOutOfRange_shouldReturnFailure() throws IOException {
+        when(httpClient.execute(any())).thenAnswer(i -> response(i.getArgument(0), 200, statusListCredential("revocation", 3), null));
+        var service = new CachingRevocationListService("StatusList2021Entry", cache);
+
+        assertThat(service.checkValidity(statusEntry(131_072))).isFailed().detail().contains("out of range");
+        assertThat(service.checkValidity(statusEntry(-1))).isFailed().detail().contains("out of range");
+        assertThat(service.checkValidity(statusEntry(131_071))).isSucceeded();
+    }
+
+    @Test
+    void revocationListService_checkValidity() throws IOException {
+        when(httpClient.execute(any())).thenAnswer(i -> response(i.getArgument(0), 200, statusListCredential("revocation", 3), null));
+        var service = new CachingRevocationListService("StatusList2021Entry", cache);
+
+        assertThat(service.checkValidity(statusEntry(3))).isFailed();
+        assertThat(service.checkValidity(statusEntry(4))).isSucceeded();
+    }
+
+    private CredentialStatus statusEntry(int index) {
+        return new CredentialStatus(URL + "#" + index, "StatusList2021Entry",
+                Map.of("statusListCredential", URL, "statusPurpose", "revocation", "statusListIndex", String.valueOf(index)));
+    }
+
+    private String statusListCredential(String purpose, int... setBits) throws IOException {
+        var bitstring = new byte[16 * 1024];
+        for (var bit : setBits) {
+            bitstring[bit / 8] |= (byte) (0x80 >>> (bit % 8));
+        }
+        var compressed = new ByteArrayOutputStream();
+        try (var gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(bitstring);
+        }
+        var encodedList = Base64.getEncoder().encodeToString(compressed.toByteArray());
+        return """
+                {
+                  "@context": ["https://www.w3.org/2018/credentials/v1", "https://w3id.org/vc/status-list/2021/v1"],
+                  "id": "%s",
+                  "type": ["VerifiableCredential", "StatusList2021Credential"],
+                  "issuer": "did:example:issuer",
+                  "credentialSubject": {
+                    "id": "%s#list",
+                    "type": "StatusList2021",
+                    "statusPurpose": "%s",
+                    "encodedList": "%s"
+                  }
+                }
+                """.formatted(URL, URL, purpose, encodedList);
+    }
+
+    private Response response(Request request, int code, String body, String etag) {
+        var builder = new Response.Builder()
+                .request(request)
+                .protocol(Protocol.HTTP_1_1)
+                .code(code)
+                .message("message")
+                .body(ResponseBody.create(body != null ? body : "", MediaType.get("application/json")));
+        if (etag != null) {
+            builder.header("ETag", etag);
+        }
+        return builder.build();
+    }
+}
@@ -17,6 +17,8 @@ package org.eclipse.edc.identityhub.did;
 import org.eclipse.edc.iam.did.spi.document.DidDocument;
 import org.eclipse.edc.iam.did.spi.document.Service;
 import org.eclipse.edc.iam.did.spi.document.VerificationMethod;
+import org.eclipse.edc.identityhub.did.VerificationMethodUpdateCoalescer.Change;
+import org.eclipse.edc.identityhub.spi.did.DidDocumentPublisher;
 import org.eclipse.edc.identityhub.spi.did.DidDocumentPublisherRegistry;
 import org.eclipse.edc.identityhub.spi.did.DidDocumentService;
 import org.eclipse.edc.identityhub.spi.did.model.DidResource;
@@ -24,10 +26,12 @@ import org.eclipse.edc.identityhub.spi.did.model.DidState;
 import org.eclipse.edc.identityhub.spi.did.store.DidResourceStore;
 import org.eclipse.edc.identityhub.spi.keypair.events.KeyPairActivated;
 import org.eclipse.edc.identityhub.spi.keypair.events.KeyPairRevoked;
+import org.eclipse.edc.identityhub.spi.participantcontext.events.ParticipantContextDeleted;
 import org.eclipse.edc.identityhub.spi.participantcontext.events.ParticipantContextUpdated;
 import org.eclipse.edc.identityhub.spi.participantcontext.model.ParticipantContext;
 import org.eclipse.edc.identityhub.spi.participantcontext.model.ParticipantContextState;
 import org.eclipse.edc.identityhub.spi.participantcontext.model.ParticipantResource;
+import org.eclipse.edc.identityhub.spi.participantcontext.store.OptimisticLocking;
 import org.eclipse.edc.identityhub.spi.participantcontext.store.ParticipantContextStore;
 import org.eclipse.edc.keys.spi.KeyParserRegistry;
 import org.eclipse.edc.security.token.jwt.CryptoConverter;
@@ -35,15 +39,23 @@ import org.eclipse.edc.spi.event.Event;
 import org.eclipse.edc.spi.event.EventEnvelope;
 import org.eclipse.edc.spi.event.EventSubscriber;
 import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.persistence.EdcPersistenceException;
+import org.eclipse.edc.spi.query.Criterion;
 import org.eclipse.edc.spi.query.QuerySpec;
 import org.eclipse.edc.spi.result.AbstractResult;
 import org.eclipse.edc.spi.result.ServiceResult;
-import org.eclipse.edc.spi.result.StoreResult;
 import org.eclipse.edc.transaction.spi.TransactionContext;
+import org.jetbrains.annotations.Nullable;
 
 import java.security.KeyPair;
 import java.security.PublicKey;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.stream.Collectors;
 
 import static org.eclipse.edc.spi.result.ServiceResult.success;
@@ -60,15 +72,36 @@ public class DidDocumentServiceImpl implements DidDocumentService, EventSubscrib
     private final ParticipantContextStore participantContextStore;
     private final Monitor monitor;
     private final KeyParserRegistry keyParserRegistry;
+    private final VerificationMethodUpdateCoalescer coalescer;
 
     public DidDocumentServiceImpl(TransactionContext transactionContext, DidResourceStore didResourceStore, DidDocumentPublisherRegistry registry,
                                   ParticipantContextStore participantContextStore, Monitor monitor, KeyParserRegistry keyParserRegistry) {
+        this(transactionContext, didResourceStore, registry, participantContextStore, monitor, keyParserRegistry, null, Duration.ZERO);
+    }
+
+    /**
+     * Creates a new service, which gathers the changes of key pair events over the given window and applies them to the DID documents at once.
+     *
+     * @param executor the executor on which gathered changes are applied, may be null if the window is zero
+     * @param window   the time during which key pair changes of a participant context are gathered
+     */
+    public DidDocumentServiceImpl(TransactionContext transactionContext, DidResourceStore didResourceStore, DidDocumentPublisherRegistry registry,
+                                  ParticipantContextStore participantContextStore, Monitor monitor, KeyParserRegistry keyParserRegistry,
+                                  @Nullable ScheduledExecutorService executor, Duration window) {
         this.transactionContext = transactionContext;
         this.didResourceStore = didResourceStore;
         this.registry = registry;
         this.participantContextStore = participantContextStore;
         this.monitor = monitor;
         this.keyParserRegistry = keyParserRegistry;
+        this.coalescer = new VerificationMethodUpdateCoalescer(this::applyVerificationMethodChanges, executor, window, monitor);
+    }
+
+    /**
+     * Applies all gathered key pair changes immediately.
+     */
+    public void flushPendingChanges() {
+        coalescer.flushAll();
     }
 
     @Override
@@ -168,23 +201,35 @@ public class DidDocumentServiceImpl implements DidDocumentService, EventSubscrib
         });
     }
 
+    @Override
+    public ServiceResult<Void> publishAll(Collection<String> dids) {
+        return OptimisticLocking.retryOnConflict(() -> transactionContext.execute(() -> findAll(dids)
+                .compose(resources -> transitionAll(resources, true))));
+    }
 
+    @Override
+    public ServiceResult<Void> unpublishAll(Collection<String> dids) {
+        return OptimisticLocking.retryOnConflict(() -> transactionContext.execute(() -> findAll(dids)
+                .compose(resources -> transitionAll(resources, false))));
+    }
+
+    /**
+     * Not executed within a transaction, so that the store can serve the query from a read replica.
+     */
     @Override
     public ServiceResult<Collection<DidDocument>> queryDocuments(QuerySpec query) {
-        return transactionContext.execute(() -> {
-            var res = didResourceStore.query(query);
-            return success(res.stream().map(DidResource::getDocument).toList());
-        });
+        var res = didResourceStore.query(query);
+        return success(res.stream().map(DidResource::getDocument).toList());
     }
 
     @Override
     public DidResource findById(String did) {
-        return transactionContext.execute(() -> didResourceStore.findById(did));
+        return didResourceStore.findById(did);
     }
 
     @Override
     public ServiceResult<Void> addService(String did, Service service) {
-        return transactionContext.execute(() -> {
+        return OptimisticLocking.retryOnConflict(() -> transactionContext.execute(() -> {
             var didResource = didResourceStore.findById(did);
             if (didResource == null) {
                 return ServiceResult.notFound("DID '%s' not found.".formatted(did));
@@ -194,17 +239,13 @@ public class DidDocumentServiceImpl implements DidDocumentService, EventSubscrib
                 return ServiceResult.conflict("DID '%s' already contains a service endpoint with ID '%s'.".formatted(did, service.getId()));
             }
             services.add(service);
-            var updateResult = didResourceStore.update(didResource);
-            return updateResult.succeeded() ?
-                    success() :
-                    ServiceResult.fromFailure(updateResult);
-
-        });
+            return updateDocument(didResource);
+        }));
     }
 
     @Override
     public ServiceResult<Void> replaceService(String did, Service service) {
-        return transactionContext.execute(() -> {
+        return OptimisticLocking.retryOnConflict(() -> transactionContext.execute(() -> {
             var didResource = didResourceStore.findById(did);
             if (didResource == null) {
                 return ServiceResult.notFound("DID '%s' not found.".formatted(did));
@@ -214,16 +255,13 @@ public class DidDocumentServiceImpl implements DidDocumentService, EventSubscrib
                 return ServiceResult.badRequest("DID '%s' does not contain a service endpoint with ID '%s'.".formatted(did, service.getId()));
             }
             services.add(service);
-            var updateResult = didResourceStore.update(didResource);
-            return updateResult.succeeded() ?
-                    success() :
-                    ServiceResult.fromFailure(updateResult);
-        });
+            return updateDocument(didResource);
+        }));
     }
 
     @Override
     public ServiceResult<Void> removeService(String did, String serviceId) {
-        return transactionContext.execute(() -> {
+        return OptimisticLocking.retryOnConflict(() -> transactionContext.execute(() -> {
             var didResource = didResourceStore.findById(did);
             if (didResource == null) {
                 return ServiceResult.notFound("DID '%s' not found.".formatted(did));
@@ -233,12 +271,8 @@ public class DidDocumentServiceImpl implements DidDocumentService, EventSubscrib
             if (!hasRemoved) {
                 return ServiceResult.badRequest("DID '%s' does not contain a service endpoint with ID '%s'.".formatted(did, serviceId));
             }
-            var updateResult = didResourceStore.update(didResource);
-            return updateResult.succeeded() ?
-                    success() :
-                    ServiceResult.fromFailure(updateResult);
-
-        });
+            return updateDocument(didResource);
+        }));
     }
 
     @Override
@@ -250,87 +284,169 @@ public class DidDocumentServiceImpl implements DidDocumentService, EventSubscrib
             keypairRevoked(event);
         } else if (payload instanceof KeyPairActivated event) {
             keyPairActivated(event);
+        } else if (payload instanceof ParticipantContextDeleted event) {
+            deleted(event);
         } else {
             monitor.warning("Received event with unexpected payload type: %s".formatted(payload.getClass()));
         }
     }
 
     private void keyPairActivated(KeyPairActivated event) {
-        transactionContext.execute(() -> {
-            var didResources = findByParticipantContextId(event.getParticipantContextId());
-            if (didResources.isEmpty()) {
-                monitor.warning("No DidResources were found for participant '%s'. No updated will be performed.".formatted(event.getParticipantContextId()));
-            }
+        // add the public key as verification method to all did resources
+        var serialized = event.getPublicKeySerialized();
+        var publicKey = keyParserRegistry.parse(serialized);
 
-            // add the public key as verification method to all did resources
-            var serialized = event.getPublicKeySerialized();
-            var publicKey = keyParserRegistry.parse(serialized);
+        if (publicKey.failed()) {
+            monitor.warning("Error adding KeyPair '%s' to DID Document of participant '%s': %s".formatted(event.getKeyPairResource().getId(), event.getParticipantContextId(), publicKey.getFailureDetail()));
+            return;
+        }
 
-            if (publicKey.failed()) {
-                monitor.warning("Error adding KeyPair '%s' to DID Document of participant '%s': %s".formatted(event.getKeyPairResource().getId(), event.getParticipantContextId(), publicKey.getFailureDetail()));
-                return;
-            }
+        var jwk = CryptoConverter.createJwk(new KeyPair((PublicKey) publicKey.getContent(), null));
+        coalescer.submit(event.getParticipantContextId(), new Change(event.getKeyId(), event.getKeyType(), jwk.toJSONObject()));
+    }
 
-            var jwk = CryptoConverter.createJwk(new KeyPair((PublicKey) publicKey.getContent(), null));
+    private void keypairRevoked(KeyPairRevoked event) {
+        coalescer.submit(event.getParticipantContextId(), Change.removal(event.getKeyId()));
+    }
+
+    /**
+     * Applies the verification method changes to all DID documents of the participant context with one update per document.
+     * Documents are republished if a verification method was added, or if they are published already, so that removed
+     * verification methods are withdrawn from the published document as well.
+     */
+    /**
+     * Updates the resource and republishes its document if it is published, so that publishers and caches do not keep
+     * serving the previous document.
+     */
+    private ServiceResult<Void> updateDocument(DidResource didResource) {
+        var updateResult = OptimisticLocking.throwOnConflict(didResourceStore.update(didResource));
+        if (updateResult.failed()) {
+            return ServiceResult.fromFailure(updateResult);
+        }
+        return didResource.getState() == DidState.PUBLISHED.code() ? publish(didResource.getDid()) : success();
+    }
+
+    private void applyVerificationMethodChanges(String participantContextId, List<Change> changes) {
+        transactionContext.execute(() -> {
+            var didResources = findByParticipantContextId(participantContextId);
+            var hasAdditions = changes.stream().anyMatch(change -> !change.isRemoval());
+            if (didResources.isEmpty() && hasAdditions) {
+                monitor.warning("No DidResources were found for participant '%s'. No updated will be performed.".formatted(participantContextId));
+            }
 
             var errors = didResources.stream()
                     .map(dd -> {
-                        dd.getDocument().getVerificationMethod().add(VerificationMethod.Builder.newInstance()
-                                .id(event.getKeyId())
-                                .publicKeyJwk(jwk.toJSONObject())
-                                .controller(dd.getDocument().getId())
-                                .type(event.getKeyType())
-                                .build());
-                        return ServiceResult.from(didResourceStore.update(dd))
-                                .compose(v -> publish(dd.getDid()));
+                        var verificationMethods = dd.getDocument().getVerificationMethod();
+                        changes.forEach(change -> {
+                            verificationMethods.removeIf(vm -> vm.getId().equals(change.keyId()));
+                            if (!change.isRemoval()) {
+                                verificationMethods.add(VerificationMethod.Builder.newInstance()
+                                        .id(change.keyId())
+                                        .publicKeyJwk(change.publicKeyJwk())
+                                        .controller(dd.getDocument().getId())
+                                        .type(change.type())
+                                        .build());
+                            }
+                        });
+                        var result = ServiceResult.from(didResourceStore.update(dd));
+                        var republish = hasAdditions || dd.getState() == DidState.PUBLISHED.code();
+                        return republish ? result.compose(v -> publish(dd.getDid())) : result;
                     })
                     .filter(ServiceResult::failed)
                     .map(AbstractResult::getFailureDetail)
                     .collect(Collectors.joining(","));
 
             if (!errors.isEmpty()) {
-                monitor.warning("Updating DID documents after activating a KeyPair failed: %s".formatted(errors));
+                monitor.warning("Updating DID documents after %d KeyPair change(s) failed: %s".formatted(changes.size(), errors));
             }
         });
     }
 
-    private void keypairRevoked(KeyPairRevoked event) {
-        var didResources = findByParticipantContextId(event.getParticipantContextId());
-        var keyId = event.getKeyId();
-
-        var errors = didResources.stream()
-                .peek(didResource -> didResource.getDocument().getVerificationMethod().removeIf(vm -> vm.getId().equals(keyId)))
-                .map(didResourceStore::update)
-                .filter(StoreResult::failed)
-                .map(AbstractResult::getFailureDetail)
-                .collect(Collectors.joining(","));
-
-        if (!errors.isEmpty()) {
-            monitor.warning("Updating DID documents after revoking a KeyPair failed: %s".formatted(errors));
-        }
+    private void deleted(ParticipantContextDeleted event) {
+        // the primary DID document was already unpublished and deleted while the participant context was being deleted, remove any others with one statement
+        didResourceStore.deleteByParticipantContextId(event.getParticipantContextId())
+                .onFailure(f -> monitor.warning("Removing DID resources from a deleted ParticipantContext failed: %s".formatted(f.getFailureDetail())));
     }
 
     private void updated(ParticipantContextUpdated event) {
         var newState = event.getNewState();
-        var forParticipant = findByParticipantContextId(event.getParticipantContextId());
-        var errors = forParticipant
-                .stream()
-                .map(resource -> switch (newState) {
-                    case ACTIVATED -> publish(resource.getDid());
-                    case DEACTIVATED -> unpublish(resource.getDid());
-                    default -> ServiceResult.success();
-                })
-                .filter(AbstractResult::failed)
-                .map(AbstractResult::getFailureDetail)
-                .collect(Collectors.joining(", "));
-
-        if (!errors.isEmpty()) {
-            monitor.warning("Updating DID documents after updating a ParticipantContext failed: %s".formatted(errors));
+        if (newState != ParticipantContextState.ACTIVATED && newState != ParticipantContextState.DEACTIVATED) {
+            return;
+        }
+        var result = OptimisticLocking.retryOnConflict(() -> transactionContext.execute(() ->
+                transitionAll(findByParticipantContextId(event.getParticipantContextId()), newState == ParticipantContextState.ACTIVATED)));
+
+        if (result.failed()) {
+            monitor.warning("Updating DID documents after updating a ParticipantContext failed: %s".formatted(result.getFailureDetail()));
+        }
+    }
+
+    /**
+     * Publishes or un-publishes DID resources in bulk: every participant context is loaded once, and each publisher receives
+     * all of its resources with one call. Un-publishing skips resources that are not published.
+     */
+    private ServiceResult<Void> transitionAll(Collection<DidResource> resources, boolean publish) {
+        var requiredState = publish ? ParticipantContextState.ACTIVATED : ParticipantContextState.DEACTIVATED;
+        var participantContextIds = resources.stream().map(DidResource::getParticipantContextId).distinct().toList();
+        for (var participantContextId : participantContextIds) {
+            var participantContext = participantContextStore.findById(participantContextId);
+            if (participantContext.failed()) {
+                return ServiceResult.fromFailure(participantContext);
+            }
+            var state = participantContext.getContent().getStateAsEnum();
+            if (state != requiredState) {
+                return ServiceResult.badRequest("Cannot %s DIDs for participant '%s' because the ParticipantContext state is not '%s', but '%s'."
+                        .formatted(publish ? "publish" : "un-publish", participantContextId, requiredState, state));
+            }
+        }
+
+        var byPublisher = new LinkedHashMap<DidDocumentPublisher, List<DidResource>>();
+        for (var resource : resources) {
+            if (!publish && resource.getState() != DidState.PUBLISHED.code()) {
+                monitor.info("Unpublishing DID Document '%s' in state '%s', unpublishing is a NOOP.".formatted(resource.getDid(), resource.getStateAsEnum()));
+                continue;
+            }
+            var publisher = registry.getPublisher(resource.getDid());
+            if (publisher == null) {
+                return ServiceResult.badRequest(noPublisherFoundMessage(resource.getDid()));
+            }
+            byPublisher.computeIfAbsent(publisher, p -> new ArrayList<>()).add(resource);
+        }
+
+        var transitioned = 0;
+        for (var entry : byPublisher.entrySet()) {
+            var result = publish ? entry.getKey().publishAll(entry.getValue()) : entry.getKey().unpublishAll(entry.getValue());
+            if (result.failed()) {
+                // the resources of the previous publishers are transitioned already, so the transaction must be rolled back
+                if (transitioned > 0) {
+                    throw new EdcPersistenceException("Transitioning DIDs failed after %d others were transitioned: %s".formatted(transitioned, result.getFailureDetail()));
+                }
+                return ServiceResult.badRequest(result.getFailureDetail());
+            }
+            transitioned += entry.getValue().size();
+        }
+        return success();
+    }
+
+    private ServiceResult<Collection<DidResource>> findAll(Collection<String> dids) {
+        var distinctDids = new LinkedHashSet<>(dids);
+        if (distinctDids.isEmpty()) {
+            return success(List.of());
+        }
+        var query = QuerySpec.Builder.newInstance()
+                .filter(new Criterion("did", "in", new ArrayList<>(distinctDids)))
+                .limit(distinctDids.size())
+                .build();
+        var resources = didResourceStore.query(query);
+        if (resources.size() < distinctDids.size()) {
+            resources.forEach(resource -> distinctDids.remove(resource.getDid()));
+            return ServiceResult.notFound(notFoundMessage(distinctDids.iterator().next()));
         }
+        return success(resources);
     }
 
     private Collection<DidResource> findByParticipantContextId(String participantContextId) {
-        return didResourceStore.query(ParticipantResource.queryByParticipantContextId(participantContextId).build());
+        return didResourceStore.query(ParticipantResource.queryByParticipantContextId(participantContextId).limit(Integer.MAX_VALUE).build());
     }
 
 }
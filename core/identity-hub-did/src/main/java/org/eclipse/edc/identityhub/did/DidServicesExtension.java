@@ -19,22 +19,35 @@ import org.eclipse.edc.identityhub.spi.did.DidDocumentService;
 import org.eclipse.edc.identityhub.spi.did.store.DidResourceStore;
 import org.eclipse.edc.identityhub.spi.keypair.events.KeyPairActivated;
 import org.eclipse.edc.identityhub.spi.keypair.events.KeyPairRevoked;
+import org.eclipse.edc.identityhub.spi.participantcontext.events.ParticipantContextDeleted;
 import org.eclipse.edc.identityhub.spi.participantcontext.events.ParticipantContextUpdated;
 import org.eclipse.edc.identityhub.spi.participantcontext.store.ParticipantContextStore;
 import org.eclipse.edc.keys.spi.KeyParserRegistry;
 import org.eclipse.edc.runtime.metamodel.annotation.Extension;
 import org.eclipse.edc.runtime.metamodel.annotation.Inject;
 import org.eclipse.edc.runtime.metamodel.annotation.Provider;
+import org.eclipse.edc.runtime.metamodel.annotation.Setting;
 import org.eclipse.edc.spi.event.EventRouter;
+import org.eclipse.edc.spi.system.ExecutorInstrumentation;
 import org.eclipse.edc.spi.system.ServiceExtension;
 import org.eclipse.edc.spi.system.ServiceExtensionContext;
 import org.eclipse.edc.transaction.spi.TransactionContext;
 
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
 import static org.eclipse.edc.identityhub.did.DidServicesExtension.NAME;
 
 @Extension(value = NAME)
 public class DidServicesExtension implements ServiceExtension {
     public static final String NAME = "DID Service Extension";
+    public static final String DID_DOCUMENT_UPDATES = "DidDocumentUpdates";
+
+    @Setting(description = "Time (in milliseconds) during which the key pair changes of a participant context are gathered and then applied to its DID documents " +
+            "with one update and one publication. Configuring a number <=0 applies every change immediately.",
+            defaultValue = "0", key = "edc.iam.did.keypair.updates.window")
+    private long keyPairUpdateWindow;
     @Inject
     private TransactionContext transactionContext;
     @Inject
@@ -45,13 +58,25 @@ public class DidServicesExtension implements ServiceExtension {
     private KeyParserRegistry keyParserRegistry;
     @Inject
     private ParticipantContextStore participantContextStore;
+    @Inject
+    private ExecutorInstrumentation executorInstrumentation;
     private DidDocumentPublisherRegistry didPublisherRegistry;
+    private DidDocumentServiceImpl didDocumentService;
+    private ScheduledExecutorService updateExecutorService;
 
     @Override
     public String name() {
         return NAME;
     }
 
+    @Override
+    public void shutdown() {
+        if (updateExecutorService != null) {
+            updateExecutorService.shutdownNow();
+            didDocumentService.flushPendingChanges();
+        }
+    }
+
     @Provider
     public DidDocumentPublisherRegistry getDidPublisherRegistry() {
         if (didPublisherRegistry == null) {
@@ -62,11 +87,16 @@ public class DidServicesExtension implements ServiceExtension {
 
     @Provider
     public DidDocumentService createDidDocumentService(ServiceExtensionContext context) {
-        var service = new DidDocumentServiceImpl(transactionContext, didResourceStore,
-                getDidPublisherRegistry(), participantContextStore, context.getMonitor().withPrefix("DidDocumentService"), keyParserRegistry);
+        if (keyPairUpdateWindow > 0) {
+            updateExecutorService = executorInstrumentation.instrument(Executors.newSingleThreadScheduledExecutor(), DID_DOCUMENT_UPDATES);
+        }
+        var service = new DidDocumentServiceImpl(transactionContext, didResourceStore, getDidPublisherRegistry(), participantContextStore,
+                context.getMonitor().withPrefix("DidDocumentService"), keyParserRegistry, updateExecutorService, Duration.ofMillis(Math.max(0, keyPairUpdateWindow)));
         eventRouter.registerSync(ParticipantContextUpdated.class, service);
+        eventRouter.registerSync(ParticipantContextDeleted.class, service);
         eventRouter.registerSync(KeyPairRevoked.class, service);
         eventRouter.registerSync(KeyPairActivated.class, service);
+        didDocumentService = service;
         return service;
     }
 }
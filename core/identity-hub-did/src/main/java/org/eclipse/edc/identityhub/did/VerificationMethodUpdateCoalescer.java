@@ -0,0 +1,122 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.did;
+
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * Gathers changes to the verification methods of the DID documents of a participant context over a short window, so that a
+ * burst of key pair events, e.g. the revocation, addition and activation of a key rotation, results in one mutation and one
+ * publication of every DID document instead of one per event. Changes are applied in the order in which they were submitted.
+ * <p>
+ * If the window is zero, every change is applied immediately on the calling thread.
+ */
+class VerificationMethodUpdateCoalescer {
+    private final Map<String, List<Change>> pending = new HashMap<>();
+    private final BiConsumer<String, List<Change>> applier;
+    private final ScheduledExecutorService executor;
+    private final long windowMillis;
+    private final Monitor monitor;
+
+    /**
+     * Creates a new coalescer.
+     *
+     * @param applier  applies the changes to the DID documents of a participant context
+     * @param executor the executor on which the changes are applied after the window, may be null if the window is zero
+     * @param window   the time during which changes are gathered, starting with the first change
+     */
+    VerificationMethodUpdateCoalescer(BiConsumer<String, List<Change>> applier, @Nullable ScheduledExecutorService executor, Duration window, Monitor monitor) {
+        this.applier = applier;
+        this.executor = executor;
+        this.windowMillis = executor != null ? window.toMillis() : 0;
+        this.monitor = monitor;
+    }
+
+    void submit(String participantContextId, Change change) {
+        if (windowMillis <= 0) {
+            applier.accept(participantContextId, List.of(change));
+            return;
+        }
+        boolean first;
+        synchronized (pending) {
+            var changes = pending.computeIfAbsent(participantContextId, id -> new ArrayList<>());
+            first = changes.isEmpty();
+            changes.add(change);
+        }
+        if (first) {
+            executor.schedule(() -> flush(participantContextId), windowMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Applies all pending changes immediately, e.g. on shutdown.
+     */
+    void flushAll() {
+        List<String> participantContextIds;
+        synchronized (pending) {
+            participantContextIds = new ArrayList<>(pending.keySet());
+        }
+        participantContextIds.forEach(this::flush);
+    }
+
+    int pendingCount() {
+        synchronized (pending) {
+            return pending.values().stream().mapToInt(List::size).sum();
+        }
+    }
+
+    private void flush(String participantContextId) {
+        List<Change> changes;
+        synchronized (pending) {
+            changes = pending.remove(participantContextId);
+        }
+        if (changes == null) {
+            return;
+        }
+        try {
+            applier.accept(participantContextId, changes);
+        } catch (RuntimeException e) {
+            monitor.warning("Updating DID documents of participant '%s' failed".formatted(participantContextId), e);
+        }
+    }
+
+    /**
+     * A change of one verification method.
+     *
+     * @param keyId        the ID of the verification method
+     * @param type         the type of the verification method, null if it is removed
+     * @param publicKeyJwk the public key, null if the verification method is removed
+     */
+    record Change(String keyId, @Nullable String type, @Nullable Map<String, Object> publicKeyJwk) {
+
+        static Change removal(String keyId) {
+            return new Change(keyId, null, null);
+        }
+
+        boolean isRemoval() {
+            return publicKeyJwk == null;
+        }
+    }
+}
@@ -16,7 +16,9 @@ package org.eclipse.edc.identityhub.did.defaults;
 
 import org.eclipse.edc.identityhub.spi.did.model.DidResource;
 import org.eclipse.edc.identityhub.spi.did.store.DidResourceStore;
-import org.eclipse.edc.spi.query.CriterionOperatorRegistry;
+import org.eclipse.edc.identityhub.spi.participantcontext.store.ComparisonOperators;
+import org.eclipse.edc.identityhub.spi.participantcontext.store.OptimisticLocking;
+import org.eclipse.edc.query.CriterionOperatorRegistryImpl;
 import org.eclipse.edc.spi.query.QueryResolver;
 import org.eclipse.edc.spi.query.QuerySpec;
 import org.eclipse.edc.spi.result.StoreResult;
@@ -35,7 +37,9 @@ public class InMemoryDidResourceStore implements DidResourceStore {
     private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
     private final QueryResolver<DidResource> queryResolver;
 
-    public InMemoryDidResourceStore(CriterionOperatorRegistry criterionOperatorRegistry) {
+    public InMemoryDidResourceStore() {
+        var criterionOperatorRegistry = CriterionOperatorRegistryImpl.ofDefaults();
+        ComparisonOperators.register(criterionOperatorRegistry);
         queryResolver = new ReflectionBasedQueryResolver<>(DidResource.class, criterionOperatorRegistry);
     }
 
@@ -47,6 +51,7 @@ public class InMemoryDidResourceStore implements DidResourceStore {
             if (store.containsKey(did)) {
                 return StoreResult.alreadyExists(alreadyExistsErrorMessage(did));
             }
+            resource.setVersion(1);
             store.put(did, resource);
             return StoreResult.success();
         } finally {
@@ -60,9 +65,15 @@ public class InMemoryDidResourceStore implements DidResourceStore {
         lock.writeLock().lock();
         try {
             var did = resource.getDid();
-            if (!store.containsKey(did)) {
+            var existing = store.get(did);
+            if (existing == null) {
                 return StoreResult.notFound(notFoundErrorMessage(did));
             }
+            var expectedVersion = resource.getVersion() == 0 ? existing.getVersion() : resource.getVersion();
+            if (existing.getVersion() != expectedVersion) {
+                return OptimisticLocking.versionConflict("DidResource", did);
+            }
+            resource.setVersion(expectedVersion + 1);
             store.put(did, resource);
             return StoreResult.success();
         } finally {
@@ -71,6 +82,37 @@ public class InMemoryDidResourceStore implements DidResourceStore {
     }
 
 
+    /**
+     * Updates all resources atomically: if the version of any resource does not match, or any resource does not exist,
+     * none is updated.
+     */
+    @Override
+    public StoreResult<Void> updateAll(Collection<DidResource> resources) {
+        lock.writeLock().lock();
+        try {
+            var expectedVersions = new HashMap<String, Long>();
+            for (var resource : resources) {
+                var did = resource.getDid();
+                var existing = store.get(did);
+                if (existing == null) {
+                    return StoreResult.notFound(notFoundErrorMessage(did));
+                }
+                var expectedVersion = resource.getVersion() == 0 ? existing.getVersion() : resource.getVersion();
+                if (existing.getVersion() != expectedVersion) {
+                    return OptimisticLocking.versionConflict("DidResource", did);
+                }
+                expectedVersions.put(did, expectedVersion);
+            }
+            for (var resource : resources) {
+                resource.setVersion(expectedVersions.get(resource.getDid()) + 1);
+                store.put(resource.getDid(), resource);
+            }
+            return StoreResult.success();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
     @Override
     public DidResource findById(String did) {
         lock.readLock().lock();
@@ -102,4 +144,16 @@ public class InMemoryDidResourceStore implements DidResourceStore {
             lock.writeLock().unlock();
         }
     }
+
+    @Override
+    public StoreResult<Integer> deleteByParticipantContextId(String participantContextId) {
+        lock.writeLock().lock();
+        try {
+            var sizeBefore = store.size();
+            store.values().removeIf(resource -> participantContextId.equals(resource.getParticipantContextId()));
+            return StoreResult.success(sizeBefore - store.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
 }
@@ -39,17 +39,23 @@ import org.eclipse.edc.keys.keyparsers.PemParser;
 import org.eclipse.edc.spi.event.Event;
 import org.eclipse.edc.spi.event.EventEnvelope;
 import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.persistence.EdcPersistenceException;
 import org.eclipse.edc.spi.query.QuerySpec;
 import org.eclipse.edc.spi.result.Result;
 import org.eclipse.edc.spi.result.StoreResult;
 import org.eclipse.edc.transaction.spi.NoopTransactionContext;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import static org.eclipse.edc.iam.did.spi.document.DidConstants.JSON_WEB_KEY_2020;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.eclipse.edc.junit.assertions.AbstractResultAssert.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -57,6 +63,7 @@ import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.startsWith;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -69,6 +76,7 @@ class DidDocumentServiceImplTest {
     private final DidDocumentPublisherRegistry publisherRegistry = mock();
     private final DidDocumentPublisher publisherMock = mock();
     private final ParticipantContextStore participantContextServiceMock = mock();
+    private final KeyParserRegistryImpl keyParserRegistry = new KeyParserRegistryImpl();
     private DidDocumentServiceImpl service;
     private Monitor monitorMock;
 
@@ -77,11 +85,10 @@ class DidDocumentServiceImplTest {
         var trx = new NoopTransactionContext();
         when(publisherRegistry.getPublisher(startsWith("did:web:"))).thenReturn(publisherMock);
 
-        var registry = new KeyParserRegistryImpl();
-        registry.register(new JwkParser(new ObjectMapper(), mock()));
-        registry.register(new PemParser(mock()));
+        keyParserRegistry.register(new JwkParser(new ObjectMapper(), mock()));
+        keyParserRegistry.register(new PemParser(mock()));
         monitorMock = mock();
-        service = new DidDocumentServiceImpl(trx, didResourceStoreMock, publisherRegistry, participantContextServiceMock, monitorMock, registry);
+        service = new DidDocumentServiceImpl(trx, didResourceStoreMock, publisherRegistry, participantContextServiceMock, monitorMock, keyParserRegistry);
 
         when(participantContextServiceMock.findById(any())).thenReturn(StoreResult.success(ParticipantContext.Builder.newInstance()
                 .participantContextId(TEST_PARTICIPANT_ID)
@@ -278,6 +285,94 @@ class DidDocumentServiceImplTest {
         verifyNoMoreInteractions(publisherMock, didResourceStoreMock);
     }
 
+    @Test
+    void publishAll() {
+        var resource1 = DidResource.Builder.newInstance().did("did:web:test1").participantContextId(TEST_PARTICIPANT_ID).document(createDidDocument().id("did:web:test1").build()).build();
+        var resource2 = DidResource.Builder.newInstance().did("did:web:test2").participantContextId(TEST_PARTICIPANT_ID).document(createDidDocument().id("did:web:test2").build()).build();
+        when(didResourceStoreMock.query(any())).thenReturn(List.of(resource1, resource2));
+        when(publisherMock.publishAll(any())).thenReturn(Result.success());
+
+        assertThat(service.publishAll(List.of("did:web:test1", "did:web:test2"))).isSucceeded();
+
+        verify(didResourceStoreMock).query(any());
+        verify(participantContextServiceMock).findById(TEST_PARTICIPANT_ID);
+        verify(publisherMock).publishAll(eq(List.of(resource1, resource2)));
+        verifyNoMoreInteractions(publisherMock, didResourceStoreMock, participantContextServiceMock);
+    }
+
+    @Test
+    void publishAll_notExist() {
+        var resource = DidResource.Builder.newInstance().did("did:web:test1").participantContextId(TEST_PARTICIPANT_ID).document(createDidDocument().id("did:web:test1").build()).build();
+        when(didResourceStoreMock.query(any())).thenReturn(List.of(resource));
+
+        assertThat(service.publishAll(List.of("did:web:test1", "did:web:test2"))).isFailed()
+                .detail().isEqualTo(service.notFoundMessage("did:web:test2"));
+
+        verifyNoInteractions(publisherMock);
+    }
+
+    @Test
+    void publishAll_participantNotActivated() {
+        var resource = DidResource.Builder.newInstance().did("did:web:test1").participantContextId(TEST_PARTICIPANT_ID).document(createDidDocument().id("did:web:test1").build()).build();
+        when(didResourceStoreMock.query(any())).thenReturn(List.of(resource));
+        when(participantContextServiceMock.findById(any())).thenReturn(StoreResult.success(ParticipantContext.Builder.newInstance()
+                .participantContextId(TEST_PARTICIPANT_ID)
+                .apiTokenAlias("token")
+                .state(ParticipantContextState.DEACTIVATED)
+                .build()));
+
+        assertThat(service.publishAll(List.of("did:web:test1"))).isFailed()
+                .detail().contains(TEST_PARTICIPANT_ID);
+
+        verifyNoInteractions(publisherMock);
+    }
+
+    @Test
+    void publishAll_publisherReportsError() {
+        var resource = DidResource.Builder.newInstance().did("did:web:test1").participantContextId(TEST_PARTICIPANT_ID).document(createDidDocument().id("did:web:test1").build()).build();
+        when(didResourceStoreMock.query(any())).thenReturn(List.of(resource));
+        when(publisherMock.publishAll(any())).thenReturn(Result.failure("test-failure"));
+
+        assertThat(service.publishAll(List.of("did:web:test1"))).isFailed()
+                .detail().isEqualTo("test-failure");
+    }
+
+    @Test
+    void publishAll_secondPublisherReportsError_shouldThrow() {
+        var resource1 = DidResource.Builder.newInstance().did("did:web:test1").participantContextId(TEST_PARTICIPANT_ID).document(createDidDocument().id("did:web:test1").build()).build();
+        var resource2 = DidResource.Builder.newInstance().did("did:example:test2").participantContextId(TEST_PARTICIPANT_ID).document(createDidDocument().id("did:example:test2").build()).build();
+        var otherPublisher = mock(DidDocumentPublisher.class);
+        when(publisherRegistry.getPublisher(startsWith("did:example:"))).thenReturn(otherPublisher);
+        when(didResourceStoreMock.query(any())).thenReturn(List.of(resource1, resource2));
+        when(publisherMock.publishAll(any())).thenReturn(Result.success());
+        when(otherPublisher.publishAll(any())).thenReturn(Result.failure("test-failure"));
+
+        assertThatThrownBy(() -> service.publishAll(List.of("did:web:test1", "did:example:test2")))
+                .isInstanceOf(EdcPersistenceException.class)
+                .hasMessageContaining("test-failure");
+
+        verify(publisherMock).publishAll(eq(List.of(resource1)));
+        verify(otherPublisher).publishAll(eq(List.of(resource2)));
+    }
+
+    @Test
+    void unpublishAll_shouldSkipUnpublished() {
+        var published = DidResource.Builder.newInstance().did("did:web:test1").participantContextId(TEST_PARTICIPANT_ID).state(DidState.PUBLISHED).document(createDidDocument().id("did:web:test1").build()).build();
+        var generated = DidResource.Builder.newInstance().did("did:web:test2").participantContextId(TEST_PARTICIPANT_ID).state(DidState.GENERATED).document(createDidDocument().id("did:web:test2").build()).build();
+        when(didResourceStoreMock.query(any())).thenReturn(List.of(published, generated));
+        when(publisherMock.unpublishAll(any())).thenReturn(Result.success());
+        when(participantContextServiceMock.findById(any())).thenReturn(StoreResult.success(ParticipantContext.Builder.newInstance()
+                .participantContextId(TEST_PARTICIPANT_ID)
+                .apiTokenAlias("token")
+                .state(ParticipantContextState.DEACTIVATED)
+                .build()));
+
+        assertThat(service.unpublishAll(List.of("did:web:test1", "did:web:test2"))).isSucceeded();
+
+        verify(publisherMock).unpublishAll(eq(List.of(published)));
+        verifyNoMoreInteractions(publisherMock);
+    }
+
     @Test
     void queryDocuments() {
         var q = QuerySpec.max();
@@ -305,6 +400,21 @@ class DidDocumentServiceImplTest {
         verifyNoMoreInteractions(didResourceStoreMock, publisherMock);
     }
 
+    @Test
+    void addEndpoint_whenPublished_shouldRepublish() {
+        var doc = createDidDocument().build();
+        var did = doc.getId();
+        when(didResourceStoreMock.findById(eq(did))).thenReturn(DidResource.Builder.newInstance().did(did).document(doc).state(DidState.PUBLISHED).build());
+        when(didResourceStoreMock.update(any())).thenReturn(StoreResult.success());
+        when(publisherMock.publish(did)).thenReturn(Result.success());
+
+        var res = service.addService(did, new Service("new-id", "test-type", "https://test.com"));
+        assertThat(res).isSucceeded();
+
+        verify(didResourceStoreMock).update(argThat(dr -> dr.getDocument().getService().size() == 1));
+        verify(publisherMock).publish(did);
+    }
+
     @Test
     void addEndpoint_alreadyExists() {
         var newService = new Service("new-id", "test-type", "https://test.com");
@@ -396,6 +506,22 @@ class DidDocumentServiceImplTest {
         verifyNoMoreInteractions(didResourceStoreMock, publisherMock);
     }
 
+    @Test
+    void removeEndpoint_whenPublished_shouldRepublish() {
+        var toRemove = new Service("new-id", "test-type", "https://test.com");
+        var doc = createDidDocument().service(List.of(toRemove)).build();
+        var did = doc.getId();
+        when(didResourceStoreMock.findById(eq(did))).thenReturn(DidResource.Builder.newInstance().did(did).document(doc).state(DidState.PUBLISHED).build());
+        when(didResourceStoreMock.update(any())).thenReturn(StoreResult.success());
+        when(publisherMock.publish(did)).thenReturn(Result.failure("test-failure"));
+
+        var res = service.removeService(did, toRemove.getId());
+        assertThat(res).isFailed().detail().isEqualTo("test-failure");
+
+        verify(didResourceStoreMock).update(any());
+        verify(publisherMock).publish(did);
+    }
+
     @Test
     void removeEndpoint_doesNotExist() {
         var doc = createDidDocument().build();
@@ -433,7 +559,7 @@ class DidDocumentServiceImplTest {
         var didResource = DidResource.Builder.newInstance().did(did).state(DidState.PUBLISHED).document(doc).build();
         when(didResourceStoreMock.findById(eq(did))).thenReturn(didResource);
         when(didResourceStoreMock.query(any())).thenReturn(List.of(didResource));
-        when(publisherMock.unpublish(anyString())).thenReturn(Result.success());
+        when(publisherMock.unpublishAll(any())).thenReturn(Result.success());
 
         when(participantContextServiceMock.findById(any())).thenReturn(StoreResult.success(ParticipantContext.Builder.newInstance()
                 .participantContextId(TEST_PARTICIPANT_ID)
@@ -450,7 +576,7 @@ class DidDocumentServiceImplTest {
                 .id(UUID.randomUUID().toString())
                 .build());
 
-        verify(publisherMock).unpublish(eq(did));
+        verify(publisherMock).unpublishAll(eq(List.of(didResource)));
     }
 
     @SuppressWarnings("unchecked")
@@ -462,7 +588,7 @@ class DidDocumentServiceImplTest {
         var didResource = DidResource.Builder.newInstance().did(did).state(DidState.GENERATED).document(doc).build();
         when(didResourceStoreMock.findById(eq(did))).thenReturn(didResource);
         when(didResourceStoreMock.query(any())).thenReturn(List.of(didResource));
-        when(publisherMock.unpublish(anyString())).thenReturn(Result.success());
+        when(publisherMock.unpublishAll(any())).thenReturn(Result.success());
 
         service.on(EventEnvelope.Builder.newInstance()
                 .payload(ParticipantContextUpdated.Builder.newInstance()
@@ -485,7 +611,7 @@ class DidDocumentServiceImplTest {
         var didResource = DidResource.Builder.newInstance().did(did).state(DidState.PUBLISHED).document(doc).build();
         when(didResourceStoreMock.findById(eq(did))).thenReturn(didResource);
         when(didResourceStoreMock.query(any())).thenReturn(List.of(didResource));
-        when(publisherMock.unpublish(anyString())).thenReturn(Result.success());
+        when(publisherMock.unpublishAll(any())).thenReturn(Result.success());
 
         when(participantContextServiceMock.findById(any())).thenReturn(StoreResult.success(ParticipantContext.Builder.newInstance()
                 .participantContextId(TEST_PARTICIPANT_ID)
@@ -502,7 +628,7 @@ class DidDocumentServiceImplTest {
                 .id(UUID.randomUUID().toString())
                 .build());
 
-        verify(publisherMock).unpublish(eq(did));
+        verify(publisherMock).unpublishAll(eq(List.of(didResource)));
     }
 
     @SuppressWarnings("unchecked")
@@ -514,7 +640,7 @@ class DidDocumentServiceImplTest {
         var didResource = DidResource.Builder.newInstance().did(did).state(DidState.GENERATED).document(doc).build();
         when(didResourceStoreMock.findById(eq(did))).thenReturn(didResource);
         when(didResourceStoreMock.query(any())).thenReturn(List.of(didResource));
-        when(publisherMock.publish(anyString())).thenReturn(Result.success());
+        when(publisherMock.publishAll(any())).thenReturn(Result.success());
 
         service.on(EventEnvelope.Builder.newInstance()
                 .payload(ParticipantContextUpdated.Builder.newInstance()
@@ -525,7 +651,7 @@ class DidDocumentServiceImplTest {
                 .id(UUID.randomUUID().toString())
                 .build());
 
-        verify(publisherMock).publish(eq(did));
+        verify(publisherMock).publishAll(eq(List.of(didResource)));
     }
 
     @SuppressWarnings("unchecked")
@@ -596,6 +722,94 @@ class DidDocumentServiceImplTest {
         verifyNoInteractions(publisherMock);
     }
 
+    @SuppressWarnings("unchecked")
+    @Test
+    void onKeyPairRevoked_whenPublished_shouldRepublish() throws JOSEException {
+        var keyId = "key-id";
+        var doc = createDidDocument().verificationMethod(List.of(VerificationMethod.Builder.newInstance()
+                        .id(keyId)
+                        .publicKeyJwk(new ECKeyGenerator(Curve.P_256).keyID(keyId).generate().toJSONObject())
+                        .build()))
+                .build();
+        var did = doc.getId();
+        var didResource = DidResource.Builder.newInstance().did(did).state(DidState.PUBLISHED).document(doc).build();
+
+        when(didResourceStoreMock.query(any(QuerySpec.class))).thenReturn(List.of(didResource));
+        when(didResourceStoreMock.update(any())).thenReturn(StoreResult.success());
+        when(didResourceStoreMock.findById(eq(did))).thenReturn(didResource);
+        when(publisherMock.publish(did)).thenReturn(Result.success());
+
+        var event = EventEnvelope.Builder.newInstance()
+                .at(System.currentTimeMillis())
+                .id(UUID.randomUUID().toString())
+                .payload(KeyPairRevoked.Builder.newInstance()
+                        .keyId(keyId)
+                        .keyPairResource(KeyPairResource.Builder.newInstance().id(UUID.randomUUID().toString()).build())
+                        .participantContextId("test-participant")
+                        .build())
+                .build();
+
+        service.on(event);
+
+        verify(didResourceStoreMock).update(argThat(dr -> dr.getDocument().getVerificationMethod().stream().noneMatch(vm -> vm.getId().equals(keyId))));
+        verify(publisherMock).publish(eq(did));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void onKeyPairRotated_withWindow_shouldUpdateAndPublishOnce() throws JOSEException {
+        var executor = mock(ScheduledExecutorService.class);
+        var coalescingService = new DidDocumentServiceImpl(new NoopTransactionContext(), didResourceStoreMock, publisherRegistry, participantContextServiceMock,
+                monitorMock, keyParserRegistry, executor, Duration.ofMillis(100));
+        var oldKeyId = "old-key-id";
+        var newKeyId = "new-key-id";
+        var doc = createDidDocument().verificationMethod(List.of(VerificationMethod.Builder.newInstance()
+                        .id(oldKeyId)
+                        .publicKeyJwk(new ECKeyGenerator(Curve.P_256).keyID(oldKeyId).generate().toJSONObject())
+                        .build()))
+                .build();
+        var did = doc.getId();
+        var didResource = DidResource.Builder.newInstance().did(did).state(DidState.GENERATED).document(doc).build();
+
+        when(didResourceStoreMock.query(any(QuerySpec.class))).thenReturn(List.of(didResource));
+        when(didResourceStoreMock.update(any())).thenReturn(StoreResult.success());
+        when(didResourceStoreMock.findById(eq(did))).thenReturn(didResource);
+        when(publisherMock.publish(did)).thenReturn(Result.success());
+
+        coalescingService.on(EventEnvelope.Builder.newInstance()
+                .at(System.currentTimeMillis())
+                .id(UUID.randomUUID().toString())
+                .payload(KeyPairRevoked.Builder.newInstance()
+                        .keyId(oldKeyId)
+                        .keyPairResource(KeyPairResource.Builder.newInstance().id(UUID.randomUUID().toString()).build())
+                        .participantContextId(TEST_PARTICIPANT_ID)
+                        .build())
+                .build());
+        coalescingService.on(EventEnvelope.Builder.newInstance()
+                .at(System.currentTimeMillis())
+                .id(UUID.randomUUID().toString())
+                .payload(KeyPairActivated.Builder.newInstance()
+                        .keyId(newKeyId)
+                        .keyPairResource(KeyPairResource.Builder.newInstance().id(UUID.randomUUID().toString()).build())
+                        .participantContextId(TEST_PARTICIPANT_ID)
+                        .publicKey(new ECKeyGenerator(Curve.P_256).keyID(newKeyId).generate().toPublicJWK().toJSONString(), JSON_WEB_KEY_2020)
+                        .build())
+                .build());
+
+        var flush = ArgumentCaptor.forClass(Runnable.class);
+        verify(executor).schedule(flush.capture(), eq(100L), eq(TimeUnit.MILLISECONDS));
+        verify(didResourceStoreMock, never()).update(any());
+
+        flush.getValue().run();
+
+        verify(didResourceStoreMock).query(any(QuerySpec.class));
+        verify(didResourceStoreMock).update(argThat(dr -> dr.getDocument().getVerificationMethod().stream().noneMatch(vm -> vm.getId().equals(oldKeyId)) &&
+                dr.getDocument().getVerificationMethod().stream().anyMatch(vm -> vm.getId().equals(newKeyId))));
+        verify(didResourceStoreMock).findById(did);
+        verifyNoMoreInteractions(didResourceStoreMock);
+        verify(publisherMock).publish(eq(did));
+    }
+
     @SuppressWarnings("unchecked")
     @Test
     void onOtherEvent_shouldLogWarning() {
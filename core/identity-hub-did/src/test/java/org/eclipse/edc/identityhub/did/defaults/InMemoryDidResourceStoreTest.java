@@ -16,11 +16,10 @@ package org.eclipse.edc.identityhub.did.defaults;
 
 import org.eclipse.edc.identityhub.did.store.test.DidResourceStoreTestBase;
 import org.eclipse.edc.identityhub.spi.did.store.DidResourceStore;
-import org.eclipse.edc.query.CriterionOperatorRegistryImpl;
 
 class InMemoryDidResourceStoreTest extends DidResourceStoreTestBase {
 
-    private final DidResourceStore store = new InMemoryDidResourceStore(CriterionOperatorRegistryImpl.ofDefaults());
+    private final DidResourceStore store = new InMemoryDidResourceStore();
 
     @Override
     protected DidResourceStore getStore() {
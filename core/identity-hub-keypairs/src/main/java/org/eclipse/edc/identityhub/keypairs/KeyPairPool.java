@@ -0,0 +1,241 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.keypairs;
+
+import org.eclipse.edc.identityhub.spi.keypair.KeyPairMetrics;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.result.Result;
+import org.jetbrains.annotations.Nullable;
+
+import java.security.KeyPair;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.eclipse.edc.identityhub.keypairs.KeyPairGenerator.ALGORITHM_EC;
+import static org.eclipse.edc.identityhub.keypairs.KeyPairGenerator.ALGORITHM_EDDSA;
+import static org.eclipse.edc.identityhub.keypairs.KeyPairGenerator.ALGORITHM_RSA;
+import static org.eclipse.edc.identityhub.keypairs.KeyPairGenerator.CURVE_ED25519;
+import static org.eclipse.edc.identityhub.keypairs.KeyPairGenerator.RSA_DEFAULT_LENGTH;
+import static org.eclipse.edc.identityhub.keypairs.KeyPairGenerator.SUPPORTED_ALGORITHMS;
+
+/**
+ * Pool of pre-generated {@link KeyPair}s, so that generating a key pair, which can take hundreds of milliseconds for RSA keys,
+ * does not happen while a participant is onboarded. Key pairs are pooled per profile, i.e. the algorithm and its parameter,
+ * for example {@code EDDSA/ed25519}, {@code EC/secp256r1} or {@code RSA/2048}.
+ * <p>
+ * Whenever the number of pooled key pairs of a profile drops below the low watermark, it is replenished up to the high watermark
+ * on the executor. Key pairs are generated synchronously if the profile is not pooled, or the pool is empty. Hits and misses
+ * are reported to the {@link KeyPairMetrics}.
+ */
+public class KeyPairPool {
+    private static final String ALGORITHM_ENTRY = "algorithm";
+    private static final String RSA_PARAM_LENGTH = "length";
+    private static final String EC_PARAM_CURVE = "curve";
+    private static final String EC_DEFAULT_CURVE = "secp256r1";
+
+    private final Map<String, Profile> profiles;
+    private final Executor executor;
+    private final Monitor monitor;
+    private final int lowWatermark;
+    private final int highWatermark;
+    private final KeyPairMetrics metrics;
+    private final Function<Map<String, Object>, Result<KeyPair>> generator;
+
+    /**
+     * Creates a pool for the given profiles.
+     *
+     * @param profiles      the profiles, in the form {@code ALGORITHM/PARAMETER}, e.g. {@code RSA/2048}
+     * @param executor      the executor on which the pool is replenished
+     * @param lowWatermark  the number of pooled key pairs below which the pool of a profile is replenished
+     * @param highWatermark the number of pooled key pairs up to which the pool of a profile is replenished
+     * @param metrics       the metrics to report hits and misses to
+     */
+    public KeyPairPool(Collection<String> profiles, Executor executor, Monitor monitor, int lowWatermark, int highWatermark, KeyPairMetrics metrics) {
+        this(profiles, executor, monitor, lowWatermark, highWatermark, metrics, KeyPairGenerator::generateKeyPair);
+    }
+
+    KeyPairPool(Collection<String> profiles, Executor executor, Monitor monitor, int lowWatermark, int highWatermark, KeyPairMetrics metrics,
+                Function<Map<String, Object>, Result<KeyPair>> generator) {
+        if (lowWatermark < 0 || highWatermark < lowWatermark) {
+            throw new IllegalArgumentException("Watermarks must satisfy 0 <= low <= high, but were low = %d, high = %d".formatted(lowWatermark, highWatermark));
+        }
+        this.profiles = profiles.stream()
+                .map(KeyPairPool::parseProfile)
+                .collect(Collectors.toMap(KeyPairPool::profileOf, Profile::new, (p1, p2) -> p1, ConcurrentHashMap::new));
+        this.executor = executor;
+        this.monitor = monitor;
+        this.lowWatermark = lowWatermark;
+        this.highWatermark = highWatermark;
+        this.metrics = metrics;
+        this.generator = generator;
+    }
+
+    /**
+     * Creates a pool that does not pool any profile, and thus always generates key pairs synchronously.
+     */
+    public static KeyPairPool disabled() {
+        return new KeyPairPool(List.of(), Runnable::run, null, 0, 0, KeyPairMetrics.NOOP);
+    }
+
+    /**
+     * Determines the profile of the given generator parameters, applying the same defaults as the {@link KeyPairGenerator}.
+     *
+     * @return the profile, e.g. {@code RSA/2048}, or null if the algorithm is unknown
+     */
+    static @Nullable String profileOf(Map<String, Object> parameters) {
+        var algorithm = parameters.get(ALGORITHM_ENTRY);
+        if (algorithm == null) {
+            return null;
+        }
+        return switch (algorithm.toString().toUpperCase()) {
+            case ALGORITHM_RSA -> ALGORITHM_RSA + "/" + parameters.getOrDefault(RSA_PARAM_LENGTH, RSA_DEFAULT_LENGTH);
+            case ALGORITHM_EC -> ALGORITHM_EC + "/" + parameters.getOrDefault(EC_PARAM_CURVE, EC_DEFAULT_CURVE);
+            case ALGORITHM_EDDSA -> ALGORITHM_EDDSA + "/" + parameters.getOrDefault(EC_PARAM_CURVE, CURVE_ED25519).toString().toLowerCase();
+            default -> null;
+        };
+    }
+
+    private static Map<String, Object> parseProfile(String profile) {
+        var parts = profile.trim().split("/", 2);
+        var algorithm = parts[0].toUpperCase();
+        if (!SUPPORTED_ALGORITHMS.contains(algorithm)) {
+            throw new IllegalArgumentException("Unsupported key pair pool profile '%s'".formatted(profile));
+        }
+        if (parts.length == 1) {
+            return Map.of(ALGORITHM_ENTRY, algorithm);
+        }
+        return switch (algorithm) {
+            case ALGORITHM_RSA -> Map.of(ALGORITHM_ENTRY, algorithm, RSA_PARAM_LENGTH, Integer.parseInt(parts[1]));
+            case ALGORITHM_EC, ALGORITHM_EDDSA -> Map.of(ALGORITHM_ENTRY, algorithm, EC_PARAM_CURVE, parts[1]);
+            default -> throw new IllegalArgumentException("Unsupported key pair pool profile '%s'".formatted(profile));
+        };
+    }
+
+    /**
+     * Fills the pools of all profiles up to the high watermark.
+     */
+    public void start() {
+        profiles.values().forEach(this::replenish);
+    }
+
+    /**
+     * Takes a key pair from the pool, or generates one synchronously if the profile is not pooled or the pool is empty.
+     *
+     * @param parameters the generator parameters, see {@link KeyPairGenerator#generateKeyPair(Map)}
+     */
+    public Result<KeyPair> take(Map<String, Object> parameters) {
+        var profileName = profileOf(parameters);
+        var profile = profileName != null ? profiles.get(profileName) : null;
+        if (profile == null) {
+            return generator.apply(parameters);
+        }
+        var keyPair = profile.keyPairs.poll();
+        if (keyPair != null) {
+            profile.size.decrementAndGet();
+            profile.hits.incrementAndGet();
+            metrics.poolHit(profileName);
+        } else {
+            profile.misses.incrementAndGet();
+            metrics.poolMiss(profileName);
+        }
+        if (profile.size.get() < lowWatermark || keyPair == null) {
+            replenish(profile);
+        }
+        return keyPair != null ? Result.success(keyPair) : generator.apply(parameters);
+    }
+
+    /**
+     * The number of key pairs that were taken from the pool of the given profile.
+     */
+    public long getHits(String profile) {
+        var p = profiles.get(profile);
+        return p != null ? p.hits.get() : 0;
+    }
+
+    /**
+     * The number of key pairs of the given profile that were generated synchronously, because the pool was empty.
+     */
+    public long getMisses(String profile) {
+        var p = profiles.get(profile);
+        return p != null ? p.misses.get() : 0;
+    }
+
+    /**
+     * The ratio of key pairs of the given profile that were taken from the pool, or 0 if none were requested yet.
+     */
+    public double getHitRate(String profile) {
+        var hits = getHits(profile);
+        var total = hits + getMisses(profile);
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /**
+     * The number of key pairs that are currently pooled for the given profile.
+     */
+    public int size(String profile) {
+        var p = profiles.get(profile);
+        return p != null ? p.size.get() : 0;
+    }
+
+    private void replenish(Profile profile) {
+        if (!profile.replenishing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(() -> fill(profile));
+        } catch (RejectedExecutionException e) {
+            profile.replenishing.set(false);
+        }
+    }
+
+    private void fill(Profile profile) {
+        try {
+            while (profile.size.get() < highWatermark) {
+                var result = generator.apply(profile.parameters);
+                if (result.failed()) {
+                    monitor.warning("Could not pre-generate key pair for profile '%s': %s".formatted(profileOf(profile.parameters), result.getFailureDetail()));
+                    return;
+                }
+                profile.keyPairs.add(result.getContent());
+                profile.size.incrementAndGet();
+            }
+        } finally {
+            profile.replenishing.set(false);
+        }
+    }
+
+    private static final class Profile {
+        private final Map<String, Object> parameters;
+        private final ConcurrentLinkedQueue<KeyPair> keyPairs = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+        private final AtomicLong hits = new AtomicLong();
+        private final AtomicLong misses = new AtomicLong();
+        private final AtomicBoolean replenishing = new AtomicBoolean();
+
+        private Profile(Map<String, Object> parameters) {
+            this.parameters = parameters;
+        }
+    }
+}
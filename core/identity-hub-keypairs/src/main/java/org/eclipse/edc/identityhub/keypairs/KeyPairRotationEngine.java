@@ -0,0 +1,204 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.keypairs;
+
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.OctetKeyPair;
+import com.nimbusds.jose.jwk.RSAKey;
+import org.eclipse.edc.identityhub.spi.keypair.KeyPairMetrics;
+import org.eclipse.edc.identityhub.spi.keypair.KeyPairService;
+import org.eclipse.edc.identityhub.spi.keypair.model.KeyPairResource;
+import org.eclipse.edc.identityhub.spi.keypair.store.KeyPairResourceStore;
+import org.eclipse.edc.identityhub.spi.participantcontext.model.KeyDescriptor;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.result.ServiceResult;
+
+import java.text.ParseException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+import static org.eclipse.edc.identityhub.keypairs.KeyPairGenerator.ALGORITHM_EC;
+import static org.eclipse.edc.identityhub.keypairs.KeyPairGenerator.ALGORITHM_EDDSA;
+import static org.eclipse.edc.identityhub.keypairs.KeyPairGenerator.ALGORITHM_RSA;
+import static org.eclipse.edc.identityhub.keypairs.KeyPairGenerator.CURVE_ED25519;
+
+/**
+ * Rotates key pairs automatically when their use duration ends, and retires (revokes) rotated key pairs when their rotation
+ * duration ends. Every run handles at most one batch of key pairs of each kind, which limits the rate of vault writes, DID
+ * document updates and STS account updates to one batch per period, even if many key pairs become due at the same time.
+ * <p>
+ * The successor of a rotated key pair is generated with the same algorithm as its public key, and gets the key ID and private
+ * key alias of its predecessor with a {@code -r<timestamp>} suffix. Key pairs that cannot be rotated or retired are skipped
+ * until the next restart, so that they do not block the batches. The progress of every run is reported to the {@link KeyPairMetrics}.
+ */
+public class KeyPairRotationEngine implements Runnable {
+    private static final Pattern ROTATION_SUFFIX = Pattern.compile("-r\\d+$");
+    private static final Map<String, Object> DEFAULT_GENERATOR_PARAMS = Map.of("algorithm", ALGORITHM_EDDSA, "curve", CURVE_ED25519);
+
+    private final KeyPairResourceStore store;
+    private final KeyPairService keyPairService;
+    private final Monitor monitor;
+    private final Clock clock;
+    private final int batchSize;
+    private final long leadTimeMillis;
+    private final long defaultRotationDurationMillis;
+    private final KeyPairMetrics metrics;
+    private final Set<String> skipped = ConcurrentHashMap.newKeySet();
+    private final AtomicLong rotated = new AtomicLong();
+    private final AtomicLong retired = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    /**
+     * Creates a new engine.
+     *
+     * @param batchSize               the maximum number of key pairs that are rotated, and retired, per run
+     * @param leadTime                how long before the end of their use duration key pairs are rotated
+     * @param defaultRotationDuration the rotation duration of key pairs that have none configured
+     * @param metrics                 the metrics to report the progress of every run to
+     */
+    public KeyPairRotationEngine(KeyPairResourceStore store, KeyPairService keyPairService, Monitor monitor, Clock clock, int batchSize,
+                                 Duration leadTime, Duration defaultRotationDuration, KeyPairMetrics metrics) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("The batch size must be > 0, but was %d".formatted(batchSize));
+        }
+        this.store = store;
+        this.keyPairService = keyPairService;
+        this.monitor = monitor;
+        this.clock = clock;
+        this.batchSize = batchSize;
+        this.leadTimeMillis = leadTime.toMillis();
+        this.defaultRotationDurationMillis = defaultRotationDuration.toMillis();
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void run() {
+        var now = clock.millis();
+        var rotatedBefore = rotated.get();
+        var retiredBefore = retired.get();
+        var failedBefore = failed.get();
+        var retiredInRun = process(store.findDueForRetirement(now, batchSize + skipped.size()).orElse(f -> failedQuery(f.getFailureDetail())),
+                keyPair -> keyPairService.revokeKey(keyPair.getId(), null), "retire", retired);
+        var rotatedInRun = process(store.findDueForRotation(now + leadTimeMillis, batchSize + skipped.size()).orElse(f -> failedQuery(f.getFailureDetail())),
+                keyPair -> keyPairService.rotateKeyPair(keyPair.getId(), successorOf(keyPair, now), rotationDurationOf(keyPair)), "rotate", rotated);
+        if (retiredInRun + rotatedInRun > 0) {
+            monitor.info("Rotated %d and retired %d key pairs (total: %d rotated, %d retired, %d failed)".formatted(rotatedInRun, retiredInRun, rotated.get(), retired.get(), failed.get()));
+        }
+        metrics.rotationRunCompleted(Duration.ofMillis(clock.millis() - now), (int) (rotated.get() - rotatedBefore), (int) (retired.get() - retiredBefore),
+                (int) (failed.get() - failedBefore), skipped.size());
+    }
+
+    /**
+     * The total number of key pairs that were rotated.
+     */
+    public long getRotated() {
+        return rotated.get();
+    }
+
+    /**
+     * The total number of key pairs that were retired.
+     */
+    public long getRetired() {
+        return retired.get();
+    }
+
+    /**
+     * The total number of key pairs that could not be rotated or retired.
+     */
+    public long getFailed() {
+        return failed.get();
+    }
+
+    /**
+     * Determines the key generator parameters of the successor of a key pair from its public key. Public keys that are not
+     * in JWK format get an EdDSA/Ed25519 successor.
+     */
+    static Map<String, Object> generatorParamsOf(KeyPairResource keyPair) {
+        try {
+            var jwk = JWK.parse(keyPair.getSerializedPublicKey());
+            if (jwk instanceof OctetKeyPair okp) {
+                return Map.of("algorithm", ALGORITHM_EDDSA, "curve", okp.getCurve().getName().toLowerCase());
+            }
+            if (jwk instanceof ECKey ec && ec.getCurve().getStdName() != null) {
+                return Map.of("algorithm", ALGORITHM_EC, "curve", ec.getCurve().getStdName());
+            }
+            if (jwk instanceof RSAKey rsa) {
+                return Map.of("algorithm", ALGORITHM_RSA, "length", rsa.size());
+            }
+        } catch (ParseException | RuntimeException e) {
+            // not a JWK
+        }
+        return DEFAULT_GENERATOR_PARAMS;
+    }
+
+    private int process(Collection<KeyPairResource> due, Function<KeyPairResource, ServiceResult<Void>> action, String actionName, AtomicLong counter) {
+        var processed = 0;
+        for (var keyPair : due) {
+            if (processed >= batchSize) {
+                break;
+            }
+            if (skipped.contains(keyPair.getId())) {
+                continue;
+            }
+            ServiceResult<Void> result;
+            try {
+                result = action.apply(keyPair);
+            } catch (RuntimeException e) {
+                result = ServiceResult.unexpected(e.getMessage());
+            }
+            processed++;
+            if (result.succeeded()) {
+                counter.incrementAndGet();
+            } else {
+                failed.incrementAndGet();
+                skipped.add(keyPair.getId());
+                monitor.warning("Failed to %s key pair '%s', it is skipped until the next restart: %s".formatted(actionName, keyPair.getId(), result.getFailureDetail()));
+            }
+        }
+        return processed;
+    }
+
+    private KeyDescriptor successorOf(KeyPairResource keyPair, long now) {
+        return KeyDescriptor.Builder.newInstance()
+                .keyId(withRotationSuffix(keyPair.getKeyId(), now))
+                .privateKeyAlias(withRotationSuffix(keyPair.getPrivateKeyAlias(), now))
+                .type(keyPair.getKeyContext())
+                .keyGeneratorParams(generatorParamsOf(keyPair))
+                .active(true)
+                .build();
+    }
+
+    private long rotationDurationOf(KeyPairResource keyPair) {
+        return keyPair.getRotationDuration() > 0 ? keyPair.getRotationDuration() : defaultRotationDurationMillis;
+    }
+
+    private String withRotationSuffix(String name, long now) {
+        return ROTATION_SUFFIX.matcher(name).replaceFirst("") + "-r" + now;
+    }
+
+    private List<KeyPairResource> failedQuery(String failureDetail) {
+        monitor.warning("Failed to query key pairs for rotation: %s".formatted(failureDetail));
+        return List.of();
+    }
+}
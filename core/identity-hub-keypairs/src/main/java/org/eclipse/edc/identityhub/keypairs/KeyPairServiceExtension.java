@@ -14,6 +14,7 @@
 
 package org.eclipse.edc.identityhub.keypairs;
 
+import org.eclipse.edc.identityhub.spi.keypair.KeyPairMetrics;
 import org.eclipse.edc.identityhub.spi.keypair.KeyPairService;
 import org.eclipse.edc.identityhub.spi.keypair.events.KeyPairObservable;
 import org.eclipse.edc.identityhub.spi.keypair.store.KeyPairResourceStore;
@@ -22,19 +23,55 @@ import org.eclipse.edc.identityhub.spi.participantcontext.store.ParticipantConte
 import org.eclipse.edc.runtime.metamodel.annotation.Extension;
 import org.eclipse.edc.runtime.metamodel.annotation.Inject;
 import org.eclipse.edc.runtime.metamodel.annotation.Provider;
+import org.eclipse.edc.runtime.metamodel.annotation.Setting;
 import org.eclipse.edc.spi.event.EventRouter;
+import org.eclipse.edc.spi.monitor.Monitor;
 import org.eclipse.edc.spi.security.Vault;
+import org.eclipse.edc.spi.system.ExecutorInstrumentation;
 import org.eclipse.edc.spi.system.ServiceExtension;
 import org.eclipse.edc.spi.system.ServiceExtensionContext;
 import org.eclipse.edc.transaction.spi.TransactionContext;
 
 import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import static org.eclipse.edc.identityhub.keypairs.KeyPairServiceExtension.NAME;
 
 @Extension(NAME)
 public class KeyPairServiceExtension implements ServiceExtension {
     public static final String NAME = "KeyPair Service Extension";
+    public static final String KEY_PAIR_POOL = "KeyPairPool";
+    public static final String KEY_PAIR_ROTATION = "KeyPairRotation";
+
+    @Setting(description = "Comma-separated list of key pair profiles, for which key pairs are pre-generated in the background, e.g. 'EdDSA/ed25519,EC/secp256r1,RSA/2048'. " +
+            "Key pairs of other profiles are generated when they are requested.", key = "edc.iam.keypair.pool.profiles", required = false)
+    private String poolProfiles;
+    @Setting(description = "Number of pre-generated key pairs per profile, below which the pool is replenished.",
+            min = 0, defaultValue = "5", key = "edc.iam.keypair.pool.watermark.low")
+    private int poolLowWatermark;
+    @Setting(description = "Number of pre-generated key pairs per profile, up to which the pool is replenished.",
+            min = 0, defaultValue = "20", key = "edc.iam.keypair.pool.watermark.high")
+    private int poolHighWatermark;
+    @Setting(description = "Number of threads that replenish the key pair pool.",
+            min = 1, defaultValue = "1", key = "edc.iam.keypair.pool.threads")
+    private int poolThreads;
+    @Setting(description = "Period (in seconds) at which key pairs are rotated when their use duration ends, and retired when their rotation duration ends. " +
+            "Configuring a number <=0 disables automatic rotation.", defaultValue = "0", key = "edc.iam.keypair.rotation.period")
+    private long rotationPeriod;
+    @Setting(description = "Maximum number of key pairs that are rotated, and retired, per period.",
+            min = 1, defaultValue = "50", key = "edc.iam.keypair.rotation.batch.size")
+    private int rotationBatchSize;
+    @Setting(description = "Time (in seconds) before the end of their use duration at which key pairs are rotated.",
+            min = 0, defaultValue = "86400", key = "edc.iam.keypair.rotation.lead")
+    private long rotationLeadTime;
+    @Setting(description = "Time (in seconds) that automatically rotated key pairs remain available for verification, unless they have a rotation duration.",
+            min = 0, defaultValue = "604800", key = "edc.iam.keypair.rotation.duration")
+    private long defaultRotationDuration;
 
     @Inject
     private Vault vault;
@@ -48,22 +85,73 @@ public class KeyPairServiceExtension implements ServiceExtension {
     private TransactionContext transactionContext;
     @Inject
     private ParticipantContextStore participantContextService;
-
+    @Inject
+    private ExecutorInstrumentation executorInstrumentation;
+    @Inject(required = false)
+    private KeyPairMetrics metrics;
 
     private KeyPairObservable observable;
+    private KeyPairPool keyPairPool;
+    private ExecutorService poolExecutorService;
+    private ScheduledExecutorService rotationExecutorService;
+    private KeyPairService keyPairService;
+    private Monitor monitor;
 
     @Override
     public String name() {
         return NAME;
     }
 
+    @Override
+    public void initialize(ServiceExtensionContext context) {
+        monitor = context.getMonitor();
+        var profiles = poolProfiles == null ? new String[0] : Arrays.stream(poolProfiles.split(",")).map(String::trim).filter(p -> !p.isEmpty()).toArray(String[]::new);
+        if (profiles.length == 0) {
+            keyPairPool = KeyPairPool.disabled();
+            return;
+        }
+        poolExecutorService = executorInstrumentation.instrument(Executors.newFixedThreadPool(poolThreads), KEY_PAIR_POOL);
+        keyPairPool = new KeyPairPool(Arrays.asList(profiles), poolExecutorService, context.getMonitor().withPrefix(KEY_PAIR_POOL), poolLowWatermark, poolHighWatermark,
+                getMetrics());
+    }
+
+    @Override
+    public void start() {
+        keyPairPool.start();
+        if (rotationPeriod > 0) {
+            rotationExecutorService = executorInstrumentation.instrument(Executors.newSingleThreadScheduledExecutor(), KEY_PAIR_ROTATION);
+            var engine = new KeyPairRotationEngine(keyPairResourceStore, keyPairService, monitor.withPrefix(KEY_PAIR_ROTATION), clock, rotationBatchSize,
+                    Duration.ofSeconds(rotationLeadTime), Duration.ofSeconds(defaultRotationDuration), getMetrics());
+            rotationExecutorService.scheduleAtFixedRate(engine, rotationPeriod, rotationPeriod, TimeUnit.SECONDS);
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        if (poolExecutorService != null) {
+            poolExecutorService.shutdownNow();
+        }
+        if (rotationExecutorService != null) {
+            rotationExecutorService.shutdownNow();
+        }
+    }
+
     @Provider
     public KeyPairService createParticipantService(ServiceExtensionContext context) {
-        var service = new KeyPairServiceImpl(keyPairResourceStore, vault, context.getMonitor().withPrefix("KeyPairService"), keyPairObservable(), transactionContext, participantContextService);
+        var service = new KeyPairServiceImpl(keyPairResourceStore, vault, context.getMonitor().withPrefix("KeyPairService"), keyPairObservable(), transactionContext,
+                participantContextService, keyPairPool);
         eventRouter.registerSync(ParticipantContextDeleted.class, service);
+        keyPairService = service;
         return service;
     }
 
+    /**
+     * Measurements are only counted in memory, unless a metrics backend provides {@link KeyPairMetrics}.
+     */
+    private KeyPairMetrics getMetrics() {
+        return metrics != null ? metrics : KeyPairMetrics.NOOP;
+    }
+
     @Provider
     public KeyPairObservable keyPairObservable() {
         if (observable == null) {
@@ -25,6 +25,7 @@ import org.eclipse.edc.identityhub.spi.participantcontext.model.KeyDescriptor;
 import org.eclipse.edc.identityhub.spi.participantcontext.model.ParticipantContext;
 import org.eclipse.edc.identityhub.spi.participantcontext.model.ParticipantContextState;
 import org.eclipse.edc.identityhub.spi.participantcontext.model.ParticipantResource;
+import org.eclipse.edc.identityhub.spi.participantcontext.store.OptimisticLocking;
 import org.eclipse.edc.identityhub.spi.participantcontext.store.ParticipantContextStore;
 import org.eclipse.edc.security.token.jwt.CryptoConverter;
 import org.eclipse.edc.spi.event.Event;
@@ -33,10 +34,8 @@ import org.eclipse.edc.spi.event.EventSubscriber;
 import org.eclipse.edc.spi.monitor.Monitor;
 import org.eclipse.edc.spi.query.Criterion;
 import org.eclipse.edc.spi.query.QuerySpec;
-import org.eclipse.edc.spi.result.AbstractResult;
 import org.eclipse.edc.spi.result.Result;
 import org.eclipse.edc.spi.result.ServiceResult;
-import org.eclipse.edc.spi.result.StoreResult;
 import org.eclipse.edc.spi.security.Vault;
 import org.eclipse.edc.transaction.spi.TransactionContext;
 import org.jetbrains.annotations.NotNull;
@@ -48,7 +47,6 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 import static org.eclipse.edc.identityhub.spi.participantcontext.model.ParticipantContextState.ACTIVATED;
 import static org.eclipse.edc.identityhub.spi.participantcontext.model.ParticipantContextState.CREATED;
@@ -60,14 +58,24 @@ public class KeyPairServiceImpl implements KeyPairService, EventSubscriber {
     private final KeyPairObservable observable;
     private final TransactionContext transactionContext;
     private final ParticipantContextStore participantContextService;
+    private final KeyPairPool keyPairPool;
 
     public KeyPairServiceImpl(KeyPairResourceStore keyPairResourceStore, Vault vault, Monitor monitor, KeyPairObservable observable, TransactionContext transactionContext, ParticipantContextStore participantContextService) {
+        this(keyPairResourceStore, vault, monitor, observable, transactionContext, participantContextService, KeyPairPool.disabled());
+    }
+
+    /**
+     * Creates a new service, which takes generated key pairs from the given {@link KeyPairPool}.
+     */
+    public KeyPairServiceImpl(KeyPairResourceStore keyPairResourceStore, Vault vault, Monitor monitor, KeyPairObservable observable, TransactionContext transactionContext,
+                              ParticipantContextStore participantContextService, KeyPairPool keyPairPool) {
         this.keyPairResourceStore = keyPairResourceStore;
         this.vault = vault;
         this.monitor = monitor;
         this.observable = observable;
         this.transactionContext = transactionContext;
         this.participantContextService = participantContextService;
+        this.keyPairPool = keyPairPool;
     }
 
     @Override
@@ -161,6 +169,7 @@ public class KeyPairServiceImpl implements KeyPairService, EventSubscriber {
             boolean wasDefault = oldKey.isDefaultPair();
 
             // deactivate the old key
+            var wasRotated = oldKey.getState() == KeyPairState.ROTATED.code();
             var oldAlias = oldKey.getPrivateKeyAlias();
             vault.deleteSecret(oldAlias);
             oldKey.revoke();
@@ -170,7 +179,9 @@ public class KeyPairServiceImpl implements KeyPairService, EventSubscriber {
             if (newKeyDesc != null) {
                 return updateResult.compose(v -> addKeyPair(participantContextId, newKeyDesc, wasDefault));
             }
-            monitor.warning("Revoking keys without a successor key may leave the participant without an active keypair.");
+            if (!wasRotated) {
+                monitor.warning("Revoking keys without a successor key may leave the participant without an active keypair.");
+            }
             return updateResult;
         });
     }
@@ -182,14 +193,14 @@ public class KeyPairServiceImpl implements KeyPairService, EventSubscriber {
 
     @Override
     public ServiceResult<Void> activate(String keyPairResourceId) {
-        return transactionContext.execute(() -> {
+        return OptimisticLocking.retryOnConflict(() -> transactionContext.execute(() -> {
             var existingKeyPair = findById(keyPairResourceId);
             if (existingKeyPair == null) {
                 return ServiceResult.notFound("A KeyPairResource with ID '%s' does not exist.".formatted(keyPairResourceId));
             }
 
             return activateKeyPair(existingKeyPair);
-        });
+        }));
     }
 
     @Override
@@ -231,7 +242,7 @@ public class KeyPairServiceImpl implements KeyPairService, EventSubscriber {
         }
         existingKeyPair.activate();
 
-        return ServiceResult.from(keyPairResourceStore.update(existingKeyPair)
+        return ServiceResult.from(OptimisticLocking.throwOnConflict(keyPairResourceStore.update(existingKeyPair))
                 .onSuccess(u -> observable.invokeForEach(l -> l.activated(existingKeyPair, existingKeyPair.getKeyContext()))));
     }
 
@@ -241,22 +252,15 @@ public class KeyPairServiceImpl implements KeyPairService, EventSubscriber {
     }
 
     private void deleted(ParticipantContextDeleted event) {
-        //hard-delete all keypairs that are associated with the deleted participant
-        var query = ParticipantResource.queryByParticipantContextId(event.getParticipantContextId()).build();
+        //hard-delete all keypairs that are associated with the deleted participant with one statement, and remove their private keys
+        var participantContextId = event.getParticipantContextId();
+        var query = ParticipantResource.queryByParticipantContextId(participantContextId).limit(Integer.MAX_VALUE).build();
         transactionContext.execute(() -> {
             keyPairResourceStore.query(query)
-                    .compose(list -> {
-                        var errors = list.stream()
-                                .map(r -> keyPairResourceStore.deleteById(r.getId()))
-                                .filter(StoreResult::failed)
-                                .map(AbstractResult::getFailureDetail)
-                                .collect(Collectors.joining(","));
-
-                        if (errors.isEmpty()) {
-                            return StoreResult.success();
-                        }
-                        return StoreResult.generalError("An error occurred when deleting KeyPairResources: %s".formatted(errors));
-                    })
+                    .compose(list -> keyPairResourceStore.deleteByParticipantContextId(participantContextId)
+                            .onSuccess(deleted -> list.stream()
+                                    .filter(r -> r.getState() != KeyPairState.REVOKED.code())
+                                    .forEach(r -> vault.deleteSecret(r.getPrivateKeyAlias()))))
                     .onFailure(f -> monitor.warning("Removing key pairs from a deleted ParticipantContext failed: %s".formatted(f.getFailureDetail())));
         });
     }
@@ -270,7 +274,7 @@ public class KeyPairServiceImpl implements KeyPairService, EventSubscriber {
     private Result<String> generateOrGetKey(KeyDescriptor keyDescriptor) {
         String publicKeySerialized;
         if (keyDescriptor.getKeyGeneratorParams() != null) {
-            var keyPair = KeyPairGenerator.generateKeyPair(keyDescriptor.getKeyGeneratorParams());
+            var keyPair = keyPairPool.take(keyDescriptor.getKeyGeneratorParams());
             if (keyPair.failed()) {
                 return keyPair.mapFailure();
             }
@@ -0,0 +1,129 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.keypairs;
+
+import org.eclipse.edc.identityhub.spi.keypair.KeyPairMetrics;
+import org.eclipse.edc.spi.result.Result;
+import org.junit.jupiter.api.Test;
+
+import java.security.KeyPair;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.eclipse.edc.junit.assertions.AbstractResultAssert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+class KeyPairPoolTest {
+
+    private final AtomicInteger generated = new AtomicInteger();
+    private final Function<Map<String, Object>, Result<KeyPair>> generator = params -> {
+        generated.incrementAndGet();
+        return Result.success(new KeyPair(null, null));
+    };
+
+    @Test
+    void profileOf_shouldApplyDefaults() {
+        assertThat(KeyPairPool.profileOf(Map.of("algorithm", "rsa"))).isEqualTo("RSA/2048");
+        assertThat(KeyPairPool.profileOf(Map.of("algorithm", "RSA", "length", "4096"))).isEqualTo("RSA/4096");
+        assertThat(KeyPairPool.profileOf(Map.of("algorithm", "EC"))).isEqualTo("EC/secp256r1");
+        assertThat(KeyPairPool.profileOf(Map.of("algorithm", "EdDSA", "curve", "Ed25519"))).isEqualTo("EDDSA/ed25519");
+        assertThat(KeyPairPool.profileOf(Map.of("algorithm", "foo"))).isNull();
+    }
+
+    @Test
+    void start_shouldFillUpToHighWatermark() {
+        var pool = new KeyPairPool(List.of("EdDSA/ed25519", "RSA/2048"), Runnable::run, mock(), 1, 3, KeyPairMetrics.NOOP, generator);
+
+        pool.start();
+
+        assertThat(pool.size("EDDSA/ed25519")).isEqualTo(3);
+        assertThat(pool.size("RSA/2048")).isEqualTo(3);
+        assertThat(generated).hasValue(6);
+    }
+
+    @Test
+    void take_shouldUsePooledKeyPairAndReplenishBelowLowWatermark() {
+        var tasks = new ArrayList<Runnable>();
+        var pool = new KeyPairPool(List.of("EC/secp256r1"), tasks::add, mock(), 2, 3, KeyPairMetrics.NOOP, generator);
+        pool.start();
+        tasks.remove(0).run();
+
+        assertThat(pool.take(Map.of("algorithm", "EC"))).isSucceeded();
+        assertThat(tasks).isEmpty();
+        assertThat(pool.take(Map.of("algorithm", "EC", "curve", "secp256r1"))).isSucceeded();
+        assertThat(tasks).hasSize(1);
+
+        tasks.remove(0).run();
+        assertThat(pool.size("EC/secp256r1")).isEqualTo(3);
+        assertThat(pool.getHits("EC/secp256r1")).isEqualTo(2);
+        assertThat(pool.getMisses("EC/secp256r1")).isZero();
+        assertThat(pool.getHitRate("EC/secp256r1")).isEqualTo(1.0);
+    }
+
+    @Test
+    void take_whenPoolEmpty_shouldGenerateSynchronously() {
+        var tasks = new ArrayList<Runnable>();
+        var pool = new KeyPairPool(List.of("RSA/2048"), tasks::add, mock(), 1, 2, KeyPairMetrics.NOOP, generator);
+
+        assertThat(pool.take(Map.of("algorithm", "RSA"))).isSucceeded();
+
+        assertThat(generated).hasValue(1);
+        assertThat(pool.getMisses("RSA/2048")).isEqualTo(1);
+        assertThat(pool.getHitRate("RSA/2048")).isZero();
+        assertThat(tasks).hasSize(1);
+    }
+
+    @Test
+    void take_shouldReportHitsAndMisses() {
+        var metrics = mock(KeyPairMetrics.class);
+        var tasks = new ArrayList<Runnable>();
+        var pool = new KeyPairPool(List.of("RSA/2048"), tasks::add, mock(), 0, 1, metrics, generator);
+        pool.start();
+        tasks.remove(0).run();
+
+        pool.take(Map.of("algorithm", "RSA"));
+        pool.take(Map.of("algorithm", "RSA"));
+
+        verify(metrics).poolHit("RSA/2048");
+        verify(metrics).poolMiss("RSA/2048");
+        verifyNoMoreInteractions(metrics);
+    }
+
+    @Test
+    void take_whenProfileNotPooled_shouldGenerateSynchronously() {
+        var pool = new KeyPairPool(List.of("RSA/2048"), Runnable::run, mock(), 1, 2, KeyPairMetrics.NOOP, generator);
+
+        assertThat(pool.take(Map.of("algorithm", "RSA", "length", 4096))).isSucceeded();
+
+        assertThat(generated).hasValue(1);
+        assertThat(pool.size("RSA/2048")).isZero();
+        assertThat(pool.getMisses("RSA/4096")).isZero();
+    }
+
+    @Test
+    void create_withUnsupportedProfile_shouldThrow() {
+        assertThatThrownBy(() -> new KeyPairPool(List.of("DSA/1024"), Runnable::run, mock(), 1, 2, KeyPairMetrics.NOOP))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new KeyPairPool(List.of("RSA/2048"), Runnable::run, mock(), 3, 2, KeyPairMetrics.NOOP))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
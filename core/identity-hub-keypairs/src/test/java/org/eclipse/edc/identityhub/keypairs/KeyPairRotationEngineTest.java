@@ -0,0 +1,156 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.keypairs;
+
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import org.eclipse.edc.identityhub.spi.keypair.KeyPairMetrics;
+import org.eclipse.edc.identityhub.spi.keypair.KeyPairService;
+import org.eclipse.edc.identityhub.spi.keypair.model.KeyPairResource;
+import org.eclipse.edc.identityhub.spi.keypair.model.KeyPairState;
+import org.eclipse.edc.identityhub.spi.keypair.store.KeyPairResourceStore;
+import org.eclipse.edc.spi.result.ServiceResult;
+import org.eclipse.edc.spi.result.StoreResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class KeyPairRotationEngineTest {
+
+    private static final Instant NOW = Instant.parse("2024-06-01T12:00:00Z");
+    private final KeyPairResourceStore store = mock();
+    private final KeyPairService keyPairService = mock();
+    private final KeyPairRotationEngine engine = new KeyPairRotationEngine(store, keyPairService, mock(), Clock.fixed(NOW, ZoneOffset.UTC), 2,
+            Duration.ofHours(1), Duration.ofDays(7), KeyPairMetrics.NOOP);
+
+    @BeforeEach
+    void setUp() {
+        when(store.findDueForRotation(anyLong(), anyInt())).thenReturn(StoreResult.success(List.of()));
+        when(store.findDueForRetirement(anyLong(), anyInt())).thenReturn(StoreResult.success(List.of()));
+        when(keyPairService.rotateKeyPair(any(), any(), anyLong())).thenReturn(ServiceResult.success());
+        when(keyPairService.revokeKey(any(), any())).thenReturn(ServiceResult.success());
+    }
+
+    @Test
+    void run_shouldRotateDueKeyPairs() {
+        when(store.findDueForRotation(anyLong(), anyInt())).thenReturn(StoreResult.success(List.of(createKeyPair("id-1", "key-1"))));
+
+        engine.run();
+
+        verify(store).findDueForRotation(NOW.plus(Duration.ofHours(1)).toEpochMilli(), 2);
+        verify(keyPairService).rotateKeyPair(eq("id-1"), argThat(desc -> desc.getKeyId().equals("key-1-r" + NOW.toEpochMilli()) &&
+                desc.getPrivateKeyAlias().equals("alias-key-1-r" + NOW.toEpochMilli()) &&
+                desc.getKeyGeneratorParams().equals(Map.of("algorithm", "EDDSA", "curve", "ed25519"))), eq(Duration.ofDays(7).toMillis()));
+        assertThat(engine.getRotated()).isEqualTo(1);
+    }
+
+    @Test
+    void run_shouldRotateAtMostOneBatch() {
+        when(store.findDueForRotation(anyLong(), anyInt())).thenReturn(StoreResult.success(List.of(createKeyPair("id-1", "key-1"),
+                createKeyPair("id-2", "key-2"), createKeyPair("id-3", "key-3"))));
+
+        engine.run();
+
+        verify(keyPairService, times(2)).rotateKeyPair(any(), any(), anyLong());
+        verify(keyPairService, never()).rotateKeyPair(eq("id-3"), any(), anyLong());
+    }
+
+    @Test
+    void run_shouldRetireDueKeyPairs() {
+        when(store.findDueForRetirement(anyLong(), anyInt())).thenReturn(StoreResult.success(List.of(createKeyPair("id-1", "key-1"))));
+
+        engine.run();
+
+        verify(store).findDueForRetirement(NOW.toEpochMilli(), 2);
+        verify(keyPairService).revokeKey(eq("id-1"), isNull());
+        assertThat(engine.getRetired()).isEqualTo(1);
+    }
+
+    @Test
+    void run_whenRotationFails_shouldSkipKeyPairInNextRun() {
+        var keyPair = createKeyPair("id-1", "key-1");
+        when(store.findDueForRotation(anyLong(), anyInt())).thenReturn(StoreResult.success(List.of(keyPair)));
+        when(keyPairService.rotateKeyPair(any(), any(), anyLong())).thenReturn(ServiceResult.badRequest("test failure"));
+
+        engine.run();
+        engine.run();
+
+        verify(keyPairService, times(1)).rotateKeyPair(any(), any(), anyLong());
+        verify(store).findDueForRotation(anyLong(), eq(3));
+        assertThat(engine.getFailed()).isEqualTo(1);
+    }
+
+    @Test
+    void run_shouldReportProgress() {
+        var metrics = mock(KeyPairMetrics.class);
+        var engine = new KeyPairRotationEngine(store, keyPairService, mock(), Clock.fixed(NOW, ZoneOffset.UTC), 2,
+                Duration.ofHours(1), Duration.ofDays(7), metrics);
+        when(store.findDueForRotation(anyLong(), anyInt())).thenReturn(StoreResult.success(List.of(createKeyPair("id-1", "key-1"), createKeyPair("id-2", "key-2"))));
+        when(store.findDueForRetirement(anyLong(), anyInt())).thenReturn(StoreResult.success(List.of(createKeyPair("id-3", "key-3"))));
+        when(keyPairService.rotateKeyPair(eq("id-2"), any(), anyLong())).thenReturn(ServiceResult.badRequest("test failure"));
+
+        engine.run();
+
+        verify(metrics).rotationRunCompleted(Duration.ZERO, 1, 1, 1, 1);
+    }
+
+    @Test
+    void generatorParamsOf_shouldMatchPublicKey() throws Exception {
+        var ec = new ECKeyGenerator(Curve.P_384).generate().toPublicJWK().toJSONString();
+        var rsa = new RSAKeyGenerator(3072).generate().toPublicJWK().toJSONString();
+
+        assertThat(KeyPairRotationEngine.generatorParamsOf(createKeyPairBuilder("id", "key").serializedPublicKey(ec).build()))
+                .isEqualTo(Map.of("algorithm", "EC", "curve", "secp384r1"));
+        assertThat(KeyPairRotationEngine.generatorParamsOf(createKeyPairBuilder("id", "key").serializedPublicKey(rsa).build()))
+                .isEqualTo(Map.of("algorithm", "RSA", "length", 3072));
+        assertThat(KeyPairRotationEngine.generatorParamsOf(createKeyPairBuilder("id", "key").serializedPublicKey("-----BEGIN PUBLIC KEY-----").build()))
+                .isEqualTo(Map.of("algorithm", "EDDSA", "curve", "ed25519"));
+    }
+
+    private KeyPairResource createKeyPair(String id, String keyId) {
+        return createKeyPairBuilder(id, keyId).build();
+    }
+
+    private KeyPairResource.Builder createKeyPairBuilder(String id, String keyId) {
+        return KeyPairResource.Builder.newInstance()
+                .id(id)
+                .keyId(keyId)
+                .privateKeyAlias("alias-" + keyId)
+                .participantContextId("test-participant")
+                .serializedPublicKey("{\"kty\":\"OKP\",\"crv\":\"Ed25519\",\"x\":\"11qYAYKxCrfVS_7TyWQHOg7hcvPapiMlrwIaaPcHURo\"}")
+                .keyContext("JsonWebKey2020")
+                .state(KeyPairState.ACTIVATED);
+    }
+}
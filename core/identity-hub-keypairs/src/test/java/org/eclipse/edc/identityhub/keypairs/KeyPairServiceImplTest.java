@@ -21,10 +21,12 @@ import org.eclipse.edc.identityhub.spi.keypair.events.KeyPairObservable;
 import org.eclipse.edc.identityhub.spi.keypair.model.KeyPairResource;
 import org.eclipse.edc.identityhub.spi.keypair.model.KeyPairState;
 import org.eclipse.edc.identityhub.spi.keypair.store.KeyPairResourceStore;
+import org.eclipse.edc.identityhub.spi.participantcontext.events.ParticipantContextDeleted;
 import org.eclipse.edc.identityhub.spi.participantcontext.model.KeyDescriptor;
 import org.eclipse.edc.identityhub.spi.participantcontext.model.ParticipantContext;
 import org.eclipse.edc.identityhub.spi.participantcontext.model.ParticipantContextState;
 import org.eclipse.edc.identityhub.spi.participantcontext.store.ParticipantContextStore;
+import org.eclipse.edc.spi.event.EventEnvelope;
 import org.eclipse.edc.spi.query.QuerySpec;
 import org.eclipse.edc.spi.result.StoreResult;
 import org.eclipse.edc.spi.security.Vault;
@@ -429,6 +431,25 @@ class KeyPairServiceImplTest {
                 .isEqualTo("A KeyPairResource with ID 'notexists' does not exist.");
     }
 
+    @SuppressWarnings("unchecked")
+    @Test
+    void onParticipantContextDeleted_shouldDeleteAllKeyPairsAtOnce() {
+        var activeKey = createKeyPairResource().privateKeyAlias("active-alias").state(KeyPairState.ACTIVATED).build();
+        var revokedKey = createKeyPairResource().privateKeyAlias("revoked-alias").state(KeyPairState.REVOKED).build();
+        when(keyPairResourceStore.query(any())).thenReturn(success(List.of(activeKey, revokedKey)));
+        when(keyPairResourceStore.deleteByParticipantContextId(PARTICIPANT_ID)).thenReturn(success(2));
+
+        keyPairService.on(EventEnvelope.Builder.newInstance()
+                .at(System.currentTimeMillis())
+                .payload(ParticipantContextDeleted.Builder.newInstance().participantContextId(PARTICIPANT_ID).build())
+                .build());
+
+        verify(keyPairResourceStore).query(any());
+        verify(keyPairResourceStore).deleteByParticipantContextId(PARTICIPANT_ID);
+        verify(vault).deleteSecret("active-alias");
+        verifyNoMoreInteractions(keyPairResourceStore, vault);
+    }
+
     private KeyPairResource.Builder createKeyPairResource() {
         return KeyPairResource.Builder.newInstance()
                 .id(UUID.randomUUID().toString())
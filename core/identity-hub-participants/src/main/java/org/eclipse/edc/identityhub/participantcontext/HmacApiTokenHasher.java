@@ -0,0 +1,70 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.participantcontext;
+
+import org.eclipse.edc.identityhub.spi.participantcontext.ApiTokenHasher;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * {@link ApiTokenHasher} that computes the HMAC-SHA256 of API tokens with a server-side key. Since API tokens already contain
+ * 64 random bytes, no additional salt is needed, and verifying a token takes a single HMAC computation.
+ * <p>
+ * The key must be kept secret, because anyone who knows it can verify guesses of API tokens against leaked hashes.
+ */
+public class HmacApiTokenHasher implements ApiTokenHasher {
+    private static final String ALGORITHM = "HmacSHA256";
+    private final SecretKeySpec key;
+
+    public HmacApiTokenHasher(byte[] key) {
+        if (key.length < 32) {
+            throw new IllegalArgumentException("The HMAC key must have at least 32 bytes, but had %d".formatted(key.length));
+        }
+        this.key = new SecretKeySpec(key, ALGORITHM);
+    }
+
+    @Override
+    public String hash(String apiToken) {
+        return Base64.getEncoder().encodeToString(hmac(apiToken));
+    }
+
+    @Override
+    public boolean verify(String apiToken, String hash) {
+        byte[] expected;
+        try {
+            expected = Base64.getDecoder().decode(hash);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        return MessageDigest.isEqual(hmac(apiToken), expected);
+    }
+
+    private byte[] hmac(String apiToken) {
+        try {
+            // Mac instances are not thread-safe, but cheap to create
+            var mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(apiToken.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            // every Java platform is required to support HmacSHA256
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -17,7 +17,6 @@ package org.eclipse.edc.identityhub.participantcontext;
 import org.eclipse.edc.iam.did.spi.document.DidDocument;
 import org.eclipse.edc.identityhub.spi.did.DidDocumentService;
 import org.eclipse.edc.identityhub.spi.keypair.KeyPairService;
-import org.eclipse.edc.identityhub.spi.keypair.model.KeyPairResource;
 import org.eclipse.edc.identityhub.spi.participantcontext.ParticipantContextService;
 import org.eclipse.edc.identityhub.spi.participantcontext.events.ParticipantContextCreated;
 import org.eclipse.edc.identityhub.spi.participantcontext.events.ParticipantContextDeleting;
@@ -26,9 +25,6 @@ import org.eclipse.edc.spi.event.Event;
 import org.eclipse.edc.spi.event.EventEnvelope;
 import org.eclipse.edc.spi.event.EventSubscriber;
 import org.eclipse.edc.spi.monitor.Monitor;
-import org.eclipse.edc.spi.result.ServiceResult;
-
-import java.util.stream.Stream;
 
 import static org.eclipse.edc.spi.result.ServiceResult.success;
 
@@ -85,22 +81,13 @@ class ParticipantContextEventCoordinator implements EventSubscriber {
         } else if (payload instanceof ParticipantContextDeleting deletionEvent) {
             var participantContext = deletionEvent.getParticipantContext();
 
-            // unpublish and delete did document, remove keypairs
+            // unpublish and delete did document. Key pairs are not revoked one by one, they are deleted in bulk, including their
+            // private keys, once the participant context is deleted
             didDocumentService.unpublish(participantContext.getDid())
                     .compose(u -> didDocumentService.deleteById(participantContext.getDid()))
-                    .compose(u -> keyPairService.query(KeyPairResource.queryByParticipantContextId(participantContext.getParticipantContextId()).build()))
-                    .compose(keyPairs -> keyPairs.stream()
-                            .map(r -> keyPairService.revokeKey(r.getId(), null))
-                            .reduce(this::merge)
-                            .orElse(success()))
-                    .onFailure(f -> monitor.warning("Removing key pairs from a deleted ParticipantContext failed: %s".formatted(f.getFailureDetail())));
+                    .onFailure(f -> monitor.warning("Removing the DID document of a deleted ParticipantContext failed: %s".formatted(f.getFailureDetail())));
         } else {
             monitor.warning("Received event with unexpected payload type: %s".formatted(payload.getClass()));
         }
     }
-
-    private ServiceResult<Void> merge(ServiceResult<Void> sr1, ServiceResult<Void> sr2) {
-        return sr1.succeeded() && sr2.succeeded() ? success() :
-                ServiceResult.unexpected(Stream.concat(sr1.getFailureMessages().stream(), sr2.getFailureMessages().stream()).toArray(String[]::new));
-    }
 }
@@ -14,6 +14,7 @@
 
 package org.eclipse.edc.identityhub.participantcontext;
 
+import org.eclipse.edc.identityhub.spi.participantcontext.events.ParticipantContextApiTokenRegenerated;
 import org.eclipse.edc.identityhub.spi.participantcontext.events.ParticipantContextCreated;
 import org.eclipse.edc.identityhub.spi.participantcontext.events.ParticipantContextDeleted;
 import org.eclipse.edc.identityhub.spi.participantcontext.events.ParticipantContextDeleting;
@@ -54,6 +55,15 @@ public class ParticipantContextEventPublisher implements ParticipantContextListe
         publish(event);
     }
 
+    @Override
+    public void apiTokenRegenerated(ParticipantContext participantContext) {
+        var event = ParticipantContextApiTokenRegenerated.Builder.newInstance()
+                .participantContextId(participantContext.getParticipantContextId())
+                .apiTokenAlias(participantContext.getApiTokenAlias())
+                .build();
+        publish(event);
+    }
+
     @Override
     public void deleting(ParticipantContext deletedContext) {
         var event = ParticipantContextDeleting.Builder.newInstance()
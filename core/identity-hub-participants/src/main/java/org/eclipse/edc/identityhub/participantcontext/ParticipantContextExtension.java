@@ -15,6 +15,7 @@
 package org.eclipse.edc.identityhub.participantcontext;
 
 import org.eclipse.edc.identityhub.spi.did.store.DidResourceStore;
+import org.eclipse.edc.identityhub.spi.participantcontext.ApiTokenHasher;
 import org.eclipse.edc.identityhub.spi.participantcontext.ParticipantContextService;
 import org.eclipse.edc.identityhub.spi.participantcontext.StsAccountProvisioner;
 import org.eclipse.edc.identityhub.spi.participantcontext.events.ParticipantContextObservable;
@@ -22,19 +23,40 @@ import org.eclipse.edc.identityhub.spi.participantcontext.store.ParticipantConte
 import org.eclipse.edc.runtime.metamodel.annotation.Extension;
 import org.eclipse.edc.runtime.metamodel.annotation.Inject;
 import org.eclipse.edc.runtime.metamodel.annotation.Provider;
+import org.eclipse.edc.runtime.metamodel.annotation.Provides;
+import org.eclipse.edc.runtime.metamodel.annotation.Setting;
+import org.eclipse.edc.spi.EdcException;
 import org.eclipse.edc.spi.event.EventRouter;
+import org.eclipse.edc.spi.monitor.Monitor;
 import org.eclipse.edc.spi.security.Vault;
 import org.eclipse.edc.spi.system.ServiceExtension;
+import org.eclipse.edc.spi.system.ServiceExtensionContext;
 import org.eclipse.edc.transaction.spi.TransactionContext;
 
 import java.time.Clock;
+import java.util.Base64;
 
 import static org.eclipse.edc.identityhub.participantcontext.ParticipantContextExtension.NAME;
 
 @Extension(NAME)
+@Provides(ApiTokenHasher.class)
 public class ParticipantContextExtension implements ServiceExtension {
     public static final String NAME = "ParticipantContext Extension";
 
+    @Setting(description = "Alias of the vault secret that contains the Base64-encoded key (at least 32 bytes) with which API tokens are hashed. " +
+            "If set, API tokens are not stored in the vault, but their HMAC-SHA256 hash is persisted with the participant context. " +
+            "API tokens that are still stored in the vault are verified against the vault until they are migrated (c.f. edc.iam.api.token.hash.migrate).",
+            key = "edc.iam.api.token.hash.key.alias", required = false)
+    private String apiTokenHashKeyAlias;
+    @Setting(description = "If true, the API tokens that are still stored in the vault are migrated to hashes once at startup. " +
+            "Requires edc.iam.api.token.hash.key.alias.",
+            defaultValue = "false", key = "edc.iam.api.token.hash.migrate")
+    private boolean migrateApiTokens;
+    @Setting(description = "If true, migrated API tokens are deleted from the vault. Only enable this once every node verifies API tokens " +
+            "against their hash, because nodes without edc.iam.api.token.hash.key.alias still verify them against the vault.",
+            defaultValue = "false", key = "edc.iam.api.token.hash.migrate.delete")
+    private boolean deleteMigratedApiTokens;
+
     @Inject
     private ParticipantContextStore participantContextStore;
     @Inject
@@ -52,15 +74,41 @@ public class ParticipantContextExtension implements ServiceExtension {
     private StsAccountProvisioner stsAccountProvisioner;
 
     private ParticipantContextObservable participantContextObservable;
+    private ApiTokenHasher apiTokenHasher;
+    private Monitor monitor;
 
     @Override
     public String name() {
         return NAME;
     }
 
+    @Override
+    public void initialize(ServiceExtensionContext context) {
+        if (apiTokenHashKeyAlias != null) {
+            var key = vault.resolveSecret(apiTokenHashKeyAlias);
+            if (key == null) {
+                throw new EdcException("The API token hash key '%s' was not found in the vault.".formatted(apiTokenHashKeyAlias));
+            }
+            apiTokenHasher = new HmacApiTokenHasher(Base64.getDecoder().decode(key));
+            context.registerService(ApiTokenHasher.class, apiTokenHasher);
+        } else if (migrateApiTokens) {
+            throw new EdcException("API tokens cannot be migrated, because edc.iam.api.token.hash.key.alias is not set.");
+        }
+        monitor = context.getMonitor();
+    }
+
+    @Override
+    public void start() {
+        if (migrateApiTokens) {
+            var migrated = createParticipantService().migrateApiTokenHashes(deleteMigratedApiTokens)
+                    .orElseThrow(f -> new EdcException("Migrating API tokens failed: %s".formatted(f.getFailureDetail())));
+            monitor.info("Migrated %d API tokens to hashes%s.".formatted(migrated, deleteMigratedApiTokens ? " and deleted them from the vault" : ""));
+        }
+    }
+
     @Provider
     public ParticipantContextService createParticipantService() {
-        return new ParticipantContextServiceImpl(participantContextStore, didResourceStore, vault, transactionContext, participantContextObservable(), stsAccountProvisioner);
+        return new ParticipantContextServiceImpl(participantContextStore, didResourceStore, vault, transactionContext, participantContextObservable(), stsAccountProvisioner, apiTokenHasher);
     }
 
     @Provider
@@ -15,6 +15,7 @@
 package org.eclipse.edc.identityhub.participantcontext;
 
 import org.eclipse.edc.identityhub.spi.did.store.DidResourceStore;
+import org.eclipse.edc.identityhub.spi.participantcontext.ApiTokenHasher;
 import org.eclipse.edc.identityhub.spi.participantcontext.ParticipantContextService;
 import org.eclipse.edc.identityhub.spi.participantcontext.StsAccountProvisioner;
 import org.eclipse.edc.identityhub.spi.participantcontext.events.ParticipantContextObservable;
@@ -22,11 +23,13 @@ import org.eclipse.edc.identityhub.spi.participantcontext.model.CreateParticipan
 import org.eclipse.edc.identityhub.spi.participantcontext.model.ParticipantContext;
 import org.eclipse.edc.identityhub.spi.participantcontext.model.ParticipantContextState;
 import org.eclipse.edc.identityhub.spi.participantcontext.model.ParticipantManifest;
+import org.eclipse.edc.identityhub.spi.participantcontext.store.OptimisticLocking;
 import org.eclipse.edc.identityhub.spi.participantcontext.store.ParticipantContextStore;
 import org.eclipse.edc.spi.query.QuerySpec;
 import org.eclipse.edc.spi.result.ServiceResult;
 import org.eclipse.edc.spi.security.Vault;
 import org.eclipse.edc.transaction.spi.TransactionContext;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.Collection;
 import java.util.function.Consumer;
@@ -41,6 +44,10 @@ import static org.eclipse.edc.spi.result.ServiceResult.success;
  * Default implementation of the {@link ParticipantContextService}. Uses a {@link Vault} to store API tokens and a {@link ApiTokenGenerator}
  * to generate API tokens. Please use a generator that produces Strings of a reasonable length.
  * <p>
+ * If an {@link ApiTokenHasher} is configured, API tokens are not stored in the {@link Vault}. Instead, their hash is persisted
+ * with the {@link ParticipantContext}, and any API token that is still stored in the vault is deleted when a new one is
+ * generated.
+ * <p>
  * This service is transactional.
  */
 public class ParticipantContextServiceImpl implements ParticipantContextService {
@@ -53,6 +60,7 @@ public class ParticipantContextServiceImpl implements ParticipantContextService
     private final ApiTokenGenerator tokenGenerator;
     private final ParticipantContextObservable observable;
     private final StsAccountProvisioner stsAccountProvisioner;
+    private final ApiTokenHasher apiTokenHasher;
 
     public ParticipantContextServiceImpl(ParticipantContextStore participantContextStore,
                                          DidResourceStore didResourceStore,
@@ -60,6 +68,16 @@ public class ParticipantContextServiceImpl implements ParticipantContextService
                                          TransactionContext transactionContext,
                                          ParticipantContextObservable observable,
                                          StsAccountProvisioner stsAccountProvisioner) {
+        this(participantContextStore, didResourceStore, vault, transactionContext, observable, stsAccountProvisioner, null);
+    }
+
+    public ParticipantContextServiceImpl(ParticipantContextStore participantContextStore,
+                                         DidResourceStore didResourceStore,
+                                         Vault vault,
+                                         TransactionContext transactionContext,
+                                         ParticipantContextObservable observable,
+                                         StsAccountProvisioner stsAccountProvisioner,
+                                         @Nullable ApiTokenHasher apiTokenHasher) {
         this.participantContextStore = participantContextStore;
         this.didResourceStore = didResourceStore;
         this.vault = vault;
@@ -67,6 +85,7 @@ public class ParticipantContextServiceImpl implements ParticipantContextService
         this.observable = observable;
         this.stsAccountProvisioner = stsAccountProvisioner;
         this.tokenGenerator = new ApiTokenGenerator();
+        this.apiTokenHasher = apiTokenHasher;
     }
 
     @Override
@@ -78,7 +97,7 @@ public class ParticipantContextServiceImpl implements ParticipantContextService
             var context = convert(manifest);
 
             return createParticipantContext(context)
-                    .compose(this::createTokenAndStoreInVault)
+                    .compose(this::createAndStoreToken)
                     .compose((Function<String, ServiceResult<CreateParticipantContextResponse>>) apiKey -> stsAccountProvisioner.create(manifest)
                             .map(accountInfo -> {
                                 if (accountInfo == null) {
@@ -91,9 +110,12 @@ public class ParticipantContextServiceImpl implements ParticipantContextService
         });
     }
 
+    /**
+     * Not executed within a transaction, so that the store can serve the read from a read replica.
+     */
     @Override
     public ServiceResult<ParticipantContext> getParticipantContext(String participantContextId) {
-        return transactionContext.execute(() -> ServiceResult.from(participantContextStore.findById(participantContextId)));
+        return ServiceResult.from(participantContextStore.findById(participantContextId));
     }
 
     @Override
@@ -127,36 +149,102 @@ public class ParticipantContextServiceImpl implements ParticipantContextService
             if (participantContext.failed()) {
                 return participantContext.map(pc -> null);
             }
-            return createTokenAndStoreInVault(participantContext.getContent());
+            return createAndStoreToken(participantContext.getContent())
+                    .onSuccess(apiToken -> observable.invokeForEach(l -> l.apiTokenRegenerated(participantContext.getContent())));
         });
     }
 
     @Override
     public ServiceResult<Void> updateParticipant(String participantContextId, Consumer<ParticipantContext> modificationFunction) {
-        return transactionContext.execute(() -> {
+        return OptimisticLocking.retryOnConflict(() -> transactionContext.execute(() -> {
             var participant = findByIdInternal(participantContextId);
             if (participant == null) {
                 return notFound("ParticipantContext with ID '%s' not found.".formatted(participantContextId));
             }
             modificationFunction.accept(participant);
-            var res = participantContextStore.update(participant)
+            var res = OptimisticLocking.throwOnConflict(participantContextStore.update(participant))
                     .onSuccess(u -> observable.invokeForEach(l -> l.updated(participant)));
             return res.succeeded() ? success() : fromFailure(res);
-        });
+        }));
+
+    }
 
+    @Override
+    public ServiceResult<Integer> migrateApiTokenHashes(boolean deleteFromVault) {
+        if (apiTokenHasher == null) {
+            return ServiceResult.badRequest("API tokens cannot be migrated, because no API token hash key is configured.");
+        }
+        var participantContexts = participantContextStore.query(QuerySpec.max());
+        if (participantContexts.failed()) {
+            return fromFailure(participantContexts);
+        }
+        var migrated = 0;
+        for (var participantContext : participantContexts.getContent()) {
+            if (participantContext.getApiTokenHash() != null) {
+                continue;
+            }
+            var result = migrateApiTokenHash(participantContext.getParticipantContextId());
+            if (result.failed()) {
+                return result.map(alias -> null);
+            }
+            if (result.getContent() != null) {
+                // the API token is only deleted from the vault once its hash is committed, so that it cannot get lost
+                if (deleteFromVault) {
+                    vault.deleteSecret(result.getContent());
+                }
+                migrated++;
+            }
+        }
+        return success(migrated);
     }
 
     @Override
     public ServiceResult<Collection<ParticipantContext>> query(QuerySpec querySpec) {
-        return transactionContext.execute(() -> ServiceResult.from(participantContextStore.query(querySpec)));
+        return ServiceResult.from(participantContextStore.query(querySpec));
+    }
+
+    /**
+     * Stores the hash of the API token that is stored in the vault, and returns the vault alias of the API token, or null if
+     * nothing was migrated, because the participant context already has a hash or no API token.
+     */
+    private ServiceResult<String> migrateApiTokenHash(String participantContextId) {
+        return OptimisticLocking.retryOnConflict(() -> transactionContext.execute(() -> {
+            var participant = findByIdInternal(participantContextId);
+            if (participant == null || participant.getApiTokenHash() != null) {
+                return ServiceResult.<String>success(null);
+            }
+            var apiToken = vault.resolveSecret(participant.getApiTokenAlias());
+            if (apiToken == null) {
+                return ServiceResult.<String>success(null);
+            }
+            participant.setApiTokenHash(apiTokenHasher.hash(apiToken));
+            var res = OptimisticLocking.throwOnConflict(participantContextStore.update(participant));
+            return res.succeeded() ? success(participant.getApiTokenAlias()) : ServiceResult.<String>fromFailure(res);
+        }));
     }
 
-    private ServiceResult<String> createTokenAndStoreInVault(ParticipantContext participantContext) {
+    private ServiceResult<String> createAndStoreToken(ParticipantContext participantContext) {
         var alias = participantContext.getApiTokenAlias();
         var newToken = tokenGenerator.generate(participantContext.getParticipantContextId());
+        if (apiTokenHasher != null) {
+            return updateApiTokenHash(participantContext, apiTokenHasher.hash(newToken))
+                    .map(v -> {
+                        // a token that is still stored in the vault must not remain valid
+                        vault.deleteSecret(alias);
+                        return newToken;
+                    });
+        }
         return vault.storeSecret(alias, newToken)
                 .map(unused -> success(newToken))
-                .orElse(f -> conflict("Could not store new API token: %s.".formatted(f.getFailureDetail())));
+                .orElse(f -> conflict("Could not store new API token: %s.".formatted(f.getFailureDetail())))
+                .compose(token -> participantContext.getApiTokenHash() == null ?
+                        success(token) :
+                        updateApiTokenHash(participantContext, null).map(v -> token));
+    }
+
+    private ServiceResult<Void> updateApiTokenHash(ParticipantContext participantContext, @Nullable String apiTokenHash) {
+        participantContext.setApiTokenHash(apiTokenHash);
+        return ServiceResult.from(participantContextStore.update(participantContext));
     }
 
 
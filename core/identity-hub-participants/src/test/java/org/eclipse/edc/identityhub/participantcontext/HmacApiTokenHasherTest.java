@@ -0,0 +1,60 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.participantcontext;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HmacApiTokenHasherTest {
+
+    private final HmacApiTokenHasher hasher = new HmacApiTokenHasher(key((byte) 1));
+
+    @Test
+    void verify() {
+        var token = new ApiTokenGenerator().generate("test-principal");
+        var hash = hasher.hash(token);
+
+        assertThat(hash).isNotEqualTo(token);
+        assertThat(hasher.verify(token, hash)).isTrue();
+        assertThat(hasher.verify(token + "x", hash)).isFalse();
+    }
+
+    @Test
+    void verify_differentKey_shouldFail() {
+        var token = new ApiTokenGenerator().generate("test-principal");
+
+        assertThat(new HmacApiTokenHasher(key((byte) 2)).verify(token, hasher.hash(token))).isFalse();
+    }
+
+    @Test
+    void verify_invalidHash_shouldFail() {
+        assertThat(hasher.verify("test-token", "not base64!")).isFalse();
+    }
+
+    @Test
+    void constructor_keyTooShort_shouldThrow() {
+        assertThatThrownBy(() -> new HmacApiTokenHasher(new byte[16])).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static byte[] key(byte value) {
+        var key = new byte[32];
+        Arrays.fill(key, value);
+        return key;
+    }
+}
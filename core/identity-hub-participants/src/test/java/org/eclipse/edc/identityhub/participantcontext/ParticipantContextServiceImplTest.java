@@ -26,6 +26,7 @@ import org.eclipse.edc.identityhub.spi.participantcontext.model.KeyDescriptor;
 import org.eclipse.edc.identityhub.spi.participantcontext.model.ParticipantContext;
 import org.eclipse.edc.identityhub.spi.participantcontext.model.ParticipantContextState;
 import org.eclipse.edc.identityhub.spi.participantcontext.model.ParticipantManifest;
+import org.eclipse.edc.identityhub.spi.participantcontext.store.OptimisticLocking;
 import org.eclipse.edc.identityhub.spi.participantcontext.store.ParticipantContextStore;
 import org.eclipse.edc.keys.KeyParserRegistryImpl;
 import org.eclipse.edc.keys.keyparsers.PemParser;
@@ -36,6 +37,7 @@ import org.eclipse.edc.spi.result.ServiceResult;
 import org.eclipse.edc.spi.result.StoreResult;
 import org.eclipse.edc.spi.security.Vault;
 import org.eclipse.edc.transaction.spi.NoopTransactionContext;
+import org.eclipse.edc.transaction.spi.TransactionContext;
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -52,8 +54,10 @@ import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
@@ -227,6 +231,19 @@ class ParticipantContextServiceImplTest {
         verifyNoMoreInteractions(vault);
     }
 
+    @Test
+    void getParticipantContext_shouldNotStartTransaction() {
+        var transactionContext = mock(TransactionContext.class);
+        var service = new ParticipantContextServiceImpl(participantContextStore, didResourceStore, vault, transactionContext, observableMock, stsAccountProvisioner);
+        when(participantContextStore.findById(any())).thenReturn(StoreResult.success(createContext()));
+        when(participantContextStore.query(any())).thenReturn(StoreResult.success(List.of()));
+
+        assertThat(service.getParticipantContext("test-id")).isSucceeded();
+        assertThat(service.query(QuerySpec.max())).isSucceeded();
+
+        verifyNoInteractions(transactionContext);
+    }
+
     @Test
     void getParticipantContext_whenNotExists() {
         when(participantContextStore.findById(anyString())).thenReturn(StoreResult.notFound("foo"));
@@ -297,6 +314,7 @@ class ParticipantContextServiceImplTest {
 
         verify(participantContextStore).findById(anyString());
         verify(vault).storeSecret(eq("test-alias"), argThat(s -> s.length() >= 64));
+        verify(observableMock).invokeForEach(any());
     }
 
     @Test
@@ -308,6 +326,7 @@ class ParticipantContextServiceImplTest {
 
         verify(participantContextStore).findById(anyString());
         verify(vault).storeSecret(eq("test-alias"), anyString());
+        verifyNoInteractions(observableMock);
     }
 
     @Test
@@ -320,6 +339,37 @@ class ParticipantContextServiceImplTest {
         verifyNoMoreInteractions(participantContextStore, vault);
     }
 
+    @Test
+    void regenerateApiToken_withHasher_shouldStoreHash() {
+        var hasher = new HmacApiTokenHasher(new byte[32]);
+        var service = new ParticipantContextServiceImpl(participantContextStore, didResourceStore, vault, new NoopTransactionContext(), observableMock, stsAccountProvisioner, hasher);
+        var context = createContext();
+        when(participantContextStore.findById(anyString())).thenReturn(StoreResult.success(context));
+        when(participantContextStore.update(any())).thenReturn(StoreResult.success());
+
+        assertThat(service.regenerateApiToken("test-id")).isSucceeded().satisfies(token ->
+                assertThat(hasher.verify(token, context.getApiTokenHash())).isTrue());
+
+        verify(participantContextStore).update(argThat(pc -> pc.getApiTokenHash() != null));
+        verify(vault).deleteSecret("test-alias");
+        verify(vault, never()).storeSecret(anyString(), anyString());
+        verify(observableMock).invokeForEach(any());
+    }
+
+    @Test
+    void regenerateApiToken_withoutHasher_shouldRemoveHash() {
+        var context = createContext();
+        context.setApiTokenHash("test-hash");
+        when(participantContextStore.findById(anyString())).thenReturn(StoreResult.success(context));
+        when(participantContextStore.update(any())).thenReturn(StoreResult.success());
+        when(vault.storeSecret(eq("test-alias"), anyString())).thenReturn(Result.success());
+
+        assertThat(participantContextService.regenerateApiToken("test-id")).isSucceeded();
+
+        verify(vault).storeSecret(eq("test-alias"), anyString());
+        verify(participantContextStore).update(argThat(pc -> pc.getApiTokenHash() == null));
+    }
+
     @Test
     void update() {
         var context = createContext();
@@ -347,7 +397,7 @@ class ParticipantContextServiceImplTest {
     void update_whenStoreUpdateFails() {
         var context = createContext();
         when(participantContextStore.findById(anyString())).thenReturn(StoreResult.success(context));
-        when(participantContextStore.update(any())).thenReturn(StoreResult.alreadyExists("test-msg"));
+        when(participantContextStore.update(any())).thenReturn(StoreResult.generalError("test-msg"));
 
         assertThat(participantContextService.updateParticipant(context.getParticipantContextId(), ParticipantContext::deactivate)).isFailed()
                 .detail().isEqualTo("test-msg");
@@ -357,6 +407,103 @@ class ParticipantContextServiceImplTest {
         verifyNoMoreInteractions(participantContextStore, observableMock);
     }
 
+    @Test
+    void update_whenVersionConflict_shouldRetry() {
+        var context = createContext();
+        when(participantContextStore.findById(anyString())).thenReturn(StoreResult.success(context));
+        when(participantContextStore.update(any()))
+                .thenReturn(OptimisticLocking.versionConflict("ParticipantContext", context.getParticipantContextId()))
+                .thenReturn(StoreResult.success());
+
+        assertThat(participantContextService.updateParticipant(context.getParticipantContextId(), ParticipantContext::deactivate)).isSucceeded();
+
+        verify(participantContextStore, times(2)).findById(anyString());
+        verify(participantContextStore, times(2)).update(any());
+        verify(observableMock).invokeForEach(any());
+    }
+
+    @Test
+    void update_whenVersionConflictPersists_shouldReturnConflict() {
+        var context = createContext();
+        when(participantContextStore.findById(anyString())).thenReturn(StoreResult.success(context));
+        when(participantContextStore.update(any())).thenReturn(OptimisticLocking.versionConflict("ParticipantContext", context.getParticipantContextId()));
+
+        assertThat(participantContextService.updateParticipant(context.getParticipantContextId(), ParticipantContext::deactivate)).isFailed()
+                .satisfies(f -> assertThat(f.getReason()).isEqualTo(ServiceFailure.Reason.CONFLICT));
+
+        verify(participantContextStore, times(OptimisticLocking.DEFAULT_MAX_ATTEMPTS)).update(any());
+        verifyNoInteractions(observableMock);
+    }
+
+    @Test
+    void migrateApiTokenHashes_shouldStoreHashAndKeepSecret() {
+        var hasher = new HmacApiTokenHasher(new byte[32]);
+        var service = new ParticipantContextServiceImpl(participantContextStore, didResourceStore, vault, new NoopTransactionContext(), observableMock, stsAccountProvisioner, hasher);
+        var context = createContext();
+        when(participantContextStore.query(any())).thenReturn(StoreResult.success(List.of(context)));
+        when(participantContextStore.findById(anyString())).thenReturn(StoreResult.success(context));
+        when(participantContextStore.update(any())).thenReturn(StoreResult.success());
+        when(vault.resolveSecret("test-alias")).thenReturn("test-token");
+
+        assertThat(service.migrateApiTokenHashes(false)).isSucceeded().isEqualTo(1);
+
+        verify(participantContextStore).update(argThat(pc -> hasher.verify("test-token", pc.getApiTokenHash())));
+        verify(vault, never()).deleteSecret(anyString());
+        verifyNoInteractions(observableMock);
+    }
+
+    @Test
+    void migrateApiTokenHashes_withDeleteFromVault_shouldDeleteSecret() {
+        var service = new ParticipantContextServiceImpl(participantContextStore, didResourceStore, vault, new NoopTransactionContext(), observableMock, stsAccountProvisioner,
+                new HmacApiTokenHasher(new byte[32]));
+        var context = createContext();
+        when(participantContextStore.query(any())).thenReturn(StoreResult.success(List.of(context)));
+        when(participantContextStore.findById(anyString())).thenReturn(StoreResult.success(context));
+        when(participantContextStore.update(any())).thenReturn(StoreResult.success());
+        when(vault.resolveSecret("test-alias")).thenReturn("test-token");
+
+        assertThat(service.migrateApiTokenHashes(true)).isSucceeded().isEqualTo(1);
+
+        verify(vault).deleteSecret("test-alias");
+    }
+
+    @Test
+    void migrateApiTokenHashes_whenHashExists_shouldNotChange() {
+        var service = new ParticipantContextServiceImpl(participantContextStore, didResourceStore, vault, new NoopTransactionContext(), observableMock, stsAccountProvisioner,
+                new HmacApiTokenHasher(new byte[32]));
+        var context = createContext();
+        context.setApiTokenHash("other-hash");
+        when(participantContextStore.query(any())).thenReturn(StoreResult.success(List.of(context)));
+
+        assertThat(service.migrateApiTokenHashes(true)).isSucceeded().isEqualTo(0);
+
+        verify(participantContextStore, never()).update(any());
+        verifyNoInteractions(vault, observableMock);
+    }
+
+    @Test
+    void migrateApiTokenHashes_whenStoreUpdateFails_shouldNotDeleteSecret() {
+        var service = new ParticipantContextServiceImpl(participantContextStore, didResourceStore, vault, new NoopTransactionContext(), observableMock, stsAccountProvisioner,
+                new HmacApiTokenHasher(new byte[32]));
+        var context = createContext();
+        when(participantContextStore.query(any())).thenReturn(StoreResult.success(List.of(context)));
+        when(participantContextStore.findById(anyString())).thenReturn(StoreResult.success(context));
+        when(participantContextStore.update(any())).thenReturn(StoreResult.generalError("test-msg"));
+        when(vault.resolveSecret("test-alias")).thenReturn("test-token");
+
+        assertThat(service.migrateApiTokenHashes(true)).isFailed().detail().isEqualTo("test-msg");
+
+        verify(vault, never()).deleteSecret(anyString());
+        verifyNoInteractions(observableMock);
+    }
+
+    @Test
+    void migrateApiTokenHashes_withoutHasher_shouldFail() {
+        assertThat(participantContextService.migrateApiTokenHashes(false)).isFailed();
+
+        verifyNoInteractions(participantContextStore, vault);
+    }
+
     @Test
     void query() {
         var ctx = createContext();
@@ -0,0 +1,8 @@
+plugins {
+    `java-library`
+}
+
+dependencies {
+    implementation(libs.edc.spi.core)
+    testImplementation(libs.edc.junit)
+}
@@ -0,0 +1,169 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.cache;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Thread-safe cache in which every value expires individually after the TTL, and which evicts the least recently used value
+ * if more than the maximum number of values are cached. Null values are not cached. If the TTL is &lt;= 0, nothing is cached.
+ * <p>
+ * A value that is invalidated while it is being loaded is returned to the caller, but not cached, because it may be outdated
+ * already.
+ *
+ * @param <K> the type of key
+ * @param <V> the type of value
+ */
+public class TtlCache<K, V> {
+    private final Clock clock;
+    private final long ttlMillis;
+    private final Consumer<? super V> onRemoval;
+    private final Map<K, Entry<V>> entries;
+    private long invalidations;
+
+    /**
+     * Creates a new cache.
+     *
+     * @param ttl     how long a value is cached after it was loaded
+     * @param maxSize the maximum number of cached values
+     */
+    public TtlCache(Clock clock, Duration ttl, int maxSize) {
+        this(clock, ttl, maxSize, value -> {
+        });
+    }
+
+    /**
+     * Creates a new cache.
+     *
+     * @param ttl       how long a value is cached after it was loaded
+     * @param maxSize   the maximum number of cached values
+     * @param onRemoval called with every value that expires, is evicted, replaced or invalidated
+     */
+    public TtlCache(Clock clock, Duration ttl, int maxSize, Consumer<? super V> onRemoval) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("The maximum size must be > 0, but was %d".formatted(maxSize));
+        }
+        this.clock = clock;
+        this.ttlMillis = ttl.toMillis();
+        this.onRemoval = onRemoval;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > maxSize) {
+                    onRemoval.accept(eldest.getValue().value());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached value of the given key, or loads and caches it if it is not cached or expired.
+     *
+     * @param loader loads the value, may return null if there is none. Exceptions are passed on to the caller.
+     * @return the value, or null if the loader returned null
+     */
+    public @Nullable V get(K key, Function<? super K, ? extends V> loader) {
+        if (ttlMillis <= 0) {
+            return loader.apply(key);
+        }
+        var now = clock.millis();
+        long invalidationsBefore;
+        synchronized (entries) {
+            var entry = entries.get(key);
+            if (entry != null) {
+                if (entry.expiresAt() > now) {
+                    return entry.value();
+                }
+                remove(key);
+            }
+            invalidationsBefore = invalidations;
+        }
+
+        var value = loader.apply(key);
+        if (value != null) {
+            synchronized (entries) {
+                if (invalidations == invalidationsBefore) {
+                    var previous = entries.put(key, new Entry<>(value, now + ttlMillis));
+                    if (previous != null) {
+                        onRemoval.accept(previous.value());
+                    }
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Removes the value of the given key, if it is cached.
+     */
+    public void invalidate(K key) {
+        synchronized (entries) {
+            invalidations++;
+            remove(key);
+        }
+    }
+
+    /**
+     * Removes all cached values that match the predicate.
+     */
+    public void invalidateIf(Predicate<? super V> predicate) {
+        synchronized (entries) {
+            invalidations++;
+            entries.values().removeIf(entry -> {
+                if (predicate.test(entry.value())) {
+                    onRemoval.accept(entry.value());
+                    return true;
+                }
+                return false;
+            });
+        }
+    }
+
+    /**
+     * Removes all cached values.
+     */
+    public void invalidateAll() {
+        invalidateIf(value -> true);
+    }
+
+    /**
+     * The number of cached values, including expired ones that were not yet removed.
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private void remove(K key) {
+        var removed = entries.remove(key);
+        if (removed != null) {
+            onRemoval.accept(removed.value());
+        }
+    }
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+}
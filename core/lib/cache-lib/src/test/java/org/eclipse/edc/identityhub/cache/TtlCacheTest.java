@@ -0,0 +1,154 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TtlCacheTest {
+
+    private final Clock clock = mock();
+    private final List<String> removed = new ArrayList<>();
+    private final TtlCache<String, String> cache = new TtlCache<>(clock, Duration.ofSeconds(10), 2, removed::add);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        when(clock.millis()).thenReturn(1000L);
+    }
+
+    @Test
+    void get_shouldCache() {
+        assertThat(cache.get("key", this::load)).isEqualTo("value-of-key-1");
+        assertThat(cache.get("key", this::load)).isEqualTo("value-of-key-1");
+
+        assertThat(loads).hasValue(1);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void get_whenLoaderReturnsNull_shouldNotCache() {
+        assertThat(cache.get("key", key -> null)).isNull();
+
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void get_whenLoaderThrows_shouldNotCache() {
+        assertThatThrownBy(() -> cache.get("key", key -> {
+            throw new IllegalStateException("test-error");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void get_whenExpired_shouldLoadAgain() {
+        cache.get("key", this::load);
+
+        when(clock.millis()).thenReturn(1000L + 9_999);
+        assertThat(cache.get("key", this::load)).isEqualTo("value-of-key-1");
+        when(clock.millis()).thenReturn(1000L + 10_000);
+        assertThat(cache.get("key", this::load)).isEqualTo("value-of-key-2");
+        assertThat(removed).containsExactly("value-of-key-1");
+    }
+
+    @Test
+    void get_whenMaxSizeExceeded_shouldEvictLeastRecentlyUsed() {
+        cache.get("key-1", this::load);
+        cache.get("key-2", this::load);
+        cache.get("key-1", this::load);
+        cache.get("key-3", this::load);
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(removed).containsExactly("value-of-key-2-2");
+        assertThat(cache.get("key-1", this::load)).isEqualTo("value-of-key-1-1");
+    }
+
+    @Test
+    void get_whenInvalidatedWhileLoading_shouldReturnButNotCache() {
+        var value = cache.get("key", key -> {
+            cache.invalidate("other-key");
+            return load(key);
+        });
+
+        assertThat(value).isEqualTo("value-of-key-1");
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void get_whenTtlNotPositive_shouldNotCache() {
+        var uncached = new TtlCache<String, String>(clock, Duration.ZERO, 2);
+
+        uncached.get("key", this::load);
+        uncached.get("key", this::load);
+
+        assertThat(loads).hasValue(2);
+        assertThat(uncached.size()).isZero();
+    }
+
+    @Test
+    void invalidate() {
+        cache.get("key-1", this::load);
+        cache.get("key-2", this::load);
+
+        cache.invalidate("key-1");
+
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(removed).containsExactly("value-of-key-1-1");
+    }
+
+    @Test
+    void invalidateIf() {
+        cache.get("key-1", this::load);
+        cache.get("key-2", this::load);
+
+        cache.invalidateIf(value -> value.startsWith("value-of-key-2"));
+
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(removed).containsExactly("value-of-key-2-2");
+    }
+
+    @Test
+    void invalidateAll() {
+        cache.get("key-1", this::load);
+        cache.get("key-2", this::load);
+
+        cache.invalidateAll();
+
+        assertThat(cache.size()).isZero();
+        assertThat(removed).containsExactlyInAnyOrder("value-of-key-1-1", "value-of-key-2-2");
+    }
+
+    @Test
+    void create_whenMaxSizeNotPositive_shouldThrow() {
+        assertThatThrownBy(() -> new TtlCache<String, String>(clock, Duration.ofSeconds(10), 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private String load(String key) {
+        return "value-of-" + key + "-" + loads.incrementAndGet();
+    }
+}
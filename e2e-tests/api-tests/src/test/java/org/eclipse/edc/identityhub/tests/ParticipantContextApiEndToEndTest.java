@@ -64,6 +64,7 @@ import static org.eclipse.edc.identityhub.tests.fixtures.IdentityHubEndToEndTest
 import static org.hamcrest.Matchers.anyOf;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.mock;
@@ -338,6 +339,8 @@ public class ParticipantContextApiEndToEndTest {
             var mockedPublisher = mock(DidDocumentPublisher.class);
             when(mockedPublisher.publish(anyString())).thenReturn(Result.success());
             when(mockedPublisher.unpublish(anyString())).thenReturn(Result.success());
+            when(mockedPublisher.publishAll(any())).thenReturn(Result.success());
+            when(mockedPublisher.unpublishAll(any())).thenReturn(Result.success());
             publisherRegistry.addPublisher(DidConstants.DID_WEB_METHOD, mockedPublisher);
             var manifest = context.createNewParticipant()
                     .active(false)
@@ -359,6 +362,7 @@ public class ParticipantContextApiEndToEndTest {
             var storedDidResource = didResourceStore.findById(manifest.getDid());
             assertThat(storedDidResource.getState()).withFailMessage("Expected DID resource state %s, got %s", DidState.GENERATED, storedDidResource.getStateAsEnum()).isEqualTo(DidState.GENERATED.code());
             verify(mockedPublisher, never()).publish(manifest.getDid());
+            verify(mockedPublisher, never()).publishAll(any());
         }
 
         @Test
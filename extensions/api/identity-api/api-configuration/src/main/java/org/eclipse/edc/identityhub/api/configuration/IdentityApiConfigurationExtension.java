@@ -26,6 +26,7 @@ import org.eclipse.edc.runtime.metamodel.annotation.Provider;
 import org.eclipse.edc.runtime.metamodel.annotation.Setting;
 import org.eclipse.edc.runtime.metamodel.annotation.Settings;
 import org.eclipse.edc.spi.EdcException;
+import org.eclipse.edc.spi.query.QuerySpec;
 import org.eclipse.edc.spi.result.ServiceResult;
 import org.eclipse.edc.spi.system.ServiceExtension;
 import org.eclipse.edc.spi.system.ServiceExtensionContext;
@@ -36,6 +37,8 @@ import org.eclipse.edc.web.spi.configuration.PortMapping;
 import org.eclipse.edc.web.spi.configuration.PortMappingRegistry;
 
 import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
@@ -100,15 +103,26 @@ public class IdentityApiConfigurationExtension implements ServiceExtension {
     }
 
     private static class AllowAllAuthorizationService implements AuthorizationService {
+        private final Map<Class<?>, Function<String, ParticipantResource>> resourceLookupFunctions = new ConcurrentHashMap<>();
 
         @Override
         public ServiceResult<Void> isAuthorized(SecurityContext securityContext, String resourceId, Class<? extends ParticipantResource> resourceClass) {
             return ServiceResult.success();
         }
 
+        @Override
+        public QuerySpec restrictToAuthorized(SecurityContext securityContext, QuerySpec querySpec) {
+            return querySpec;
+        }
+
         @Override
         public void addLookupFunction(Class<?> resourceClass, Function<String, ParticipantResource> checkFunction) {
+            resourceLookupFunctions.put(resourceClass, checkFunction);
+        }
 
+        @Override
+        public Function<String, ParticipantResource> getLookupFunction(Class<?> resourceClass) {
+            return resourceLookupFunctions.get(resourceClass);
         }
 
     }
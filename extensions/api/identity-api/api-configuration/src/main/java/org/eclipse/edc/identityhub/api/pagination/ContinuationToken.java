@@ -0,0 +1,56 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.api.pagination;
+
+import org.eclipse.edc.spi.result.Result;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque token that is handed out to clients for keyset (cursor-based) pagination. It encodes the sort key of the last
+ * element of a page, so that the next page can be selected with a {@code key > lastKey} predicate rather than with an offset.
+ * Clients must treat the token as opaque, its format may change at any time.
+ */
+public final class ContinuationToken {
+    private static final String PREFIX = "v1:";
+
+    private ContinuationToken() {
+    }
+
+    /**
+     * Creates a continuation token that points to the element after {@code lastKey}.
+     */
+    public static String encode(String lastKey) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString((PREFIX + lastKey).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a continuation token into the sort key of the last element of the previous page.
+     *
+     * @return the last key, or a failure if the token was not issued by {@link #encode(String)}.
+     */
+    public static Result<String> decode(String token) {
+        try {
+            var decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(PREFIX) || decoded.length() == PREFIX.length()) {
+                return Result.failure("Invalid continuation token");
+            }
+            return Result.success(decoded.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            return Result.failure("Invalid continuation token");
+        }
+    }
+}
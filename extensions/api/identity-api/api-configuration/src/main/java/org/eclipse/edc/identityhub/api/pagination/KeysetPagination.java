@@ -0,0 +1,92 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.api.pagination;
+
+import org.eclipse.edc.spi.query.Criterion;
+import org.eclipse.edc.spi.query.QuerySpec;
+import org.eclipse.edc.spi.query.SortOrder;
+import org.eclipse.edc.web.spi.exception.InvalidRequestException;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.function.Function;
+
+/**
+ * Helpers for keyset (cursor-based) pagination. Instead of skipping {@code offset} rows, every page is selected with a
+ * {@code key > lastKey} predicate on a unique, stable sort key. The cost per page is therefore constant, and rows that
+ * are inserted or deleted concurrently cannot cause other rows to be skipped or returned twice.
+ */
+public final class KeysetPagination {
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    private KeysetPagination() {
+    }
+
+    /**
+     * Creates a {@link QuerySpec} that selects at most {@code limit} elements with a key greater than {@code lastKey},
+     * ordered ascending by key.
+     *
+     * @param keyField the name of the unique sort key, e.g. {@code "id"}
+     * @param lastKey  the key of the last element of the previous page, or null to start with the first page
+     * @param limit    the page size
+     */
+    public static QuerySpec querySpec(String keyField, @Nullable String lastKey, int limit) {
+        var builder = QuerySpec.Builder.newInstance()
+                .sortField(keyField)
+                .sortOrder(SortOrder.ASC)
+                .limit(limit);
+        if (lastKey != null) {
+            builder.filter(new Criterion(keyField, ">", lastKey));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Same as {@link #querySpec(String, String, int)}, but takes the continuation token that was handed out to the client.
+     *
+     * @throws InvalidRequestException if the token is invalid or the limit is out of range
+     */
+    public static QuerySpec querySpecFromToken(String keyField, @Nullable String continuationToken, int limit) {
+        validatePageSize(limit);
+        var lastKey = continuationToken == null ? null : ContinuationToken.decode(continuationToken)
+                .orElseThrow(f -> new InvalidRequestException(f.getFailureDetail()));
+        return querySpec(keyField, lastKey, limit);
+    }
+
+    /**
+     * Wraps a query result in a {@link KeysetPage}. A continuation token is only issued if the page is full, i.e. if
+     * there might be more elements.
+     */
+    public static <T> KeysetPage<T> toPage(Collection<T> items, int limit, Function<T, String> keyExtractor) {
+        var list = new ArrayList<>(items);
+        String token = null;
+        if (!list.isEmpty() && list.size() >= limit) {
+            token = ContinuationToken.encode(keyExtractor.apply(list.get(list.size() - 1)));
+        }
+        return new KeysetPage<>(list, token);
+    }
+
+    /**
+     * Checks that the page size is within {@code 1..MAX_PAGE_SIZE}.
+     *
+     * @throws InvalidRequestException if it is not
+     */
+    public static void validatePageSize(int limit) {
+        if (limit <= 0 || limit > MAX_PAGE_SIZE) {
+            throw new InvalidRequestException("limit must be between 1 and %d".formatted(MAX_PAGE_SIZE));
+        }
+    }
+}
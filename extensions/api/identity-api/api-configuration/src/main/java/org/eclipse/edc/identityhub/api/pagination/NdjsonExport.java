@@ -0,0 +1,77 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.api.pagination;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.ws.rs.core.StreamingOutput;
+import org.eclipse.edc.spi.query.QuerySpec;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.function.Function;
+
+/**
+ * Streams a complete result set as newline-delimited JSON (one element per line). The result set is walked page by page
+ * using keyset pagination, and every page is flushed to the client before the next one is fetched, so memory consumption
+ * and per-page query cost stay constant regardless of the total number of elements.
+ */
+public class NdjsonExport<T> implements StreamingOutput {
+    public static final String APPLICATION_NDJSON = "application/x-ndjson";
+
+    private final Function<QuerySpec, Collection<T>> pageFetcher;
+    private final String keyField;
+    private final Function<T, String> keyExtractor;
+    private final ObjectMapper objectMapper;
+    private final int pageSize;
+
+    /**
+     * Creates a new export.
+     *
+     * @param pageFetcher  fetches one page of elements. Failures should be signalled by throwing an exception.
+     * @param keyField     the name of the unique sort key
+     * @param keyExtractor extracts the sort key from an element
+     * @param objectMapper the mapper used to serialize each element
+     * @param pageSize     the number of elements fetched per round-trip
+     */
+    public NdjsonExport(Function<QuerySpec, Collection<T>> pageFetcher, String keyField, Function<T, String> keyExtractor, ObjectMapper objectMapper, int pageSize) {
+        KeysetPagination.validatePageSize(pageSize);
+        this.pageFetcher = pageFetcher;
+        this.keyField = keyField;
+        this.keyExtractor = keyExtractor;
+        this.objectMapper = objectMapper;
+        this.pageSize = pageSize;
+    }
+
+    @Override
+    public void write(OutputStream output) throws IOException {
+        var writer = objectMapper.writer();
+        String lastKey = null;
+        while (true) {
+            var page = pageFetcher.apply(KeysetPagination.querySpec(keyField, lastKey, pageSize));
+            T last = null;
+            for (var item : page) {
+                output.write(writer.writeValueAsBytes(item));
+                output.write('\n');
+                last = item;
+            }
+            output.flush();
+            if (last == null || page.size() < pageSize) {
+                return;
+            }
+            lastKey = keyExtractor.apply(last);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.api.pagination;
+
+import org.eclipse.edc.spi.query.Criterion;
+import org.eclipse.edc.spi.query.SortOrder;
+import org.eclipse.edc.web.spi.exception.InvalidRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.eclipse.edc.junit.assertions.AbstractResultAssert.assertThat;
+
+class KeysetPaginationTest {
+
+    @Test
+    void continuationToken_roundTrip() {
+        var token = ContinuationToken.encode("did:web:foo%3A8080:bar");
+        assertThat(ContinuationToken.decode(token)).isSucceeded().isEqualTo("did:web:foo%3A8080:bar");
+    }
+
+    @Test
+    void continuationToken_invalid() {
+        assertThat(ContinuationToken.decode("not a token!")).isFailed();
+        assertThat(ContinuationToken.decode("Zm9vYmFy")).isFailed(); // "foobar", missing prefix
+    }
+
+    @Test
+    void querySpec_firstPage() {
+        var query = KeysetPagination.querySpec("id", null, 10);
+
+        assertThat(query.getFilterExpression()).isEmpty();
+        assertThat(query.getSortField()).isEqualTo("id");
+        assertThat(query.getSortOrder()).isEqualTo(SortOrder.ASC);
+        assertThat(query.getLimit()).isEqualTo(10);
+        assertThat(query.getOffset()).isZero();
+    }
+
+    @Test
+    void querySpecFromToken() {
+        var query = KeysetPagination.querySpecFromToken("id", ContinuationToken.encode("key-5"), 10);
+
+        assertThat(query.getFilterExpression()).containsExactly(new Criterion("id", ">", "key-5"));
+    }
+
+    @Test
+    void querySpecFromToken_invalidLimit() {
+        assertThatThrownBy(() -> KeysetPagination.querySpecFromToken("id", null, 0)).isInstanceOf(InvalidRequestException.class);
+        assertThatThrownBy(() -> KeysetPagination.querySpecFromToken("id", null, KeysetPagination.MAX_PAGE_SIZE + 1)).isInstanceOf(InvalidRequestException.class);
+    }
+
+    @Test
+    void toPage_fullPage_hasToken() {
+        var page = KeysetPagination.toPage(List.of("a", "b"), 2, Function.identity());
+
+        assertThat(page.items()).containsExactly("a", "b");
+        assertThat(page.continuationToken()).isNotNull();
+        assertThat(ContinuationToken.decode(page.continuationToken())).isSucceeded().isEqualTo("b");
+    }
+
+    @Test
+    void toPage_partialPage_noToken() {
+        var page = KeysetPagination.toPage(List.of("a"), 2, Function.identity());
+
+        assertThat(page.continuationToken()).isNull();
+    }
+}
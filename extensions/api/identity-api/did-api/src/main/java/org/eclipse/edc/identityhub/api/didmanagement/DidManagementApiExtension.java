@@ -24,6 +24,7 @@ import org.eclipse.edc.runtime.metamodel.annotation.Extension;
 import org.eclipse.edc.runtime.metamodel.annotation.Inject;
 import org.eclipse.edc.spi.system.ServiceExtension;
 import org.eclipse.edc.spi.system.ServiceExtensionContext;
+import org.eclipse.edc.spi.types.TypeManager;
 import org.eclipse.edc.web.spi.WebService;
 
 import static org.eclipse.edc.identityhub.api.didmanagement.DidManagementApiExtension.NAME;
@@ -39,6 +40,8 @@ public class DidManagementApiExtension implements ServiceExtension {
     private DidDocumentService didDocumentService;
     @Inject
     private AuthorizationService authorizationService;
+    @Inject
+    private TypeManager typeManager;
 
     @Override
     public String name() {
@@ -49,7 +52,7 @@ public class DidManagementApiExtension implements ServiceExtension {
     public void initialize(ServiceExtensionContext context) {
         authorizationService.addLookupFunction(DidResource.class, s -> didDocumentService.findById(s));
         var controller = new DidManagementApiController(didDocumentService, authorizationService);
-        var getAllController = new GetAllDidsApiController(didDocumentService);
+        var getAllController = new GetAllDidsApiController(didDocumentService, typeManager.getMapper());
         webService.registerResource(IdentityHubApiContext.IDENTITY, controller);
         webService.registerResource(IdentityHubApiContext.IDENTITY, getAllController);
     }
@@ -75,20 +75,17 @@ public class DidManagementApiController implements DidManagementApi {
     @Path("/query")
     @Override
     public Collection<DidDocument> queryDids(QuerySpec querySpec, @Context SecurityContext securityContext) {
-        return documentService.queryDocuments(querySpec)
-                .orElseThrow(exceptionMapper(DidDocument.class, null))
-                .stream().filter(dd -> authorizationService.isAuthorized(securityContext, dd.getId(), DidResource.class).succeeded())
-                .toList();
+        return documentService.queryDocuments(authorizationService.restrictToAuthorized(securityContext, querySpec))
+                .orElseThrow(exceptionMapper(DidDocument.class, null));
     }
 
     @Override
     @POST
     @Path("/state")
     public String getDidState(DidRequestPayload request, @Context SecurityContext securityContext) {
-        authorizationService.isAuthorized(securityContext, request.did(), DidResource.class)
+        var byId = authorizationService.authorize(securityContext, request.did(), DidResource.class)
                 .orElseThrow(exceptionMapper(DidResource.class, request.did()));
-        var byId = documentService.findById(request.did());
-        return byId != null ? DidState.from(byId.getState()).toString() : null;
+        return DidState.from(byId.getState()).toString();
     }
 
     @Override
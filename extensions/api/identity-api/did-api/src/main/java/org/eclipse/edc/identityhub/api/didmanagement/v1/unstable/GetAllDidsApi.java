@@ -23,7 +23,9 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.ws.rs.core.StreamingOutput;
 import org.eclipse.edc.iam.did.spi.document.DidDocument;
+import org.eclipse.edc.identityhub.api.pagination.KeysetPage;
 import org.eclipse.edc.web.spi.ApiErrorDetail;
 
 import java.util.Collection;
@@ -49,4 +51,36 @@ public interface GetAllDidsApi {
             }
     )
     Collection<DidDocument> getAllDids(Integer offset, Integer limit);
+
+    @Operation(description = "Get one page of DID documents across all Participant Contexts, ordered by DID. Uses keyset pagination, " +
+            "i.e. the continuation token of the previous page must be passed to get the next page. Requires elevated access.",
+            operationId = "getDidsPage",
+            parameters = {
+                    @Parameter(name = "continuationToken", description = "the token returned with the previous page. omit to get the first page"),
+                    @Parameter(name = "limit", description = "the page size. defaults to 50") },
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "One page of DID Documents, and the token to get the next page, if any.",
+                            content = @Content(schema = @Schema(implementation = KeysetPage.class))),
+                    @ApiResponse(responseCode = "401", description = "The request could not be completed, because either the authentication was missing or was not valid.",
+                            content = @Content(array = @ArraySchema(schema = @Schema(implementation = ApiErrorDetail.class)), mediaType = "application/json")),
+                    @ApiResponse(responseCode = "400", description = "The continuation token or the page size was invalid.",
+                            content = @Content(array = @ArraySchema(schema = @Schema(implementation = ApiErrorDetail.class)), mediaType = "application/json")),
+            }
+    )
+    KeysetPage<DidDocument> getDidsPage(String continuationToken, Integer limit);
+
+    @Operation(description = "Export all DID documents across all Participant Contexts as newline-delimited JSON, ordered by DID. Requires elevated access.",
+            operationId = "exportDids",
+            parameters = {
+                    @Parameter(name = "pageSize", description = "the number of documents fetched from the database per round-trip. defaults to 500") },
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "A stream of DID Documents, one per line.",
+                            content = @Content(schema = @Schema(implementation = DidDocument.class), mediaType = "application/x-ndjson")),
+                    @ApiResponse(responseCode = "401", description = "The request could not be completed, because either the authentication was missing or was not valid.",
+                            content = @Content(array = @ArraySchema(schema = @Schema(implementation = ApiErrorDetail.class)), mediaType = "application/json")),
+                    @ApiResponse(responseCode = "400", description = "The page size was invalid.",
+                            content = @Content(array = @ArraySchema(schema = @Schema(implementation = ApiErrorDetail.class)), mediaType = "application/json")),
+            }
+    )
+    StreamingOutput exportDids(Integer pageSize);
 }
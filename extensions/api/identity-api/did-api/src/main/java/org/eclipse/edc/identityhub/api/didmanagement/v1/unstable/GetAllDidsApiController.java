@@ -14,6 +14,7 @@
 
 package org.eclipse.edc.identityhub.api.didmanagement.v1.unstable;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DefaultValue;
@@ -22,8 +23,12 @@ import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.StreamingOutput;
 import org.eclipse.edc.iam.did.spi.document.DidDocument;
 import org.eclipse.edc.identityhub.api.Versions;
+import org.eclipse.edc.identityhub.api.pagination.KeysetPage;
+import org.eclipse.edc.identityhub.api.pagination.KeysetPagination;
+import org.eclipse.edc.identityhub.api.pagination.NdjsonExport;
 import org.eclipse.edc.identityhub.spi.authentication.ServicePrincipal;
 import org.eclipse.edc.identityhub.spi.did.DidDocumentService;
 import org.eclipse.edc.spi.query.QuerySpec;
@@ -37,10 +42,13 @@ import static org.eclipse.edc.identityhub.spi.authorization.AuthorizationResultH
 @Consumes(MediaType.APPLICATION_JSON)
 @Path(Versions.UNSTABLE + "/dids")
 public class GetAllDidsApiController implements GetAllDidsApi {
+    private static final String KEY_FIELD = "did";
     private final DidDocumentService documentService;
+    private final ObjectMapper objectMapper;
 
-    public GetAllDidsApiController(DidDocumentService documentService) {
+    public GetAllDidsApiController(DidDocumentService documentService, ObjectMapper objectMapper) {
         this.documentService = documentService;
+        this.objectMapper = objectMapper;
     }
 
     @Override
@@ -51,7 +59,30 @@ public class GetAllDidsApiController implements GetAllDidsApi {
         if (offset < 0 || limit < 0) {
             throw new InvalidRequestException("offset and limit must be > 0");
         }
-        return documentService.queryDocuments(QuerySpec.Builder.newInstance().offset(offset).limit(limit).build())
+        return query(QuerySpec.Builder.newInstance().offset(offset).limit(limit).sortField(KEY_FIELD).build());
+    }
+
+    @Override
+    @GET
+    @Path("/page")
+    @RolesAllowed(ServicePrincipal.ROLE_ADMIN)
+    public KeysetPage<DidDocument> getDidsPage(@QueryParam("continuationToken") String continuationToken,
+                                               @DefaultValue("50") @QueryParam("limit") Integer limit) {
+        var query = KeysetPagination.querySpecFromToken(KEY_FIELD, continuationToken, limit);
+        return KeysetPagination.toPage(query(query), limit, DidDocument::getId);
+    }
+
+    @Override
+    @GET
+    @Path("/export")
+    @Produces(NdjsonExport.APPLICATION_NDJSON)
+    @RolesAllowed(ServicePrincipal.ROLE_ADMIN)
+    public StreamingOutput exportDids(@DefaultValue("500") @QueryParam("pageSize") Integer pageSize) {
+        return new NdjsonExport<>(this::query, KEY_FIELD, DidDocument::getId, objectMapper, pageSize);
+    }
+
+    private Collection<DidDocument> query(QuerySpec querySpec) {
+        return documentService.queryDocuments(querySpec)
                 .orElseThrow(exceptionMapper(DidDocument.class));
     }
 }
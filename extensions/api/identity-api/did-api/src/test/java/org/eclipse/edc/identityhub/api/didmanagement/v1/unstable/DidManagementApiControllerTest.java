@@ -55,6 +55,7 @@ class DidManagementApiControllerTest extends RestControllerTestBase {
     @BeforeEach
     void setUp() {
         when(authService.isAuthorized(any(), anyString(), any())).thenReturn(ServiceResult.success());
+        when(authService.restrictToAuthorized(any(), any())).thenAnswer(i -> i.getArgument(1));
     }
 
     @Override
@@ -359,10 +360,10 @@ class DidManagementApiControllerTest extends RestControllerTestBase {
         }
 
         @Test
-        void query_unauthorized403() {
-            var resultList = List.of(createDidDocument().build());
-            when(didDocumentServiceMock.queryDocuments(any())).thenReturn(ServiceResult.success(resultList));
-            when(authService.isAuthorized(any(), anyString(), any())).thenReturn(ServiceResult.unauthorized("test-message"));
+        void query_shouldRestrictToAuthorized() {
+            var restrictedQuery = QuerySpec.Builder.newInstance().filter(new Criterion("participantContextId", "=", "test-participant")).build();
+            when(authService.restrictToAuthorized(any(), any())).thenReturn(restrictedQuery);
+            when(didDocumentServiceMock.queryDocuments(any())).thenReturn(ServiceResult.success(List.of()));
             var q = QuerySpec.Builder.newInstance().build();
 
             var result = baseRequest()
@@ -375,8 +376,8 @@ class DidManagementApiControllerTest extends RestControllerTestBase {
 
             assertThat(result).isEmpty();
 
-            verify(authService).isAuthorized(any(), anyString(), eq(DidResource.class));
-            verify(didDocumentServiceMock).queryDocuments(eq(q));
+            verify(authService).restrictToAuthorized(any(), eq(q));
+            verify(didDocumentServiceMock).queryDocuments(restrictedQuery);
             verifyNoMoreInteractions(didDocumentServiceMock, authService);
         }
     }
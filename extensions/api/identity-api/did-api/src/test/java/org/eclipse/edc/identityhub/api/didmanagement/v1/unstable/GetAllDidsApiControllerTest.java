@@ -14,20 +14,32 @@
 
 package org.eclipse.edc.identityhub.api.didmanagement.v1.unstable;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.eclipse.edc.iam.did.spi.document.DidDocument;
 import org.eclipse.edc.identityhub.api.Versions;
+import org.eclipse.edc.identityhub.api.pagination.ContinuationToken;
 import org.eclipse.edc.identityhub.spi.did.DidDocumentService;
+import org.eclipse.edc.spi.query.Criterion;
+import org.eclipse.edc.spi.query.SortOrder;
 import org.eclipse.edc.spi.result.ServiceResult;
 import org.eclipse.edc.web.jersey.testfixtures.RestControllerTestBase;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
 import java.util.stream.IntStream;
 
 import static io.restassured.RestAssured.given;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.eclipse.edc.identityhub.api.didmanagement.v1.unstable.TestFunctions.createDidDocument;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 class GetAllDidsApiControllerTest extends RestControllerTestBase {
@@ -51,8 +63,86 @@ class GetAllDidsApiControllerTest extends RestControllerTestBase {
         assertThat(docs).usingRecursiveFieldByFieldElementComparator().containsExactlyInAnyOrderElementsOf(didDocs);
     }
 
+    @Test
+    void getPage_firstPage() {
+        var didDocs = IntStream.range(0, 5).mapToObj(i -> createDidDocument().id("did:web:test" + i).build()).toList();
+        when(didDocumentServiceMock.queryDocuments(any())).thenReturn(ServiceResult.success(didDocs));
+
+        var token = given()
+                .when()
+                .contentType("application/json")
+                .baseUri("http://localhost:" + port + Versions.UNSTABLE + "/dids/page")
+                .queryParam("limit", 5)
+                .get()
+                .then()
+                .statusCode(200)
+                .body("items", hasSize(5))
+                .body("continuationToken", notNullValue())
+                .extract().body().jsonPath().getString("continuationToken");
+
+        assertThat(ContinuationToken.decode(token).getContent()).isEqualTo("did:web:test4");
+        verify(didDocumentServiceMock).queryDocuments(argThat(q -> q.getFilterExpression().isEmpty() &&
+                q.getSortField().equals("did") && q.getSortOrder() == SortOrder.ASC && q.getLimit() == 5));
+    }
+
+    @Test
+    void getPage_withContinuationToken_lastPage() {
+        var didDocs = IntStream.range(0, 3).mapToObj(i -> createDidDocument().id("did:web:test" + i).build()).toList();
+        when(didDocumentServiceMock.queryDocuments(any())).thenReturn(ServiceResult.success(didDocs));
+
+        given()
+                .when()
+                .contentType("application/json")
+                .baseUri("http://localhost:" + port + Versions.UNSTABLE + "/dids/page")
+                .queryParam("limit", 5)
+                .queryParam("continuationToken", ContinuationToken.encode("did:web:foo"))
+                .get()
+                .then()
+                .statusCode(200)
+                .body("items", hasSize(3))
+                .body("continuationToken", nullValue());
+
+        verify(didDocumentServiceMock).queryDocuments(argThat(q -> q.getFilterExpression().contains(new Criterion("did", ">", "did:web:foo"))));
+    }
+
+    @Test
+    void getPage_invalidToken() {
+        given()
+                .when()
+                .contentType("application/json")
+                .baseUri("http://localhost:" + port + Versions.UNSTABLE + "/dids/page")
+                .queryParam("continuationToken", "not-a-token")
+                .get()
+                .then()
+                .statusCode(400);
+
+        verifyNoInteractions(didDocumentServiceMock);
+    }
+
+    @Test
+    void export_walksAllPages() {
+        var firstPage = IntStream.range(0, 2).mapToObj(i -> createDidDocument().id("did:web:test" + i).build()).toList();
+        var secondPage = List.of(createDidDocument().id("did:web:test2").build());
+        when(didDocumentServiceMock.queryDocuments(any()))
+                .thenReturn(ServiceResult.success(firstPage))
+                .thenReturn(ServiceResult.success(secondPage));
+
+        var body = given()
+                .when()
+                .baseUri("http://localhost:" + port + Versions.UNSTABLE + "/dids/export")
+                .queryParam("pageSize", 2)
+                .get()
+                .then()
+                .statusCode(200)
+                .header("Content-Type", equalTo("application/x-ndjson"))
+                .extract().body().asString();
+
+        assertThat(body.lines()).hasSize(3);
+        verify(didDocumentServiceMock).queryDocuments(argThat(q -> q.getFilterExpression().contains(new Criterion("did", ">", "did:web:test1"))));
+    }
+
     @Override
     protected Object controller() {
-        return new GetAllDidsApiController(didDocumentServiceMock);
+        return new GetAllDidsApiController(didDocumentServiceMock, new ObjectMapper());
     }
 }
\ No newline at end of file
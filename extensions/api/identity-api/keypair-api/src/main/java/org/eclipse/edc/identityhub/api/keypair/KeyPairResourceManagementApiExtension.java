@@ -30,6 +30,7 @@ import org.eclipse.edc.spi.query.Criterion;
 import org.eclipse.edc.spi.query.QuerySpec;
 import org.eclipse.edc.spi.system.ServiceExtension;
 import org.eclipse.edc.spi.system.ServiceExtensionContext;
+import org.eclipse.edc.spi.types.TypeManager;
 import org.eclipse.edc.web.spi.WebService;
 
 import static org.eclipse.edc.identityhub.api.keypair.KeyPairResourceManagementApiExtension.NAME;
@@ -47,6 +48,8 @@ public class KeyPairResourceManagementApiExtension implements ServiceExtension {
     private AuthorizationService authorizationService;
     @Inject
     private Monitor monitor;
+    @Inject
+    private TypeManager typeManager;
 
     @Override
     public String name() {
@@ -57,7 +60,7 @@ public class KeyPairResourceManagementApiExtension implements ServiceExtension {
     public void initialize(ServiceExtensionContext context) {
         authorizationService.addLookupFunction(KeyPairResource.class, this::findById);
         var api = new KeyPairResourceApiController(authorizationService, keyPairService, new KeyDescriptorValidator(context.getMonitor()));
-        var getAllApi = new GetAllKeyPairsApiController(keyPairService);
+        var getAllApi = new GetAllKeyPairsApiController(keyPairService, typeManager.getMapper());
         webService.registerResource(IdentityHubApiContext.IDENTITY, api);
         webService.registerResource(IdentityHubApiContext.IDENTITY, getAllApi);
     }
@@ -23,6 +23,8 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.ws.rs.core.StreamingOutput;
+import org.eclipse.edc.identityhub.api.pagination.KeysetPage;
 import org.eclipse.edc.identityhub.spi.keypair.model.KeyPairResource;
 import org.eclipse.edc.web.spi.ApiErrorDetail;
 
@@ -49,4 +51,36 @@ public interface GetAllKeyPairsApi {
             }
     )
     Collection<KeyPairResource> getAllKeyPairs(Integer offset, Integer limit);
+
+    @Operation(description = "Get one page of KeyPair resources across all Participant Contexts, ordered by ID. Uses keyset pagination, " +
+            "i.e. the continuation token of the previous page must be passed to get the next page. Requires elevated access.",
+            operationId = "getKeyPairsPage",
+            parameters = {
+                    @Parameter(name = "continuationToken", description = "the token returned with the previous page. omit to get the first page"),
+                    @Parameter(name = "limit", description = "the page size. defaults to 50") },
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "One page of KeyPair resources, and the token to get the next page, if any.",
+                            content = @Content(schema = @Schema(implementation = KeysetPage.class))),
+                    @ApiResponse(responseCode = "401", description = "The request could not be completed, because either the authentication was missing or was not valid.",
+                            content = @Content(array = @ArraySchema(schema = @Schema(implementation = ApiErrorDetail.class)), mediaType = "application/json")),
+                    @ApiResponse(responseCode = "400", description = "The continuation token or the page size was invalid.",
+                            content = @Content(array = @ArraySchema(schema = @Schema(implementation = ApiErrorDetail.class)), mediaType = "application/json")),
+            }
+    )
+    KeysetPage<KeyPairResource> getKeyPairsPage(String continuationToken, Integer limit);
+
+    @Operation(description = "Export all KeyPair resources across all Participant Contexts as newline-delimited JSON, ordered by ID. Requires elevated access.",
+            operationId = "exportKeyPairs",
+            parameters = {
+                    @Parameter(name = "pageSize", description = "the number of resources fetched from the database per round-trip. defaults to 500") },
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "A stream of KeyPair resources, one per line.",
+                            content = @Content(schema = @Schema(implementation = KeyPairResource.class), mediaType = "application/x-ndjson")),
+                    @ApiResponse(responseCode = "401", description = "The request could not be completed, because either the authentication was missing or was not valid.",
+                            content = @Content(array = @ArraySchema(schema = @Schema(implementation = ApiErrorDetail.class)), mediaType = "application/json")),
+                    @ApiResponse(responseCode = "400", description = "The page size was invalid.",
+                            content = @Content(array = @ArraySchema(schema = @Schema(implementation = ApiErrorDetail.class)), mediaType = "application/json")),
+            }
+    )
+    StreamingOutput exportKeyPairs(Integer pageSize);
 }
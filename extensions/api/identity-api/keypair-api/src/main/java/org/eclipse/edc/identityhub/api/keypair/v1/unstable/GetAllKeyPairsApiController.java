@@ -14,6 +14,7 @@
 
 package org.eclipse.edc.identityhub.api.keypair.v1.unstable;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DefaultValue;
@@ -21,7 +22,11 @@ import jakarta.ws.rs.GET;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.StreamingOutput;
 import org.eclipse.edc.identityhub.api.Versions;
+import org.eclipse.edc.identityhub.api.pagination.KeysetPage;
+import org.eclipse.edc.identityhub.api.pagination.KeysetPagination;
+import org.eclipse.edc.identityhub.api.pagination.NdjsonExport;
 import org.eclipse.edc.identityhub.spi.authentication.ServicePrincipal;
 import org.eclipse.edc.identityhub.spi.keypair.KeyPairService;
 import org.eclipse.edc.identityhub.spi.keypair.model.KeyPairResource;
@@ -37,10 +42,13 @@ import static org.eclipse.edc.identityhub.spi.authorization.AuthorizationResultH
 @Path(Versions.UNSTABLE + "/keypairs")
 public class GetAllKeyPairsApiController implements GetAllKeyPairsApi {
 
+    private static final String KEY_FIELD = "id";
     private final KeyPairService keyPairService;
+    private final ObjectMapper objectMapper;
 
-    public GetAllKeyPairsApiController(KeyPairService keyPairService) {
+    public GetAllKeyPairsApiController(KeyPairService keyPairService, ObjectMapper objectMapper) {
         this.keyPairService = keyPairService;
+        this.objectMapper = objectMapper;
     }
 
     @GET
@@ -48,7 +56,30 @@ public class GetAllKeyPairsApiController implements GetAllKeyPairsApi {
     @Override
     public Collection<KeyPairResource> getAllKeyPairs(@DefaultValue("0") @QueryParam("offset") Integer offset,
                                                       @DefaultValue("50") @QueryParam("limit") Integer limit) {
-        return keyPairService.query(QuerySpec.Builder.newInstance().offset(offset).limit(limit).build())
+        return query(QuerySpec.Builder.newInstance().offset(offset).limit(limit).sortField(KEY_FIELD).build());
+    }
+
+    @GET
+    @Path("/page")
+    @RolesAllowed(ServicePrincipal.ROLE_ADMIN)
+    @Override
+    public KeysetPage<KeyPairResource> getKeyPairsPage(@QueryParam("continuationToken") String continuationToken,
+                                                       @DefaultValue("50") @QueryParam("limit") Integer limit) {
+        var query = KeysetPagination.querySpecFromToken(KEY_FIELD, continuationToken, limit);
+        return KeysetPagination.toPage(query(query), limit, KeyPairResource::getId);
+    }
+
+    @GET
+    @Path("/export")
+    @Produces(NdjsonExport.APPLICATION_NDJSON)
+    @RolesAllowed(ServicePrincipal.ROLE_ADMIN)
+    @Override
+    public StreamingOutput exportKeyPairs(@DefaultValue("500") @QueryParam("pageSize") Integer pageSize) {
+        return new NdjsonExport<>(this::query, KEY_FIELD, KeyPairResource::getId, objectMapper, pageSize);
+    }
+
+    private Collection<KeyPairResource> query(QuerySpec querySpec) {
+        return keyPairService.query(querySpec)
                 .orElseThrow(exceptionMapper(KeyPairResource.class));
     }
 }
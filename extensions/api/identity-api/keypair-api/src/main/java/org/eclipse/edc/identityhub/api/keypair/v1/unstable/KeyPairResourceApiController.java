@@ -32,11 +32,7 @@ import org.eclipse.edc.identityhub.spi.keypair.model.KeyPairResource;
 import org.eclipse.edc.identityhub.spi.participantcontext.model.KeyDescriptor;
 import org.eclipse.edc.identityhub.spi.participantcontext.model.ParticipantContext;
 import org.eclipse.edc.identityhub.spi.participantcontext.model.ParticipantResource;
-import org.eclipse.edc.spi.EdcException;
-import org.eclipse.edc.spi.query.Criterion;
-import org.eclipse.edc.spi.query.QuerySpec;
 import org.eclipse.edc.web.spi.exception.InvalidRequestException;
-import org.eclipse.edc.web.spi.exception.ObjectNotFoundException;
 import org.eclipse.edc.web.spi.exception.ValidationFailureException;
 import org.jetbrains.annotations.Nullable;
 
@@ -65,25 +61,15 @@ public class KeyPairResourceApiController implements KeyPairResourceApi {
     @Path("/{keyPairId}")
     @Override
     public KeyPairResource getKeyPair(@PathParam("keyPairId") String id, @Context SecurityContext securityContext) {
-        authorizationService.isAuthorized(securityContext, id, KeyPairResource.class).orElseThrow(exceptionMapper(KeyPairResource.class, id));
-
-        var query = QuerySpec.Builder.newInstance().filter(new Criterion("id", "=", id)).build();
-        var result = keyPairService.query(query).orElseThrow(exceptionMapper(KeyPairResource.class, id));
-        if (result.isEmpty()) {
-            throw new ObjectNotFoundException(KeyPairResource.class, id);
-        }
-        if (result.size() > 1) {
-            throw new EdcException("Expected only 1 result, but got %s".formatted(result.size()));
-        }
-        return result.iterator().next();
+        return authorizationService.authorize(securityContext, id, KeyPairResource.class).orElseThrow(exceptionMapper(KeyPairResource.class, id));
     }
 
     @GET
     @Override
     public Collection<KeyPairResource> queryKeyPairByParticipantId(@PathParam("participantContextId") String participantContextId, @Context SecurityContext securityContext) {
         return onEncoded(participantContextId).map(decoded -> {
-            var query = ParticipantResource.queryByParticipantContextId(decoded).build();
-            return keyPairService.query(query).orElseThrow(exceptionMapper(KeyPairResource.class, decoded)).stream().filter(kpr -> authorizationService.isAuthorized(securityContext, kpr.getId(), KeyPairResource.class).succeeded()).toList();
+            var query = authorizationService.restrictToAuthorized(securityContext, ParticipantResource.queryByParticipantContextId(decoded).build());
+            return keyPairService.query(query).orElseThrow(exceptionMapper(KeyPairResource.class, decoded));
         }).orElseThrow(InvalidRequestException::new);
     }
 
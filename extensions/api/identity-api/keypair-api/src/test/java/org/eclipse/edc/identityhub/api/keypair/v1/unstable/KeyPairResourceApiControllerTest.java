@@ -69,13 +69,14 @@ class KeyPairResourceApiControllerTest extends RestControllerTestBase {
     @BeforeEach
     void setUp() {
         when(authService.isAuthorized(any(), anyString(), any())).thenReturn(ServiceResult.success());
+        when(authService.restrictToAuthorized(any(), any())).thenAnswer(i -> i.getArgument(1));
     }
 
     @Test
     void findById() {
         var keyPair = createKeyPair().build();
 
-        when(keyPairService.query(any())).thenReturn(ServiceResult.success(List.of(keyPair)));
+        when(authService.authorize(any(), eq("test-keypairId"), eq(KeyPairResource.class))).thenReturn(ServiceResult.success(keyPair));
 
         var found = baseRequest()
                 .get("/test-keypairId")
@@ -84,11 +85,12 @@ class KeyPairResourceApiControllerTest extends RestControllerTestBase {
                 .log().ifError()
                 .extract().body().as(KeyPairResource.class);
         assertThat(found).usingRecursiveComparison().isEqualTo(keyPair);
+        verifyNoInteractions(keyPairService);
     }
 
     @Test
     void findById_notExist() {
-        when(keyPairService.query(any())).thenReturn(ServiceResult.notFound("tst-msg"));
+        when(authService.authorize(any(), eq("test-keypairId"), eq(KeyPairResource.class))).thenReturn(ServiceResult.notFound("tst-msg"));
 
         baseRequest()
                 .get("/test-keypairId")
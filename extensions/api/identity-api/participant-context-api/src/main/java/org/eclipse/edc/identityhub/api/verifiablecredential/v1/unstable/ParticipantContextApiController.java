@@ -75,8 +75,7 @@ public class ParticipantContextApiController implements ParticipantContextApi {
     @Path("/{participantContextId}")
     public ParticipantContext getParticipant(@PathParam("participantContextId") String participantContextId, @Context SecurityContext securityContext) {
         return onEncoded(participantContextId)
-                .map(decoded -> authorizationService.isAuthorized(securityContext, decoded, ParticipantContext.class)
-                        .compose(u -> participantContextService.getParticipantContext(decoded))
+                .map(decoded -> authorizationService.authorize(securityContext, decoded, ParticipantContext.class)
                         .orElseThrow(exceptionMapper(ParticipantContext.class, decoded)))
                 .orElseThrow(InvalidRequestException::new);
     }
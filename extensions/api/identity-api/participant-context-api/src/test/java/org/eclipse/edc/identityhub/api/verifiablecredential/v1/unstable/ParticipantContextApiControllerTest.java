@@ -75,7 +75,7 @@ class ParticipantContextApiControllerTest extends RestControllerTestBase {
     @Test
     void getById() {
         var pc = createParticipantContext().build();
-        when(participantContextServiceMock.getParticipantContext(any())).thenReturn(ServiceResult.success(pc));
+        when(authService.authorize(any(), anyString(), eq(ParticipantContext.class))).thenReturn(ServiceResult.success(pc));
 
         var participantContext = baseRequest()
                 .get("/%s".formatted(pc.getParticipantContextId()))
@@ -85,12 +85,13 @@ class ParticipantContextApiControllerTest extends RestControllerTestBase {
                 .extract().body().as(ParticipantContext.class);
 
         assertThat(participantContext).usingRecursiveComparison().isEqualTo(pc);
-        verify(participantContextServiceMock).getParticipantContext(any());
+        verify(authService).authorize(any(), anyString(), eq(ParticipantContext.class));
+        verifyNoInteractions(participantContextServiceMock);
     }
 
     @Test
     void getById_whenNotFound() {
-        when(participantContextServiceMock.getParticipantContext(any())).thenReturn(ServiceResult.notFound("foo bar"));
+        when(authService.authorize(any(), anyString(), eq(ParticipantContext.class))).thenReturn(ServiceResult.notFound("foo bar"));
 
         baseRequest()
                 .get("/unknown")
@@ -30,6 +30,7 @@ import org.eclipse.edc.spi.query.Criterion;
 import org.eclipse.edc.spi.query.QuerySpec;
 import org.eclipse.edc.spi.system.ServiceExtension;
 import org.eclipse.edc.spi.system.ServiceExtensionContext;
+import org.eclipse.edc.spi.types.TypeManager;
 import org.eclipse.edc.transform.spi.TypeTransformerRegistry;
 import org.eclipse.edc.web.spi.WebService;
 
@@ -47,6 +48,8 @@ public class VerifiableCredentialApiExtension implements ServiceExtension {
     private CredentialStore credentialStore;
     @Inject
     private AuthorizationService authorizationService;
+    @Inject
+    private TypeManager typeManager;
 
     @Override
     public String name() {
@@ -59,14 +62,16 @@ public class VerifiableCredentialApiExtension implements ServiceExtension {
         var registry = typeTransformerRegistry.forContext("identity-api");
         registry.register(new VerifiableCredentialManifestToVerifiableCredentialResourceTransformer());
         var controller = new VerifiableCredentialsApiController(credentialStore, authorizationService, new VerifiableCredentialManifestValidator(), registry);
-        var getAllController = new GetAllCredentialsApiController(credentialStore);
+        var getAllController = new GetAllCredentialsApiController(credentialStore, typeManager.getMapper());
         webService.registerResource(IdentityHubApiContext.IDENTITY, controller);
         webService.registerResource(IdentityHubApiContext.IDENTITY, getAllController);
     }
 
     private ParticipantResource queryById(String credentialId) {
         return credentialStore.query(QuerySpec.Builder.newInstance().filter(new Criterion("id", "=", credentialId)).build())
-                .map(list -> list.iterator().next())
-                .orElseThrow(f -> new EdcException(f.getFailureDetail()));
+                .orElseThrow(f -> new EdcException(f.getFailureDetail()))
+                .stream()
+                .findFirst()
+                .orElse(null);
     }
 }
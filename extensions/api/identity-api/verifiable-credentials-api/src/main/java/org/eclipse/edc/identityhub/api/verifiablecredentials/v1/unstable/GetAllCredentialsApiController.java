@@ -14,6 +14,7 @@
 
 package org.eclipse.edc.identityhub.api.verifiablecredentials.v1.unstable;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DefaultValue;
@@ -21,7 +22,11 @@ import jakarta.ws.rs.GET;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.StreamingOutput;
 import org.eclipse.edc.identityhub.api.Versions;
+import org.eclipse.edc.identityhub.api.pagination.KeysetPage;
+import org.eclipse.edc.identityhub.api.pagination.KeysetPagination;
+import org.eclipse.edc.identityhub.api.pagination.NdjsonExport;
 import org.eclipse.edc.identityhub.spi.authentication.ServicePrincipal;
 import org.eclipse.edc.identityhub.spi.verifiablecredentials.model.VerifiableCredentialResource;
 import org.eclipse.edc.identityhub.spi.verifiablecredentials.store.CredentialStore;
@@ -37,10 +42,13 @@ import static org.eclipse.edc.identityhub.spi.authorization.AuthorizationResultH
 @Produces(APPLICATION_JSON)
 @Path(Versions.UNSTABLE + "/credentials")
 public class GetAllCredentialsApiController implements GetAllCredentialsApi {
+    private static final String KEY_FIELD = "id";
     private final CredentialStore credentialStore;
+    private final ObjectMapper objectMapper;
 
-    public GetAllCredentialsApiController(CredentialStore credentialStore) {
+    public GetAllCredentialsApiController(CredentialStore credentialStore, ObjectMapper objectMapper) {
         this.credentialStore = credentialStore;
+        this.objectMapper = objectMapper;
     }
 
     @GET
@@ -48,7 +56,30 @@ public class GetAllCredentialsApiController implements GetAllCredentialsApi {
     @Override
     public Collection<VerifiableCredentialResource> getAllCredentials(@DefaultValue("0") @QueryParam("offset") Integer offset,
                                                                       @DefaultValue("50") @QueryParam("limit") Integer limit) {
-        var res = credentialStore.query(QuerySpec.Builder.newInstance().limit(limit).offset(offset).build());
+        return query(QuerySpec.Builder.newInstance().limit(limit).offset(offset).sortField(KEY_FIELD).build());
+    }
+
+    @GET
+    @Path("/page")
+    @RolesAllowed(ServicePrincipal.ROLE_ADMIN)
+    @Override
+    public KeysetPage<VerifiableCredentialResource> getCredentialsPage(@QueryParam("continuationToken") String continuationToken,
+                                                                       @DefaultValue("50") @QueryParam("limit") Integer limit) {
+        var query = KeysetPagination.querySpecFromToken(KEY_FIELD, continuationToken, limit);
+        return KeysetPagination.toPage(query(query), limit, VerifiableCredentialResource::getId);
+    }
+
+    @GET
+    @Path("/export")
+    @Produces(NdjsonExport.APPLICATION_NDJSON)
+    @RolesAllowed(ServicePrincipal.ROLE_ADMIN)
+    @Override
+    public StreamingOutput exportCredentials(@DefaultValue("500") @QueryParam("pageSize") Integer pageSize) {
+        return new NdjsonExport<>(this::query, KEY_FIELD, VerifiableCredentialResource::getId, objectMapper, pageSize);
+    }
+
+    private Collection<VerifiableCredentialResource> query(QuerySpec querySpec) {
+        var res = credentialStore.query(querySpec);
         return ServiceResult.from(res).orElseThrow(exceptionMapper(VerifiableCredentialResource.class));
     }
 }
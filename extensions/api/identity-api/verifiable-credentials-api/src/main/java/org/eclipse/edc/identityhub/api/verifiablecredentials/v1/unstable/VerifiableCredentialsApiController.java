@@ -39,7 +39,6 @@ import org.eclipse.edc.spi.result.ServiceResult;
 import org.eclipse.edc.transform.spi.TypeTransformerRegistry;
 import org.eclipse.edc.util.string.StringUtils;
 import org.eclipse.edc.web.spi.exception.InvalidRequestException;
-import org.eclipse.edc.web.spi.exception.ObjectNotFoundException;
 import org.eclipse.edc.web.spi.exception.ValidationFailureException;
 import org.jetbrains.annotations.Nullable;
 
@@ -71,12 +70,8 @@ public class VerifiableCredentialsApiController implements VerifiableCredentials
     @Path("/{credentialId}")
     @Override
     public VerifiableCredentialResource getCredential(@PathParam("credentialId") String id, @Context SecurityContext securityContext) {
-        authorizationService.isAuthorized(securityContext, id, VerifiableCredentialResource.class)
+        return authorizationService.authorize(securityContext, id, VerifiableCredentialResource.class)
                 .orElseThrow(exceptionMapper(VerifiableCredentialResource.class, id));
-
-        var result = credentialStore.query(QuerySpec.Builder.newInstance().filter(new Criterion("id", "=", id)).build())
-                .orElseThrow(InvalidRequestException::new);
-        return result.stream().findFirst().orElseThrow(() -> new ObjectNotFoundException(VerifiableCredentialResource.class, id));
     }
 
     @POST
@@ -115,20 +110,17 @@ public class VerifiableCredentialsApiController implements VerifiableCredentials
             query.filter(new Criterion("verifiableCredential.credential.types", "contains", type));
         }
 
-        return credentialStore.query(query.build())
-                .orElseThrow(InvalidRequestException::new)
-                .stream()
-                .filter(vcr -> authorizationService.isAuthorized(securityContext, vcr.getId(), VerifiableCredentialResource.class).succeeded())
-                .toList();
+        return credentialStore.query(authorizationService.restrictToAuthorized(securityContext, query.build()))
+                .orElseThrow(InvalidRequestException::new);
     }
 
     @DELETE
     @Path("/{credentialId}")
     @Override
     public void deleteCredential(@PathParam("credentialId") String id, @Context SecurityContext securityContext) {
-        authorizationService.isAuthorized(securityContext, id, VerifiableCredentialResource.class)
+        var credential = authorizationService.authorize(securityContext, id, VerifiableCredentialResource.class)
                 .orElseThrow(exceptionMapper(VerifiableCredentialResource.class, id));
-        var res = credentialStore.deleteById(id);
+        var res = credentialStore.deleteById(credential.getParticipantContextId(), id);
         if (res.failed()) {
             throw exceptionMapper(VerifiableCredentialResource.class, id).apply(ServiceResult.fromFailure(res).getFailure());
         }
@@ -28,6 +28,8 @@ import org.eclipse.edc.identityhub.spi.verifiablecredentials.model.VerifiableCre
 import org.eclipse.edc.identityhub.spi.verifiablecredentials.model.VerifiableCredentialResource;
 import org.eclipse.edc.identityhub.spi.verifiablecredentials.store.CredentialStore;
 import org.eclipse.edc.junit.annotations.ApiTest;
+import org.eclipse.edc.spi.query.Criterion;
+import org.eclipse.edc.spi.query.QuerySpec;
 import org.eclipse.edc.spi.result.Result;
 import org.eclipse.edc.spi.result.ServiceResult;
 import org.eclipse.edc.spi.result.StoreResult;
@@ -54,9 +56,12 @@ import static org.eclipse.edc.spi.result.ServiceResult.unauthorized;
 import static org.eclipse.edc.spi.result.StoreResult.alreadyExists;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
@@ -73,6 +78,7 @@ class VerifiableCredentialsApiControllerTest extends RestControllerTestBase {
     @BeforeEach
     void setUp() {
         when(authorizationService.isAuthorized(any(), anyString(), any())).thenReturn(ServiceResult.success());
+        when(authorizationService.restrictToAuthorized(any(), any())).thenAnswer(i -> i.getArgument(1));
     }
 
     @Override
@@ -114,6 +120,37 @@ class VerifiableCredentialsApiControllerTest extends RestControllerTestBase {
                 .when();
     }
 
+    @Nested
+    class FindById {
+        @Test
+        void success() {
+            var credential = createCredentialResource("test-type").build();
+            when(authorizationService.authorize(any(), eq(credential.getId()), eq(VerifiableCredentialResource.class))).thenReturn(ServiceResult.success(credential));
+
+            var result = baseRequest()
+                    .get("/" + credential.getId())
+                    .then()
+                    .log().ifValidationFails()
+                    .statusCode(200)
+                    .extract().body().as(VerifiableCredentialResource.class);
+
+            assertThat(result).usingRecursiveComparison().ignoringFields("clock").isEqualTo(credential);
+            verifyNoInteractions(credentialStore);
+        }
+
+        @Test
+        void notAuthorized_returns403() {
+            when(authorizationService.authorize(any(), eq(CREDENTIAL_ID), eq(VerifiableCredentialResource.class))).thenReturn(unauthorized("test-message"));
+
+            baseRequest()
+                    .get("/" + CREDENTIAL_ID)
+                    .then()
+                    .log().ifValidationFails()
+                    .statusCode(403);
+            verifyNoInteractions(credentialStore);
+        }
+    }
+
     @Nested
     class Create {
         @Test
@@ -297,12 +334,11 @@ class VerifiableCredentialsApiControllerTest extends RestControllerTestBase {
         }
 
         @Test
-        void notAuthorized_returns403() {
-            var credential1 = createCredentialResource("test-type").build();
-            var credential2 = createCredentialResource("test-type").build();
-            when(credentialStore.query(any())).thenReturn(StoreResult.success(List.of(credential1, credential2)));
-            when(authorizationService.isAuthorized(any(), eq(credential1.getId()), eq(VerifiableCredentialResource.class))).thenReturn(unauthorized("test-message"));
-            when(authorizationService.isAuthorized(any(), eq(credential2.getId()), eq(VerifiableCredentialResource.class))).thenReturn(ServiceResult.success());
+        void shouldRestrictQueryToAuthorizedCredentials() {
+            var credential = createCredentialResource("test-type").build();
+            var restrictedQuery = QuerySpec.Builder.newInstance().filter(new Criterion("participantContextId", "=", PARTICIPANT_ID)).build();
+            when(authorizationService.restrictToAuthorized(any(), any())).thenReturn(restrictedQuery);
+            when(credentialStore.query(restrictedQuery)).thenReturn(StoreResult.success(List.of(credential)));
 
             var result = baseRequest()
                     .get("?type=test-type")
@@ -311,8 +347,10 @@ class VerifiableCredentialsApiControllerTest extends RestControllerTestBase {
                     .statusCode(200)
                     .extract().body().as(VerifiableCredentialResource[].class);
 
-            assertThat(result).usingRecursiveFieldByFieldElementComparatorIgnoringFields("clock").containsExactlyInAnyOrder(credential2);
-            verify(credentialStore).query(any());
+            assertThat(result).usingRecursiveFieldByFieldElementComparatorIgnoringFields("clock").containsExactly(credential);
+            verify(authorizationService).restrictToAuthorized(any(), argThat(q -> q.getFilterExpression().size() == 1));
+            verify(authorizationService, never()).isAuthorized(any(), any(), any());
+            verify(credentialStore).query(restrictedQuery);
             verifyNoMoreInteractions(credentialStore);
         }
 
@@ -356,7 +394,9 @@ class VerifiableCredentialsApiControllerTest extends RestControllerTestBase {
 
         @Test
         void success() {
-            when(credentialStore.deleteById(CREDENTIAL_ID)).thenReturn(StoreResult.success());
+            var credential = createCredentialResource("VerifiableCredential").id(CREDENTIAL_ID).participantContextId(PARTICIPANT_ID).build();
+            when(authorizationService.authorize(any(), eq(CREDENTIAL_ID), eq(VerifiableCredentialResource.class))).thenReturn(ServiceResult.success(credential));
+            when(credentialStore.deleteById(PARTICIPANT_ID, CREDENTIAL_ID)).thenReturn(StoreResult.success());
 
             baseRequest()
                     .delete("/%s".formatted(CREDENTIAL_ID))
@@ -364,26 +404,28 @@ class VerifiableCredentialsApiControllerTest extends RestControllerTestBase {
                     .log().ifValidationFails()
                     .statusCode(204);
 
-            verify(credentialStore).deleteById(eq(CREDENTIAL_ID));
+            verify(credentialStore).deleteById(eq(PARTICIPANT_ID), eq(CREDENTIAL_ID));
             verifyNoMoreInteractions(credentialStore);
         }
 
         @Test
         void notAuthorized_returns403() {
-            when(authorizationService.isAuthorized(any(), anyString(), any())).thenReturn(unauthorized("test-message"));
+            when(authorizationService.authorize(any(), anyString(), eq(VerifiableCredentialResource.class))).thenReturn(unauthorized("test-message"));
 
             baseRequest()
                     .delete("/%s".formatted(CREDENTIAL_ID))
                     .then()
                     .log().ifValidationFails()
                     .statusCode(403);
-            verify(authorizationService).isAuthorized(any(), anyString(), eq(VerifiableCredentialResource.class));
+            verify(authorizationService).authorize(any(), anyString(), eq(VerifiableCredentialResource.class));
             verifyNoMoreInteractions(credentialStore, authorizationService);
         }
 
         @Test
         void idDoesNotExist_returns404() {
-            when(credentialStore.deleteById(CREDENTIAL_ID)).thenReturn(StoreResult.notFound("test-message"));
+            var credential = createCredentialResource("VerifiableCredential").id(CREDENTIAL_ID).participantContextId(PARTICIPANT_ID).build();
+            when(authorizationService.authorize(any(), eq(CREDENTIAL_ID), eq(VerifiableCredentialResource.class))).thenReturn(ServiceResult.success(credential));
+            when(credentialStore.deleteById(PARTICIPANT_ID, CREDENTIAL_ID)).thenReturn(StoreResult.notFound("test-message"));
 
             baseRequest()
                     .delete("/%s".formatted(CREDENTIAL_ID))
@@ -391,7 +433,7 @@ class VerifiableCredentialsApiControllerTest extends RestControllerTestBase {
                     .log().ifValidationFails()
                     .statusCode(404);
 
-            verify(credentialStore).deleteById(eq(CREDENTIAL_ID));
+            verify(credentialStore).deleteById(eq(PARTICIPANT_ID), eq(CREDENTIAL_ID));
             verifyNoMoreInteractions(credentialStore);
         }
     }
@@ -22,11 +22,13 @@ dependencies {
     api(project(":spi:identity-hub-spi"))
     api(project(":spi:did-spi"))
 
+    implementation(project(":core:lib:cache-lib"))
     implementation(libs.edc.spi.web)
     implementation(libs.edc.lib.jerseyproviders)
     implementation(libs.jakarta.rsApi)
     implementation(libs.jakarta.annotation)
 
     testImplementation(libs.edc.junit)
+    testImplementation(project(":core:identity-hub-core"))
     testRuntimeOnly(libs.jersey.common) // needs the RuntimeDelegate
 }
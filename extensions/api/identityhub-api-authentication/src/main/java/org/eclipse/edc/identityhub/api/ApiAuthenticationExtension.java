@@ -16,27 +16,48 @@ package org.eclipse.edc.identityhub.api;
 
 import org.eclipse.edc.identityhub.api.authentication.filter.RoleBasedAccessFeature;
 import org.eclipse.edc.identityhub.api.authentication.filter.ServicePrincipalAuthenticationFilter;
+import org.eclipse.edc.identityhub.spi.cluster.ClusterEventRouter;
+import org.eclipse.edc.identityhub.spi.participantcontext.ApiTokenHasher;
 import org.eclipse.edc.identityhub.spi.participantcontext.ParticipantContextService;
+import org.eclipse.edc.identityhub.spi.participantcontext.events.ParticipantContextEvent;
 import org.eclipse.edc.identityhub.spi.webcontext.IdentityHubApiContext;
 import org.eclipse.edc.runtime.metamodel.annotation.Extension;
 import org.eclipse.edc.runtime.metamodel.annotation.Inject;
+import org.eclipse.edc.runtime.metamodel.annotation.Setting;
 import org.eclipse.edc.spi.security.Vault;
 import org.eclipse.edc.spi.system.ServiceExtension;
 import org.eclipse.edc.spi.system.ServiceExtensionContext;
 import org.eclipse.edc.web.spi.WebService;
 
+import java.time.Clock;
+import java.time.Duration;
+
 import static org.eclipse.edc.identityhub.api.ApiAuthenticationExtension.NAME;
 
 @Extension(NAME)
 public class ApiAuthenticationExtension implements ServiceExtension {
 
     public static final String NAME = "Identity API Authentication Extension";
+
+    @Setting(description = "Time (in milliseconds) for which authenticated API keys are cached. Configuring a number <=0 disables the cache.",
+            defaultValue = "0", key = "edc.iam.api.auth.cache.ttl")
+    private long ttl;
+    @Setting(description = "Maximum number of cached API keys. If exceeded, the least recently used one is evicted.",
+            defaultValue = "1000", key = "edc.iam.api.auth.cache.size", min = 1)
+    private int maxSize;
+
     @Inject
     private WebService webService;
     @Inject
     private ParticipantContextService participantContextService;
     @Inject
     private Vault vault;
+    @Inject(required = false)
+    private ApiTokenHasher apiTokenHasher;
+    @Inject
+    private ClusterEventRouter clusterEventRouter;
+    @Inject
+    private Clock clock;
 
     @Override
     public String name() {
@@ -47,6 +68,10 @@ public class ApiAuthenticationExtension implements ServiceExtension {
     public void initialize(ServiceExtensionContext context) {
         var alias = IdentityHubApiContext.IDENTITY;
         webService.registerResource(alias, new RoleBasedAccessFeature());
-        webService.registerResource(alias, new ServicePrincipalAuthenticationFilter(new ParticipantServicePrincipalResolver(participantContextService, vault)));
+        var resolver = new ParticipantServicePrincipalResolver(participantContextService, vault, apiTokenHasher, clock, Duration.ofMillis(ttl), maxSize);
+        if (ttl > 0) {
+            clusterEventRouter.registerSubscriber(ParticipantContextEvent.class, resolver);
+        }
+        webService.registerResource(alias, new ServicePrincipalAuthenticationFilter(resolver));
     }
 }
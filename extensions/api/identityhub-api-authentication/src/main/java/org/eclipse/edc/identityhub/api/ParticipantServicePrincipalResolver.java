@@ -15,13 +15,25 @@
 package org.eclipse.edc.identityhub.api;
 
 import org.eclipse.edc.identityhub.api.authentication.filter.ServicePrincipalAuthenticationFilter;
+import org.eclipse.edc.identityhub.cache.TtlCache;
 import org.eclipse.edc.identityhub.spi.authentication.ServicePrincipal;
 import org.eclipse.edc.identityhub.spi.authentication.ServicePrincipalResolver;
+import org.eclipse.edc.identityhub.spi.participantcontext.ApiTokenHasher;
 import org.eclipse.edc.identityhub.spi.participantcontext.ParticipantContextService;
+import org.eclipse.edc.identityhub.spi.participantcontext.events.ParticipantContextEvent;
 import org.eclipse.edc.identityhub.spi.participantcontext.model.ParticipantContext;
+import org.eclipse.edc.spi.event.Event;
+import org.eclipse.edc.spi.event.EventEnvelope;
+import org.eclipse.edc.spi.event.EventSubscriber;
 import org.eclipse.edc.spi.security.Vault;
 import org.eclipse.edc.web.spi.exception.AuthenticationFailedException;
+import org.jetbrains.annotations.Nullable;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
 import java.util.Base64;
 import java.util.List;
 
@@ -29,14 +41,36 @@ import java.util.List;
  * For the purposes of the Identity API of the IdentityHub, a {@link ServicePrincipal} is represented by a {@link ParticipantContext}. However, the request filter chain ({@link ServicePrincipalAuthenticationFilter}
  * etc.)
  * do not need to know about that, they only know about {@link ServicePrincipal} and {@link ServicePrincipalResolver}. Thus, this implementation acts as bridge. Other authentication backends like Apache Shiro would call this a _realm_.
+ * <p>
+ * If a TTL &gt; 0 is configured, successfully authenticated principals are cached, keyed by the SHA-256 hash of their API key,
+ * so that repeated calls with the same API key neither hit the {@link ParticipantContextService} nor the {@link Vault}. The
+ * API key itself is not cached. All cached principals of a participant context are invalidated on every
+ * {@link ParticipantContextEvent}, which covers regenerated API tokens, role updates and deletion.
+ * <p>
+ * If an {@link ApiTokenHasher} is configured, API keys are verified against the hash that is stored with the
+ * {@link ParticipantContext}, without resolving the API key from the vault. Participant contexts that do not have a hash yet
+ * are verified against the vault. Verifying an API key never writes, API keys are migrated to hashes with
+ * {@link ParticipantContextService#migrateApiTokenHashes(boolean)}.
  */
-class ParticipantServicePrincipalResolver implements ServicePrincipalResolver {
+class ParticipantServicePrincipalResolver implements ServicePrincipalResolver, EventSubscriber {
     private final ParticipantContextService participantContextService;
     private final Vault vault;
+    private final ApiTokenHasher apiTokenHasher;
+    private final TtlCache<String, CachedPrincipal> cache;
 
-    ParticipantServicePrincipalResolver(ParticipantContextService participantContextService, Vault vault) {
+    /**
+     * Creates a new resolver.
+     *
+     * @param apiTokenHasher the hasher with which API keys are verified, or null if API keys are stored in the vault
+     * @param ttl            how long an authenticated principal is cached. A TTL &lt;= 0 disables the cache.
+     * @param maxSize        the maximum number of cached principals. If exceeded, the least recently used one is evicted.
+     */
+    ParticipantServicePrincipalResolver(ParticipantContextService participantContextService, Vault vault, @Nullable ApiTokenHasher apiTokenHasher,
+                                        Clock clock, Duration ttl, int maxSize) {
         this.participantContextService = participantContextService;
         this.vault = vault;
+        this.apiTokenHasher = apiTokenHasher;
+        this.cache = new TtlCache<>(clock, ttl, maxSize);
     }
 
     /**
@@ -49,28 +83,65 @@ class ParticipantServicePrincipalResolver implements ServicePrincipalResolver {
      */
     @Override
     public ServicePrincipal findByCredential(String credential) {
+        var cached = cache.get(hash(credential), key -> {
+            var user = authenticate(credential);
+            return new CachedPrincipal(user.getPrincipal(), List.copyOf(user.getRoles()));
+        });
+        return toUser(cached.participantContextId(), credential, cached.roles());
+    }
+
+    /**
+     * Removes all cached principals of the given participant context.
+     */
+    void invalidate(String participantContextId) {
+        cache.invalidateIf(cached -> cached.participantContextId().equals(participantContextId));
+    }
+
+    /**
+     * The number of cached principals, c.f. {@link TtlCache#size()}.
+     */
+    int size() {
+        return cache.size();
+    }
+
+    @Override
+    public <E extends Event> void on(EventEnvelope<E> event) {
+        if (event.getPayload() instanceof ParticipantContextEvent participantContextEvent) {
+            invalidate(participantContextEvent.getParticipantContextId());
+        }
+    }
+
+    private ServicePrincipal authenticate(String credential) {
         var tokens = credential.split("\\.");
         if (tokens.length != 2) {
             throw new AuthenticationFailedException("Invalid API token");
         }
         var principalId = Base64.getDecoder().decode(tokens[0]);
-        var user = findByPrincipal(new String(principalId));
-        if (user.getCredential().equals(credential)) {
-            return user;
+        var participantContext = findByPrincipal(new String(principalId));
+        if (verify(participantContext, credential)) {
+            return toUser(participantContext.getParticipantContextId(), credential, participantContext.getRoles());
         }
         throw new AuthenticationFailedException("Invalid API token");
 
     }
 
-    private ServicePrincipal findByPrincipal(String principal) {
+    private boolean verify(ParticipantContext participantContext, String credential) {
+        var apiTokenHash = participantContext.getApiTokenHash();
+        if (apiTokenHasher != null && apiTokenHash != null) {
+            return apiTokenHasher.verify(credential, apiTokenHash);
+        }
+
+        var storedCredential = vault.resolveSecret(participantContext.getApiTokenAlias());
+        // constant-time comparison, so that the API key cannot be guessed by measuring response times
+        return storedCredential != null && MessageDigest.isEqual(storedCredential.getBytes(StandardCharsets.UTF_8), credential.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private ParticipantContext findByPrincipal(String principal) {
         return participantContextService.getParticipantContext(principal)
-                .map(this::toUser)
                 .orElseThrow(f -> new AuthenticationFailedException("Invalid Authentication '%s': %s".formatted(principal, f.getFailureDetail())));
     }
 
-    private ServicePrincipal toUser(ParticipantContext participantContext) {
-        var credential = vault.resolveSecret(participantContext.getApiTokenAlias());
-        var participantContextId = participantContext.getParticipantContextId();
+    private ServicePrincipal toUser(String participantContextId, String credential, List<String> roles) {
         return new ServicePrincipal() {
             @Override
             public String getPrincipal() {
@@ -84,8 +155,21 @@ class ParticipantServicePrincipalResolver implements ServicePrincipalResolver {
 
             @Override
             public List<String> getRoles() {
-                return participantContext.getRoles();
+                return roles;
             }
         };
     }
+
+    private String hash(String credential) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256").digest(credential.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record CachedPrincipal(String participantContextId, List<String> roles) {
+    }
 }
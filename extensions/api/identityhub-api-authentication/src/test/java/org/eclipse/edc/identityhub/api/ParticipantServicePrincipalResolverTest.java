@@ -0,0 +1,246 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.api;
+
+import org.eclipse.edc.identityhub.core.vault.CachingVault;
+import org.eclipse.edc.identityhub.spi.participantcontext.ApiTokenHasher;
+import org.eclipse.edc.identityhub.spi.participantcontext.ParticipantContextService;
+import org.eclipse.edc.identityhub.spi.participantcontext.events.ParticipantContextApiTokenRegenerated;
+import org.eclipse.edc.identityhub.spi.participantcontext.events.ParticipantContextUpdated;
+import org.eclipse.edc.identityhub.spi.participantcontext.model.ParticipantContext;
+import org.eclipse.edc.identityhub.spi.participantcontext.model.ParticipantContextState;
+import org.eclipse.edc.spi.event.Event;
+import org.eclipse.edc.spi.event.EventEnvelope;
+import org.eclipse.edc.spi.result.ServiceResult;
+import org.eclipse.edc.spi.security.Vault;
+import org.eclipse.edc.web.spi.exception.AuthenticationFailedException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class ParticipantServicePrincipalResolverTest {
+
+    private static final String PARTICIPANT_ID = "test-participant";
+    private static final String API_KEY = Base64.getEncoder().encodeToString(PARTICIPANT_ID.getBytes()) + ".random-part";
+    private final ParticipantContextService participantContextService = mock();
+    private final Vault vault = mock();
+    private final Clock clock = mock();
+    private final ParticipantServicePrincipalResolver resolver = new ParticipantServicePrincipalResolver(participantContextService, vault, null, clock, Duration.ofSeconds(10), 2);
+
+    @BeforeEach
+    void setUp() {
+        when(clock.millis()).thenReturn(1000L);
+        when(participantContextService.getParticipantContext(PARTICIPANT_ID)).thenReturn(ServiceResult.success(participantContext()));
+        when(vault.resolveSecret("test-alias")).thenReturn(API_KEY);
+    }
+
+    @Test
+    void findByCredential() {
+        var principal = resolver.findByCredential(API_KEY);
+
+        assertThat(principal.getPrincipal()).isEqualTo(PARTICIPANT_ID);
+        assertThat(principal.getCredential()).isEqualTo(API_KEY);
+        assertThat(principal.getRoles()).containsExactly("admin");
+    }
+
+    @Test
+    void findByCredential_whenCredentialDoesNotMatch_shouldThrow() {
+        var wrongKey = Base64.getEncoder().encodeToString(PARTICIPANT_ID.getBytes()) + ".wrong-part";
+
+        assertThatThrownBy(() -> resolver.findByCredential(wrongKey)).isInstanceOf(AuthenticationFailedException.class);
+        assertThat(resolver.size()).isZero();
+    }
+
+    @Test
+    void findByCredential_whenSecretNotFound_shouldThrow() {
+        when(vault.resolveSecret(anyString())).thenReturn(null);
+
+        assertThatThrownBy(() -> resolver.findByCredential(API_KEY)).isInstanceOf(AuthenticationFailedException.class);
+    }
+
+    @Test
+    void findByCredential_invalidStructure_shouldThrow() {
+        assertThatThrownBy(() -> resolver.findByCredential("not-a-valid-key")).isInstanceOf(AuthenticationFailedException.class);
+        verify(participantContextService, never()).getParticipantContext(anyString());
+    }
+
+    @Test
+    void findByCredential_shouldCache() {
+        resolver.findByCredential(API_KEY);
+        var principal = resolver.findByCredential(API_KEY);
+
+        assertThat(principal.getPrincipal()).isEqualTo(PARTICIPANT_ID);
+        assertThat(principal.getRoles()).containsExactly("admin");
+        verify(participantContextService).getParticipantContext(PARTICIPANT_ID);
+        verify(vault).resolveSecret("test-alias");
+    }
+
+    @Test
+    void findByCredential_whenExpired_shouldAuthenticateAgain() {
+        resolver.findByCredential(API_KEY);
+
+        when(clock.millis()).thenReturn(1000L + 10_000);
+        resolver.findByCredential(API_KEY);
+
+        verify(vault, times(2)).resolveSecret("test-alias");
+    }
+
+    @Test
+    void findByCredential_whenTtlZero_shouldNotCache() {
+        var uncached = new ParticipantServicePrincipalResolver(participantContextService, vault, null, clock, Duration.ZERO, 2);
+
+        uncached.findByCredential(API_KEY);
+        uncached.findByCredential(API_KEY);
+
+        assertThat(uncached.size()).isZero();
+        verify(vault, times(2)).resolveSecret("test-alias");
+    }
+
+    @Test
+    void findByCredential_withHash_shouldNotResolveFromVault() {
+        var hasher = mock(ApiTokenHasher.class);
+        when(hasher.verify(API_KEY, "test-hash")).thenReturn(true);
+        var participantContext = participantContext();
+        participantContext.setApiTokenHash("test-hash");
+        when(participantContextService.getParticipantContext(PARTICIPANT_ID)).thenReturn(ServiceResult.success(participantContext));
+        var hashingResolver = new ParticipantServicePrincipalResolver(participantContextService, vault, hasher, clock, Duration.ZERO, 2);
+
+        assertThat(hashingResolver.findByCredential(API_KEY).getPrincipal()).isEqualTo(PARTICIPANT_ID);
+        verifyNoInteractions(vault);
+    }
+
+    @Test
+    void findByCredential_withHash_whenCredentialDoesNotMatch_shouldThrow() {
+        var hasher = mock(ApiTokenHasher.class);
+        when(hasher.verify(API_KEY, "test-hash")).thenReturn(false);
+        var participantContext = participantContext();
+        participantContext.setApiTokenHash("test-hash");
+        when(participantContextService.getParticipantContext(PARTICIPANT_ID)).thenReturn(ServiceResult.success(participantContext));
+        var hashingResolver = new ParticipantServicePrincipalResolver(participantContextService, vault, hasher, clock, Duration.ZERO, 2);
+
+        assertThatThrownBy(() -> hashingResolver.findByCredential(API_KEY)).isInstanceOf(AuthenticationFailedException.class);
+        verifyNoInteractions(vault);
+    }
+
+    @Test
+    void findByCredential_withoutHash_shouldVerifyAgainstVaultWithoutWriting() {
+        var hasher = mock(ApiTokenHasher.class);
+        var hashingResolver = new ParticipantServicePrincipalResolver(participantContextService, vault, hasher, clock, Duration.ZERO, 2);
+
+        assertThat(hashingResolver.findByCredential(API_KEY).getPrincipal()).isEqualTo(PARTICIPANT_ID);
+
+        verify(participantContextService, never()).migrateApiTokenHashes(anyBoolean());
+        verify(participantContextService, never()).updateParticipant(anyString(), any());
+        verify(vault, never()).deleteSecret(anyString());
+        verifyNoInteractions(hasher);
+    }
+
+    @Test
+    void findByCredential_withoutHash_whenCredentialDoesNotMatch_shouldThrow() {
+        var hasher = mock(ApiTokenHasher.class);
+        var hashingResolver = new ParticipantServicePrincipalResolver(participantContextService, vault, hasher, clock, Duration.ZERO, 2);
+        var wrongKey = Base64.getEncoder().encodeToString(PARTICIPANT_ID.getBytes()) + ".wrong-part";
+
+        assertThatThrownBy(() -> hashingResolver.findByCredential(wrongKey)).isInstanceOf(AuthenticationFailedException.class);
+        verifyNoInteractions(hasher);
+    }
+
+    @Test
+    void onApiTokenRegenerated_shouldInvalidate() {
+        resolver.findByCredential(API_KEY);
+        when(vault.resolveSecret("test-alias")).thenReturn("new-api-key");
+
+        resolver.on(envelope(ParticipantContextApiTokenRegenerated.Builder.newInstance().participantContextId(PARTICIPANT_ID).build()));
+
+        assertThat(resolver.size()).isZero();
+        assertThatThrownBy(() -> resolver.findByCredential(API_KEY)).isInstanceOf(AuthenticationFailedException.class);
+    }
+
+    @Test
+    void onApiTokenRegenerated_withCachingVault_shouldRejectPreviousApiKey() {
+        var cachingVault = new CachingVault(vault, clock, Duration.ofSeconds(10), 2);
+        var cachingResolver = new ParticipantServicePrincipalResolver(participantContextService, cachingVault, null, clock, Duration.ofSeconds(10), 2);
+        var newApiKey = Base64.getEncoder().encodeToString(PARTICIPANT_ID.getBytes()) + ".new-part";
+        cachingResolver.findByCredential(API_KEY);
+
+        // the API token is regenerated on another node, which only this node's subscribers learn about through the event
+        when(vault.resolveSecret("test-alias")).thenReturn(newApiKey);
+        var event = envelope(ParticipantContextApiTokenRegenerated.Builder.newInstance()
+                .participantContextId(PARTICIPANT_ID)
+                .apiTokenAlias("test-alias")
+                .build());
+        cachingResolver.on(event);
+        cachingVault.on(event);
+
+        assertThatThrownBy(() -> cachingResolver.findByCredential(API_KEY)).isInstanceOf(AuthenticationFailedException.class);
+        assertThat(cachingResolver.findByCredential(newApiKey).getPrincipal()).isEqualTo(PARTICIPANT_ID);
+    }
+
+    @Test
+    void onParticipantContextUpdated_shouldInvalidate() {
+        resolver.findByCredential(API_KEY);
+
+        resolver.on(envelope(ParticipantContextUpdated.Builder.newInstance()
+                .participantContextId(PARTICIPANT_ID)
+                .newState(ParticipantContextState.ACTIVATED)
+                .build()));
+
+        assertThat(resolver.size()).isZero();
+    }
+
+    @Test
+    void onParticipantContextUpdated_otherParticipant_shouldNotInvalidate() {
+        resolver.findByCredential(API_KEY);
+
+        resolver.on(envelope(ParticipantContextUpdated.Builder.newInstance()
+                .participantContextId("other-participant")
+                .newState(ParticipantContextState.ACTIVATED)
+                .build()));
+
+        assertThat(resolver.size()).isEqualTo(1);
+    }
+
+    private ParticipantContext participantContext() {
+        return ParticipantContext.Builder.newInstance()
+                .participantContextId(PARTICIPANT_ID)
+                .apiTokenAlias("test-alias")
+                .roles(List.of("admin"))
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private EventEnvelope<Event> envelope(Event event) {
+        return EventEnvelope.Builder.newInstance()
+                .at(System.currentTimeMillis())
+                .payload(event)
+                .build();
+    }
+}
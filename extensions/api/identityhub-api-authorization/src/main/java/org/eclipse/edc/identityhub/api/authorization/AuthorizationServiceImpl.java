@@ -35,24 +35,41 @@ public class AuthorizationServiceImpl implements AuthorizationService {
             return ServiceResult.success();
         }
 
+        return authorize(securityContext, resourceId, resourceClass).map(resource -> null);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T extends ParticipantResource> ServiceResult<T> authorize(SecurityContext securityContext, String resourceId, Class<T> resourceClass) {
         var function = resourceLookupFunctions.get(resourceClass);
-        var name = securityContext.getUserPrincipal().getName();
         if (function == null) {
-            return ServiceResult.unauthorized("User access for '%s' to resource ID '%s' of type '%s' cannot be verified".formatted(name, resourceClass, resourceClass));
+            return ServiceResult.unauthorized("User access for '%s' to resource ID '%s' of type '%s' cannot be verified".formatted(principalName(securityContext), resourceId, resourceClass));
         }
 
         var result = function.apply(resourceId);
-        if (result != null) {
-            return Objects.equals(result.getParticipantContextId(), name)
-                    ? ServiceResult.success()
-                    : ServiceResult.unauthorized("User '%s' is not authorized to access resource of type %s with ID '%s'.".formatted(name, resourceClass, resourceId));
+        if (result == null) {
+            return ServiceResult.notFound("No Resource of type '%s' with ID '%s' was found.".formatted(resourceClass, resourceId));
         }
 
-        return ServiceResult.notFound("No Resource of type '%s' with ID '%s' was found.".formatted(resourceClass, resourceId));
+        if (securityContext.isUserInRole(ServicePrincipal.ROLE_ADMIN) || Objects.equals(result.getParticipantContextId(), principalName(securityContext))) {
+            // lookup functions are registered per resource class, so the result is of that class
+            return ServiceResult.success((T) result);
+        }
+        return ServiceResult.unauthorized("User '%s' is not authorized to access resource of type %s with ID '%s'.".formatted(principalName(securityContext), resourceClass, resourceId));
     }
 
     @Override
     public void addLookupFunction(Class<?> resourceClass, Function<String, ParticipantResource> lookupFunction) {
         resourceLookupFunctions.put(resourceClass, lookupFunction);
     }
+
+    @Override
+    public Function<String, ParticipantResource> getLookupFunction(Class<?> resourceClass) {
+        return resourceLookupFunctions.get(resourceClass);
+    }
+
+    private String principalName(SecurityContext securityContext) {
+        var principal = securityContext.getUserPrincipal();
+        return principal != null ? principal.getName() : null;
+    }
 }
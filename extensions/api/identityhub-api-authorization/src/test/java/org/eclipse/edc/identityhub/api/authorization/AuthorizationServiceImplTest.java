@@ -15,13 +15,20 @@
 package org.eclipse.edc.identityhub.api.authorization;
 
 import jakarta.ws.rs.core.SecurityContext;
+import org.eclipse.edc.identityhub.spi.authorization.AuthorizationService;
 import org.eclipse.edc.identityhub.spi.participantcontext.model.ParticipantResource;
+import org.eclipse.edc.spi.query.Criterion;
+import org.eclipse.edc.spi.query.QuerySpec;
+import org.eclipse.edc.spi.query.SortOrder;
+import org.eclipse.edc.spi.result.ServiceResult;
 import org.junit.jupiter.api.Test;
 
 import java.security.Principal;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.eclipse.edc.junit.assertions.AbstractResultAssert.assertThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -87,7 +94,110 @@ class AuthorizationServiceImplTest {
         verifyNoMoreInteractions(securityContext);
     }
 
+    @Test
+    void authorize_whenAuthorized_shouldReturnResource() {
+        var resource = new TestResource("test-id");
+        authorizationService.addLookupFunction(TestResource.class, s -> resource);
+        var principal = mock(Principal.class);
+        when(principal.getName()).thenReturn("test-id");
+        var securityContext = mock(SecurityContext.class);
+        when(securityContext.getUserPrincipal()).thenReturn(principal);
+
+        assertThat(authorizationService.authorize(securityContext, "test-resource-id", TestResource.class))
+                .isSucceeded().isSameAs(resource);
+    }
+
+    @Test
+    void authorize_whenNotAuthorized() {
+        authorizationService.addLookupFunction(TestResource.class, s -> new TestResource("another-test-id"));
+        var principal = mock(Principal.class);
+        when(principal.getName()).thenReturn("test-id");
+        var securityContext = mock(SecurityContext.class);
+        when(securityContext.getUserPrincipal()).thenReturn(principal);
+
+        assertThat(authorizationService.authorize(securityContext, "test-resource-id", TestResource.class))
+                .isFailed().detail().contains("not authorized");
+    }
+
+    @Test
+    void authorize_whenNotFound() {
+        authorizationService.addLookupFunction(TestResource.class, s -> null);
+        var securityContext = mock(SecurityContext.class);
+
+        assertThat(authorizationService.authorize(securityContext, "test-resource-id", TestResource.class))
+                .isFailed().detail().contains("was found");
+    }
+
+    @Test
+    void authorize_whenSuperUser_shouldReturnResource() {
+        var resource = new TestResource("another-test-id");
+        authorizationService.addLookupFunction(TestResource.class, s -> resource);
+        var securityContext = mock(SecurityContext.class);
+        when(securityContext.isUserInRole(eq("admin"))).thenReturn(true);
+
+        assertThat(authorizationService.authorize(securityContext, "test-resource-id", TestResource.class))
+                .isSucceeded().isSameAs(resource);
+    }
+
+    @Test
+    void restrictToAuthorized_shouldAddParticipantCriterion() {
+        var principal = mock(Principal.class);
+        when(principal.getName()).thenReturn("test-id");
+        var securityContext = mock(SecurityContext.class);
+        when(securityContext.getUserPrincipal()).thenReturn(principal);
+        var query = QuerySpec.Builder.newInstance()
+                .filter(new Criterion("type", "=", "test-type"))
+                .offset(10)
+                .limit(20)
+                .sortField("id")
+                .sortOrder(SortOrder.DESC)
+                .build();
+
+        var restricted = authorizationService.restrictToAuthorized(securityContext, query);
+
+        assertThat(restricted.getFilterExpression()).containsExactly(
+                new Criterion("type", "=", "test-type"),
+                new Criterion("participantContextId", "=", "test-id"));
+        assertThat(restricted.getOffset()).isEqualTo(10);
+        assertThat(restricted.getLimit()).isEqualTo(20);
+        assertThat(restricted.getSortField()).isEqualTo("id");
+        assertThat(restricted.getSortOrder()).isEqualTo(SortOrder.DESC);
+        assertThat(query.getFilterExpression()).hasSize(1);
+    }
+
+    @Test
+    void restrictToAuthorized_whenSuperUser_shouldNotRestrict() {
+        var securityContext = mock(SecurityContext.class);
+        when(securityContext.isUserInRole(eq("admin"))).thenReturn(true);
+        var query = QuerySpec.Builder.newInstance().filter(new Criterion("type", "=", "test-type")).build();
+
+        assertThat(authorizationService.restrictToAuthorized(securityContext, query)).isSameAs(query);
+        verify(securityContext).isUserInRole(eq("admin"));
+        verifyNoMoreInteractions(securityContext);
+    }
+
+    @Test
+    void authorize_defaultMethod_shouldCheckThenLookUp() {
+        var resource = new TestResource("test-id");
+        var service = mock(AuthorizationService.class, CALLS_REAL_METHODS);
+        var securityContext = mock(SecurityContext.class);
+        when(service.isAuthorized(securityContext, "test-resource-id", TestResource.class)).thenReturn(ServiceResult.success());
+        when(service.getLookupFunction(TestResource.class)).thenReturn(s -> resource);
+
+        assertThat(service.authorize(securityContext, "test-resource-id", TestResource.class)).isSucceeded().isSameAs(resource);
+
+        when(service.isAuthorized(securityContext, "test-resource-id", TestResource.class)).thenReturn(ServiceResult.unauthorized("test-error"));
+
+        assertThat(service.authorize(securityContext, "test-resource-id", TestResource.class)).isFailed().detail().contains("test-error");
+    }
+
     private static class TestResource extends ParticipantResource {
 
+        TestResource() {
+        }
+
+        TestResource(String participantContextId) {
+            this.participantContextId = participantContextId;
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,243 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.common.credentialwatchdog;
+
+import org.eclipse.edc.iam.verifiablecredentials.spi.model.VerifiableCredential;
+import org.eclipse.edc.identityhub.spi.verifiablecredentials.model.VcStatus;
+import org.eclipse.edc.identityhub.spi.verifiablecredentials.model.VerifiableCredentialResource;
+import org.eclipse.edc.identityhub.spi.verifiablecredentials.store.CredentialStore;
+import org.eclipse.edc.identityhub.spi.verifiablecredentials.store.WatchdogCursor;
+import org.eclipse.edc.identityhub.spi.verifiablecredentials.store.WatchdogCursorStore;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.query.Criterion;
+import org.eclipse.edc.spi.query.QuerySpec;
+import org.eclipse.edc.transaction.spi.TransactionContext;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fires the time-based status transitions of credentials at their deadline: {@link VcStatus#NOT_YET_VALID} to {@link VcStatus#ISSUED}
+ * once the issuance date is reached, and any non-terminal state to {@link VcStatus#EXPIRED} once the expiration date is reached. This way,
+ * these transitions do not depend on the {@link CredentialWatchdog}, which only polls the revocation status.
+ * <p>
+ * This is a runnable task that is intended to be executed periodically. Every run pages through the credentials whose deadline is within
+ * the {@code horizon} with {@link CredentialStore#findDueForTransition(long, long, String, int)}, which stores back with an index on the
+ * deadline, so that no run has to look at credentials that are not due, and credentials that cannot transition do not hide the ones after
+ * them. The horizon should be longer than the period, so that every deadline is {@link #register(VerifiableCredentialResource) registered}
+ * before it is due, while only the credentials that become due soon are kept in memory. When a deadline fires, only that credential is
+ * loaded, transitioned and stored, without a revocation check.
+ * <p>
+ * If several IdentityHub instances share the credential store, only the one that holds the {@link WatchdogCursorStore#DEADLINE_LEASE}
+ * schedules deadlines. Every run renews the lease for the length of the horizon, and an instance that loses it cancels its deadlines.
+ */
+public class CredentialDeadlineScheduler implements Runnable {
+    private final String instanceId = UUID.randomUUID().toString();
+    private final CredentialStore credentialStore;
+    private final WatchdogCursorStore cursorStore;
+    private final TransactionContext transactionContext;
+    private final ScheduledExecutorService executor;
+    private final Monitor monitor;
+    private final Clock clock;
+    private final Duration horizon;
+    private final int batchSize;
+    private final Map<String, Deadline> deadlines = new ConcurrentHashMap<>();
+    private volatile boolean leaseHeld;
+
+    /**
+     * Creates a new scheduler.
+     *
+     * @param cursorStore the store that holds the lease of the scheduling instance
+     * @param executor    the executor on which the deadlines fire
+     * @param horizon     how far ahead deadlines are scheduled, and how long the lease lasts
+     * @param batchSize   the maximum number of credentials that are looked up per transaction
+     */
+    public CredentialDeadlineScheduler(CredentialStore credentialStore, WatchdogCursorStore cursorStore, TransactionContext transactionContext,
+                                       ScheduledExecutorService executor, Monitor monitor, Clock clock, Duration horizon, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("The batch size must be > 0, but was %d".formatted(batchSize));
+        }
+        this.credentialStore = credentialStore;
+        this.cursorStore = cursorStore;
+        this.transactionContext = transactionContext;
+        this.executor = executor;
+        this.monitor = monitor;
+        this.clock = clock;
+        this.horizon = horizon;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Registers the credentials whose deadline is within the horizon, if this instance holds the lease. Deadlines that were missed,
+     * e.g. during a downtime, are due immediately.
+     */
+    @Override
+    public void run() {
+        try {
+            leaseHeld = acquireLease();
+            if (!leaseHeld) {
+                cancelAll();
+                return;
+            }
+            var horizonEnd = clock.instant().plus(horizon).toEpochMilli();
+            var afterDeadline = Long.MIN_VALUE;
+            var afterId = "";
+            while (true) {
+                var page = findDue(horizonEnd, afterDeadline, afterId);
+                page.forEach(this::register);
+                var last = page.size() == batchSize ? page.get(page.size() - 1) : null;
+                var lastDeadline = last != null ? CredentialStore.transitionDeadlineOf(last) : null;
+                if (lastDeadline == null) {
+                    return;
+                }
+                afterDeadline = lastDeadline;
+                afterId = last.getId();
+            }
+        } catch (Exception e) {
+            monitor.warning("Error fetching credentials that are due for a transition", e);
+        }
+    }
+
+    /**
+     * Schedules the next time-based transition of the credential, if it is due within the horizon. A previously scheduled
+     * transition of the same credential is replaced.
+     */
+    public void register(VerifiableCredentialResource credential) {
+        var id = credential.getId();
+        var deadline = nextDeadline(credential);
+        if (deadline == null || deadline.isAfter(clock.instant().plus(horizon))) {
+            var removed = deadlines.remove(id);
+            if (removed != null) {
+                removed.future().cancel(false);
+            }
+            return;
+        }
+        deadlines.compute(id, (key, existing) -> {
+            if (existing != null) {
+                if (existing.instant().equals(deadline)) {
+                    return existing;
+                }
+                existing.future().cancel(false);
+            }
+            var delay = Math.max(0, Duration.between(clock.instant(), deadline).toMillis());
+            return new Deadline(deadline, executor.schedule(() -> fire(id, deadline), delay, TimeUnit.MILLISECONDS));
+        });
+    }
+
+    /**
+     * The number of currently scheduled deadlines.
+     */
+    int size() {
+        return deadlines.size();
+    }
+
+    void fire(String id, Instant deadline) {
+        deadlines.computeIfPresent(id, (key, existing) -> existing.instant().equals(deadline) ? null : existing);
+        if (!leaseHeld) {
+            return;
+        }
+        try {
+            transactionContext.execute(() -> {
+                var result = credentialStore.query(QuerySpec.Builder.newInstance().filter(new Criterion("id", "=", id)).build());
+                if (result.failed()) {
+                    monitor.warning("Failed to load credential '%s' at its deadline: %s".formatted(id, result.getFailureDetail()));
+                    return;
+                }
+                result.getContent().stream().findFirst().ifPresent(credential -> {
+                    var newStatus = timeBasedStatus(credential);
+                    if (newStatus != null) {
+                        credential.setCredentialStatus(newStatus);
+                        credentialStore.update(credential)
+                                .onFailure(f -> monitor.warning("Failed to update status of credential '%s': %s".formatted(id, f.getFailureDetail())));
+                    }
+                    register(credential);
+                });
+            });
+        } catch (Exception e) {
+            monitor.warning("Error processing the deadline of credential '%s'".formatted(id), e);
+        }
+    }
+
+    /**
+     * Takes or renews the lease, unless another instance holds it.
+     */
+    private boolean acquireLease() {
+        return transactionContext.execute(() -> {
+            var lease = cursorStore.lock(WatchdogCursorStore.DEADLINE_LEASE);
+            var now = clock.millis();
+            if (!instanceId.equals(lease.lastId()) && lease.nextRoundAt() > now) {
+                return false;
+            }
+            cursorStore.save(WatchdogCursorStore.DEADLINE_LEASE, new WatchdogCursor(instanceId, now + horizon.toMillis()));
+            return true;
+        });
+    }
+
+    private List<VerifiableCredentialResource> findDue(long horizonEnd, long afterDeadline, String afterId) {
+        return transactionContext.execute(() -> credentialStore.findDueForTransition(horizonEnd, afterDeadline, afterId, batchSize)
+                .map(List::copyOf)
+                .orElse(f -> {
+                    monitor.warning("Failed to fetch credentials that are due for a transition: %s".formatted(f.getFailureDetail()));
+                    return List.of();
+                }));
+    }
+
+    private void cancelAll() {
+        deadlines.keySet().forEach(id -> {
+            var removed = deadlines.remove(id);
+            if (removed != null) {
+                removed.future().cancel(false);
+            }
+        });
+    }
+
+    /**
+     * Returns the status the credential has to transition to because of its issuance or expiration date, or null if no transition is due.
+     */
+    private VcStatus timeBasedStatus(VerifiableCredentialResource credential) {
+        var vc = credentialOf(credential);
+        if (vc == null || !CredentialStore.TRANSITION_STATES.contains(credential.getState())) {
+            return null;
+        }
+        var now = clock.instant();
+        if (vc.getExpirationDate() != null && !vc.getExpirationDate().isAfter(now)) {
+            return VcStatus.EXPIRED;
+        }
+        if (credential.getStateAsEnum() == VcStatus.NOT_YET_VALID && !vc.getIssuanceDate().isAfter(now)) {
+            return VcStatus.ISSUED;
+        }
+        return null;
+    }
+
+    private Instant nextDeadline(VerifiableCredentialResource credential) {
+        var deadline = CredentialStore.transitionDeadlineOf(credential);
+        return deadline != null ? Instant.ofEpochMilli(deadline) : null;
+    }
+
+    private VerifiableCredential credentialOf(VerifiableCredentialResource resource) {
+        return resource.getVerifiableCredential() != null ? resource.getVerifiableCredential().credential() : null;
+    }
+
+    private record Deadline(Instant instant, ScheduledFuture<?> future) {
+    }
+}
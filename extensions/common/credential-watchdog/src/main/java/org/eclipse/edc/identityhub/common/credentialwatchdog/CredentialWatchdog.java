@@ -15,15 +15,26 @@
 package org.eclipse.edc.identityhub.common.credentialwatchdog;
 
 import org.eclipse.edc.identityhub.spi.verifiablecredentials.CredentialStatusCheckService;
+import org.eclipse.edc.identityhub.spi.verifiablecredentials.CredentialWatchdogMetrics;
 import org.eclipse.edc.identityhub.spi.verifiablecredentials.model.VcStatus;
+import org.eclipse.edc.identityhub.spi.verifiablecredentials.model.VerifiableCredentialResource;
 import org.eclipse.edc.identityhub.spi.verifiablecredentials.store.CredentialStore;
+import org.eclipse.edc.identityhub.spi.verifiablecredentials.store.WatchdogCursor;
+import org.eclipse.edc.identityhub.spi.verifiablecredentials.store.WatchdogCursorStore;
 import org.eclipse.edc.spi.monitor.Monitor;
 import org.eclipse.edc.spi.query.Criterion;
 import org.eclipse.edc.spi.query.QuerySpec;
+import org.eclipse.edc.spi.query.SortOrder;
+import org.eclipse.edc.spi.result.Result;
 import org.eclipse.edc.transaction.spi.TransactionContext;
+import org.jetbrains.annotations.Nullable;
 
-import java.util.Collections;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 import static org.eclipse.edc.identityhub.spi.verifiablecredentials.model.VcStatus.ISSUED;
 import static org.eclipse.edc.identityhub.spi.verifiablecredentials.model.VcStatus.NOT_YET_VALID;
@@ -31,57 +42,222 @@ import static org.eclipse.edc.identityhub.spi.verifiablecredentials.model.VcStat
 
 /**
  * This is a runnable task that is intended to be executed periodically to fetch all non-expired, non-revoked credentials from storage, check for their status,
- * and update their status. Every execution (fetch-all - check-each - update-each) will run in a transaction.
+ * and update their status. The watchdog only considers credentials in states {@link VcStatus#ISSUED}, {@link VcStatus#SUSPENDED} and
+ * {@link VcStatus#NOT_YET_VALID}, c.f. {@link CredentialWatchdog#ALLOWED_STATES}.
  * <p>
- * Note that this will materialize <strong>all</strong> credentials into memory at once, as the general assumption is that typically, wallets don't
- * store an enormous amount of credentials. To mitigate this, the watchdog only considers credentials in states {@link VcStatus#ISSUED},
- * {@link VcStatus#SUSPENDED} and {@link VcStatus#NOT_YET_VALID}, c.f. {@link CredentialWatchdog#ALLOWED_STATES}.
- *
+ * Credentials are processed in chunks of {@code chunkSize}, which are selected with keyset pagination ordered by ID, so only one chunk is kept in
+ * memory at any time. For every chunk:
+ * <ol>
+ *     <li>the chunk is fetched in a short transaction</li>
+ *     <li>the status of each credential is checked outside of any transaction, because that may involve network calls</li>
+ *     <li>all credentials whose status has changed are updated in one transaction</li>
+ * </ol>
+ * The position in the store is kept in a {@link WatchdogCursorStore}. Every chunk is claimed by locking the cursor, fetching the chunk after it,
+ * and advancing the cursor, all in one transaction. If several IdentityHub instances share the cursor store, they thus split the credentials
+ * among each other chunk by chunk, and every credential is checked once per round across the cluster. A chunk that was claimed by an instance
+ * which crashes before the updates are written is checked again in the next round.
+ * <p>
+ * A round starts at most once per {@code period}. If {@code maxChunksPerRun} is positive, a run stops after that many chunks, and the next run
+ * (of any instance) continues the round after the cursor. Once the end of the store is reached, the round is complete.
+ * <p>
+ * If the watchdog is restricted to revocation, because the {@link CredentialDeadlineScheduler} takes care of expiration and activation,
+ * only credentials that reference a status list are checked. All others cannot change their status without reaching a deadline.
  * <p>
  * Note also, that a credentials status will only be updated if it did in fact change, to avoid unnecessary database interactions.
  */
 public class CredentialWatchdog implements Runnable {
     //todo: add more states once we have to check issuance status
     public static final List<Integer> ALLOWED_STATES = List.of(ISSUED.code(), NOT_YET_VALID.code(), SUSPENDED.code());
+    public static final int DEFAULT_CHUNK_SIZE = 500;
     private final CredentialStore credentialStore;
     private final CredentialStatusCheckService credentialStatusCheckService;
     private final Monitor monitor;
     private final TransactionContext transactionContext;
+    private final int chunkSize;
+    private final int maxChunksPerRun;
+    private final WatchdogCursorStore cursorStore;
+    private final long periodMillis;
+    private final Clock clock;
+    private final boolean revocationOnly;
+    private final CredentialWatchdogMetrics metrics;
+    private final Executor statusCheckExecutor;
 
     public CredentialWatchdog(CredentialStore credentialStore, CredentialStatusCheckService credentialStatusCheckService, Monitor monitor, TransactionContext transactionContext) {
+        this(credentialStore, credentialStatusCheckService, monitor, transactionContext, DEFAULT_CHUNK_SIZE, 0);
+    }
+
+    public CredentialWatchdog(CredentialStore credentialStore, CredentialStatusCheckService credentialStatusCheckService, Monitor monitor, TransactionContext transactionContext,
+                              int chunkSize, int maxChunksPerRun) {
+        this(credentialStore, credentialStatusCheckService, monitor, transactionContext, chunkSize, maxChunksPerRun,
+                new InMemoryWatchdogCursorStore(), Duration.ZERO, Clock.systemUTC());
+    }
+
+    /**
+     * Creates a new watchdog.
+     *
+     * @param chunkSize       the number of credentials that are fetched, checked and updated together
+     * @param maxChunksPerRun the maximum number of chunks that are processed per run, or 0 to process all credentials in every run
+     * @param cursorStore     the store for the shared cursor
+     * @param period          the minimum time between the start of two rounds
+     * @param clock           the clock
+     */
+    public CredentialWatchdog(CredentialStore credentialStore, CredentialStatusCheckService credentialStatusCheckService, Monitor monitor, TransactionContext transactionContext,
+                              int chunkSize, int maxChunksPerRun, WatchdogCursorStore cursorStore, Duration period, Clock clock) {
+        this(credentialStore, credentialStatusCheckService, monitor, transactionContext, chunkSize, maxChunksPerRun, cursorStore, period, clock, false,
+                CredentialWatchdogMetrics.NOOP, null);
+    }
+
+    /**
+     * Creates a new watchdog, which reports its measurements to the {@link CredentialWatchdogMetrics}.
+     *
+     * @param revocationOnly      whether only credentials that reference a status list are checked, because expiration and activation
+     *                            are handled by a {@link CredentialDeadlineScheduler}
+     * @param statusCheckExecutor the executor on which status lists are fetched, or null to use the one of the {@link CredentialStatusCheckService}
+     */
+    public CredentialWatchdog(CredentialStore credentialStore, CredentialStatusCheckService credentialStatusCheckService, Monitor monitor, TransactionContext transactionContext,
+                              int chunkSize, int maxChunksPerRun, WatchdogCursorStore cursorStore, Duration period, Clock clock,
+                              boolean revocationOnly, CredentialWatchdogMetrics metrics, @Nullable Executor statusCheckExecutor) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("The chunk size must be > 0, but was %d".formatted(chunkSize));
+        }
         this.credentialStore = credentialStore;
         this.credentialStatusCheckService = credentialStatusCheckService;
         this.monitor = monitor;
         this.transactionContext = transactionContext;
+        this.chunkSize = chunkSize;
+        this.maxChunksPerRun = maxChunksPerRun;
+        this.cursorStore = cursorStore;
+        this.periodMillis = period.toMillis();
+        this.clock = clock;
+        this.revocationOnly = revocationOnly;
+        this.metrics = metrics;
+        this.statusCheckExecutor = statusCheckExecutor;
     }
 
     @Override
     public void run() {
-        transactionContext.execute(() -> {
-            var allCredentials = credentialStore.query(allExcludingExpiredAndRevoked())
-                    .onFailure(f -> monitor.warning("Failed to fetch credentials from database: %s".formatted(f.getFailureDetail())))
-                    .orElse(f -> Collections.emptyList());
-
-            monitor.debug("checking %d credentials".formatted(allCredentials.size()));
-
-            allCredentials.forEach(credential -> {
-                var newStatus = credentialStatusCheckService.checkStatus(credential)
-                        .orElse(f -> {
-                            monitor.warning("Error determining status for credential '%s': %s. Will move to the ERROR state.".formatted(credential.getId(), f.getFailureDetail()));
-                            return VcStatus.ERROR;
-                        });
-                var changed = credential.getState() != newStatus.code();
-                if (changed) {
-                    credential.setCredentialStatus(newStatus);
-                    credentialStore.update(credential);
+        var start = Instant.ofEpochMilli(clock.millis());
+        metrics.runStarted(start);
+        var chunks = 0;
+        var checked = 0;
+        while (maxChunksPerRun <= 0 || chunks < maxChunksPerRun) {
+            var chunk = claimChunk();
+            if (chunk == null) {
+                break; // fetching failed, the cursor was not advanced
+            }
+            processChunk(chunk);
+            chunks++;
+            checked += chunk.size();
+
+            if (chunk.size() < chunkSize) {
+                break; // end of the round, or the next round is not due yet
+            }
+        }
+        var processed = checked;
+        var end = Instant.ofEpochMilli(clock.millis());
+        metrics.runCompleted(end, Duration.between(start, end), processed);
+        monitor.debug(() -> "checked %d credentials in %s".formatted(processed, Duration.between(start, end)));
+    }
+
+    /**
+     * The ID of the last credential that was claimed, or null if no round is in progress.
+     */
+    String getCursor() {
+        return transactionContext.execute(() -> cursorStore.lock().lastId());
+    }
+
+    /**
+     * Claims the next chunk by advancing the cursor past it. The cursor stays locked while the chunk is fetched, so that no other
+     * instance can claim the same chunk.
+     *
+     * @return the chunk, which is empty if the next round is not due yet, or null if fetching failed
+     */
+    private List<VerifiableCredentialResource> claimChunk() {
+        return transactionContext.execute(() -> {
+            var cursor = cursorStore.lock();
+            var nextRoundAt = cursor.nextRoundAt();
+            if (cursor.lastId() == null) {
+                var now = clock.millis();
+                if (now < nextRoundAt) {
+                    return List.of();
                 }
-            });
+                // leave some slack for scheduling jitter and clock skew between instances
+                nextRoundAt = now + periodMillis - periodMillis / 10;
+            }
+
+            var chunk = fetchChunk(cursor.lastId());
+            if (chunk != null) {
+                var lastId = chunk.size() < chunkSize ? null : chunk.get(chunk.size() - 1).getId();
+                cursorStore.save(new WatchdogCursor(lastId, nextRoundAt));
+            }
+            return chunk;
         });
     }
 
-    private QuerySpec allExcludingExpiredAndRevoked() {
-        return QuerySpec.Builder.newInstance()
+    private List<VerifiableCredentialResource> fetchChunk(String lastId) {
+        var result = credentialStore.query(chunkQuery(lastId));
+        if (result.failed()) {
+            monitor.warning("Failed to fetch credentials from database: %s".formatted(result.getFailureDetail()));
+            return null;
+        }
+        return new ArrayList<>(result.getContent());
+    }
+
+    private void processChunk(List<VerifiableCredentialResource> fetched) {
+        var chunk = revocationOnly ? fetched.stream().filter(this::hasCredentialStatus).toList() : fetched;
+        if (chunk.isEmpty()) {
+            return;
+        }
+        // all statuses of the chunk are checked at once, so that every status list is fetched only once
+        var checkStart = clock.millis();
+        var statuses = statusCheckExecutor != null ? credentialStatusCheckService.checkStatuses(chunk, statusCheckExecutor) : credentialStatusCheckService.checkStatuses(chunk);
+        var failed = (int) chunk.stream().map(credential -> statuses.get(credential.getId())).filter(result -> result == null || result.failed()).count();
+        metrics.statusChecked(Duration.ofMillis(clock.millis() - checkStart), chunk.size(), failed);
+        var changed = chunk.stream().filter(credential -> applyStatus(credential, statuses.get(credential.getId()))).toList();
+        if (!changed.isEmpty()) {
+            transactionContext.execute(() -> changed.forEach(credential -> credentialStore.update(credential)
+                    .onFailure(f -> monitor.warning("Failed to update status of credential '%s': %s".formatted(credential.getId(), f.getFailureDetail())))));
+        }
+    }
+
+    private boolean hasCredentialStatus(VerifiableCredentialResource credential) {
+        var container = credential.getVerifiableCredential();
+        if (container == null || container.credential() == null) {
+            return false;
+        }
+        var status = container.credential().getCredentialStatus();
+        return status != null && !status.isEmpty();
+    }
+
+    /**
+     * Sets the result of the status check on the credential.
+     *
+     * @return whether the status has changed
+     */
+    private boolean applyStatus(VerifiableCredentialResource credential, Result<VcStatus> statusResult) {
+        var result = statusResult != null ? statusResult : Result.<VcStatus>failure("no status was determined");
+        var newStatus = result
+                .orElse(f -> {
+                    monitor.warning("Error determining status for credential '%s': %s. Will move to the ERROR state.".formatted(credential.getId(), f.getFailureDetail()));
+                    return VcStatus.ERROR;
+                });
+        var changed = credential.getState() != newStatus.code();
+        if (changed) {
+            metrics.statusChanged(credential.getStateAsEnum(), newStatus);
+            credential.setCredentialStatus(newStatus);
+        }
+        return changed;
+    }
+
+    private QuerySpec chunkQuery(String lastId) {
+        var builder = QuerySpec.Builder.newInstance()
                 .filter(new Criterion("state", "in", ALLOWED_STATES))
-                .build();
+                .sortField("id")
+                .sortOrder(SortOrder.ASC)
+                .limit(chunkSize);
+        if (lastId != null) {
+            builder.filter(new Criterion("id", ">", lastId));
+        }
+        return builder.build();
     }
 }
@@ -15,7 +15,9 @@
 package org.eclipse.edc.identityhub.common.credentialwatchdog;
 
 import org.eclipse.edc.identityhub.spi.verifiablecredentials.CredentialStatusCheckService;
+import org.eclipse.edc.identityhub.spi.verifiablecredentials.CredentialWatchdogMetrics;
 import org.eclipse.edc.identityhub.spi.verifiablecredentials.store.CredentialStore;
+import org.eclipse.edc.identityhub.spi.verifiablecredentials.store.WatchdogCursorStore;
 import org.eclipse.edc.runtime.metamodel.annotation.Extension;
 import org.eclipse.edc.runtime.metamodel.annotation.Inject;
 import org.eclipse.edc.runtime.metamodel.annotation.Setting;
@@ -26,6 +28,9 @@ import org.eclipse.edc.spi.system.ServiceExtensionContext;
 import org.eclipse.edc.transaction.spi.TransactionContext;
 
 import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -39,7 +44,10 @@ public class CredentialWatchdogExtension implements ServiceExtension {
 
     public static final int DEFAULT_WATCHDOG_PERIOD = 60;
     public static final int DEFAULT_WATCHDOG_INITIAL_DELAY = 5;
+    public static final int DEFAULT_DEADLINE_PERIOD = 10;
     public static final String CREDENTIAL_WATCHDOG = "CredentialWatchdog";
+    public static final String CREDENTIAL_DEADLINE_SCHEDULER = "CredentialDeadlineScheduler";
+    public static final String CREDENTIAL_WATCHDOG_STATUS_CHECK = "CredentialWatchdogStatusCheck";
     private final SecureRandom random = new SecureRandom();
 
     @Setting(description = "Period (in seconds) at which the Watchdog thread checks all stored credentials for their status. Configuring a number <=0 disables the Watchdog.",
@@ -48,6 +56,25 @@ public class CredentialWatchdogExtension implements ServiceExtension {
     @Setting(description = "Initial delay (in seconds) before the Watchdog thread begins its work.",
             min = 0, key = "edc.iam.credential.status.check.delay", required = false)
     private Integer initialDelay;
+    @Setting(description = "Number of credentials that the Watchdog fetches, checks and updates together, each chunk in its own transaction.",
+            min = 1, defaultValue = CredentialWatchdog.DEFAULT_CHUNK_SIZE + "", key = "edc.iam.credential.status.check.chunk.size")
+    private int chunkSize;
+    @Setting(description = "Maximum number of chunks the Watchdog processes per run. The next run resumes where the previous one stopped. " +
+            "Configuring a number <=0 processes all credentials in every run.",
+            defaultValue = "0", key = "edc.iam.credential.status.check.chunk.max")
+    private int maxChunksPerRun;
+    @Setting(description = "Maximum number of status lists that the Watchdog fetches concurrently, on threads of its own.",
+            min = 1, defaultValue = "2", key = "edc.iam.credential.status.check.watchdog.parallelism")
+    private int statusCheckParallelism;
+    @Setting(description = "Whether credentials are transitioned to EXPIRED or ISSUED exactly at their expiration or issuance date, instead of on the next Watchdog run. " +
+            "If enabled, the Watchdog only checks credentials that reference a status list, and only one of the instances that share the " +
+            "credential store schedules the deadlines.",
+            defaultValue = "false", key = "edc.iam.credential.status.deadlines.enabled")
+    private boolean deadlinesEnabled;
+    @Setting(description = "Period (in seconds) at which the credentials whose expiration or issuance date is near are looked up. " +
+            "The lookup uses an index, and does not check the status of any credential.",
+            min = 1, defaultValue = DEFAULT_DEADLINE_PERIOD + "", key = "edc.iam.credential.status.deadlines.period")
+    private int deadlinePeriod;
 
     @Inject
     private ExecutorInstrumentation executorInstrumentation;
@@ -57,7 +84,15 @@ public class CredentialWatchdogExtension implements ServiceExtension {
     private CredentialStore credentialStore;
     @Inject
     private TransactionContext transactionContext;
+    @Inject(required = false)
+    private WatchdogCursorStore cursorStore;
+    @Inject
+    private Clock clock;
+    @Inject(required = false)
+    private CredentialWatchdogMetrics metrics;
     private ScheduledExecutorService scheduledExecutorService;
+    private ScheduledExecutorService deadlineExecutorService;
+    private ExecutorService statusCheckExecutorService;
     private Monitor monitor;
 
     @Override
@@ -73,6 +108,10 @@ public class CredentialWatchdogExtension implements ServiceExtension {
             initialDelay = ofNullable(initialDelay).orElseGet((this::randomDelay));
             monitor.debug(() -> "Credential watchdog will run with a delay of %d seconds, at an interval of %d seconds".formatted(initialDelay, watchdogPeriod));
             scheduledExecutorService = executorInstrumentation.instrument(Executors.newSingleThreadScheduledExecutor(), CREDENTIAL_WATCHDOG);
+            statusCheckExecutorService = executorInstrumentation.instrument(Executors.newFixedThreadPool(Math.max(1, statusCheckParallelism)), CREDENTIAL_WATCHDOG_STATUS_CHECK);
+            if (deadlinesEnabled) {
+                deadlineExecutorService = executorInstrumentation.instrument(Executors.newSingleThreadScheduledExecutor(), CREDENTIAL_DEADLINE_SCHEDULER);
+            }
         } else {
             monitor.debug(() -> "The Credential Watchdog is disabled.");
         }
@@ -82,7 +121,17 @@ public class CredentialWatchdogExtension implements ServiceExtension {
     public void start() {
         if (scheduledExecutorService != null && !scheduledExecutorService.isShutdown()) {
             monitor.debug(() -> "Starting credential watchdog in %d seconds, every %d seconds".formatted(initialDelay, watchdogPeriod));
-            scheduledExecutorService.scheduleAtFixedRate(new CredentialWatchdog(credentialStore, credentialStatusCheckService, monitor, transactionContext), initialDelay, watchdogPeriod, TimeUnit.SECONDS);
+            var period = Duration.ofSeconds(watchdogPeriod);
+            var watchdogCursorStore = getCursorStore();
+            if (deadlineExecutorService != null) {
+                // a deadline must be registered at least once before it is due, so the horizon has to span more than one period
+                var deadlineScheduler = new CredentialDeadlineScheduler(credentialStore, watchdogCursorStore, transactionContext, deadlineExecutorService,
+                        monitor, clock, Duration.ofSeconds(deadlinePeriod).multipliedBy(2), chunkSize);
+                deadlineExecutorService.scheduleAtFixedRate(deadlineScheduler, initialDelay, deadlinePeriod, TimeUnit.SECONDS);
+            }
+            var watchdog = new CredentialWatchdog(credentialStore, credentialStatusCheckService, monitor, transactionContext, chunkSize, maxChunksPerRun,
+                    watchdogCursorStore, period, clock, deadlineExecutorService != null, getMetrics(period), statusCheckExecutorService);
+            scheduledExecutorService.scheduleAtFixedRate(watchdog, initialDelay, watchdogPeriod, TimeUnit.SECONDS);
         }
     }
 
@@ -91,6 +140,26 @@ public class CredentialWatchdogExtension implements ServiceExtension {
         if (scheduledExecutorService != null) {
             scheduledExecutorService.shutdownNow();
         }
+        if (deadlineExecutorService != null) {
+            deadlineExecutorService.shutdownNow();
+        }
+        if (statusCheckExecutorService != null) {
+            statusCheckExecutorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Without a persistent cursor store, every instance runs its own watchdog and deadline scheduler over all credentials.
+     */
+    private WatchdogCursorStore getCursorStore() {
+        return cursorStore != null ? cursorStore : new InMemoryWatchdogCursorStore();
+    }
+
+    /**
+     * Metrics are only kept in memory and reported to the monitor, unless a metrics backend provides {@link CredentialWatchdogMetrics}.
+     */
+    private CredentialWatchdogMetrics getMetrics(Duration period) {
+        return metrics != null ? metrics : new DefaultCredentialWatchdogMetrics(monitor, clock, period);
     }
 
     private Integer randomDelay() {
@@ -0,0 +1,130 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.common.credentialwatchdog;
+
+import org.eclipse.edc.identityhub.spi.verifiablecredentials.CredentialWatchdogMetrics;
+import org.eclipse.edc.identityhub.spi.verifiablecredentials.model.VcStatus;
+import org.eclipse.edc.spi.monitor.Monitor;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Default {@link CredentialWatchdogMetrics}, which is used if no metrics backend is plugged in. It keeps the totals in memory,
+ * and reports a watchdog that falls behind to the {@link Monitor}:
+ * <ul>
+ *     <li>a run that takes longer than the period, which means that the next run is delayed</li>
+ *     <li>a run that starts more than two periods after the last completed run</li>
+ * </ul>
+ */
+public class DefaultCredentialWatchdogMetrics implements CredentialWatchdogMetrics {
+    private final Monitor monitor;
+    private final Clock clock;
+    private final Duration period;
+    private final Map<VcStatus, AtomicLong> transitions = new EnumMap<>(VcStatus.class);
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong totalRunMillis = new AtomicLong();
+    private final AtomicLong maxRunMillis = new AtomicLong();
+    private final AtomicLong statusChecks = new AtomicLong();
+    private final AtomicLong statusCheckFailures = new AtomicLong();
+    private final AtomicLong totalStatusCheckMillis = new AtomicLong();
+    private final AtomicReference<Instant> lastCompletedRun = new AtomicReference<>();
+
+    public DefaultCredentialWatchdogMetrics(Monitor monitor, Clock clock, Duration period) {
+        this.monitor = monitor;
+        this.clock = clock;
+        this.period = period;
+        for (var status : VcStatus.values()) {
+            transitions.put(status, new AtomicLong());
+        }
+    }
+
+    @Override
+    public void runStarted(Instant startedAt) {
+        var last = lastCompletedRun.get();
+        if (last != null && Duration.between(last, startedAt).compareTo(period.multipliedBy(2)) > 0) {
+            monitor.warning("The credential watchdog is falling behind: the last run completed %s ago, the period is %s".formatted(Duration.between(last, startedAt), period));
+        }
+    }
+
+    @Override
+    public void runCompleted(Instant completedAt, Duration duration, int checked) {
+        runs.incrementAndGet();
+        totalRunMillis.addAndGet(duration.toMillis());
+        maxRunMillis.accumulateAndGet(duration.toMillis(), Math::max);
+        lastCompletedRun.set(completedAt);
+        if (duration.compareTo(period) > 0) {
+            monitor.warning("A credential watchdog run took %s to check %d credentials, which is longer than the period of %s. Subsequent runs are delayed."
+                    .formatted(duration, checked, period));
+        }
+    }
+
+    @Override
+    public void statusChecked(Duration duration, int checked, int failed) {
+        statusChecks.addAndGet(checked);
+        statusCheckFailures.addAndGet(failed);
+        totalStatusCheckMillis.addAndGet(duration.toMillis());
+    }
+
+    @Override
+    public void statusChanged(VcStatus from, VcStatus to) {
+        transitions.get(to).incrementAndGet();
+    }
+
+    /**
+     * The number of transitions to the given status.
+     */
+    public long getTransitions(VcStatus to) {
+        return transitions.get(to).get();
+    }
+
+    public long getRuns() {
+        return runs.get();
+    }
+
+    public Duration getMaxRunDuration() {
+        return Duration.ofMillis(maxRunMillis.get());
+    }
+
+    public Duration getAverageRunDuration() {
+        var count = runs.get();
+        return count == 0 ? Duration.ZERO : Duration.ofMillis(totalRunMillis.get() / count);
+    }
+
+    public long getStatusChecks() {
+        return statusChecks.get();
+    }
+
+    public long getStatusCheckFailures() {
+        return statusCheckFailures.get();
+    }
+
+    public Duration getTotalStatusCheckDuration() {
+        return Duration.ofMillis(totalStatusCheckMillis.get());
+    }
+
+    /**
+     * The time since the last completed run, or null if no run has completed yet.
+     */
+    public Duration getTimeSinceLastRun() {
+        var last = lastCompletedRun.get();
+        return last != null ? Duration.between(last, clock.instant()) : null;
+    }
+}
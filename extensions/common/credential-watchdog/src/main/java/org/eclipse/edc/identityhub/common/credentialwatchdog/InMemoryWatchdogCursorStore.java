@@ -0,0 +1,38 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.common.credentialwatchdog;
+
+import org.eclipse.edc.identityhub.spi.verifiablecredentials.store.WatchdogCursor;
+import org.eclipse.edc.identityhub.spi.verifiablecredentials.store.WatchdogCursorStore;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the cursors in memory. Only suitable for a single IdentityHub instance, which runs one thread per cursor, so no locking is needed.
+ */
+public class InMemoryWatchdogCursorStore implements WatchdogCursorStore {
+    private final Map<String, WatchdogCursor> cursors = new ConcurrentHashMap<>();
+
+    @Override
+    public WatchdogCursor lock(String name) {
+        return cursors.getOrDefault(name, WatchdogCursor.initial());
+    }
+
+    @Override
+    public void save(String name, WatchdogCursor cursor) {
+        cursors.put(name, cursor);
+    }
+}
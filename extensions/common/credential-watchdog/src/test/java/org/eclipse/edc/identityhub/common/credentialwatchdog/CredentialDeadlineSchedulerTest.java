@@ -0,0 +1,272 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.common.credentialwatchdog;
+
+import org.eclipse.edc.iam.verifiablecredentials.spi.model.CredentialFormat;
+import org.eclipse.edc.iam.verifiablecredentials.spi.model.CredentialSubject;
+import org.eclipse.edc.iam.verifiablecredentials.spi.model.Issuer;
+import org.eclipse.edc.iam.verifiablecredentials.spi.model.VerifiableCredential;
+import org.eclipse.edc.iam.verifiablecredentials.spi.model.VerifiableCredentialContainer;
+import org.eclipse.edc.identityhub.spi.verifiablecredentials.model.VcStatus;
+import org.eclipse.edc.identityhub.spi.verifiablecredentials.model.VerifiableCredentialResource;
+import org.eclipse.edc.identityhub.spi.verifiablecredentials.store.CredentialStore;
+import org.eclipse.edc.identityhub.spi.verifiablecredentials.store.WatchdogCursor;
+import org.eclipse.edc.identityhub.spi.verifiablecredentials.store.WatchdogCursorStore;
+import org.eclipse.edc.spi.result.StoreResult;
+import org.eclipse.edc.transaction.spi.NoopTransactionContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class CredentialDeadlineSchedulerTest {
+
+    private static final Instant NOW = Instant.parse("2024-06-01T12:00:00Z");
+    private final CredentialStore credentialStore = mock();
+    private final ScheduledExecutorService executor = mock();
+    private final ScheduledFuture<?> future = mock();
+    private final Clock clock = Clock.fixed(NOW, ZoneOffset.UTC);
+    private final WatchdogCursorStore cursorStore = new InMemoryWatchdogCursorStore();
+    private final CredentialDeadlineScheduler scheduler = new CredentialDeadlineScheduler(credentialStore, cursorStore, new NoopTransactionContext(),
+            executor, mock(), clock, Duration.ofMinutes(2), 10);
+
+    @BeforeEach
+    void setUp() {
+        doReturn(future).when(executor).schedule(any(Runnable.class), anyLong(), any());
+        when(credentialStore.update(any())).thenReturn(StoreResult.success());
+        when(credentialStore.findDueForTransition(anyLong(), anyLong(), anyString(), anyInt())).thenReturn(StoreResult.success(List.of()));
+    }
+
+    @Test
+    void run_shouldScheduleDueCredentials() {
+        var expiring = createCredential(VcStatus.ISSUED, NOW.minusSeconds(3600), NOW.plusSeconds(30));
+        var activating = createCredential("activating", VcStatus.NOT_YET_VALID, NOW.plusSeconds(60), null);
+        when(credentialStore.findDueForTransition(anyLong(), anyLong(), anyString(), anyInt())).thenReturn(StoreResult.success(List.of(expiring, activating)));
+
+        scheduler.run();
+
+        verify(credentialStore).findDueForTransition(NOW.plus(Duration.ofMinutes(2)).toEpochMilli(), Long.MIN_VALUE, "", 10);
+        verify(credentialStore, never()).query(any());
+        verify(executor).schedule(any(Runnable.class), eq(30_000L), eq(TimeUnit.MILLISECONDS));
+        verify(executor).schedule(any(Runnable.class), eq(60_000L), eq(TimeUnit.MILLISECONDS));
+        assertThat(scheduler.size()).isEqualTo(2);
+    }
+
+    @Test
+    void run_whenDeadlineMissed_shouldFireImmediately() {
+        when(credentialStore.findDueForTransition(anyLong(), anyLong(), anyString(), anyInt()))
+                .thenReturn(StoreResult.success(List.of(createCredential(VcStatus.ISSUED, NOW.minusSeconds(3600), NOW.minusSeconds(60)))));
+
+        scheduler.run();
+
+        verify(executor).schedule(any(Runnable.class), eq(0L), eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void run_whenQueryFails_shouldNotSchedule() {
+        when(credentialStore.findDueForTransition(anyLong(), anyLong(), anyString(), anyInt())).thenReturn(StoreResult.generalError("test-error"));
+
+        scheduler.run();
+
+        verifyNoInteractions(executor);
+    }
+
+    @Test
+    void run_whenPageIsFull_shouldReadNextPage() {
+        var pagedScheduler = new CredentialDeadlineScheduler(credentialStore, cursorStore, new NoopTransactionContext(), executor, mock(), clock,
+                Duration.ofMinutes(2), 2);
+        var horizonEnd = NOW.plus(Duration.ofMinutes(2)).toEpochMilli();
+        // overdue credentials that cannot transition must not hide the ones after them
+        var stuck1 = createCredential("stuck-1", VcStatus.ISSUED, NOW.minusSeconds(3600), NOW.minusSeconds(60));
+        var stuck2 = createCredential("stuck-2", VcStatus.ISSUED, NOW.minusSeconds(3600), NOW.minusSeconds(60));
+        var later = createCredential("later", VcStatus.ISSUED, NOW.minusSeconds(3600), NOW.plusSeconds(30));
+        when(credentialStore.findDueForTransition(horizonEnd, Long.MIN_VALUE, "", 2)).thenReturn(StoreResult.success(List.of(stuck1, stuck2)));
+        when(credentialStore.findDueForTransition(horizonEnd, NOW.minusSeconds(60).toEpochMilli(), "stuck-2", 2)).thenReturn(StoreResult.success(List.of(later)));
+
+        pagedScheduler.run();
+
+        verify(executor).schedule(any(Runnable.class), eq(30_000L), eq(TimeUnit.MILLISECONDS));
+        assertThat(pagedScheduler.size()).isEqualTo(3);
+    }
+
+    @Test
+    void run_whenLeaseHeldByOtherInstance_shouldNotSchedule() {
+        cursorStore.save(WatchdogCursorStore.DEADLINE_LEASE, new WatchdogCursor("other-instance", NOW.plusSeconds(60).toEpochMilli()));
+
+        scheduler.run();
+
+        verify(credentialStore, never()).findDueForTransition(anyLong(), anyLong(), anyString(), anyInt());
+        assertThat(cursorStore.lock(WatchdogCursorStore.DEADLINE_LEASE).lastId()).isEqualTo("other-instance");
+    }
+
+    @Test
+    void run_whenLeaseExpired_shouldTakeOver() {
+        cursorStore.save(WatchdogCursorStore.DEADLINE_LEASE, new WatchdogCursor("other-instance", NOW.toEpochMilli()));
+
+        scheduler.run();
+
+        verify(credentialStore).findDueForTransition(anyLong(), anyLong(), anyString(), anyInt());
+        var lease = cursorStore.lock(WatchdogCursorStore.DEADLINE_LEASE);
+        assertThat(lease.lastId()).isNotEqualTo("other-instance");
+        assertThat(lease.nextRoundAt()).isEqualTo(NOW.plus(Duration.ofMinutes(2)).toEpochMilli());
+    }
+
+    @Test
+    void run_whenLeaseLost_shouldCancelDeadlines() {
+        when(credentialStore.findDueForTransition(anyLong(), anyLong(), anyString(), anyInt()))
+                .thenReturn(StoreResult.success(List.of(createCredential(VcStatus.ISSUED, NOW.minusSeconds(3600), NOW.plusSeconds(30)))));
+        scheduler.run();
+        cursorStore.save(WatchdogCursorStore.DEADLINE_LEASE, new WatchdogCursor("other-instance", NOW.plusSeconds(60).toEpochMilli()));
+
+        scheduler.run();
+
+        verify(future).cancel(false);
+        assertThat(scheduler.size()).isZero();
+    }
+
+    @Test
+    void register_expiresWithinHorizon_shouldSchedule() {
+        scheduler.register(createCredential(VcStatus.ISSUED, NOW.minusSeconds(3600), NOW.plusSeconds(30)));
+
+        verify(executor).schedule(any(Runnable.class), eq(30_000L), eq(TimeUnit.MILLISECONDS));
+        assertThat(scheduler.size()).isEqualTo(1);
+    }
+
+    @Test
+    void register_beyondHorizon_shouldNotSchedule() {
+        scheduler.register(createCredential(VcStatus.ISSUED, NOW.minusSeconds(3600), NOW.plusSeconds(3600)));
+        scheduler.register(createCredential(VcStatus.ISSUED, NOW.minusSeconds(3600), null));
+
+        verifyNoInteractions(executor);
+        assertThat(scheduler.size()).isZero();
+    }
+
+    @Test
+    void register_terminalState_shouldNotSchedule() {
+        scheduler.register(createCredential(VcStatus.REVOKED, NOW.minusSeconds(3600), NOW.plusSeconds(30)));
+
+        verifyNoInteractions(executor);
+    }
+
+    @Test
+    void register_sameDeadlineTwice_shouldScheduleOnce() {
+        var credential = createCredential(VcStatus.ISSUED, NOW.minusSeconds(3600), NOW.plusSeconds(30));
+
+        scheduler.register(credential);
+        scheduler.register(credential);
+
+        verify(executor).schedule(any(Runnable.class), anyLong(), any());
+        verify(future, never()).cancel(false);
+    }
+
+    @Test
+    void register_deadlineMovedBeyondHorizon_shouldCancel() {
+        scheduler.register(createCredential("test-id", VcStatus.ISSUED, NOW.minusSeconds(3600), NOW.plusSeconds(30)));
+
+        scheduler.register(createCredential("test-id", VcStatus.ISSUED, NOW.minusSeconds(3600), NOW.plusSeconds(3600)));
+
+        verify(future).cancel(false);
+        assertThat(scheduler.size()).isZero();
+    }
+
+    @Test
+    void fire_whenExpired_shouldTransitionToExpired() {
+        var credential = createCredential("test-id", VcStatus.ISSUED, NOW.minusSeconds(3600), NOW);
+        when(credentialStore.query(any())).thenReturn(StoreResult.success(List.of(credential)));
+        scheduler.run();
+        scheduler.register(credential);
+
+        scheduler.fire("test-id", NOW);
+
+        verify(credentialStore).update(argThat(vcr -> vcr.getStateAsEnum() == VcStatus.EXPIRED));
+        assertThat(scheduler.size()).isZero();
+    }
+
+    @Test
+    void fire_whenIssuanceDateReached_shouldTransitionToIssuedAndScheduleExpiry() {
+        var credential = createCredential("test-id", VcStatus.NOT_YET_VALID, NOW, NOW.plusSeconds(60));
+        when(credentialStore.query(any())).thenReturn(StoreResult.success(List.of(credential)));
+        scheduler.run();
+
+        scheduler.fire("test-id", NOW);
+
+        verify(credentialStore).update(argThat(vcr -> vcr.getStateAsEnum() == VcStatus.ISSUED));
+        verify(executor).schedule(any(Runnable.class), eq(60_000L), eq(TimeUnit.MILLISECONDS));
+        assertThat(scheduler.size()).isEqualTo(1);
+    }
+
+    @Test
+    void fire_whenCredentialDeleted_shouldNotUpdate() {
+        when(credentialStore.query(any())).thenReturn(StoreResult.success(List.of()));
+        scheduler.run();
+
+        scheduler.fire("test-id", NOW);
+
+        verify(credentialStore, never()).update(any());
+    }
+
+    @Test
+    void fire_whenLeaseNotHeld_shouldNotUpdate() {
+        scheduler.fire("test-id", NOW);
+
+        verify(credentialStore, never()).query(any());
+        verify(credentialStore, never()).update(any());
+    }
+
+    private VerifiableCredentialResource createCredential(VcStatus status, Instant issuanceDate, Instant expirationDate) {
+        return createCredential("id-" + expirationDate, status, issuanceDate, expirationDate);
+    }
+
+    private VerifiableCredentialResource createCredential(String id, VcStatus status, Instant issuanceDate, Instant expirationDate) {
+        var vc = VerifiableCredential.Builder.newInstance()
+                .credentialSubject(CredentialSubject.Builder.newInstance().id("test-subject").claim("test-key", "test-val").build())
+                .issuanceDate(issuanceDate)
+                .expirationDate(expirationDate)
+                .type("VerifiableCredential")
+                .issuer(new Issuer("test-issuer", Map.of()))
+                .id("did:web:test-credential")
+                .build();
+        return VerifiableCredentialResource.Builder.newInstance()
+                .issuerId("test-issuer")
+                .holderId("test-holder")
+                .state(status)
+                .participantContextId("participant-id")
+                .credential(new VerifiableCredentialContainer("raw-vc-content", CredentialFormat.JSON_LD, vc))
+                .id(id)
+                .build();
+    }
+}
@@ -34,6 +34,7 @@ import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
+import static org.eclipse.edc.identityhub.common.credentialwatchdog.CredentialWatchdogExtension.CREDENTIAL_DEADLINE_SCHEDULER;
 import static org.eclipse.edc.identityhub.common.credentialwatchdog.CredentialWatchdogExtension.CREDENTIAL_WATCHDOG;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -125,10 +126,32 @@ class CredentialWatchdogExtensionTest {
         extension.start();
 
         verify(executorMock).scheduleAtFixedRate(isA(CredentialWatchdog.class), eq(1L), eq(1L), eq(TimeUnit.SECONDS));
+        verify(executorInstrumentationMock, never()).instrument(any(), eq(CREDENTIAL_DEADLINE_SCHEDULER));
         verify(monitor).debug(ArgumentMatchers.<Supplier<String>>argThat(stringSupplier ->
                 stringSupplier.get().startsWith("Starting credential watchdog")));
     }
 
+    @DisplayName("Verify the deadline scheduler is started at its own period")
+    @Test
+    void start_shouldStartDeadlineScheduler(ServiceExtensionContext context, ObjectFactory factory) {
+        when(context.getConfig()).thenReturn(ConfigFactory.fromMap(Map.of(
+                WATCHDOG_PERIOD_PROPERTY, String.valueOf(60),
+                WATCHDOG_DELAY_PROPERTY, String.valueOf(1),
+                "edc.iam.credential.status.deadlines.enabled", "true",
+                "edc.iam.credential.status.deadlines.period", String.valueOf(5)
+        )));
+        var executorMock = mock(ScheduledExecutorService.class);
+        var deadlineExecutorMock = mock(ScheduledExecutorService.class);
+        when(executorInstrumentationMock.instrument(any(), eq(CREDENTIAL_WATCHDOG))).thenReturn(executorMock);
+        when(executorInstrumentationMock.instrument(any(), eq(CREDENTIAL_DEADLINE_SCHEDULER))).thenReturn(deadlineExecutorMock);
+        var extension = factory.constructInstance(CredentialWatchdogExtension.class);
+        extension.initialize(context);
+        extension.start();
+
+        verify(deadlineExecutorMock).scheduleAtFixedRate(isA(CredentialDeadlineScheduler.class), eq(1L), eq(5L), eq(TimeUnit.SECONDS));
+        verify(executorMock).scheduleAtFixedRate(isA(CredentialWatchdog.class), eq(1L), eq(60L), eq(TimeUnit.SECONDS));
+    }
+
     @DisplayName("Verify shutting down the extension is a NOOP if the watchdog is not started")
     @Test
     void shutdown_whenNotRunning_shouldNoop(ServiceExtensionContext context, ObjectFactory factory) {
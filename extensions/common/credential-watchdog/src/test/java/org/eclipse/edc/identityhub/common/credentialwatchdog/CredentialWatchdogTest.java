@@ -15,32 +15,41 @@
 package org.eclipse.edc.identityhub.common.credentialwatchdog;
 
 import org.eclipse.edc.iam.verifiablecredentials.spi.model.CredentialFormat;
+import org.eclipse.edc.iam.verifiablecredentials.spi.model.CredentialStatus;
 import org.eclipse.edc.iam.verifiablecredentials.spi.model.CredentialSubject;
 import org.eclipse.edc.iam.verifiablecredentials.spi.model.Issuer;
 import org.eclipse.edc.iam.verifiablecredentials.spi.model.VerifiableCredential;
 import org.eclipse.edc.iam.verifiablecredentials.spi.model.VerifiableCredentialContainer;
 import org.eclipse.edc.identityhub.spi.verifiablecredentials.CredentialStatusCheckService;
+import org.eclipse.edc.identityhub.spi.verifiablecredentials.CredentialWatchdogMetrics;
 import org.eclipse.edc.identityhub.spi.verifiablecredentials.model.VcStatus;
 import org.eclipse.edc.identityhub.spi.verifiablecredentials.model.VerifiableCredentialResource;
 import org.eclipse.edc.identityhub.spi.verifiablecredentials.store.CredentialStore;
+import org.eclipse.edc.identityhub.spi.verifiablecredentials.store.WatchdogCursor;
+import org.eclipse.edc.spi.query.Criterion;
 import org.eclipse.edc.spi.result.Result;
 import org.eclipse.edc.spi.result.StoreResult;
 import org.eclipse.edc.transaction.spi.NoopTransactionContext;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.Clock;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.Executor;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.eclipse.edc.identityhub.common.credentialwatchdog.CredentialWatchdog.ALLOWED_STATES;
 import static org.eclipse.edc.identityhub.spi.verifiablecredentials.model.VcStatus.ISSUED;
 import static org.eclipse.edc.identityhub.spi.verifiablecredentials.model.VcStatus.REVOKED;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -58,6 +67,8 @@ class CredentialWatchdogTest {
     @BeforeEach
     void setUp() {
         when(credentialStatusCheckService.checkStatus(any())).thenReturn(Result.success(VcStatus.ISSUED));
+        when(credentialStatusCheckService.checkStatuses(any())).thenCallRealMethod();
+        when(credentialStore.update(any())).thenReturn(StoreResult.success());
     }
 
     @Test
@@ -99,6 +110,7 @@ class CredentialWatchdogTest {
         verify(credentialStore).query(any());
         verify(credentialStore).update(argThat(vcr -> vcr.getId().equals(cred1.getId())));
         verifyNoMoreInteractions(credentialStore);
+        verify(credentialStatusCheckService).checkStatuses(argThat(credentials -> credentials.size() == 2));
         verify(credentialStatusCheckService, times(2)).checkStatus(any());
         verifyNoMoreInteractions(credentialStatusCheckService);
     }
@@ -120,6 +132,171 @@ class CredentialWatchdogTest {
         verify(credentialStatusCheckService, times(2)).checkStatus(any());
     }
 
+    @Test
+    void run_shouldProcessAllChunks() {
+        var watchdog = new CredentialWatchdog(credentialStore, credentialStatusCheckService, mock(), new NoopTransactionContext(), 2, 0);
+        when(credentialStore.query(any()))
+                .thenReturn(StoreResult.success(List.of(createCredential("id-1"), createCredential("id-2"))))
+                .thenReturn(StoreResult.success(List.of(createCredential("id-3"), createCredential("id-4"))))
+                .thenReturn(StoreResult.success(List.of(createCredential("id-5"))));
+
+        watchdog.run();
+
+        verify(credentialStore).query(argThat(querySpec -> querySpec.getLimit() == 2 && querySpec.getFilterExpression().size() == 1));
+        verify(credentialStore).query(argThat(querySpec -> querySpec.getFilterExpression().contains(new Criterion("id", ">", "id-2"))));
+        verify(credentialStore).query(argThat(querySpec -> querySpec.getFilterExpression().contains(new Criterion("id", ">", "id-4"))));
+        verify(credentialStatusCheckService, times(3)).checkStatuses(any());
+        verify(credentialStatusCheckService, times(5)).checkStatus(any());
+        assertThat(watchdog.getCursor()).isNull();
+    }
+
+    @Test
+    void run_whenChunkLimitReached_shouldResumeInNextRun() {
+        var watchdog = new CredentialWatchdog(credentialStore, credentialStatusCheckService, mock(), new NoopTransactionContext(), 2, 1);
+        when(credentialStore.query(any()))
+                .thenReturn(StoreResult.success(List.of(createCredential("id-1"), createCredential("id-2"))))
+                .thenReturn(StoreResult.success(List.of(createCredential("id-3"))));
+
+        watchdog.run();
+
+        verify(credentialStore, times(1)).query(any());
+        assertThat(watchdog.getCursor()).isEqualTo("id-2");
+
+        watchdog.run();
+
+        verify(credentialStore).query(argThat(querySpec -> querySpec.getFilterExpression().contains(new Criterion("id", ">", "id-2"))));
+        assertThat(watchdog.getCursor()).isNull();
+    }
+
+    @Test
+    void run_whenFetchFails_shouldKeepCursor() {
+        var watchdog = new CredentialWatchdog(credentialStore, credentialStatusCheckService, mock(), new NoopTransactionContext(), 2, 0);
+        when(credentialStore.query(any()))
+                .thenReturn(StoreResult.success(List.of(createCredential("id-1"), createCredential("id-2"))))
+                .thenReturn(StoreResult.generalError("test failure"));
+
+        watchdog.run();
+
+        verify(credentialStore, times(2)).query(any());
+        assertThat(watchdog.getCursor()).isEqualTo("id-2");
+    }
+
+    @Test
+    void run_shouldOnlyUpdateChangedCredentialsOfChunk() {
+        var watchdog = new CredentialWatchdog(credentialStore, credentialStatusCheckService, mock(), new NoopTransactionContext(), 3, 0);
+        when(credentialStore.query(any()))
+                .thenReturn(StoreResult.success(List.of(createCredential("id-1"), createCredential("id-2"), createCredential("id-3"))))
+                .thenReturn(StoreResult.success(List.of()));
+        when(credentialStatusCheckService.checkStatus(any()))
+                .thenReturn(Result.success(ISSUED))
+                .thenReturn(Result.success(REVOKED))
+                .thenReturn(Result.success(REVOKED));
+
+        watchdog.run();
+
+        verify(credentialStore).update(argThat(vcr -> vcr.getId().equals("id-2")));
+        verify(credentialStore).update(argThat(vcr -> vcr.getId().equals("id-3")));
+        verify(credentialStore, never()).update(argThat(vcr -> vcr.getId().equals("id-1")));
+    }
+
+    @Test
+    void run_whenRoundNotDue_shouldSkip() {
+        var clock = mock(Clock.class);
+        var cursorStore = new InMemoryWatchdogCursorStore();
+        var watchdog = new CredentialWatchdog(credentialStore, credentialStatusCheckService, mock(), new NoopTransactionContext(), 2, 0,
+                cursorStore, Duration.ofMillis(1000), clock);
+        when(credentialStore.query(any())).thenReturn(StoreResult.success(List.of(createCredential("id-1"))));
+        when(clock.millis()).thenReturn(10_000L);
+
+        watchdog.run();
+        assertThat(cursorStore.lock()).isEqualTo(new WatchdogCursor(null, 10_900L));
+
+        when(clock.millis()).thenReturn(10_899L);
+        watchdog.run();
+        verify(credentialStore, times(1)).query(any());
+
+        when(clock.millis()).thenReturn(10_900L);
+        watchdog.run();
+        verify(credentialStore, times(2)).query(any());
+    }
+
+    @Test
+    void run_whenRoundInProgress_shouldContinueRegardlessOfPeriod() {
+        var clock = mock(Clock.class);
+        var cursorStore = new InMemoryWatchdogCursorStore();
+        cursorStore.save(new WatchdogCursor("id-2", Long.MAX_VALUE));
+        var watchdog = new CredentialWatchdog(credentialStore, credentialStatusCheckService, mock(), new NoopTransactionContext(), 2, 0,
+                cursorStore, Duration.ofMillis(1000), clock);
+        when(credentialStore.query(any())).thenReturn(StoreResult.success(List.of(createCredential("id-3"))));
+
+        watchdog.run();
+
+        verify(credentialStore).query(argThat(querySpec -> querySpec.getFilterExpression().contains(new Criterion("id", ">", "id-2"))));
+        assertThat(cursorStore.lock()).isEqualTo(new WatchdogCursor(null, Long.MAX_VALUE));
+    }
+
+    @Test
+    void run_shouldReportMetrics() {
+        var metrics = mock(CredentialWatchdogMetrics.class);
+        var watchdog = new CredentialWatchdog(credentialStore, credentialStatusCheckService, mock(), new NoopTransactionContext(), 3, 0,
+                new InMemoryWatchdogCursorStore(), Duration.ZERO, Clock.systemUTC(), false, metrics, null);
+        when(credentialStore.query(any()))
+                .thenReturn(StoreResult.success(List.of(createCredential("id-1"), createCredential("id-2"))));
+        when(credentialStatusCheckService.checkStatus(any()))
+                .thenReturn(Result.success(REVOKED))
+                .thenReturn(Result.failure("test failure"));
+
+        watchdog.run();
+
+        verify(metrics).runStarted(any());
+        verify(metrics).statusChecked(any(), eq(2), eq(1));
+        verify(metrics).statusChanged(ISSUED, REVOKED);
+        verify(metrics).statusChanged(ISSUED, VcStatus.ERROR);
+        verify(metrics).runCompleted(any(), any(), eq(2));
+        verifyNoMoreInteractions(metrics);
+    }
+
+    @Test
+    void run_whenRevocationOnly_shouldOnlyCheckCredentialsWithStatus() {
+        var watchdog = new CredentialWatchdog(credentialStore, credentialStatusCheckService, mock(), new NoopTransactionContext(), 3, 0,
+                new InMemoryWatchdogCursorStore(), Duration.ZERO, Clock.systemUTC(), true, CredentialWatchdogMetrics.NOOP, null);
+        var withStatus = createCredentialBuilder()
+                .credential(new VerifiableCredentialContainer("raw-vc-content", CredentialFormat.JSON_LD, createVerifiableCredential()
+                        .credentialStatus(new CredentialStatus("https://example.com/list#1", "StatusList2021Entry",
+                                Map.of("statusListCredential", "https://example.com/list", "statusPurpose", "revocation", "statusListIndex", 1)))
+                        .build()))
+                .build();
+        var withoutStatus = createCredential("id-2");
+        when(credentialStore.query(any())).thenReturn(StoreResult.success(List.of(withStatus, withoutStatus)));
+        when(credentialStatusCheckService.checkStatus(any())).thenReturn(Result.success(REVOKED));
+
+        watchdog.run();
+
+        verify(credentialStatusCheckService).checkStatus(withStatus);
+        verify(credentialStatusCheckService, never()).checkStatus(withoutStatus);
+        verify(credentialStore).update(argThat(credential -> credential.getId().equals(withStatus.getId()) && credential.getStateAsEnum() == REVOKED));
+        verify(credentialStore, never()).update(argThat(credential -> credential.getId().equals("id-2")));
+    }
+
+    @Test
+    void run_withStatusCheckExecutor_shouldCheckStatusesOnIt() {
+        Executor executor = mock();
+        var watchdog = new CredentialWatchdog(credentialStore, credentialStatusCheckService, mock(), new NoopTransactionContext(), 3, 0,
+                new InMemoryWatchdogCursorStore(), Duration.ZERO, Clock.systemUTC(), false, CredentialWatchdogMetrics.NOOP, executor);
+        when(credentialStore.query(any())).thenReturn(StoreResult.success(List.of(createCredential("id-1"))));
+        when(credentialStatusCheckService.checkStatuses(any(), any())).thenReturn(Map.of("id-1", Result.success(REVOKED)));
+
+        watchdog.run();
+
+        verify(credentialStatusCheckService).checkStatuses(any(), eq(executor));
+        verify(credentialStatusCheckService, never()).checkStatuses(any());
+        verify(credentialStore).update(argThat(credential -> credential.getId().equals("id-1") && credential.getStateAsEnum() == REVOKED));
+    }
+
+    private VerifiableCredentialResource createCredential(String id) {
+        return createCredentialBuilder().id(id).build();
+    }
+
     private VerifiableCredentialResource.Builder createCredentialBuilder() {
 
         return VerifiableCredentialResource.Builder.newInstance()
@@ -0,0 +1,85 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.common.credentialwatchdog;
+
+import org.eclipse.edc.identityhub.spi.verifiablecredentials.model.VcStatus;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class DefaultCredentialWatchdogMetricsTest {
+
+    private static final Instant NOW = Instant.parse("2024-06-01T12:00:00Z");
+    private static final Duration PERIOD = Duration.ofMinutes(1);
+    private final Monitor monitor = mock();
+    private final DefaultCredentialWatchdogMetrics metrics = new DefaultCredentialWatchdogMetrics(monitor, Clock.fixed(NOW, ZoneOffset.UTC), PERIOD);
+
+    @Test
+    void runCompleted_shouldRecordDurations() {
+        metrics.runCompleted(NOW, Duration.ofSeconds(10), 5);
+        metrics.runCompleted(NOW, Duration.ofSeconds(20), 5);
+
+        assertThat(metrics.getRuns()).isEqualTo(2);
+        assertThat(metrics.getMaxRunDuration()).isEqualTo(Duration.ofSeconds(20));
+        assertThat(metrics.getAverageRunDuration()).isEqualTo(Duration.ofSeconds(15));
+        assertThat(metrics.getTimeSinceLastRun()).isEqualTo(Duration.ZERO);
+        verify(monitor, never()).warning(anyString());
+    }
+
+    @Test
+    void runCompleted_whenLongerThanPeriod_shouldWarn() {
+        metrics.runCompleted(NOW, PERIOD.plusSeconds(1), 5);
+
+        verify(monitor).warning(contains("longer than the period"));
+    }
+
+    @Test
+    void runStarted_whenLagging_shouldWarn() {
+        metrics.runCompleted(NOW, Duration.ofSeconds(1), 5);
+
+        metrics.runStarted(NOW.plus(PERIOD.multipliedBy(2)));
+        verify(monitor, never()).warning(anyString());
+
+        metrics.runStarted(NOW.plus(PERIOD.multipliedBy(3)));
+        verify(monitor).warning(contains("falling behind"));
+    }
+
+    @Test
+    void statusChecked_andStatusChanged_shouldCount() {
+        metrics.statusChecked(Duration.ofMillis(100), 10, 2);
+        metrics.statusChecked(Duration.ofMillis(50), 5, 0);
+        metrics.statusChanged(VcStatus.ISSUED, VcStatus.REVOKED);
+        metrics.statusChanged(VcStatus.ISSUED, VcStatus.EXPIRED);
+        metrics.statusChanged(VcStatus.SUSPENDED, VcStatus.REVOKED);
+
+        assertThat(metrics.getStatusChecks()).isEqualTo(15);
+        assertThat(metrics.getStatusCheckFailures()).isEqualTo(2);
+        assertThat(metrics.getTotalStatusCheckDuration()).isEqualTo(Duration.ofMillis(150));
+        assertThat(metrics.getTransitions(VcStatus.REVOKED)).isEqualTo(2);
+        assertThat(metrics.getTransitions(VcStatus.EXPIRED)).isEqualTo(1);
+        assertThat(metrics.getTimeSinceLastRun()).isNull();
+    }
+}
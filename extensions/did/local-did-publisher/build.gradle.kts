@@ -24,6 +24,7 @@ dependencies {
 
     api(project(":spi:did-spi"))
     implementation(project(":spi:identity-hub-spi"))
+    implementation(project(":core:lib:cache-lib"))
     implementation(libs.jakarta.rsApi)
     implementation(libs.edc.spi.web)
 
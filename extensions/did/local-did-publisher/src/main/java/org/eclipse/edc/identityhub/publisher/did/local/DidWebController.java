@@ -20,22 +20,19 @@ import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.container.ContainerRequestContext;
 import jakarta.ws.rs.core.Context;
-import org.eclipse.edc.iam.did.spi.document.DidDocument;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.Response;
 import org.eclipse.edc.identityhub.spi.did.DidWebParser;
-import org.eclipse.edc.identityhub.spi.did.model.DidResource;
-import org.eclipse.edc.identityhub.spi.did.model.DidState;
-import org.eclipse.edc.identityhub.spi.did.store.DidResourceStore;
 import org.eclipse.edc.spi.monitor.Monitor;
-import org.eclipse.edc.spi.query.Criterion;
-import org.eclipse.edc.spi.query.QuerySpec;
-import org.eclipse.edc.web.spi.exception.InvalidRequestException;
 
 import java.nio.charset.Charset;
+import java.util.Date;
 import java.util.Optional;
 import java.util.regex.Pattern;
 
 import static jakarta.ws.rs.core.HttpHeaders.CONTENT_TYPE;
 import static jakarta.ws.rs.core.MediaType.APPLICATION_JSON;
+import static jakarta.ws.rs.core.MediaType.APPLICATION_JSON_TYPE;
 
 @Consumes(APPLICATION_JSON)
 @Produces(APPLICATION_JSON)
@@ -44,40 +41,39 @@ public class DidWebController {
     private static final Charset DEFAULT_CHARSET = Charset.defaultCharset();
     private static final Pattern CHARSET_REGEX_PATTERN = Pattern.compile("(?i)\\bcharset=\\s*\"?([^\\s;\"]*)");
     private final Monitor monitor;
-    private final DidResourceStore didResourceStore;
+    private final PublishedDidDocumentCache documentCache;
     private final DidWebParser didWebParser;
 
-    public DidWebController(Monitor monitor, DidResourceStore didResourceStore, DidWebParser didWebParser) {
+    public DidWebController(Monitor monitor, PublishedDidDocumentCache documentCache, DidWebParser didWebParser) {
         this.monitor = monitor;
-        this.didResourceStore = didResourceStore;
+        this.documentCache = documentCache;
         this.didWebParser = didWebParser;
     }
 
+    /**
+     * Returns the published DID document that matches the request URL. The response carries a strong ETag, and requests
+     * with a matching {@code If-None-Match} header are answered with 304 (Not Modified) without a body.
+     */
     @GET
-    public DidDocument getDidDocument(@Context ContainerRequestContext context) {
+    public Response getDidDocument(@Context ContainerRequestContext context) {
 
         var httpUrl = context.getUriInfo().getAbsolutePath();
 
         var charset = extractCharset(context.getHeaderString(CONTENT_TYPE));
-        String did;
-        did = didWebParser.parse(httpUrl, charset);
-
+        var did = didWebParser.parse(httpUrl, charset);
 
-        var q = QuerySpec.Builder.newInstance()
-                .filter(new Criterion("state", "=", DidState.PUBLISHED.code()))
-                .filter(new Criterion("did", "=", did))
-                .build();
-
-        var dids = didResourceStore.query(q)
-                .stream()
-                .map(DidResource::getDocument)
-                .toList();
-
-        if (dids.size() > 1) {
-            throw new InvalidRequestException("DID '%s' resolved more than one document".formatted(did));
+        var document = documentCache.get(did);
+        if (document == null) {
+            return Response.noContent().build();
         }
 
-        return dids.stream().findFirst().orElse(null);
+        var etag = new EntityTag(document.etag());
+        var notModified = context.getRequest().evaluatePreconditions(etag);
+        var response = notModified != null ? notModified : Response.ok(document.content()).type(APPLICATION_JSON_TYPE);
+        if (document.lastModified() > 0) {
+            response.lastModified(new Date(document.lastModified()));
+        }
+        return response.tag(etag).build();
     }
 
     private Charset extractCharset(String contentType) {
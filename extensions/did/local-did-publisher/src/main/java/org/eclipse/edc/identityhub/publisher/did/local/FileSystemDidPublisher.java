@@ -0,0 +1,359 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.publisher.did.local;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eclipse.edc.iam.did.spi.document.DidDocument;
+import org.eclipse.edc.identityhub.spi.did.DidDocumentPublisher;
+import org.eclipse.edc.identityhub.spi.did.events.DidDocumentEvent;
+import org.eclipse.edc.identityhub.spi.did.events.DidDocumentPublished;
+import org.eclipse.edc.identityhub.spi.did.model.DidResource;
+import org.eclipse.edc.identityhub.spi.did.model.DidState;
+import org.eclipse.edc.identityhub.spi.did.store.DidResourceStore;
+import org.eclipse.edc.spi.event.Event;
+import org.eclipse.edc.spi.event.EventEnvelope;
+import org.eclipse.edc.spi.event.EventSubscriber;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.query.Criterion;
+import org.eclipse.edc.spi.query.QuerySpec;
+import org.eclipse.edc.spi.result.Result;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static org.eclipse.edc.identityhub.spi.did.DidConstants.DID_WEB_DID_DOCUMENT;
+import static org.eclipse.edc.identityhub.spi.did.DidConstants.DID_WEB_METHOD;
+import static org.eclipse.edc.identityhub.spi.did.DidConstants.WELL_KNOWN;
+
+/**
+ * A DID publisher that additionally exports every published "did:web" document as a static file, so that a web server or
+ * CDN can serve DID resolution without involving the IdentityHub. Changing the state of the {@link DidResource} and
+ * notifying listeners is left to the delegate, usually the {@link LocalDidPublisher}.
+ * <p>
+ * The directory tree mirrors the URLs that a did:web resolves to, with the decoded host (and port) as the first directory:
+ * <pre>
+ *     did:web:foo.bar                -> {root}/foo.bar/.well-known/did.json
+ *     did:web:foo.bar%3A8443:a:b     -> {root}/foo.bar:8443/a/b/did.json
+ * </pre>
+ * Files are written to a temporary file next to the target first and then atomically renamed, so that readers never see a
+ * partially written document. A file is only rewritten if its content changed.
+ * <p>
+ * Publishers are invoked within the transaction that changes the {@link DidResource}, so documents are not exported right
+ * away: if the transaction rolled back, a document would be exported that is not published. Instead, the resource is read
+ * again on the given executor, which only sees committed changes, until the version written by the transaction is visible,
+ * and the file is synchronized with it. If that version does not become visible within {@link #MAX_ATTEMPTS} attempts, the
+ * transaction is considered rolled back and the file is synchronized with the committed resource. Documents are removed
+ * before they are unpublished, and restored in the same way if the transaction rolls back.
+ * <p>
+ * When subscribed to {@link DidDocumentEvent}s of the cluster, documents that are published or unpublished on other nodes
+ * are exported or removed as well. {@link #synchronize()} reconciles the whole directory with the store.
+ */
+public class FileSystemDidPublisher implements DidDocumentPublisher, EventSubscriber {
+    static final int MAX_ATTEMPTS = 50;
+    private static final long RETRY_DELAY_MILLIS = 100;
+    private final DidDocumentPublisher delegate;
+    private final DidResourceStore didResourceStore;
+    private final ObjectMapper objectMapper;
+    private final Path rootDirectory;
+    private final ScheduledExecutorService executor;
+    private final Monitor monitor;
+
+    public FileSystemDidPublisher(DidDocumentPublisher delegate, DidResourceStore didResourceStore, ObjectMapper objectMapper, Path rootDirectory,
+                                  ScheduledExecutorService executor, Monitor monitor) {
+        this.delegate = delegate;
+        this.didResourceStore = didResourceStore;
+        this.objectMapper = objectMapper;
+        this.rootDirectory = rootDirectory.toAbsolutePath().normalize();
+        this.executor = executor;
+        this.monitor = monitor;
+    }
+
+    @Override
+    public boolean canHandle(String id) {
+        return delegate.canHandle(id);
+    }
+
+    @Override
+    public Result<Void> publish(String did) {
+        var path = pathOf(did);
+        if (path.failed()) {
+            return path.mapFailure();
+        }
+        return delegate.publish(did).onSuccess(v -> exportAfterCommit(did));
+    }
+
+    @Override
+    public Result<Void> unpublish(String did) {
+        var removed = remove(did);
+        if (removed.failed()) {
+            return removed;
+        }
+        var result = delegate.unpublish(did);
+        // restores the file if the document stays published
+        exportAfterCommit(did);
+        return result;
+    }
+
+    @Override
+    public Result<Void> publishAll(Collection<DidResource> resources) {
+        var failures = resources.stream()
+                .map(resource -> pathOf(resource.getDid()))
+                .filter(Result::failed)
+                .map(Result::getFailureDetail)
+                .toList();
+        if (!failures.isEmpty()) {
+            return Result.failure(failures);
+        }
+        return delegate.publishAll(resources)
+                .onSuccess(v -> resources.forEach(resource -> exportAfterCommit(resource.getDid(), resource.getVersion())));
+    }
+
+    @Override
+    public Result<Void> unpublishAll(Collection<DidResource> resources) {
+        for (var resource : resources) {
+            var removed = remove(resource.getDid());
+            if (removed.failed()) {
+                return removed;
+            }
+        }
+        var result = delegate.unpublishAll(resources);
+        resources.forEach(resource -> exportAfterCommit(resource.getDid(), result.succeeded() ? resource.getVersion() : 0));
+        return result;
+    }
+
+    /**
+     * Exports all published documents that are missing or outdated, and removes all exported documents that are no longer
+     * published.
+     *
+     * @return the number of files that were written or deleted
+     */
+    public Result<Integer> synchronize() {
+        var query = QuerySpec.Builder.newInstance()
+                .filter(new Criterion("state", "=", DidState.PUBLISHED.code()))
+                .limit(Integer.MAX_VALUE)
+                .build();
+
+        var changes = 0;
+        var exported = new HashSet<Path>();
+        for (var resource : didResourceStore.query(query)) {
+            if (!canHandle(resource.getDid())) {
+                continue;
+            }
+            var result = write(resource);
+            if (result.failed()) {
+                return result.mapFailure();
+            }
+            exported.add(pathOf(resource.getDid()).getContent());
+            changes += result.getContent() ? 1 : 0;
+        }
+
+        try {
+            for (var stale : exportedFiles()) {
+                if (!exported.contains(stale)) {
+                    delete(stale);
+                    changes++;
+                }
+            }
+        } catch (IOException | UncheckedIOException e) {
+            return Result.failure("Removing unpublished DID documents from '%s' failed: %s".formatted(rootDirectory, e.getMessage()));
+        }
+        return Result.success(changes);
+    }
+
+    @Override
+    public <E extends Event> void on(EventEnvelope<E> event) {
+        if (event.getPayload() instanceof DidDocumentEvent didDocumentEvent && didDocumentEvent.getDid() != null && canHandle(didDocumentEvent.getDid())) {
+            // events of this node are raised within the transaction, so the change might not be committed yet
+            var published = didDocumentEvent instanceof DidDocumentPublished;
+            synchronizeAfterCommit(didDocumentEvent.getDid(), resource -> isPublished(resource) == published, 1);
+        }
+    }
+
+    /**
+     * Resolves the file to which the document of the given did:web is exported.
+     */
+    Result<Path> pathOf(String did) {
+        var prefix = DID_WEB_METHOD + ":";
+        if (!did.regionMatches(true, 0, prefix, 0, prefix.length())) {
+            return Result.failure("'%s' is not a did:web".formatted(did));
+        }
+        List<String> segments;
+        try {
+            // did:web segments are percent-encoded, a "+" is not a space
+            segments = Arrays.stream(did.substring(prefix.length()).split(":", -1))
+                    .map(segment -> URLDecoder.decode(segment.replace("+", "%2B"), StandardCharsets.UTF_8))
+                    .toList();
+        } catch (IllegalArgumentException e) {
+            return Result.failure("DID '%s' is not correctly percent-encoded".formatted(did));
+        }
+        if (segments.stream().anyMatch(segment -> segment.isBlank() || segment.equals(".") || segment.equals("..") || segment.contains("/") || segment.contains("\\"))) {
+            return Result.failure("DID '%s' cannot be mapped to a file path".formatted(did));
+        }
+
+        var directory = rootDirectory;
+        for (var segment : segments) {
+            directory = directory.resolve(segment);
+        }
+        if (segments.size() == 1) {
+            directory = directory.resolve(WELL_KNOWN.substring(1));
+        }
+        var file = directory.resolve(DID_WEB_DID_DOCUMENT).normalize();
+        return file.startsWith(rootDirectory) ?
+                Result.success(file) :
+                Result.failure("DID '%s' cannot be mapped to a file path".formatted(did));
+    }
+
+    /**
+     * Synchronizes the file once the version of the resource that is visible to the current transaction was committed.
+     */
+    private void exportAfterCommit(String did) {
+        var resource = didResourceStore.findById(did);
+        exportAfterCommit(did, resource != null ? resource.getVersion() : 0);
+    }
+
+    private void exportAfterCommit(String did, long version) {
+        synchronizeAfterCommit(did, resource -> resource == null || resource.getVersion() >= version, 1);
+    }
+
+    /**
+     * Reads the committed resource on the executor, and synchronizes the file with it once it satisfies the expectation, or
+     * once {@link #MAX_ATTEMPTS} attempts were made.
+     */
+    private void synchronizeAfterCommit(String did, Predicate<DidResource> committed, int attempt) {
+        executor.schedule(() -> {
+            try {
+                var resource = didResourceStore.findById(did);
+                if (!committed.test(resource) && attempt < MAX_ATTEMPTS) {
+                    synchronizeAfterCommit(did, committed, attempt + 1);
+                    return;
+                }
+                var result = isPublished(resource) ? write(resource).mapEmpty() : remove(did);
+                result.onFailure(f -> monitor.warning("Synchronizing the exported DID document '%s' failed: %s".formatted(did, f.getFailureDetail())));
+            } catch (RuntimeException e) {
+                monitor.warning("Synchronizing the exported DID document '%s' failed".formatted(did), e);
+            }
+        }, attempt == 1 ? 0 : RETRY_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private boolean isPublished(@Nullable DidResource resource) {
+        return resource != null && resource.getState() == DidState.PUBLISHED.code();
+    }
+
+    /**
+     * Writes the document of the resource, unless the exported file has the same content already.
+     *
+     * @return whether the file was written
+     */
+    private Result<Boolean> write(DidResource resource) {
+        var path = pathOf(resource.getDid());
+        if (path.failed()) {
+            return path.mapFailure();
+        }
+        var file = path.getContent();
+        try {
+            var content = serialize(resource.getDocument());
+            if (Files.isRegularFile(file) && Arrays.equals(Files.readAllBytes(file), content)) {
+                return Result.success(false);
+            }
+            Files.createDirectories(file.getParent());
+            var temporary = Files.createTempFile(file.getParent(), "." + DID_WEB_DID_DOCUMENT, ".tmp");
+            try {
+                Files.write(temporary, content);
+                makeWorldReadable(temporary);
+                Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
+            return Result.success(true);
+        } catch (IOException e) {
+            return Result.failure("Exporting DID document '%s' to '%s' failed: %s".formatted(resource.getDid(), file, e.getMessage()));
+        }
+    }
+
+    private Result<Void> remove(String did) {
+        var path = pathOf(did);
+        if (path.failed()) {
+            return path.mapFailure();
+        }
+        try {
+            delete(path.getContent());
+            return Result.success();
+        } catch (IOException e) {
+            return Result.failure("Removing exported DID document '%s' failed: %s".formatted(did, e.getMessage()));
+        }
+    }
+
+    /**
+     * Deletes the file and all directories above it that became empty, up to the root directory.
+     */
+    private void delete(Path file) throws IOException {
+        Files.deleteIfExists(file);
+        var directory = file.getParent();
+        while (directory != null && !directory.equals(rootDirectory) && isEmptyDirectory(directory)) {
+            Files.deleteIfExists(directory);
+            directory = directory.getParent();
+        }
+    }
+
+    private boolean isEmptyDirectory(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return false;
+        }
+        try (var entries = Files.list(directory)) {
+            return entries.findAny().isEmpty();
+        }
+    }
+
+    private Set<Path> exportedFiles() throws IOException {
+        if (!Files.isDirectory(rootDirectory)) {
+            return Set.of();
+        }
+        try (var files = Files.walk(rootDirectory)) {
+            return files.filter(file -> file.getFileName().toString().equals(DID_WEB_DID_DOCUMENT))
+                    .filter(Files::isRegularFile)
+                    .collect(Collectors.toSet());
+        }
+    }
+
+    private byte[] serialize(DidDocument document) throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(document);
+    }
+
+    /**
+     * Temporary files are only readable by the owner, but the web server that serves them usually runs as another user.
+     */
+    private void makeWorldReadable(Path file) throws IOException {
+        if (file.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            Files.setPosixFilePermissions(file, PosixFilePermissions.fromString("rw-r--r--"));
+        }
+    }
+}
@@ -19,9 +19,13 @@ import org.eclipse.edc.identityhub.spi.did.events.DidDocumentObservable;
 import org.eclipse.edc.identityhub.spi.did.model.DidResource;
 import org.eclipse.edc.identityhub.spi.did.model.DidState;
 import org.eclipse.edc.identityhub.spi.did.store.DidResourceStore;
+import org.eclipse.edc.identityhub.spi.participantcontext.store.OptimisticLocking;
 import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.persistence.EdcPersistenceException;
 import org.eclipse.edc.spi.result.Result;
 
+import java.util.Collection;
+
 import static org.eclipse.edc.identityhub.spi.did.DidConstants.DID_WEB_METHOD_REGEX;
 import static org.eclipse.edc.spi.result.Result.failure;
 import static org.eclipse.edc.spi.result.Result.success;
@@ -82,6 +86,40 @@ public class LocalDidPublisher implements DidDocumentPublisher {
 
     }
 
+    /**
+     * Transitions all resources with one batched update of the {@link DidResourceStore}, and notifies the listeners after it
+     * succeeded. A version conflict is thrown as {@link OptimisticLocking.VersionConflictException}, so that the caller can
+     * roll back the transaction and retry. Any other failure of the update is thrown as {@link EdcPersistenceException}, so
+     * that the transaction is rolled back instead of committing a partially transitioned batch.
+     */
+    @Override
+    public Result<Void> publishAll(Collection<DidResource> resources) {
+        resources.stream()
+                .filter(this::isPublished)
+                .forEach(resource -> monitor.warning("DID '%s' is already published - this action will overwrite it.".formatted(resource.getDid())));
+        return transitionAll(resources, DidState.PUBLISHED)
+                .onSuccess(v -> resources.forEach(resource -> observable.invokeForEach(l -> l.published(resource.getDocument(), resource.getParticipantContextId()))));
+    }
+
+    @Override
+    public Result<Void> unpublishAll(Collection<DidResource> resources) {
+        return transitionAll(resources, DidState.UNPUBLISHED)
+                .onSuccess(v -> resources.forEach(resource -> observable.invokeForEach(l -> l.unpublished(resource.getDocument(), resource.getParticipantContextId()))));
+    }
+
+    private Result<Void> transitionAll(Collection<DidResource> resources, DidState state) {
+        if (resources.isEmpty()) {
+            return success();
+        }
+        resources.forEach(resource -> resource.transitionState(state));
+        // any failure must roll back the whole batch, because the resources have been transitioned in memory already
+        var result = OptimisticLocking.throwOnConflict(didResourceStore.updateAll(resources));
+        if (result.failed()) {
+            throw new EdcPersistenceException("Transitioning %d DidResources to %s failed: %s".formatted(resources.size(), state, result.getFailureDetail()));
+        }
+        return success();
+    }
+
     private boolean isPublished(DidResource didResource) {
         return didResource.getState() == DidState.PUBLISHED.code();
     }
@@ -14,9 +14,12 @@
 
 package org.eclipse.edc.identityhub.publisher.did.local;
 
+import org.eclipse.edc.identityhub.spi.cluster.ClusterEventRouter;
 import org.eclipse.edc.identityhub.spi.did.DidConstants;
+import org.eclipse.edc.identityhub.spi.did.DidDocumentPublisher;
 import org.eclipse.edc.identityhub.spi.did.DidDocumentPublisherRegistry;
 import org.eclipse.edc.identityhub.spi.did.DidWebParser;
+import org.eclipse.edc.identityhub.spi.did.events.DidDocumentEvent;
 import org.eclipse.edc.identityhub.spi.did.events.DidDocumentObservable;
 import org.eclipse.edc.identityhub.spi.did.store.DidResourceStore;
 import org.eclipse.edc.identityhub.spi.webcontext.IdentityHubApiContext;
@@ -27,13 +30,20 @@ import org.eclipse.edc.runtime.metamodel.annotation.Provider;
 import org.eclipse.edc.runtime.metamodel.annotation.Setting;
 import org.eclipse.edc.runtime.metamodel.annotation.Settings;
 import org.eclipse.edc.spi.event.EventRouter;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.system.ExecutorInstrumentation;
 import org.eclipse.edc.spi.system.ServiceExtension;
 import org.eclipse.edc.spi.system.ServiceExtensionContext;
+import org.eclipse.edc.spi.types.TypeManager;
 import org.eclipse.edc.web.spi.WebService;
 import org.eclipse.edc.web.spi.configuration.PortMapping;
 import org.eclipse.edc.web.spi.configuration.PortMappingRegistry;
 
+import java.nio.file.Path;
 import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 
 import static org.eclipse.edc.identityhub.publisher.did.local.LocalDidPublisherExtension.NAME;
 import static org.eclipse.edc.identityhub.spi.webcontext.IdentityHubApiContext.IH_DID;
@@ -42,9 +52,21 @@ import static org.eclipse.edc.identityhub.spi.webcontext.IdentityHubApiContext.I
 public class LocalDidPublisherExtension implements ServiceExtension {
 
     public static final String NAME = "Local DID publisher extension";
+    public static final String FILE_SYSTEM_DID_PUBLISHER = "FileSystemDidPublisher";
     private static final String DEFAULT_DID_PATH = "/";
     private static final int DEFAULT_DID_PORT = 10100;
 
+    @Setting(description = "Time (in milliseconds) for which published DID documents are cached. Configuring a number <=0 disables the cache.",
+            defaultValue = "0", key = "edc.iam.did.web.cache.ttl")
+    private long cacheTtl;
+    @Setting(description = "Maximum number of cached DID documents. If exceeded, the least recently used one is evicted.",
+            defaultValue = "1000", key = "edc.iam.did.web.cache.size", min = 1)
+    private int cacheMaxSize;
+    @Setting(description = "Directory into which published did:web documents are exported as static did.json files, laid out like their URL paths, " +
+            "so that a web server or CDN can serve them. If not configured, documents are only served by the IdentityHub.",
+            key = "edc.iam.did.web.export.directory", required = false)
+    private String exportDirectory;
+
     @Configuration
     private DidApiConfiguration apiConfiguration;
 
@@ -65,8 +87,17 @@ public class LocalDidPublisherExtension implements ServiceExtension {
     private Clock clock;
     @Inject
     private EventRouter eventRouter;
+    @Inject
+    private ClusterEventRouter clusterEventRouter;
+    @Inject
+    private TypeManager typeManager;
+    @Inject
+    private ExecutorInstrumentation executorInstrumentation;
 
     private DidDocumentObservableImpl observable;
+    private FileSystemDidPublisher fileSystemPublisher;
+    private ScheduledExecutorService exportExecutorService;
+    private Monitor monitor;
 
     @Override
     public String name() {
@@ -76,9 +107,36 @@ public class LocalDidPublisherExtension implements ServiceExtension {
     @Override
     public void initialize(ServiceExtensionContext context) {
         portMappingRegistry.register(new PortMapping(IH_DID, apiConfiguration.port(), apiConfiguration.path()));
-        var localPublisher = new LocalDidPublisher(didDocumentObservable(), didResourceStore, context.getMonitor());
-        registry.addPublisher(DidConstants.DID_WEB_METHOD, localPublisher);
-        webService.registerResource(IdentityHubApiContext.IH_DID, new DidWebController(context.getMonitor(), didResourceStore, getDidParser()));
+        monitor = context.getMonitor();
+        DidDocumentPublisher publisher = new LocalDidPublisher(didDocumentObservable(), didResourceStore, monitor);
+        if (exportDirectory != null) {
+            exportExecutorService = executorInstrumentation.instrument(Executors.newSingleThreadScheduledExecutor(), FILE_SYSTEM_DID_PUBLISHER);
+            fileSystemPublisher = new FileSystemDidPublisher(publisher, didResourceStore, typeManager.getMapper(), Path.of(exportDirectory), exportExecutorService, monitor);
+            clusterEventRouter.registerSubscriber(DidDocumentEvent.class, fileSystemPublisher);
+            publisher = fileSystemPublisher;
+        }
+        registry.addPublisher(DidConstants.DID_WEB_METHOD, publisher);
+        var documentCache = new PublishedDidDocumentCache(didResourceStore, typeManager.getMapper(), clock, Duration.ofMillis(cacheTtl), cacheMaxSize);
+        if (cacheTtl > 0) {
+            clusterEventRouter.registerSubscriber(DidDocumentEvent.class, documentCache);
+        }
+        webService.registerResource(IdentityHubApiContext.IH_DID, new DidWebController(context.getMonitor(), documentCache, getDidParser()));
+    }
+
+    @Override
+    public void start() {
+        if (fileSystemPublisher != null) {
+            fileSystemPublisher.synchronize()
+                    .onSuccess(changes -> monitor.debug("Synchronized exported DID documents in '%s', %d file(s) changed.".formatted(exportDirectory, changes)))
+                    .onFailure(f -> monitor.warning("Synchronizing exported DID documents in '%s' failed: %s".formatted(exportDirectory, f.getFailureDetail())));
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        if (exportExecutorService != null) {
+            exportExecutorService.shutdownNow();
+        }
     }
 
     @Provider
@@ -0,0 +1,139 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.publisher.did.local;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eclipse.edc.iam.did.spi.document.DidDocument;
+import org.eclipse.edc.identityhub.cache.TtlCache;
+import org.eclipse.edc.identityhub.spi.did.events.DidDocumentEvent;
+import org.eclipse.edc.identityhub.spi.did.model.DidState;
+import org.eclipse.edc.identityhub.spi.did.store.DidResourceStore;
+import org.eclipse.edc.spi.EdcException;
+import org.eclipse.edc.spi.event.Event;
+import org.eclipse.edc.spi.event.EventEnvelope;
+import org.eclipse.edc.spi.event.EventSubscriber;
+import org.eclipse.edc.spi.query.Criterion;
+import org.eclipse.edc.spi.query.QuerySpec;
+import org.eclipse.edc.web.spi.exception.InvalidRequestException;
+import org.jetbrains.annotations.Nullable;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Holds the published DID documents served by the {@link DidWebController} in serialized form, together with a strong ETag
+ * that is derived from their content, so that resolving a DID neither queries the {@link DidResourceStore} nor serializes the
+ * document again.
+ * <p>
+ * Every document expires individually after the TTL, and if more than the maximum number of documents are cached, the
+ * least recently used one is evicted. DIDs without a published document are not cached. When subscribed to
+ * {@link DidDocumentEvent}s of the cluster, a document is invalidated whenever it is published or unpublished on any node.
+ * The {@code DidDocumentService} republishes a published document whenever it changes it, e.g. when a service endpoint is
+ * edited or a key is revoked, which invalidates it as well. Changes that bypass the service become visible after the TTL.
+ * <p>
+ * If the TTL is <=0, nothing is cached, and every call loads and serializes the document.
+ */
+public class PublishedDidDocumentCache implements EventSubscriber {
+    private final DidResourceStore didResourceStore;
+    private final ObjectMapper objectMapper;
+    private final TtlCache<String, SerializedDidDocument> cache;
+
+    /**
+     * Creates a new cache.
+     *
+     * @param didResourceStore the store that holds the DID documents
+     * @param objectMapper     the mapper with which the documents are serialized
+     * @param ttl              how long a document is cached after it was loaded
+     * @param maxSize          the maximum number of cached documents
+     */
+    public PublishedDidDocumentCache(DidResourceStore didResourceStore, ObjectMapper objectMapper, Clock clock, Duration ttl, int maxSize) {
+        this.didResourceStore = didResourceStore;
+        this.objectMapper = objectMapper;
+        this.cache = new TtlCache<>(clock, ttl, maxSize);
+    }
+
+    /**
+     * Returns the published document of the given DID.
+     *
+     * @param did the DID
+     * @return the serialized document, or null if no document is published for the DID
+     * @throws InvalidRequestException if more than one document is published for the DID
+     */
+    public @Nullable SerializedDidDocument get(String did) {
+        return cache.get(did, this::load);
+    }
+
+    /**
+     * Removes the document of the given DID from the cache, if it is cached.
+     */
+    public void invalidate(String did) {
+        cache.invalidate(did);
+    }
+
+    /**
+     * The number of cached documents, c.f. {@link TtlCache#size()}.
+     */
+    public int size() {
+        return cache.size();
+    }
+
+    @Override
+    public <E extends Event> void on(EventEnvelope<E> event) {
+        if (event.getPayload() instanceof DidDocumentEvent didDocumentEvent && didDocumentEvent.getDid() != null) {
+            invalidate(didDocumentEvent.getDid());
+        }
+    }
+
+    private @Nullable SerializedDidDocument load(String did) {
+        var query = QuerySpec.Builder.newInstance()
+                .filter(new Criterion("state", "=", DidState.PUBLISHED.code()))
+                .filter(new Criterion("did", "=", did))
+                .build();
+
+        var resources = didResourceStore.query(query);
+        if (resources.size() > 1) {
+            throw new InvalidRequestException("DID '%s' resolved more than one document".formatted(did));
+        }
+
+        return resources.stream()
+                .findFirst()
+                .map(resource -> serialize(resource.getDocument(), resource.getStateTimestamp()))
+                .orElse(null);
+    }
+
+    private SerializedDidDocument serialize(DidDocument document, long lastModified) {
+        try {
+            var content = objectMapper.writeValueAsBytes(document);
+            var digest = MessageDigest.getInstance("SHA-256").digest(content);
+            return new SerializedDidDocument(content, Base64.getUrlEncoder().withoutPadding().encodeToString(digest), lastModified);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new EdcException(e);
+        }
+    }
+
+    /**
+     * A published DID document.
+     *
+     * @param content      the document, serialized as UTF-8 encoded JSON
+     * @param etag         the strong entity tag of the content, without quotes
+     * @param lastModified the epoch millis at which the document was last published
+     */
+    public record SerializedDidDocument(byte[] content, String etag, long lastModified) {
+    }
+}
@@ -14,6 +14,7 @@
 
 package org.eclipse.edc.identityhub.publisher.did.local;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.restassured.specification.RequestSpecification;
 import org.eclipse.edc.iam.did.spi.document.DidDocument;
 import org.eclipse.edc.identityhub.spi.did.DidWebParser;
@@ -24,6 +25,8 @@ import org.eclipse.edc.junit.annotations.ApiTest;
 import org.eclipse.edc.web.jersey.testfixtures.RestControllerTestBase;
 import org.junit.jupiter.api.Test;
 
+import java.time.Clock;
+import java.time.Duration;
 import java.util.List;
 
 import static io.restassured.RestAssured.given;
@@ -31,6 +34,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.eclipse.edc.identityhub.publisher.did.local.TestFunctions.createDidResource;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.emptyString;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.hamcrest.Matchers.notNullValue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.mock;
@@ -98,9 +103,54 @@ class DidWebControllerTest extends RestControllerTestBase {
                 .body(emptyString());
     }
 
+    @Test
+    void getDidDocument_shouldReturnEtag() {
+        when(storeMock.query(any())).thenReturn(List.of(publishedDid("did:web:testdid1")));
+
+        baseRequest()
+                .get("/foo/bar")
+                .then()
+                .log().ifValidationFails()
+                .statusCode(200)
+                .header("ETag", matchesPattern("\"[A-Za-z0-9_-]+\""))
+                .header("Last-Modified", notNullValue());
+    }
+
+    @Test
+    void getDidDocument_whenEtagMatches_shouldReturnNotModified() {
+        when(storeMock.query(any())).thenReturn(List.of(publishedDid("did:web:testdid1")));
+        var etag = baseRequest()
+                .get("/foo/bar")
+                .then()
+                .statusCode(200)
+                .extract().header("ETag");
+
+        baseRequest()
+                .header("If-None-Match", etag)
+                .get("/foo/bar")
+                .then()
+                .log().ifValidationFails()
+                .statusCode(304)
+                .header("ETag", etag)
+                .body(emptyString());
+    }
+
+    @Test
+    void getDidDocument_whenEtagDoesNotMatch_shouldReturnDocument() {
+        when(storeMock.query(any())).thenReturn(List.of(publishedDid("did:web:testdid1")));
+
+        baseRequest()
+                .header("If-None-Match", "\"outdated\"")
+                .get("/foo/bar")
+                .then()
+                .log().ifValidationFails()
+                .statusCode(200)
+                .body(containsString("did:web:testdid1"));
+    }
+
     @Override
     protected Object controller() {
-        return new DidWebController(monitor, storeMock, new DidWebParser());
+        return new DidWebController(monitor, new PublishedDidDocumentCache(storeMock, new ObjectMapper(), Clock.systemUTC(), Duration.ZERO, 1), new DidWebParser());
     }
 
     private RequestSpecification baseRequest() {
@@ -0,0 +1,359 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.publisher.did.local;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eclipse.edc.iam.did.spi.document.DidDocument;
+import org.eclipse.edc.iam.did.spi.document.Service;
+import org.eclipse.edc.identityhub.spi.did.DidDocumentPublisher;
+import org.eclipse.edc.identityhub.spi.did.events.DidDocumentPublished;
+import org.eclipse.edc.identityhub.spi.did.events.DidDocumentUnpublished;
+import org.eclipse.edc.identityhub.spi.did.model.DidResource;
+import org.eclipse.edc.identityhub.spi.did.model.DidState;
+import org.eclipse.edc.identityhub.spi.did.store.DidResourceStore;
+import org.eclipse.edc.spi.event.Event;
+import org.eclipse.edc.spi.event.EventEnvelope;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.result.Result;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.eclipse.edc.identityhub.publisher.did.local.TestFunctions.createDidResource;
+import static org.eclipse.edc.junit.assertions.AbstractResultAssert.assertThat;
+import static org.eclipse.edc.identityhub.publisher.did.local.FileSystemDidPublisher.MAX_ATTEMPTS;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class FileSystemDidPublisherTest {
+
+    private static final String DID = "did:web:test.com";
+    private final DidDocumentPublisher delegate = mock();
+    private final DidResourceStore store = mock();
+    private final ScheduledExecutorService executor = mock();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    @TempDir
+    Path root;
+    private FileSystemDidPublisher publisher;
+
+    private static DidResource publishedDid(String did) {
+        return createDidResource(did).state(DidState.PUBLISHED).build();
+    }
+
+    private static DidResource didResource(String did, DidState state, long version) {
+        var resource = createDidResource(did).state(state).build();
+        resource.setVersion(version);
+        return resource;
+    }
+
+    @BeforeEach
+    void setUp() {
+        // runs the tasks right away, the store mocks decide which state is committed
+        when(executor.schedule(any(Runnable.class), anyLong(), any(TimeUnit.class))).thenAnswer(i -> {
+            i.getArgument(0, Runnable.class).run();
+            return null;
+        });
+        publisher = new FileSystemDidPublisher(delegate, store, objectMapper, root, executor, mock(Monitor.class));
+        when(delegate.canHandle(anyString())).thenAnswer(i -> i.getArgument(0, String.class).startsWith("did:web:"));
+        when(delegate.publish(anyString())).thenReturn(Result.success());
+        when(delegate.unpublish(anyString())).thenReturn(Result.success());
+    }
+
+    @Test
+    void publish_shouldExportToWellKnown() throws IOException {
+        when(store.findById(DID)).thenReturn(publishedDid(DID));
+
+        assertThat(publisher.publish(DID)).isSucceeded();
+
+        var file = root.resolve("test.com/.well-known/did.json");
+        assertThat(objectMapper.readValue(file.toFile(), DidDocument.class).getId()).isEqualTo(DID);
+        verify(delegate).publish(DID);
+    }
+
+    @Test
+    void publish_withPath_shouldExportToPath() {
+        var did = "did:web:localhost%3A8443:users:alice";
+        when(store.findById(did)).thenReturn(publishedDid(did));
+
+        assertThat(publisher.publish(did)).isSucceeded();
+
+        assertThat(root.resolve("localhost:8443/users/alice/did.json")).isRegularFile();
+    }
+
+    @Test
+    void publish_whenDelegateFails_shouldNotExport() {
+        when(delegate.publish(DID)).thenReturn(Result.failure("test-failure"));
+
+        assertThat(publisher.publish(DID)).isFailed().detail().isEqualTo("test-failure");
+
+        assertThat(root).isEmptyDirectory();
+    }
+
+    @Test
+    void publish_whenTransactionRolledBack_shouldNotExport() {
+        when(store.findById(DID)).thenReturn(didResource(DID, DidState.PUBLISHED, 2), didResource(DID, DidState.GENERATED, 1));
+
+        assertThat(publisher.publish(DID)).isSucceeded();
+
+        assertThat(root).isEmptyDirectory();
+        verify(executor, times(MAX_ATTEMPTS)).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+    }
+
+    @Test
+    void publish_whenCommitVisibleLater_shouldExportOnceVisible() {
+        when(store.findById(DID)).thenReturn(didResource(DID, DidState.PUBLISHED, 2), didResource(DID, DidState.GENERATED, 1),
+                didResource(DID, DidState.PUBLISHED, 2));
+
+        assertThat(publisher.publish(DID)).isSucceeded();
+
+        assertThat(root.resolve("test.com/.well-known/did.json")).isRegularFile();
+        verify(executor, times(2)).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+    }
+
+    @Test
+    void publish_whenChanged_shouldReplaceFileAtomically() throws IOException {
+        var resource = publishedDid(DID);
+        when(store.findById(DID)).thenReturn(resource);
+        publisher.publish(DID);
+
+        resource.getDocument().getService().add(new Service("service-id", "test-type", "https://test.com/service"));
+        assertThat(publisher.publish(DID)).isSucceeded();
+
+        var directory = root.resolve("test.com/.well-known");
+        assertThat(objectMapper.readValue(directory.resolve("did.json").toFile(), DidDocument.class).getService()).hasSize(1);
+        // the temporary file was renamed, not copied
+        try (var files = Files.list(directory)) {
+            assertThat(files).containsExactly(directory.resolve("did.json"));
+        }
+    }
+
+    @Test
+    void publish_whenUnchanged_shouldNotRewriteFile() throws IOException {
+        when(store.findById(DID)).thenReturn(publishedDid(DID));
+        publisher.publish(DID);
+        var file = root.resolve("test.com/.well-known/did.json");
+        var lastModified = FileTime.fromMillis(1000);
+        Files.setLastModifiedTime(file, lastModified);
+
+        assertThat(publisher.publish(DID)).isSucceeded();
+
+        assertThat(Files.getLastModifiedTime(file)).isEqualTo(lastModified);
+    }
+
+    @Test
+    void publish_shouldBeReadableByOthers() throws IOException {
+        when(store.findById(DID)).thenReturn(publishedDid(DID));
+
+        publisher.publish(DID);
+
+        var file = root.resolve("test.com/.well-known/did.json");
+        if (file.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            assertThat(Files.getPosixFilePermissions(file)).contains(PosixFilePermission.OTHERS_READ);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"did:web:..", "did:web:test.com:..:..:etc", "did:web:test.com:a%2F..%2F..", "did:web:test.com::a", "did:web:%zz"})
+    void publish_whenDidCannotBeMappedToPath_shouldFail(String did) {
+        when(store.findById(did)).thenReturn(publishedDid(did));
+
+        assertThat(publisher.publish(did)).isFailed();
+
+        assertThat(root).isEmptyDirectory();
+        verify(delegate, never()).publish(any());
+    }
+
+    @Test
+    void unpublish_shouldRemoveFileAndEmptyDirectories() {
+        when(store.findById(DID)).thenReturn(publishedDid(DID));
+        publisher.publish(DID);
+        when(store.findById(DID)).thenReturn(didResource(DID, DidState.UNPUBLISHED, 1));
+
+        assertThat(publisher.unpublish(DID)).isSucceeded();
+
+        assertThat(root).isEmptyDirectory();
+        verify(delegate).unpublish(DID);
+    }
+
+    @Test
+    void unpublish_shouldKeepOtherDocuments() {
+        var other = "did:web:test.com:users:alice";
+        when(store.findById(DID)).thenReturn(publishedDid(DID));
+        when(store.findById(other)).thenReturn(publishedDid(other));
+        publisher.publish(DID);
+        publisher.publish(other);
+        when(store.findById(DID)).thenReturn(didResource(DID, DidState.UNPUBLISHED, 1));
+
+        assertThat(publisher.unpublish(DID)).isSucceeded();
+
+        assertThat(root.resolve("test.com/.well-known")).doesNotExist();
+        assertThat(root.resolve("test.com/users/alice/did.json")).isRegularFile();
+    }
+
+    @Test
+    void unpublish_whenTransactionRolledBack_shouldRestoreFile() {
+        when(store.findById(DID)).thenReturn(publishedDid(DID));
+        publisher.publish(DID);
+
+        assertThat(publisher.unpublish(DID)).isSucceeded();
+
+        // the store still has the document published
+        assertThat(root.resolve("test.com/.well-known/did.json")).isRegularFile();
+    }
+
+    @Test
+    void unpublish_whenNotExported_shouldSucceed() {
+        assertThat(publisher.unpublish(DID)).isSucceeded();
+
+        verify(delegate).unpublish(DID);
+    }
+
+    @Test
+    void unpublish_whenDidCannotBeMappedToPath_shouldNotUnpublish() {
+        assertThat(publisher.unpublish("did:web:..")).isFailed();
+
+        verify(delegate, never()).unpublish(any());
+    }
+
+    @Test
+    void publishAll_shouldExportAll() {
+        var other = "did:web:test.com:users:alice";
+        var resources = List.of(publishedDid(DID), publishedDid(other));
+        when(delegate.publishAll(any())).thenReturn(Result.success());
+        when(store.findById(DID)).thenReturn(publishedDid(DID));
+        when(store.findById(other)).thenReturn(publishedDid(other));
+
+        assertThat(publisher.publishAll(resources)).isSucceeded();
+
+        assertThat(root.resolve("test.com/.well-known/did.json")).isRegularFile();
+        assertThat(root.resolve("test.com/users/alice/did.json")).isRegularFile();
+        verify(delegate).publishAll(resources);
+    }
+
+    @Test
+    void publishAll_whenDidCannotBeMappedToPath_shouldNotPublish() {
+        var resources = List.of(publishedDid(DID), publishedDid("did:web:.."));
+
+        assertThat(publisher.publishAll(resources)).isFailed();
+
+        assertThat(root).isEmptyDirectory();
+        verify(delegate, never()).publishAll(any());
+    }
+
+    @Test
+    void unpublishAll_shouldRemoveAll() {
+        var other = "did:web:test.com:users:alice";
+        var resources = List.of(publishedDid(DID), publishedDid(other));
+        when(delegate.publishAll(any())).thenReturn(Result.success());
+        when(delegate.unpublishAll(any())).thenReturn(Result.success());
+        when(store.findById(DID)).thenReturn(publishedDid(DID));
+        when(store.findById(other)).thenReturn(publishedDid(other));
+        publisher.publishAll(resources);
+        when(store.findById(DID)).thenReturn(didResource(DID, DidState.UNPUBLISHED, 1));
+        when(store.findById(other)).thenReturn(didResource(other, DidState.UNPUBLISHED, 1));
+
+        assertThat(publisher.unpublishAll(resources)).isSucceeded();
+
+        assertThat(root).isEmptyDirectory();
+        verify(delegate).unpublishAll(resources);
+    }
+
+    @Test
+    void synchronize_shouldExportPublishedAndRemoveUnpublished() throws IOException {
+        var unchanged = "did:web:test.com:unchanged";
+        var added = "did:web:test.com:added";
+        var removed = "did:web:test.com:removed";
+        when(store.findById(unchanged)).thenReturn(publishedDid(unchanged));
+        when(store.findById(removed)).thenReturn(publishedDid(removed));
+        publisher.publish(unchanged);
+        publisher.publish(removed);
+        var unchangedFile = root.resolve("test.com/unchanged/did.json");
+        var lastModified = FileTime.fromMillis(1000);
+        Files.setLastModifiedTime(unchangedFile, lastModified);
+        when(store.query(any())).thenReturn(List.of(publishedDid(unchanged), publishedDid(added), publishedDid("did:example:not-web")));
+
+        assertThat(publisher.synchronize()).isSucceeded().isEqualTo(2);
+
+        assertThat(Files.getLastModifiedTime(unchangedFile)).isEqualTo(lastModified);
+        assertThat(root.resolve("test.com/added/did.json")).isRegularFile();
+        assertThat(root.resolve("test.com/removed")).doesNotExist();
+    }
+
+    @Test
+    void synchronize_whenNothingChanged_shouldNotChangeFiles() {
+        when(store.findById(DID)).thenReturn(publishedDid(DID));
+        publisher.publish(DID);
+        when(store.query(any())).thenReturn(List.of(publishedDid(DID)));
+
+        assertThat(publisher.synchronize()).isSucceeded().isEqualTo(0);
+    }
+
+    @Test
+    void onPublished_shouldExport() {
+        when(store.findById(DID)).thenReturn(publishedDid(DID));
+
+        publisher.on(envelope(DidDocumentPublished.Builder.newInstance().participantContextId("test-participant").did(DID).build()));
+
+        assertThat(root.resolve("test.com/.well-known/did.json")).isRegularFile();
+        verify(delegate, never()).publish(any());
+    }
+
+    @Test
+    void onPublished_whenNotCommittedYet_shouldExportOnceCommitted() {
+        when(store.findById(DID)).thenReturn(didResource(DID, DidState.GENERATED, 1), didResource(DID, DidState.PUBLISHED, 2));
+
+        publisher.on(envelope(DidDocumentPublished.Builder.newInstance().participantContextId("test-participant").did(DID).build()));
+
+        assertThat(root.resolve("test.com/.well-known/did.json")).isRegularFile();
+    }
+
+    @Test
+    void onUnpublished_shouldRemove() {
+        when(store.findById(DID)).thenReturn(publishedDid(DID));
+        publisher.publish(DID);
+        when(store.findById(DID)).thenReturn(createDidResource(DID).state(DidState.UNPUBLISHED).build());
+
+        publisher.on(envelope(DidDocumentUnpublished.Builder.newInstance().participantContextId("test-participant").did(DID).build()));
+
+        assertThat(root).isEmptyDirectory();
+        verify(delegate, never()).unpublish(any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private EventEnvelope<Event> envelope(Event event) {
+        return EventEnvelope.Builder.newInstance()
+                .at(System.currentTimeMillis())
+                .payload(event)
+                .build();
+    }
+}
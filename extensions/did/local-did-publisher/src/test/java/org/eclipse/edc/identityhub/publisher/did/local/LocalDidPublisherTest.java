@@ -17,20 +17,26 @@ package org.eclipse.edc.identityhub.publisher.did.local;
 import org.eclipse.edc.identityhub.spi.did.events.DidDocumentObservable;
 import org.eclipse.edc.identityhub.spi.did.model.DidState;
 import org.eclipse.edc.identityhub.spi.did.store.DidResourceStore;
+import org.eclipse.edc.identityhub.spi.participantcontext.store.OptimisticLocking;
 import org.eclipse.edc.junit.assertions.AbstractResultAssert;
 import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.persistence.EdcPersistenceException;
 import org.eclipse.edc.spi.result.StoreResult;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.eclipse.edc.identityhub.publisher.did.local.TestFunctions.createDidResource;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
@@ -174,4 +180,61 @@ class LocalDidPublisherTest {
         verify(storeMock).update(any());
         verifyNoMoreInteractions(storeMock, observableMock);
     }
-}
\ No newline at end of file
+
+    @Test
+    void publishAll_success() {
+        var resources = List.of(createDidResource("did:web:test1").build(), createDidResource("did:web:test2").build());
+        when(storeMock.updateAll(any())).thenReturn(StoreResult.success());
+
+        AbstractResultAssert.assertThat(publisher.publishAll(resources)).isSucceeded();
+
+        assertThat(resources).allMatch(dr -> dr.getState() == DidState.PUBLISHED.code());
+        verify(storeMock).updateAll(resources);
+        verify(observableMock, times(2)).invokeForEach(any());
+        verifyNoMoreInteractions(storeMock, observableMock);
+    }
+
+    @Test
+    void publishAll_storeFailsUpdate_shouldThrow() {
+        var resources = List.of(createDidResource("did:web:test1").build());
+        when(storeMock.updateAll(any())).thenReturn(StoreResult.notFound("test error"));
+
+        assertThatThrownBy(() -> publisher.publishAll(resources))
+                .isInstanceOf(EdcPersistenceException.class)
+                .hasMessageContaining("test error");
+
+        verify(storeMock).updateAll(resources);
+        verifyNoMoreInteractions(storeMock, observableMock);
+    }
+
+    @Test
+    void publishAll_versionConflict_shouldThrow() {
+        var resources = List.of(createDidResource("did:web:test1").build());
+        when(storeMock.updateAll(any())).thenReturn(OptimisticLocking.versionConflict("DidResource", "did:web:test1"));
+
+        assertThatThrownBy(() -> publisher.publishAll(resources)).isInstanceOf(OptimisticLocking.VersionConflictException.class);
+
+        verifyNoMoreInteractions(observableMock);
+    }
+
+    @Test
+    void unpublishAll_success() {
+        var resources = List.of(createDidResource("did:web:test1").state(DidState.PUBLISHED).build(),
+                createDidResource("did:web:test2").state(DidState.PUBLISHED).build());
+        when(storeMock.updateAll(any())).thenReturn(StoreResult.success());
+
+        AbstractResultAssert.assertThat(publisher.unpublishAll(resources)).isSucceeded();
+
+        assertThat(resources).allMatch(dr -> dr.getState() == DidState.UNPUBLISHED.code());
+        verify(storeMock).updateAll(resources);
+        verify(observableMock, times(2)).invokeForEach(any());
+        verifyNoMoreInteractions(storeMock, observableMock);
+    }
+
+    @Test
+    void unpublishAll_empty_shouldNotUpdate() {
+        AbstractResultAssert.assertThat(publisher.unpublishAll(List.of())).isSucceeded();
+
+        verifyNoMoreInteractions(storeMock, observableMock);
+    }
+}
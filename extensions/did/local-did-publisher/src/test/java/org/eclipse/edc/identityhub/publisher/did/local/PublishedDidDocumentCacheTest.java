@@ -0,0 +1,186 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.publisher.did.local;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eclipse.edc.iam.did.spi.document.DidDocument;
+import org.eclipse.edc.iam.did.spi.document.Service;
+import org.eclipse.edc.identityhub.spi.did.events.DidDocumentPublished;
+import org.eclipse.edc.identityhub.spi.did.events.DidDocumentUnpublished;
+import org.eclipse.edc.identityhub.spi.did.model.DidResource;
+import org.eclipse.edc.identityhub.spi.did.model.DidState;
+import org.eclipse.edc.identityhub.spi.did.store.DidResourceStore;
+import org.eclipse.edc.spi.event.Event;
+import org.eclipse.edc.spi.event.EventEnvelope;
+import org.eclipse.edc.spi.query.QuerySpec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.eclipse.edc.identityhub.publisher.did.local.TestFunctions.createDidResource;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PublishedDidDocumentCacheTest {
+
+    private final DidResourceStore store = mock();
+    private final Clock clock = mock();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final PublishedDidDocumentCache cache = new PublishedDidDocumentCache(store, objectMapper, clock, Duration.ofSeconds(10), 2);
+
+    private static DidResource publishedDid(String did) {
+        return createDidResource(did).state(DidState.PUBLISHED).stateTimeStamp(500L).build();
+    }
+
+    @BeforeEach
+    void setUp() {
+        when(clock.millis()).thenReturn(1000L);
+        when(store.query(any())).thenAnswer(i -> List.of(publishedDid(didOf(i.getArgument(0)))));
+    }
+
+    @Test
+    void get_shouldSerializeAndCache() throws IOException {
+        var document = cache.get("did:web:test1");
+        assertThat(cache.get("did:web:test1")).isSameAs(document);
+
+        assertThat(document).isNotNull();
+        assertThat(objectMapper.readValue(document.content(), DidDocument.class).getId()).isEqualTo("did:web:test1");
+        assertThat(document.etag()).isNotBlank();
+        assertThat(document.lastModified()).isEqualTo(500L);
+        verify(store).query(any());
+    }
+
+    @Test
+    void get_whenNotPublished_shouldNotCache() {
+        doReturn(List.of()).when(store).query(any());
+
+        assertThat(cache.get("did:web:test1")).isNull();
+        assertThat(cache.get("did:web:test1")).isNull();
+
+        assertThat(cache.size()).isZero();
+        verify(store, times(2)).query(any());
+    }
+
+    @Test
+    void get_whenDocumentChanged_shouldHaveDifferentEtag() {
+        var etag = cache.get("did:web:test1").etag();
+        var changed = publishedDid("did:web:test1");
+        changed.getDocument().getService().add(new Service("service-id", "test-type", "https://test.com"));
+        doReturn(List.of(changed)).when(store).query(any());
+
+        cache.invalidate("did:web:test1");
+
+        assertThat(cache.get("did:web:test1").etag()).isNotEqualTo(etag);
+    }
+
+    @Test
+    void get_whenExpired_shouldLoadAgain() {
+        cache.get("did:web:test1");
+
+        when(clock.millis()).thenReturn(1000L + 9_999);
+        cache.get("did:web:test1");
+        verify(store).query(any());
+
+        when(clock.millis()).thenReturn(1000L + 10_000);
+        cache.get("did:web:test1");
+        verify(store, times(2)).query(any());
+    }
+
+    @Test
+    void get_whenMaxSizeExceeded_shouldEvictLeastRecentlyUsed() {
+        cache.get("did:web:test1");
+        cache.get("did:web:test2");
+        cache.get("did:web:test1");
+        cache.get("did:web:test3");
+
+        assertThat(cache.size()).isEqualTo(2);
+        cache.get("did:web:test1");
+        verify(store, times(3)).query(any());
+        cache.get("did:web:test2");
+        verify(store, times(4)).query(any());
+    }
+
+    @Test
+    void get_whenTtlZero_shouldNotCache() {
+        var uncached = new PublishedDidDocumentCache(store, objectMapper, clock, Duration.ZERO, 2);
+
+        uncached.get("did:web:test1");
+        uncached.get("did:web:test1");
+
+        assertThat(uncached.size()).isZero();
+        verify(store, times(2)).query(any());
+    }
+
+    @Test
+    void onPublished_shouldInvalidate() {
+        cache.get("did:web:test1");
+        cache.get("did:web:test2");
+
+        cache.on(envelope(DidDocumentPublished.Builder.newInstance().participantContextId("test-participant").did("did:web:test1").build()));
+
+        assertThat(cache.size()).isEqualTo(1);
+        cache.get("did:web:test1");
+        verify(store, times(2)).query(argThat(q -> "did:web:test1".equals(didOf(q))));
+    }
+
+    @Test
+    void onPublished_whenPublishedDocumentEdited_shouldServeEditedDocument() {
+        var etag = cache.get("did:web:test1").etag();
+        var edited = publishedDid("did:web:test1");
+        edited.getDocument().getService().add(new Service("service-id", "test-type", "https://test.com"));
+        doReturn(List.of(edited)).when(store).query(any());
+
+        // editing a service republishes the document
+        cache.on(envelope(DidDocumentPublished.Builder.newInstance().participantContextId("test-participant").did("did:web:test1").build()));
+
+        assertThat(cache.get("did:web:test1").etag()).isNotEqualTo(etag);
+    }
+
+    @Test
+    void onUnpublished_shouldInvalidate() {
+        cache.get("did:web:test1");
+        doReturn(List.of()).when(store).query(any());
+
+        cache.on(envelope(DidDocumentUnpublished.Builder.newInstance().participantContextId("test-participant").did("did:web:test1").build()));
+
+        assertThat(cache.get("did:web:test1")).isNull();
+    }
+
+    private static String didOf(QuerySpec query) {
+        return query.getFilterExpression().stream()
+                .filter(c -> "did".equals(c.getOperandLeft()))
+                .map(c -> (String) c.getOperandRight())
+                .findFirst()
+                .orElseThrow();
+    }
+
+    @SuppressWarnings("unchecked")
+    private EventEnvelope<Event> envelope(Event event) {
+        return EventEnvelope.Builder.newInstance()
+                .at(System.currentTimeMillis())
+                .payload(event)
+                .build();
+    }
+}
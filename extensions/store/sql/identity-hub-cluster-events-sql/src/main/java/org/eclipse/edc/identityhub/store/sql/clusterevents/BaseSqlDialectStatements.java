@@ -0,0 +1,50 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.store.sql.clusterevents;
+
+import static java.lang.String.format;
+
+public class BaseSqlDialectStatements implements ClusterEventStatements {
+    @Override
+    public String getInsertTemplate() {
+        return executeStatement()
+                .column(getEnvelopeIdColumn())
+                .column(getNodeIdColumn())
+                .column(getEventTypeColumn())
+                .jsonColumn(getPayloadColumn())
+                .column(getCreatedAtColumn())
+                .insertInto(getClusterEventTable());
+    }
+
+    @Override
+    public String getNotifyTemplate() {
+        return "SELECT pg_notify(?, ?)";
+    }
+
+    @Override
+    public String getFindAfterSequenceTemplate() {
+        return format("SELECT * FROM %s WHERE %s > ? ORDER BY %s ASC LIMIT ?", getClusterEventTable(), getSequenceColumn(), getSequenceColumn());
+    }
+
+    @Override
+    public String getMaxSequenceTemplate() {
+        return format("SELECT COALESCE(MAX(%s), 0) AS %s FROM %s", getSequenceColumn(), getSequenceColumn(), getClusterEventTable());
+    }
+
+    @Override
+    public String getDeleteOlderThanTemplate() {
+        return format("DELETE FROM %s WHERE %s < ?", getClusterEventTable(), getCreatedAtColumn());
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.store.sql.clusterevents;
+
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.transaction.datasource.spi.DataSourceRegistry;
+import org.jetbrains.annotations.Nullable;
+import org.postgresql.PGConnection;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Runs the receiving side of the {@link SqlClusterEventRouter} on a dedicated thread.
+ * <p>
+ * If a notification channel is configured, the receiver keeps one connection open, on which it {@code LISTEN}s for
+ * notifications, and polls as soon as one arrives. The poll interval then only serves as a safety net for lost
+ * notifications, for example during a reconnect. If no channel is configured, or the datasource does not hand out Postgres
+ * connections, the receiver polls at the poll interval. Expired events are deleted every {@code retention / 10}.
+ */
+public class ClusterEventReceiver {
+    private final SqlClusterEventRouter router;
+    private final DataSourceRegistry dataSourceRegistry;
+    private final String dataSourceName;
+    private final String notificationChannel;
+    private final Duration pollInterval;
+    private final Duration retention;
+    private final Clock clock;
+    private final ExecutorService executorService;
+    private final Monitor monitor;
+    private volatile boolean active;
+    private boolean listen;
+    private Connection listenConnection;
+    private long nextCleanup;
+
+    /**
+     * Creates a new receiver.
+     *
+     * @param notificationChannel the channel to listen on, or null to only poll
+     */
+    public ClusterEventReceiver(SqlClusterEventRouter router, DataSourceRegistry dataSourceRegistry, String dataSourceName,
+                                @Nullable String notificationChannel, Duration pollInterval, Duration retention, Clock clock,
+                                ExecutorService executorService, Monitor monitor) {
+        this.router = router;
+        this.dataSourceRegistry = dataSourceRegistry;
+        this.dataSourceName = dataSourceName;
+        this.notificationChannel = notificationChannel;
+        this.listen = notificationChannel != null;
+        this.pollInterval = pollInterval;
+        this.retention = retention;
+        this.clock = clock;
+        this.executorService = executorService;
+        this.monitor = monitor;
+    }
+
+    public void start() {
+        active = true;
+        nextCleanup = clock.millis();
+        executorService.submit(this::run);
+    }
+
+    public void stop() {
+        active = false;
+        executorService.shutdownNow();
+    }
+
+    private void run() {
+        try {
+            while (active && !Thread.currentThread().isInterrupted()) {
+                try {
+                    awaitSignal();
+                    router.poll();
+                    cleanup();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (Exception e) {
+                    monitor.warning("Error while receiving cluster events, retrying in %s".formatted(pollInterval), e);
+                    closeListenConnection();
+                    sleep();
+                }
+            }
+        } finally {
+            closeListenConnection();
+        }
+    }
+
+    private void awaitSignal() throws SQLException, InterruptedException {
+        var connection = listen ? getListenConnection() : null;
+        if (connection == null) {
+            Thread.sleep(pollInterval.toMillis());
+            return;
+        }
+        // returns as soon as a notification arrives, or after the timeout. The content does not matter, the poll reads the table
+        connection.getNotifications((int) pollInterval.toMillis());
+    }
+
+    private void cleanup() {
+        var now = clock.millis();
+        if (now >= nextCleanup) {
+            router.deleteOlderThan(now - retention.toMillis());
+            nextCleanup = now + Math.max(retention.toMillis() / 10, pollInterval.toMillis());
+        }
+    }
+
+    private PGConnection getListenConnection() throws SQLException {
+        if (listenConnection == null) {
+            var dataSource = dataSourceRegistry.resolve(dataSourceName);
+            if (dataSource == null) {
+                throw new SQLException("DataSource %s could not be resolved".formatted(dataSourceName));
+            }
+            var connection = dataSource.getConnection();
+            if (!connection.isWrapperFor(PGConnection.class)) {
+                monitor.warning("DataSource %s does not provide Postgres connections, cluster events are polled every %s".formatted(dataSourceName, pollInterval));
+                connection.close();
+                listen = false;
+                return null;
+            }
+            try (var statement = connection.createStatement()) {
+                statement.execute("LISTEN " + notificationChannel);
+            }
+            if (!connection.getAutoCommit()) {
+                connection.commit();
+            }
+            listenConnection = connection;
+        }
+        return listenConnection.unwrap(PGConnection.class);
+    }
+
+    private void closeListenConnection() {
+        if (listenConnection != null) {
+            try {
+                listenConnection.close();
+            } catch (SQLException e) {
+                monitor.debug("Error closing the LISTEN connection: " + e.getMessage());
+            }
+            listenConnection = null;
+        }
+    }
+
+    private void sleep() {
+        try {
+            Thread.sleep(pollInterval.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
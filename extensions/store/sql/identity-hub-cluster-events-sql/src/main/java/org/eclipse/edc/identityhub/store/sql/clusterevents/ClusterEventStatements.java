@@ -0,0 +1,67 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.store.sql.clusterevents;
+
+import org.eclipse.edc.sql.statement.SqlStatements;
+
+/**
+ * Defines SQL-statements and column names for use with the {@link SqlClusterEventRouter}
+ */
+public interface ClusterEventStatements extends SqlStatements {
+    default String getClusterEventTable() {
+        return "cluster_event";
+    }
+
+    default String getSequenceColumn() {
+        return "sequence";
+    }
+
+    default String getEnvelopeIdColumn() {
+        return "envelope_id";
+    }
+
+    default String getNodeIdColumn() {
+        return "node_id";
+    }
+
+    default String getEventTypeColumn() {
+        return "event_type";
+    }
+
+    default String getPayloadColumn() {
+        return "payload";
+    }
+
+    default String getCreatedAtColumn() {
+        return "created_at";
+    }
+
+    String getInsertTemplate();
+
+    /**
+     * Sends a notification on a channel. Parameters are the channel name and the payload.
+     */
+    String getNotifyTemplate();
+
+    /**
+     * Selects events with a sequence number greater than the first parameter, ordered by sequence number, limited to the
+     * second parameter.
+     */
+    String getFindAfterSequenceTemplate();
+
+    String getMaxSequenceTemplate();
+
+    String getDeleteOlderThanTemplate();
+}
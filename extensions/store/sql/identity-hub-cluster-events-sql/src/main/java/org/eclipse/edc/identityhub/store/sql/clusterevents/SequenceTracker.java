@@ -0,0 +1,82 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.store.sql.clusterevents;
+
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Keeps track of which cluster events have already been delivered. Sequence numbers are assigned when a row is inserted,
+ * but transactions may commit in a different order, so a reader can see sequence {@code n + 1} before {@code n}. Every
+ * sequence number that is skipped is therefore remembered as a gap, and is read again until it either shows up, or its
+ * transaction can be assumed to have been rolled back after the gap timeout.
+ * <p>
+ * This class is not thread-safe.
+ */
+class SequenceTracker {
+    /**
+     * Upper limit for the number of tracked gaps, which protects against huge jumps in the sequence, for example after a
+     * restore.
+     */
+    static final int MAX_GAPS = 10_000;
+
+    private final long gapTimeoutMillis;
+    private final NavigableMap<Long, Long> gaps = new TreeMap<>();
+    private long highestSequence;
+
+    SequenceTracker(long highestSequence, long gapTimeoutMillis) {
+        this.highestSequence = highestSequence;
+        this.gapTimeoutMillis = gapTimeoutMillis;
+    }
+
+    /**
+     * The sequence number after which the next read has to start, so that no gap is missed.
+     */
+    long readFrom() {
+        return gaps.isEmpty() ? highestSequence : gaps.firstKey() - 1;
+    }
+
+    /**
+     * Marks a sequence number as seen.
+     *
+     * @return true if the sequence number was seen for the first time, false if the event was already delivered
+     */
+    boolean accept(long sequence, long now) {
+        if (sequence > highestSequence) {
+            var deadline = now + gapTimeoutMillis;
+            for (var missing = highestSequence + 1; missing < sequence && gaps.size() < MAX_GAPS; missing++) {
+                gaps.put(missing, deadline);
+            }
+            highestSequence = sequence;
+            return true;
+        }
+        return gaps.remove(sequence) != null;
+    }
+
+    /**
+     * Gives up on all gaps whose timeout has passed.
+     */
+    void expireGaps(long now) {
+        gaps.values().removeIf(deadline -> deadline <= now);
+    }
+
+    long getHighestSequence() {
+        return highestSequence;
+    }
+
+    int getGapCount() {
+        return gaps.size();
+    }
+}
@@ -0,0 +1,254 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.store.sql.clusterevents;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eclipse.edc.identityhub.spi.cluster.ClusterEventRouter;
+import org.eclipse.edc.identityhub.spi.did.events.DidDocumentPublished;
+import org.eclipse.edc.identityhub.spi.did.events.DidDocumentUnpublished;
+import org.eclipse.edc.identityhub.spi.keypair.events.KeyPairActivated;
+import org.eclipse.edc.identityhub.spi.keypair.events.KeyPairAdded;
+import org.eclipse.edc.identityhub.spi.keypair.events.KeyPairRevoked;
+import org.eclipse.edc.identityhub.spi.keypair.events.KeyPairRotated;
+import org.eclipse.edc.identityhub.spi.participantcontext.events.ParticipantContextApiTokenRegenerated;
+import org.eclipse.edc.identityhub.spi.participantcontext.events.ParticipantContextCreated;
+import org.eclipse.edc.identityhub.spi.participantcontext.events.ParticipantContextDeleted;
+import org.eclipse.edc.identityhub.spi.participantcontext.events.ParticipantContextDeleting;
+import org.eclipse.edc.identityhub.spi.participantcontext.events.ParticipantContextUpdated;
+import org.eclipse.edc.spi.event.Event;
+import org.eclipse.edc.spi.event.EventEnvelope;
+import org.eclipse.edc.spi.event.EventRouter;
+import org.eclipse.edc.spi.event.EventSubscriber;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.persistence.EdcPersistenceException;
+import org.eclipse.edc.sql.QueryExecutor;
+import org.eclipse.edc.sql.store.AbstractSqlStore;
+import org.eclipse.edc.transaction.datasource.spi.DataSourceRegistry;
+import org.eclipse.edc.transaction.spi.TransactionContext;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * {@link ClusterEventRouter} that distributes events through a database table.
+ * <p>
+ * It subscribes to the local {@link EventRouter}, and writes participant context, key pair and DID document events into
+ * the {@code cluster_event} table. Because that happens synchronously, the row is part of the transaction that raised the
+ * event, and is only visible to other nodes if the transaction commits. If enabled, a Postgres {@code NOTIFY} is sent as
+ * well, which is also only delivered on commit, and wakes up the {@link ClusterEventReceiver}s of the other nodes.
+ * <p>
+ * {@link #poll()} reads all events that were written by other nodes since the last poll, and replays them to the
+ * subscribers that were registered with {@link #registerSubscriber(Class, EventSubscriber)}.
+ */
+public class SqlClusterEventRouter extends AbstractSqlStore implements ClusterEventRouter, EventSubscriber {
+
+    /**
+     * The event types that are distributed to other nodes, keyed by the name under which they are persisted.
+     */
+    static final Map<String, Class<? extends Event>> EVENT_TYPES = Stream.of(
+                    ParticipantContextCreated.class, ParticipantContextUpdated.class, ParticipantContextApiTokenRegenerated.class,
+                    ParticipantContextDeleting.class, ParticipantContextDeleted.class,
+                    KeyPairAdded.class, KeyPairActivated.class, KeyPairRevoked.class, KeyPairRotated.class,
+                    DidDocumentPublished.class, DidDocumentUnpublished.class)
+            .collect(Collectors.toMap(Class::getSimpleName, Function.identity()));
+
+    private static final int BATCH_SIZE = 500;
+
+    private final EventRouter eventRouter;
+    private final ClusterEventStatements statements;
+    private final String nodeId;
+    private final String notificationChannel;
+    private final long gapTimeoutMillis;
+    private final Clock clock;
+    private final Monitor monitor;
+    private final ObjectMapper reader;
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private SequenceTracker tracker;
+
+    /**
+     * Creates a new router.
+     *
+     * @param notificationChannel the name of the Postgres notification channel, or null if no notifications should be sent
+     * @param gapTimeoutMillis    how long to wait for events of transactions that were not yet committed during a poll, see
+     *                            {@link SequenceTracker}
+     */
+    public SqlClusterEventRouter(DataSourceRegistry dataSourceRegistry, String dataSourceName, TransactionContext transactionContext,
+                                 ObjectMapper objectMapper, QueryExecutor queryExecutor, ClusterEventStatements statements,
+                                 EventRouter eventRouter, String nodeId, @Nullable String notificationChannel, long gapTimeoutMillis,
+                                 Clock clock, Monitor monitor) {
+        super(dataSourceRegistry, dataSourceName, transactionContext, objectMapper, queryExecutor);
+        this.eventRouter = eventRouter;
+        this.statements = statements;
+        this.nodeId = nodeId;
+        this.notificationChannel = notificationChannel;
+        this.gapTimeoutMillis = gapTimeoutMillis;
+        this.clock = clock;
+        this.monitor = monitor;
+        // events of newer versions may carry properties this version does not know about
+        this.reader = objectMapper.copy().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    }
+
+    @Override
+    public <E extends Event> void registerSubscriber(Class<E> eventKind, EventSubscriber subscriber) {
+        eventRouter.registerSync(eventKind, subscriber);
+        subscriptions.add(new Subscription(eventKind, subscriber));
+    }
+
+    /**
+     * Persists a local event, so that it can be replayed on the other nodes.
+     */
+    @Override
+    public <E extends Event> void on(EventEnvelope<E> envelope) {
+        var payload = envelope.getPayload();
+        var eventType = payload.getClass().getSimpleName();
+        if (!EVENT_TYPES.containsKey(eventType)) {
+            return;
+        }
+        transactionContext.execute(() -> {
+            try (var connection = getConnection()) {
+                queryExecutor.execute(connection, statements.getInsertTemplate(),
+                        envelope.getId(),
+                        nodeId,
+                        eventType,
+                        toJson(payload),
+                        clock.millis());
+                if (notificationChannel != null) {
+                    queryExecutor.single(connection, false, rs -> true, statements.getNotifyTemplate(), notificationChannel, nodeId);
+                }
+            } catch (SQLException e) {
+                throw new EdcPersistenceException(e);
+            }
+        });
+    }
+
+    /**
+     * Starts tracking events. Only events that are written after this call are replayed.
+     */
+    public synchronized void start() {
+        var highest = transactionContext.execute(() -> {
+            try (var connection = getConnection()) {
+                return queryExecutor.single(connection, false, rs -> rs.getLong(statements.getSequenceColumn()), statements.getMaxSequenceTemplate());
+            } catch (SQLException e) {
+                throw new EdcPersistenceException(e);
+            }
+        });
+        tracker = new SequenceTracker(highest, gapTimeoutMillis);
+    }
+
+    /**
+     * Reads the events that other nodes have written since the last poll, and replays them to the subscribers.
+     *
+     * @return the number of events that were replayed
+     */
+    public synchronized int poll() {
+        if (tracker == null) {
+            throw new IllegalStateException("The router has not been started");
+        }
+        var now = clock.millis();
+        tracker.expireGaps(now);
+        var replayed = 0;
+        var from = tracker.readFrom();
+        List<ClusterEvent> batch;
+        do {
+            batch = readAfter(from);
+            for (var event : batch) {
+                from = event.sequence();
+                if (tracker.accept(event.sequence(), now) && !nodeId.equals(event.nodeId())) {
+                    replay(event);
+                    replayed++;
+                }
+            }
+        } while (batch.size() == BATCH_SIZE);
+        return replayed;
+    }
+
+    /**
+     * Deletes all events that are older than the given timestamp.
+     */
+    public void deleteOlderThan(long timestamp) {
+        transactionContext.execute(() -> {
+            try (var connection = getConnection()) {
+                queryExecutor.execute(connection, statements.getDeleteOlderThanTemplate(), timestamp);
+            } catch (SQLException e) {
+                throw new EdcPersistenceException(e);
+            }
+        });
+    }
+
+    private List<ClusterEvent> readAfter(long sequence) {
+        return transactionContext.execute(() -> {
+            try (var connection = getConnection()) {
+                return queryExecutor.query(connection, true, this::mapResultSet, statements.getFindAfterSequenceTemplate(), sequence, BATCH_SIZE).toList();
+            } catch (SQLException e) {
+                throw new EdcPersistenceException(e);
+            }
+        });
+    }
+
+    private void replay(ClusterEvent clusterEvent) {
+        var type = EVENT_TYPES.get(clusterEvent.eventType());
+        if (type == null) {
+            monitor.debug("Ignoring cluster event %s of unknown type %s".formatted(clusterEvent.envelopeId(), clusterEvent.eventType()));
+            return;
+        }
+        Event payload;
+        try {
+            payload = reader.readValue(clusterEvent.payload(), type);
+        } catch (JsonProcessingException e) {
+            monitor.warning("Cannot deserialize cluster event %s of type %s".formatted(clusterEvent.envelopeId(), clusterEvent.eventType()), e);
+            return;
+        }
+        var envelope = EventEnvelope.Builder.newInstance()
+                .id(clusterEvent.envelopeId())
+                .at(clusterEvent.createdAt())
+                .payload(payload)
+                .build();
+        subscriptions.stream()
+                .filter(subscription -> subscription.eventKind().isInstance(payload))
+                .forEach(subscription -> {
+                    try {
+                        subscription.subscriber().on(envelope);
+                    } catch (Exception e) {
+                        monitor.warning("Subscriber failed to process cluster event %s".formatted(clusterEvent.envelopeId()), e);
+                    }
+                });
+    }
+
+    private ClusterEvent mapResultSet(ResultSet resultSet) throws SQLException {
+        return new ClusterEvent(
+                resultSet.getLong(statements.getSequenceColumn()),
+                resultSet.getString(statements.getEnvelopeIdColumn()),
+                resultSet.getString(statements.getNodeIdColumn()),
+                resultSet.getString(statements.getEventTypeColumn()),
+                resultSet.getString(statements.getPayloadColumn()),
+                resultSet.getLong(statements.getCreatedAtColumn()));
+    }
+
+    private record ClusterEvent(long sequence, String envelopeId, String nodeId, String eventType, String payload, long createdAt) {
+    }
+
+    private record Subscription(Class<? extends Event> eventKind, EventSubscriber subscriber) {
+    }
+}
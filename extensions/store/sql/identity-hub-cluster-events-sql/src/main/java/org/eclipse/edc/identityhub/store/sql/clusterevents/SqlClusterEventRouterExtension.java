@@ -0,0 +1,142 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.store.sql.clusterevents;
+
+import org.eclipse.edc.identityhub.spi.cluster.ClusterEventRouter;
+import org.eclipse.edc.identityhub.spi.did.events.DidDocumentEvent;
+import org.eclipse.edc.identityhub.spi.keypair.events.KeyPairEvent;
+import org.eclipse.edc.identityhub.spi.participantcontext.events.ParticipantContextEvent;
+import org.eclipse.edc.identityhub.store.sql.clusterevents.schema.postgres.PostgresDialectStatements;
+import org.eclipse.edc.runtime.metamodel.annotation.Extension;
+import org.eclipse.edc.runtime.metamodel.annotation.Inject;
+import org.eclipse.edc.runtime.metamodel.annotation.Provider;
+import org.eclipse.edc.runtime.metamodel.annotation.Setting;
+import org.eclipse.edc.spi.EdcException;
+import org.eclipse.edc.spi.event.EventRouter;
+import org.eclipse.edc.spi.system.ExecutorInstrumentation;
+import org.eclipse.edc.spi.system.ServiceExtension;
+import org.eclipse.edc.spi.system.ServiceExtensionContext;
+import org.eclipse.edc.spi.types.TypeManager;
+import org.eclipse.edc.sql.QueryExecutor;
+import org.eclipse.edc.sql.bootstrapper.SqlSchemaBootstrapper;
+import org.eclipse.edc.transaction.datasource.spi.DataSourceRegistry;
+import org.eclipse.edc.transaction.spi.TransactionContext;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.regex.Pattern;
+
+import static org.eclipse.edc.identityhub.store.sql.clusterevents.SqlClusterEventRouterExtension.NAME;
+
+/**
+ * Distributes participant context, key pair and DID document events to all nodes of a cluster that share the same
+ * database, so that in-process caches can be invalidated on every node.
+ */
+@Extension(value = NAME)
+public class SqlClusterEventRouterExtension implements ServiceExtension {
+    public static final String NAME = "Cluster Event Router SQL Extension";
+    private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]*");
+
+    @Setting(description = "The datasource to be used", defaultValue = DataSourceRegistry.DEFAULT_DATASOURCE, key = "edc.sql.store.clusterevents.datasource")
+    private String dataSourceName;
+
+    @Setting(description = "Whether other nodes are notified through Postgres LISTEN/NOTIFY. If disabled, or if the datasource does not provide Postgres connections, " +
+            "nodes only poll the event table.", defaultValue = "true", key = "edc.sql.store.clusterevents.notify")
+    private boolean notify;
+
+    @Setting(description = "The Postgres notification channel. Must be a lower-case SQL identifier.",
+            defaultValue = "identityhub_cluster_events", key = "edc.sql.store.clusterevents.channel")
+    private String channel;
+
+    @Setting(description = "Interval in milliseconds in which the event table is polled. With notifications enabled, polling is only a fallback for lost notifications.",
+            defaultValue = "1000", key = "edc.sql.store.clusterevents.poll.interval")
+    private long pollIntervalMillis;
+
+    @Setting(description = "Time in milliseconds after which events are deleted from the event table", defaultValue = "3600000", key = "edc.sql.store.clusterevents.retention")
+    private long retentionMillis;
+
+    @Setting(description = "Time in milliseconds to wait for events that were written by transactions that had not committed during a poll. " +
+            "Should be longer than the longest transaction.", defaultValue = "60000", key = "edc.sql.store.clusterevents.gap.timeout")
+    private long gapTimeoutMillis;
+
+    @Inject
+    private DataSourceRegistry dataSourceRegistry;
+    @Inject
+    private TransactionContext transactionContext;
+    @Inject
+    private TypeManager typeManager;
+    @Inject
+    private QueryExecutor queryExecutor;
+    @Inject
+    private EventRouter eventRouter;
+    @Inject
+    private Clock clock;
+    @Inject
+    private ExecutorInstrumentation executorInstrumentation;
+    @Inject(required = false)
+    private ClusterEventStatements statements;
+    @Inject
+    private SqlSchemaBootstrapper sqlSchemaBootstrapper;
+
+    private SqlClusterEventRouter router;
+    private ClusterEventReceiver receiver;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public void initialize(ServiceExtensionContext context) {
+        if (notify && !CHANNEL_NAME.matcher(channel).matches()) {
+            throw new EdcException("Invalid value for setting 'edc.sql.store.clusterevents.channel': " + channel);
+        }
+        sqlSchemaBootstrapper.addStatementFromResource(dataSourceName, "cluster-events-schema.sql");
+
+        var notificationChannel = notify ? channel : null;
+        router = new SqlClusterEventRouter(dataSourceRegistry, dataSourceName, transactionContext, typeManager.getMapper(), queryExecutor,
+                getStatementImpl(), eventRouter, context.getRuntimeId(), notificationChannel, gapTimeoutMillis, clock, context.getMonitor());
+        eventRouter.registerSync(ParticipantContextEvent.class, router);
+        eventRouter.registerSync(KeyPairEvent.class, router);
+        eventRouter.registerSync(DidDocumentEvent.class, router);
+
+        var executor = executorInstrumentation.instrument(Executors.newSingleThreadExecutor(), NAME);
+        receiver = new ClusterEventReceiver(router, dataSourceRegistry, dataSourceName, notificationChannel, Duration.ofMillis(pollIntervalMillis),
+                Duration.ofMillis(retentionMillis), clock, executor, context.getMonitor());
+    }
+
+    @Override
+    public void start() {
+        router.start();
+        receiver.start();
+    }
+
+    @Override
+    public void shutdown() {
+        if (receiver != null) {
+            receiver.stop();
+        }
+    }
+
+    @Provider
+    public ClusterEventRouter clusterEventRouter() {
+        return router;
+    }
+
+    private ClusterEventStatements getStatementImpl() {
+        return statements != null ? statements : new PostgresDialectStatements();
+    }
+}
@@ -0,0 +1,26 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+-- only intended for and tested with Postgres!
+CREATE TABLE IF NOT EXISTS cluster_event
+(
+    sequence    BIGSERIAL PRIMARY KEY, -- monotonically increasing, but may have gaps and is not necessarily committed in order
+    envelope_id VARCHAR NOT NULL,      -- ID of the original EventEnvelope
+    node_id     VARCHAR NOT NULL,      -- runtime ID of the node that raised the event
+    event_type  VARCHAR NOT NULL,
+    payload     JSON    NOT NULL,
+    created_at  BIGINT  NOT NULL       -- POSIX timestamp in millis, used to expire old events
+);
+CREATE INDEX IF NOT EXISTS cluster_event_created_at_index ON cluster_event USING btree (created_at);
+COMMENT ON TABLE cluster_event IS 'Events that are replayed to the in-process subscribers of all other nodes';
@@ -0,0 +1,69 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.store.sql.clusterevents;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SequenceTrackerTest {
+
+    private final SequenceTracker tracker = new SequenceTracker(10, 1000);
+
+    @Test
+    void accept_inOrder() {
+        assertThat(tracker.accept(11, 0)).isTrue();
+        assertThat(tracker.accept(12, 0)).isTrue();
+        assertThat(tracker.accept(12, 0)).isFalse();
+
+        assertThat(tracker.readFrom()).isEqualTo(12);
+        assertThat(tracker.getGapCount()).isZero();
+    }
+
+    @Test
+    void accept_withGap_readsGapAgain() {
+        assertThat(tracker.accept(13, 0)).isTrue();
+
+        assertThat(tracker.getGapCount()).isEqualTo(2);
+        assertThat(tracker.readFrom()).isEqualTo(10);
+        assertThat(tracker.accept(13, 0)).isFalse();
+
+        assertThat(tracker.accept(11, 0)).isTrue();
+        assertThat(tracker.readFrom()).isEqualTo(11);
+        assertThat(tracker.accept(12, 0)).isTrue();
+        assertThat(tracker.readFrom()).isEqualTo(13);
+    }
+
+    @Test
+    void expireGaps() {
+        tracker.accept(13, 0);
+
+        tracker.expireGaps(999);
+        assertThat(tracker.getGapCount()).isEqualTo(2);
+
+        tracker.expireGaps(1000);
+        assertThat(tracker.getGapCount()).isZero();
+        assertThat(tracker.readFrom()).isEqualTo(13);
+        assertThat(tracker.accept(12, 1000)).isFalse();
+    }
+
+    @Test
+    void accept_hugeJump_limitsGaps() {
+        tracker.accept(10 + SequenceTracker.MAX_GAPS * 2L, 0);
+
+        assertThat(tracker.getGapCount()).isEqualTo(SequenceTracker.MAX_GAPS);
+        assertThat(tracker.getHighestSequence()).isEqualTo(10 + SequenceTracker.MAX_GAPS * 2L);
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.store.sql.clusterevents;
+
+import org.eclipse.edc.identityhub.spi.keypair.events.KeyPairEvent;
+import org.eclipse.edc.identityhub.spi.keypair.events.KeyPairRevoked;
+import org.eclipse.edc.identityhub.spi.participantcontext.events.ParticipantContextEvent;
+import org.eclipse.edc.identityhub.spi.participantcontext.events.ParticipantContextUpdated;
+import org.eclipse.edc.identityhub.spi.participantcontext.model.ParticipantContextState;
+import org.eclipse.edc.identityhub.store.sql.clusterevents.schema.postgres.PostgresDialectStatements;
+import org.eclipse.edc.json.JacksonTypeManager;
+import org.eclipse.edc.junit.annotations.ComponentTest;
+import org.eclipse.edc.junit.testfixtures.TestUtils;
+import org.eclipse.edc.spi.event.Event;
+import org.eclipse.edc.spi.event.EventEnvelope;
+import org.eclipse.edc.spi.event.EventRouter;
+import org.eclipse.edc.spi.event.EventSubscriber;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.sql.QueryExecutor;
+import org.eclipse.edc.sql.testfixtures.PostgresqlStoreSetupExtension;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.time.Clock;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ComponentTest
+@ExtendWith(PostgresqlStoreSetupExtension.class)
+class SqlClusterEventRouterTest {
+
+    private final ClusterEventStatements statements = new PostgresDialectStatements();
+    private final JacksonTypeManager typeManager = new JacksonTypeManager();
+    private final EventRouter eventRouter = mock();
+    private SqlClusterEventRouter node1;
+    private SqlClusterEventRouter node2;
+
+    @BeforeEach
+    void setup(PostgresqlStoreSetupExtension extension, QueryExecutor queryExecutor) {
+        extension.runQuery(TestUtils.getResourceFileContentAsString("cluster-events-schema.sql"));
+
+        node1 = createRouter("node1", extension, queryExecutor);
+        node2 = createRouter("node2", extension, queryExecutor);
+        node1.start();
+        node2.start();
+    }
+
+    @AfterEach
+    void tearDown(PostgresqlStoreSetupExtension extension) {
+        extension.runQuery("DROP TABLE " + statements.getClusterEventTable() + " CASCADE");
+    }
+
+    @Test
+    void registerSubscriber_alsoRegistersLocally() {
+        var subscriber = mock(EventSubscriber.class);
+
+        node1.registerSubscriber(KeyPairEvent.class, subscriber);
+
+        verify(eventRouter).registerSync(KeyPairEvent.class, subscriber);
+    }
+
+    @Test
+    void poll_replaysEventsOfOtherNodes() {
+        var subscriber = mock(EventSubscriber.class);
+        node2.registerSubscriber(ParticipantContextEvent.class, subscriber);
+
+        node1.on(envelope(ParticipantContextUpdated.Builder.newInstance()
+                .participantContextId("test-participant")
+                .newState(ParticipantContextState.ACTIVATED)
+                .build()));
+
+        assertThat(node2.poll()).isEqualTo(1);
+        verify(subscriber).on(argThat(env -> env.getPayload() instanceof ParticipantContextUpdated evt &&
+                evt.getParticipantContextId().equals("test-participant") && evt.getNewState() == ParticipantContextState.ACTIVATED));
+
+        // every event is only replayed once
+        assertThat(node2.poll()).isZero();
+    }
+
+    @Test
+    void poll_doesNotReplayOwnEvents() {
+        var subscriber = mock(EventSubscriber.class);
+        node1.registerSubscriber(ParticipantContextEvent.class, subscriber);
+
+        node1.on(envelope(ParticipantContextUpdated.Builder.newInstance()
+                .participantContextId("test-participant")
+                .newState(ParticipantContextState.ACTIVATED)
+                .build()));
+
+        assertThat(node1.poll()).isZero();
+        verify(subscriber, never()).on(any());
+    }
+
+    @Test
+    void poll_onlyDeliversMatchingEventKinds() {
+        var subscriber = mock(EventSubscriber.class);
+        node2.registerSubscriber(KeyPairEvent.class, subscriber);
+
+        node1.on(envelope(ParticipantContextUpdated.Builder.newInstance()
+                .participantContextId("test-participant")
+                .newState(ParticipantContextState.ACTIVATED)
+                .build()));
+
+        assertThat(node2.poll()).isEqualTo(1);
+        verify(subscriber, never()).on(any());
+    }
+
+    @Test
+    void deleteOlderThan() {
+        var subscriber = mock(EventSubscriber.class);
+        node2.registerSubscriber(KeyPairEvent.class, subscriber);
+        node1.on(envelope(KeyPairRevoked.Builder.newInstance()
+                .participantContextId("test-participant")
+                .keyId("test-key")
+                .build()));
+
+        node1.deleteOlderThan(Long.MAX_VALUE);
+
+        assertThat(node2.poll()).isZero();
+    }
+
+    private SqlClusterEventRouter createRouter(String nodeId, PostgresqlStoreSetupExtension extension, QueryExecutor queryExecutor) {
+        return new SqlClusterEventRouter(extension.getDataSourceRegistry(), extension.getDatasourceName(), extension.getTransactionContext(),
+                typeManager.getMapper(), queryExecutor, statements, eventRouter, nodeId, "test_channel", 1000, Clock.systemUTC(), mock(Monitor.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private EventEnvelope<Event> envelope(Event event) {
+        return EventEnvelope.Builder.newInstance()
+                .id(UUID.randomUUID().toString())
+                .at(System.currentTimeMillis())
+                .payload(event)
+                .build();
+    }
+}
@@ -18,10 +18,12 @@ plugins {
 
 dependencies {
     api(project(":spi:verifiable-credential-spi"))
+    implementation(project(":extensions:store:sql:identity-hub-sql-lib"))
     implementation(libs.edc.lib.sql)
     implementation(libs.edc.lib.util)
     implementation(libs.edc.sql.bootstrapper) // for the schema bootstrapper
     implementation(libs.edc.spi.transaction.datasource)
+    implementation(libs.jackson.dataformat.smile)
 
     testImplementation(testFixtures(project(":spi:verifiable-credential-spi")))
     testImplementation(testFixtures(libs.edc.sql.test.fixtures))
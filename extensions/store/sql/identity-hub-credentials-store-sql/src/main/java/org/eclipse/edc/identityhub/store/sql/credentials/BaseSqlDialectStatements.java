@@ -32,10 +32,14 @@ public class BaseSqlDialectStatements implements CredentialStoreStatements {
                 .column(getVcStateColumn())
                 .jsonColumn(getIssuancePolicyColumn())
                 .jsonColumn(getReissuancePolicyColumn())
+                .column(getIssuancePolicyBinaryColumn())
+                .column(getReissuancePolicyBinaryColumn())
                 .column(getVcFormatColumn())
                 .column(getRawVcColumn())
                 .jsonColumn(getVerifiableCredentialColumn())
                 .column(getParticipantContextIdColumn())
+                .column(getVersionColumn())
+                .column(getDeadlineColumn())
                 .insertInto(getCredentialResourceTable());
     }
 
@@ -49,11 +53,20 @@ public class BaseSqlDialectStatements implements CredentialStoreStatements {
                 .column(getVcStateColumn())
                 .jsonColumn(getIssuancePolicyColumn())
                 .jsonColumn(getReissuancePolicyColumn())
+                .column(getIssuancePolicyBinaryColumn())
+                .column(getReissuancePolicyBinaryColumn())
                 .column(getVcFormatColumn())
                 .column(getRawVcColumn())
                 .jsonColumn(getVerifiableCredentialColumn())
                 .column(getParticipantContextIdColumn())
-                .update(getCredentialResourceTable(), getIdColumn());
+                .column(getVersionColumn())
+                .column(getDeadlineColumn())
+                .update(getCredentialResourceTable(), getIdColumn()) + format(" AND %s = ?", getVersionColumn());
+    }
+
+    @Override
+    public String getUpdateByIdAndParticipantContextIdTemplate() {
+        return format("%s AND %s = ?", getUpdateTemplate(), getParticipantContextIdColumn());
     }
 
     @Override
@@ -61,12 +74,57 @@ public class BaseSqlDialectStatements implements CredentialStoreStatements {
         return executeStatement().delete(getCredentialResourceTable(), getIdColumn());
     }
 
+    @Override
+    public String getDeleteByIdAndParticipantContextIdTemplate() {
+        return format("DELETE FROM %s WHERE %s = ? AND %s = ?", getCredentialResourceTable(), getIdColumn(), getParticipantContextIdColumn());
+    }
+
+    @Override
+    public String getDeleteByParticipantContextIdTemplate() {
+        return executeStatement().delete(getCredentialResourceTable(), getParticipantContextIdColumn());
+    }
+
     @Override
     public String getFindByIdTemplate() {
         return format("SELECT * FROM %s WHERE %s = ?", getCredentialResourceTable(), getIdColumn());
 
     }
 
+    @Override
+    public String getFindByIdAndParticipantContextIdTemplate() {
+        return format("SELECT * FROM %s WHERE %s = ? AND %s = ?", getCredentialResourceTable(), getIdColumn(), getParticipantContextIdColumn());
+    }
+
+    @Override
+    public String getFindDueForTransitionTemplate() {
+        return format("SELECT * FROM %s WHERE %s <= ? AND (%s > ? OR (%s = ? AND %s > ?)) ORDER BY %s, %s LIMIT ?", getCredentialResourceTable(),
+                getDeadlineColumn(), getDeadlineColumn(), getDeadlineColumn(), getIdColumn(), getDeadlineColumn(), getIdColumn());
+    }
+
+    @Override
+    public String getLockWatchdogCursorTemplate() {
+        return format("SELECT * FROM %s WHERE %s = ? FOR UPDATE", getWatchdogCursorTable(), getWatchdogCursorNameColumn());
+    }
+
+    @Override
+    public String getUpsertWatchdogCursorTemplate() {
+        return format("INSERT INTO %1$s (%2$s, %3$s, %4$s) VALUES (?, ?, ?) ON CONFLICT (%2$s) DO UPDATE SET %3$s = EXCLUDED.%3$s, %4$s = EXCLUDED.%4$s",
+                getWatchdogCursorTable(), getWatchdogCursorNameColumn(), getWatchdogCursorLastIdColumn(), getWatchdogCursorNextRoundAtColumn());
+    }
+
+    @Override
+    public String getFindStatusListTemplate() {
+        return format("SELECT * FROM %s WHERE %s = ?", getStatusListCacheTable(), getStatusListUrlColumn());
+    }
+
+    @Override
+    public String getUpsertStatusListTemplate() {
+        return format("INSERT INTO %1$s (%2$s, %3$s, %4$s, %5$s, %6$s, %7$s, %8$s) VALUES (?, ?, ?, ?, ?, ?, ?) ON CONFLICT (%2$s) DO UPDATE SET " +
+                        "%3$s = EXCLUDED.%3$s, %4$s = EXCLUDED.%4$s, %5$s = EXCLUDED.%5$s, %6$s = EXCLUDED.%6$s, %7$s = EXCLUDED.%7$s, %8$s = EXCLUDED.%8$s",
+                getStatusListCacheTable(), getStatusListUrlColumn(), getStatusListEtagColumn(), getStatusListLastModifiedColumn(),
+                getStatusListFetchedAtColumn(), getStatusListPurposeColumn(), getStatusListBitsColumn(), getStatusListLengthColumn());
+    }
+
     @Override
     public SqlQueryStatement createQuery(QuerySpec querySpec) {
         var select = getSelectStatement();
@@ -0,0 +1,152 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.store.sql.credentials;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.eclipse.edc.iam.verifiablecredentials.spi.model.VerifiableCredential;
+import org.eclipse.edc.policy.model.Policy;
+import org.eclipse.edc.spi.persistence.EdcPersistenceException;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Encodes and decodes the derived payload columns of the {@code credential_resource} table. Readers and writers are created
+ * once and re-used for every row, so that Jackson does not have to resolve the (de)serializers on every call.
+ * <p>
+ * The {@code verifiable_credential} column is always stored as JSON, because it is queried using JSON operators, and the
+ * {@code raw_vc} column is stored verbatim, because it is queried with {@code LIKE} and returned as-is. The policy
+ * columns are only ever read back in full, so they can be stored in a compact binary encoding (see {@link PayloadEncoding}).
+ * Decoding does not depend on the configured encoding: a non-null binary column always takes precedence over the JSON column,
+ * and compressed and uncompressed Smile are told apart by the Smile header. That way rows written with different encodings
+ * can coexist, and the encoding can be changed at any time.
+ */
+public class CredentialPayloadCodec {
+    // every Smile document starts with ":)\n", a deflate stream never does
+    private static final byte[] SMILE_HEADER = { ':', ')', '\n' };
+
+    private final PayloadEncoding encoding;
+    private final ObjectWriter jsonWriter;
+    private final ObjectReader credentialJsonReader;
+    private final ObjectReader policyJsonReader;
+    private final ObjectWriter smileWriter;
+    private final ObjectReader policySmileReader;
+
+    public CredentialPayloadCodec(ObjectMapper objectMapper, PayloadEncoding encoding) {
+        this.encoding = encoding;
+        jsonWriter = objectMapper.writer();
+        credentialJsonReader = objectMapper.readerFor(VerifiableCredential.class);
+        policyJsonReader = objectMapper.readerFor(Policy.class);
+        var smileMapper = objectMapper.copyWith(new SmileFactory());
+        smileWriter = smileMapper.writer();
+        policySmileReader = smileMapper.readerFor(Policy.class);
+    }
+
+    public PayloadEncoding getEncoding() {
+        return encoding;
+    }
+
+    public String encodeCredential(VerifiableCredential credential) {
+        return toJson(credential);
+    }
+
+    public VerifiableCredential decodeCredential(String json) {
+        try {
+            return credentialJsonReader.readValue(json);
+        } catch (IOException e) {
+            throw new EdcPersistenceException(e);
+        }
+    }
+
+    /**
+     * Returns the JSON representation of the policy, if the encoding is {@link PayloadEncoding#JSON}, null otherwise.
+     */
+    @Nullable
+    public String encodePolicyJson(@Nullable Policy policy) {
+        return encoding == PayloadEncoding.JSON ? toJson(policy) : null;
+    }
+
+    /**
+     * Returns the binary representation of the policy, if the encoding is a binary one, null otherwise.
+     */
+    @Nullable
+    public byte[] encodePolicyBinary(@Nullable Policy policy) {
+        if (policy == null || encoding == PayloadEncoding.JSON) {
+            return null;
+        }
+        try {
+            var smile = smileWriter.writeValueAsBytes(policy);
+            return encoding == PayloadEncoding.SMILE_DEFLATE ? deflate(smile) : smile;
+        } catch (IOException e) {
+            throw new EdcPersistenceException(e);
+        }
+    }
+
+    /**
+     * Decodes a policy from either of its representations. The binary representation takes precedence.
+     */
+    @Nullable
+    public Policy decodePolicy(@Nullable byte[] binary, @Nullable String json) {
+        try {
+            if (binary != null) {
+                if (isSmile(binary)) {
+                    return policySmileReader.readValue(binary);
+                }
+                try (var inflated = new InflaterInputStream(new ByteArrayInputStream(binary))) {
+                    return policySmileReader.readValue(inflated);
+                }
+            }
+            return json == null ? null : policyJsonReader.readValue(json);
+        } catch (IOException e) {
+            throw new EdcPersistenceException(e);
+        }
+    }
+
+    @Nullable
+    private String toJson(@Nullable Object object) {
+        if (object == null) {
+            return null;
+        }
+        try {
+            return jsonWriter.writeValueAsString(object);
+        } catch (IOException e) {
+            throw new EdcPersistenceException(e);
+        }
+    }
+
+    private static byte[] deflate(byte[] input) throws IOException {
+        var bos = new ByteArrayOutputStream(input.length);
+        var deflater = new Deflater(Deflater.BEST_SPEED);
+        try (var dos = new DeflaterOutputStream(bos, deflater)) {
+            dos.write(input);
+        } finally {
+            deflater.end();
+        }
+        return bos.toByteArray();
+    }
+
+    private static boolean isSmile(byte[] bytes) {
+        return bytes.length >= SMILE_HEADER.length &&
+                bytes[0] == SMILE_HEADER[0] && bytes[1] == SMILE_HEADER[1] && bytes[2] == SMILE_HEADER[2];
+    }
+}
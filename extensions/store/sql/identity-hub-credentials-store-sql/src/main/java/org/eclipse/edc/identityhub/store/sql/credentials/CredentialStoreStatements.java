@@ -55,6 +55,14 @@ public interface CredentialStoreStatements extends SqlStatements {
         return "reissuance_policy";
     }
 
+    default String getIssuancePolicyBinaryColumn() {
+        return "issuance_policy_bin";
+    }
+
+    default String getReissuancePolicyBinaryColumn() {
+        return "reissuance_policy_bin";
+    }
+
     default String getVcFormatColumn() {
         return "vc_format";
     }
@@ -71,14 +79,125 @@ public interface CredentialStoreStatements extends SqlStatements {
         return "participant_context_id";
     }
 
+    default String getVersionColumn() {
+        return "version";
+    }
+
+    /**
+     * The point in time (epoch millis) of the next time-based status transition, c.f. {@link CredentialStore#transitionDeadlineOf}.
+     */
+    default String getDeadlineColumn() {
+        return "deadline";
+    }
+
     String getInsertTemplate();
 
+    /**
+     * Conditional update: the parameters are the values of all columns including the new version, followed by the ID and
+     * the expected (current) version.
+     */
     String getUpdateTemplate();
 
+    /**
+     * Same as {@link #getUpdateTemplate()}, but additionally restricts the update to the participant context ID that is
+     * passed as last parameter, which lets Postgres prune partitions.
+     */
+    String getUpdateByIdAndParticipantContextIdTemplate();
+
     String getDeleteByIdTemplate();
 
+    /**
+     * Same as {@link #getDeleteByIdTemplate()}, but additionally restricts the delete to a participant context ID.
+     */
+    String getDeleteByIdAndParticipantContextIdTemplate();
+
+    /**
+     * Deletes all credentials of the participant context that is passed as the only parameter.
+     */
+    String getDeleteByParticipantContextIdTemplate();
+
     String getFindByIdTemplate();
 
+    /**
+     * Same as {@link #getFindByIdTemplate()}, but additionally restricts the lookup to a participant context ID.
+     */
+    String getFindByIdAndParticipantContextIdTemplate();
+
+    /**
+     * Selects the credentials whose next time-based status transition is due, ordered by deadline and ID, after a given deadline and ID.
+     * The parameters are the deadline, the deadline after which to start (twice), the ID after which to start, and the limit.
+     */
+    String getFindDueForTransitionTemplate();
+
+    default String getWatchdogCursorTable() {
+        return "credential_watchdog_cursor";
+    }
+
+    default String getWatchdogCursorNameColumn() {
+        return "name";
+    }
+
+    default String getWatchdogCursorLastIdColumn() {
+        return "last_id";
+    }
+
+    default String getWatchdogCursorNextRoundAtColumn() {
+        return "next_round_at";
+    }
+
+    /**
+     * Selects the watchdog cursor with the given name, and locks the row until the end of the transaction.
+     */
+    String getLockWatchdogCursorTemplate();
+
+    /**
+     * Inserts or updates the watchdog cursor. Parameters are the name, the last ID and the time of the next round.
+     */
+    String getUpsertWatchdogCursorTemplate();
+
+    default String getStatusListCacheTable() {
+        return "status_list_cache";
+    }
+
+    default String getStatusListUrlColumn() {
+        return "url";
+    }
+
+    default String getStatusListEtagColumn() {
+        return "etag";
+    }
+
+    default String getStatusListLastModifiedColumn() {
+        return "last_modified";
+    }
+
+    default String getStatusListFetchedAtColumn() {
+        return "fetched_at";
+    }
+
+    default String getStatusListPurposeColumn() {
+        return "status_purpose";
+    }
+
+    default String getStatusListBitsColumn() {
+        return "status_bits";
+    }
+
+    default String getStatusListLengthColumn() {
+        return "status_length";
+    }
+
+    /**
+     * Selects the cached status list with the given URL.
+     */
+    String getFindStatusListTemplate();
+
+    /**
+     * Inserts or replaces a cached status list. Parameters are the URL, the ETag, the Last-Modified header, the time of the
+     * last fetch, the status purpose, the bitstring and its length.
+     */
+    String getUpsertStatusListTemplate();
+
     SqlQueryStatement createQuery(QuerySpec query);
 
     String getSelectStatement();
@@ -0,0 +1,34 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.store.sql.credentials;
+
+/**
+ * Encoding that is used to store the policy columns of the {@code credential_resource} table.
+ */
+public enum PayloadEncoding {
+    /**
+     * Policies are stored as plain JSON in the {@code JSON} columns. This is the default, and the only encoding that supports
+     * querying by policy.
+     */
+    JSON,
+    /**
+     * Policies are stored as binary JSON (Smile) in the {@code BYTEA} columns.
+     */
+    SMILE,
+    /**
+     * Policies are stored as deflate-compressed binary JSON (Smile) in the {@code BYTEA} columns.
+     */
+    SMILE_DEFLATE
+}
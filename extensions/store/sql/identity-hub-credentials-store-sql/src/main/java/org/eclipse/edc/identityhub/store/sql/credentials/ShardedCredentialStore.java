@@ -0,0 +1,133 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.store.sql.credentials;
+
+import org.eclipse.edc.identityhub.spi.verifiablecredentials.model.VerifiableCredentialResource;
+import org.eclipse.edc.identityhub.spi.verifiablecredentials.store.CredentialStore;
+import org.eclipse.edc.identityhub.sql.sharding.ShardedStoreSupport;
+import org.eclipse.edc.spi.persistence.EdcPersistenceException;
+import org.eclipse.edc.spi.query.Criterion;
+import org.eclipse.edc.spi.query.QuerySpec;
+import org.eclipse.edc.spi.result.StoreResult;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.Comparator;
+
+/**
+ * {@link CredentialStore} that distributes credentials across multiple datasources ("shards") by their participant context ID.
+ * Every shard is a regular {@link SqlCredentialStore}. Queries that are restricted to one participant context hit only one
+ * shard, all other queries fan out to all shards and are merged. Only the placement of participant contexts is kept in the
+ * shard directory, so credential IDs are only unique per shard, and deleting a credential by its ID alone asks every shard.
+ * A credential cannot change its participant context, because the new one might be placed on another shard.
+ */
+public class ShardedCredentialStore implements CredentialStore {
+    private final ShardedStoreSupport<CredentialStore> shards;
+
+    public ShardedCredentialStore(ShardedStoreSupport<CredentialStore> shards) {
+        this.shards = shards;
+    }
+
+    /**
+     * Lists the credentials of one shard, so that their participant contexts can be recorded in the shard directory.
+     */
+    public static ShardedStoreSupport.Inventory<CredentialStore> inventory() {
+        return (store, afterId, limit) -> {
+            var query = QuerySpec.Builder.newInstance().sortField("id").limit(limit);
+            if (afterId != null) {
+                query.filter(new Criterion("id", ">", afterId));
+            }
+            return store.query(query.build())
+                    .orElseThrow(f -> new EdcPersistenceException(f.getFailureDetail()))
+                    .stream()
+                    .map(credential -> new ShardedStoreSupport.Inventory.Entry(credential.getId(), credential.getParticipantContextId()))
+                    .toList();
+        };
+    }
+
+    @Override
+    public StoreResult<Void> create(VerifiableCredentialResource credentialResource) {
+        return shards.inTransaction(() -> shards.placeParticipant(credentialResource.getParticipantContextId()).create(credentialResource));
+    }
+
+    @Override
+    public StoreResult<Collection<VerifiableCredentialResource>> query(QuerySpec querySpec) {
+        return StoreResult.success(shards.query(querySpec, (store, query) -> store.query(query)
+                .orElseThrow(f -> new EdcPersistenceException(f.getFailureDetail()))));
+    }
+
+    /**
+     * Updates the credential on the shard of its participant context. Fails if the credential is owned by another participant
+     * context.
+     */
+    @Override
+    public StoreResult<Void> update(VerifiableCredentialResource credentialResource) {
+        var id = credentialResource.getId();
+        var participantContextId = credentialResource.getParticipantContextId();
+        return shards.inTransaction(() -> {
+            var store = shards.forParticipant(participantContextId);
+            if (find(store, id, participantContextId) == null) {
+                var located = shards.findEntity(id, shard -> find(shard, id, null));
+                return located == null ?
+                        StoreResult.notFound(notFoundErrorMessage(id)) :
+                        StoreResult.generalError("Credential '%s' is owned by participant context '%s' and cannot be moved to '%s'."
+                                .formatted(id, located.entity().getParticipantContextId(), participantContextId));
+            }
+            return store.update(credentialResource);
+        });
+    }
+
+    @Override
+    public StoreResult<Void> deleteById(String id) {
+        return shards.inTransaction(() -> {
+            var located = shards.findEntity(id, store -> find(store, id, null));
+            return located != null ? located.store().deleteById(id) : StoreResult.notFound(notFoundErrorMessage(id));
+        });
+    }
+
+    @Override
+    public StoreResult<Void> deleteById(String participantContextId, String id) {
+        return shards.forParticipant(participantContextId).deleteById(participantContextId, id);
+    }
+
+    @Override
+    public StoreResult<Collection<VerifiableCredentialResource>> findDueForTransition(long deadline, long afterDeadline, String afterId, int limit) {
+        var merged = shards.forAll(store -> store.findDueForTransition(deadline, afterDeadline, afterId, limit)
+                .orElseThrow(f -> new EdcPersistenceException(f.getFailureDetail())));
+        return StoreResult.success(merged.stream()
+                .flatMap(Collection::stream)
+                .sorted(Comparator.comparing(CredentialStore::transitionDeadlineOf)
+                        .thenComparing(VerifiableCredentialResource::getId, ShardedStoreSupport::compareCodePoints))
+                .limit(limit)
+                .toList());
+    }
+
+    @Override
+    public StoreResult<Integer> deleteByParticipantContextId(String participantContextId) {
+        return shards.forParticipant(participantContextId).deleteByParticipantContextId(participantContextId);
+    }
+
+    private static @Nullable VerifiableCredentialResource find(CredentialStore store, String id, @Nullable String participantContextId) {
+        var query = QuerySpec.Builder.newInstance().filter(new Criterion("id", "=", id));
+        if (participantContextId != null) {
+            query.filter(new Criterion(ShardedStoreSupport.PARTICIPANT_CONTEXT_ID_PROPERTY, "=", participantContextId));
+        }
+        return store.query(query.build())
+                .orElseThrow(f -> new EdcPersistenceException(f.getFailureDetail()))
+                .stream()
+                .findFirst()
+                .orElse(null);
+    }
+}
@@ -16,12 +16,12 @@ package org.eclipse.edc.identityhub.store.sql.credentials;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.eclipse.edc.iam.verifiablecredentials.spi.model.CredentialFormat;
-import org.eclipse.edc.iam.verifiablecredentials.spi.model.VerifiableCredential;
 import org.eclipse.edc.iam.verifiablecredentials.spi.model.VerifiableCredentialContainer;
+import org.eclipse.edc.identityhub.spi.participantcontext.store.OptimisticLocking;
 import org.eclipse.edc.identityhub.spi.verifiablecredentials.model.VcStatus;
 import org.eclipse.edc.identityhub.spi.verifiablecredentials.model.VerifiableCredentialResource;
 import org.eclipse.edc.identityhub.spi.verifiablecredentials.store.CredentialStore;
-import org.eclipse.edc.policy.model.Policy;
+import org.eclipse.edc.identityhub.sql.routing.ReadReplicaRouter;
 import org.eclipse.edc.spi.persistence.EdcPersistenceException;
 import org.eclipse.edc.spi.query.QuerySpec;
 import org.eclipse.edc.spi.result.StoreResult;
@@ -29,10 +29,12 @@ import org.eclipse.edc.sql.QueryExecutor;
 import org.eclipse.edc.sql.store.AbstractSqlStore;
 import org.eclipse.edc.transaction.datasource.spi.DataSourceRegistry;
 import org.eclipse.edc.transaction.spi.TransactionContext;
+import org.jetbrains.annotations.Nullable;
 
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Objects;
 
@@ -46,11 +48,27 @@ import static org.eclipse.edc.spi.result.StoreResult.success;
 public class SqlCredentialStore extends AbstractSqlStore implements CredentialStore {
 
     private final CredentialStoreStatements statements;
+    private final CredentialPayloadCodec codec;
+    private final ReadReplicaRouter router;
 
     public SqlCredentialStore(DataSourceRegistry dataSourceRegistry, String dataSourceName, TransactionContext transactionContext,
                               ObjectMapper objectMapper, QueryExecutor queryExecutor, CredentialStoreStatements statements) {
+        this(dataSourceRegistry, dataSourceName, transactionContext, objectMapper, queryExecutor, statements, new CredentialPayloadCodec(objectMapper, PayloadEncoding.JSON));
+    }
+
+    public SqlCredentialStore(DataSourceRegistry dataSourceRegistry, String dataSourceName, TransactionContext transactionContext,
+                              ObjectMapper objectMapper, QueryExecutor queryExecutor, CredentialStoreStatements statements, CredentialPayloadCodec codec) {
+        this(dataSourceRegistry, dataSourceName, transactionContext, objectMapper, queryExecutor, statements, codec,
+                ReadReplicaRouter.primaryOnly(dataSourceRegistry, dataSourceName, transactionContext));
+    }
+
+    public SqlCredentialStore(DataSourceRegistry dataSourceRegistry, String dataSourceName, TransactionContext transactionContext,
+                              ObjectMapper objectMapper, QueryExecutor queryExecutor, CredentialStoreStatements statements, CredentialPayloadCodec codec,
+                              ReadReplicaRouter router) {
         super(dataSourceRegistry, dataSourceName, transactionContext, objectMapper, queryExecutor);
         this.statements = statements;
+        this.codec = codec;
+        this.router = router;
     }
 
     @Override
@@ -68,12 +86,18 @@ public class SqlCredentialStore extends AbstractSqlStore implements CredentialSt
                         credentialResource.getIssuerId(),
                         credentialResource.getHolderId(),
                         credentialResource.getState(),
-                        toJson(credentialResource.getIssuancePolicy()),
-                        toJson(credentialResource.getReissuancePolicy()),
+                        codec.encodePolicyJson(credentialResource.getIssuancePolicy()),
+                        codec.encodePolicyJson(credentialResource.getReissuancePolicy()),
+                        codec.encodePolicyBinary(credentialResource.getIssuancePolicy()),
+                        codec.encodePolicyBinary(credentialResource.getReissuancePolicy()),
                         credentialResource.getVerifiableCredential().format().ordinal(),
                         credentialResource.getVerifiableCredential().rawVc(),
-                        toJson(credentialResource.getVerifiableCredential().credential()),
-                        credentialResource.getParticipantContextId());
+                        codec.encodeCredential(credentialResource.getVerifiableCredential().credential()),
+                        credentialResource.getParticipantContextId(),
+                        1L,
+                        CredentialStore.transitionDeadlineOf(credentialResource));
+                credentialResource.setVersion(1);
+                router.recordWrite(credentialResource.getParticipantContextId());
                 return success();
 
             } catch (SQLException e) {
@@ -84,8 +108,9 @@ public class SqlCredentialStore extends AbstractSqlStore implements CredentialSt
 
     @Override
     public StoreResult<Collection<VerifiableCredentialResource>> query(QuerySpec querySpec) {
+        var useReplica = router.canReadFromReplica(querySpec);
         return transactionContext.execute(() -> {
-            try (var connection = getConnection()) {
+            try (var connection = router.getReadConnection(useReplica)) {
                 var query = statements.createQuery(querySpec);
                 return success(queryExecutor.query(connection, true, this::mapResultSet, query.getQueryAsString(), query.getParameters()).toList());
             } catch (SQLException e) {
@@ -102,20 +127,35 @@ public class SqlCredentialStore extends AbstractSqlStore implements CredentialSt
         Objects.requireNonNull(id);
         return transactionContext.execute(() -> {
             try (var connection = getConnection()) {
-                if (findByIdInternal(connection, id) != null) {
-                    queryExecutor.execute(connection, statements.getUpdateTemplate(),
+                var existing = findByIdInternal(connection, id, credentialResource.getParticipantContextId());
+                if (existing != null) {
+                    var expectedVersion = credentialResource.getVersion() == 0 ? existing.getVersion() : credentialResource.getVersion();
+                    var participantContextId = existing.getParticipantContextId();
+                    var stmt = participantContextId != null ? statements.getUpdateByIdAndParticipantContextIdTemplate() : statements.getUpdateTemplate();
+                    var updated = queryExecutor.execute(connection, stmt, withParticipantContextId(participantContextId,
                             id,
                             credentialResource.getTimestamp(),
                             credentialResource.getIssuerId(),
                             credentialResource.getHolderId(),
                             credentialResource.getState(),
-                            toJson(credentialResource.getIssuancePolicy()),
-                            toJson(credentialResource.getReissuancePolicy()),
+                            codec.encodePolicyJson(credentialResource.getIssuancePolicy()),
+                            codec.encodePolicyJson(credentialResource.getReissuancePolicy()),
+                            codec.encodePolicyBinary(credentialResource.getIssuancePolicy()),
+                            codec.encodePolicyBinary(credentialResource.getReissuancePolicy()),
                             credentialResource.getVerifiableCredential().format().ordinal(),
                             credentialResource.getVerifiableCredential().rawVc(),
-                            toJson(credentialResource.getVerifiableCredential().credential()),
+                            codec.encodeCredential(credentialResource.getVerifiableCredential().credential()),
                             credentialResource.getParticipantContextId(),
-                            id);
+                            expectedVersion + 1,
+                            CredentialStore.transitionDeadlineOf(credentialResource),
+                            id,
+                            expectedVersion));
+                    if (updated == 0) {
+                        return OptimisticLocking.versionConflict("VerifiableCredentialResource", id);
+                    }
+                    credentialResource.setVersion(expectedVersion + 1);
+                    router.recordWrite(participantContextId);
+                    router.recordWrite(credentialResource.getParticipantContextId());
                     return StoreResult.success();
                 }
                 return StoreResult.notFound(notFoundErrorMessage(id));
@@ -128,14 +168,56 @@ public class SqlCredentialStore extends AbstractSqlStore implements CredentialSt
     @Override
     public StoreResult<Void> deleteById(String id) {
         Objects.requireNonNull(id);
+        return delete(id, null);
+    }
+
+    /**
+     * Deletes the credential with a single statement that is restricted to the participant context, so that only one partition
+     * has to be searched if the table is partitioned.
+     */
+    @Override
+    public StoreResult<Void> deleteById(String participantContextId, String id) {
+        Objects.requireNonNull(participantContextId);
+        Objects.requireNonNull(id);
+        return delete(id, participantContextId);
+    }
+
+    @Override
+    public StoreResult<Integer> deleteByParticipantContextId(String participantContextId) {
+        Objects.requireNonNull(participantContextId);
         return transactionContext.execute(() -> {
             try (var connection = getConnection()) {
-                if (findByIdInternal(connection, id) != null) {
-                    var stmt = statements.getDeleteByIdTemplate();
-                    queryExecutor.execute(connection, stmt, id);
-                    return success();
+                var deleted = queryExecutor.execute(connection, statements.getDeleteByParticipantContextIdTemplate(), participantContextId);
+                router.recordWrite(participantContextId);
+                return success(deleted);
+            } catch (SQLException e) {
+                throw new EdcPersistenceException(e);
+            }
+        });
+    }
+
+    @Override
+    public StoreResult<Collection<VerifiableCredentialResource>> findDueForTransition(long deadline, long afterDeadline, String afterId, int limit) {
+        return transactionContext.execute(() -> {
+            try (var connection = getConnection()) {
+                return success(queryExecutor.query(connection, true, this::mapResultSet, statements.getFindDueForTransitionTemplate(),
+                        deadline, afterDeadline, afterDeadline, afterId, limit).toList());
+            } catch (SQLException e) {
+                throw new EdcPersistenceException(e);
+            }
+        });
+    }
+
+    private StoreResult<Void> delete(String id, @Nullable String participantContextId) {
+        return transactionContext.execute(() -> {
+            try (var connection = getConnection()) {
+                var stmt = participantContextId != null ? statements.getDeleteByIdAndParticipantContextIdTemplate() : statements.getDeleteByIdTemplate();
+                var deleted = queryExecutor.execute(connection, stmt, withParticipantContextId(participantContextId, id));
+                if (deleted == 0) {
+                    return StoreResult.<Void>notFound(notFoundErrorMessage(id));
                 }
-                return StoreResult.notFound(notFoundErrorMessage(id));
+                router.recordWrite(participantContextId);
+                return StoreResult.<Void>success();
             } catch (SQLException e) {
                 throw new EdcPersistenceException(e);
             }
@@ -149,12 +231,39 @@ public class SqlCredentialStore extends AbstractSqlStore implements CredentialSt
         });
     }
 
+    /**
+     * Looks up the credential in the given participant context first, which only has to scan a single partition if the
+     * table is partitioned. Falls back to a lookup by ID, in case the participant context of the credential has changed.
+     */
+    private VerifiableCredentialResource findByIdInternal(Connection connection, String id, String participantContextId) {
+        if (participantContextId == null) {
+            return findByIdInternal(connection, id);
+        }
+        return transactionContext.execute(() -> {
+            var stmt = statements.getFindByIdAndParticipantContextIdTemplate();
+            var resource = queryExecutor.single(connection, false, this::mapResultSet, stmt, id, participantContextId);
+            return resource != null ? resource : findByIdInternal(connection, id);
+        });
+    }
+
+    /**
+     * Appends the participant context ID to the statement parameters, if it is not null.
+     */
+    private Object[] withParticipantContextId(String participantContextId, Object... params) {
+        if (participantContextId == null) {
+            return params;
+        }
+        var result = Arrays.copyOf(params, params.length + 1);
+        result[params.length] = participantContextId;
+        return result;
+    }
+
     private VerifiableCredentialResource mapResultSet(ResultSet resultSet) throws Exception {
 
         var rawVc = resultSet.getString(statements.getRawVcColumn());
         var formatInt = resultSet.getInt(statements.getVcFormatColumn());
         var format = CredentialFormat.values()[formatInt];
-        var vcJson = fromJson(resultSet.getString(statements.getVerifiableCredentialColumn()), VerifiableCredential.class);
+        var vcJson = codec.decodeCredential(resultSet.getString(statements.getVerifiableCredentialColumn()));
         var vcc = new VerifiableCredentialContainer(rawVc, format, vcJson);
 
         return VerifiableCredentialResource.Builder.newInstance()
@@ -163,10 +272,11 @@ public class SqlCredentialStore extends AbstractSqlStore implements CredentialSt
                 .issuerId(resultSet.getString(statements.getIssuerIdColumn()))
                 .holderId(resultSet.getString(statements.getHolderIdColumn()))
                 .state(VcStatus.from(resultSet.getInt(statements.getVcStateColumn())))
-                .issuancePolicy(fromJson(resultSet.getString(statements.getIssuancePolicyColumn()), Policy.class))
-                .reissuancePolicy(fromJson(resultSet.getString(statements.getReissuancePolicyColumn()), Policy.class))
+                .issuancePolicy(codec.decodePolicy(resultSet.getBytes(statements.getIssuancePolicyBinaryColumn()), resultSet.getString(statements.getIssuancePolicyColumn())))
+                .reissuancePolicy(codec.decodePolicy(resultSet.getBytes(statements.getReissuancePolicyBinaryColumn()), resultSet.getString(statements.getReissuancePolicyColumn())))
                 .credential(vcc)
                 .participantContextId(resultSet.getString(statements.getParticipantContextIdColumn()))
+                .version(resultSet.getLong(statements.getVersionColumn()))
                 .build();
     }
 }
@@ -15,11 +15,20 @@
 package org.eclipse.edc.identityhub.store.sql.credentials;
 
 import org.eclipse.edc.identityhub.spi.verifiablecredentials.store.CredentialStore;
+import org.eclipse.edc.identityhub.spi.verifiablecredentials.store.StatusListCacheStore;
+import org.eclipse.edc.identityhub.spi.verifiablecredentials.store.WatchdogCursorStore;
+import org.eclipse.edc.identityhub.sql.routing.ReadReplicaRouter;
+import org.eclipse.edc.identityhub.sql.sharding.ShardDirectory;
+import org.eclipse.edc.identityhub.sql.sharding.ShardDirectoryStatements;
+import org.eclipse.edc.identityhub.sql.sharding.ShardedStoreSupport;
+import org.eclipse.edc.identityhub.sql.sharding.SqlShardDirectory;
 import org.eclipse.edc.identityhub.store.sql.credentials.schema.postgres.PostgresDialectStatements;
 import org.eclipse.edc.runtime.metamodel.annotation.Extension;
 import org.eclipse.edc.runtime.metamodel.annotation.Inject;
 import org.eclipse.edc.runtime.metamodel.annotation.Provider;
 import org.eclipse.edc.runtime.metamodel.annotation.Setting;
+import org.eclipse.edc.spi.EdcException;
+import org.eclipse.edc.spi.system.ExecutorInstrumentation;
 import org.eclipse.edc.spi.system.ServiceExtension;
 import org.eclipse.edc.spi.system.ServiceExtensionContext;
 import org.eclipse.edc.spi.types.TypeManager;
@@ -28,6 +37,13 @@ import org.eclipse.edc.sql.bootstrapper.SqlSchemaBootstrapper;
 import org.eclipse.edc.transaction.datasource.spi.DataSourceRegistry;
 import org.eclipse.edc.transaction.spi.TransactionContext;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.toMap;
 import static org.eclipse.edc.identityhub.store.sql.credentials.SqlCredentialStoreExtension.NAME;
 
 @Extension(value = NAME)
@@ -37,11 +53,37 @@ public class SqlCredentialStoreExtension implements ServiceExtension {
     @Setting(description = "The datasource to be used", defaultValue = DataSourceRegistry.DEFAULT_DATASOURCE, key = "edc.sql.store.credentials.datasource")
     private String dataSourceName;
 
+    @Setting(description = "The datasource of a read replica. If set, queries are served by the replica, unless they are executed within a transaction or shortly after a write. Cannot be combined with sharding.",
+            key = "edc.sql.store.credentials.read.datasource", required = false)
+    private String readDataSourceName;
+
+    @Setting(description = "The time in milliseconds after a write during which all reads still go to the primary datasource. Should be larger than the expected replication lag.",
+            defaultValue = ReadReplicaRouter.DEFAULT_STALENESS_MILLIS, key = "edc.sql.store.credentials.read.staleness")
+    private long readStalenessMillis;
+
+    @Setting(description = "Comma-separated list of datasources across which credentials are sharded by participant context. If set, the 'edc.sql.store.credentials.datasource' datasource holds the shard directory, which records the shard of every participant context, and the credential watchdog cursor. Shards can be added, but not removed.",
+            key = "edc.sql.store.credentials.shards", required = false)
+    private String shards;
+
+    @Setting(description = "Whether the credential table should be hash-partitioned by participant context. If enabled, an existing unpartitioned table is migrated on startup, " +
+            "and kept as 'credential_resource_unpartitioned'. Only supported on PostgreSQL.",
+            defaultValue = "false", key = "edc.sql.store.credentials.partitioned")
+    private boolean partitioned;
+
+    @Setting(description = "Encoding of the policy columns. One of JSON, SMILE, SMILE_DEFLATE. Binary encodings save space, " +
+            "but policies cannot be queried anymore. Rows written with a different encoding are still readable, and are converted on their next update.",
+            defaultValue = "JSON", key = "edc.sql.store.credentials.payload.encoding")
+    private String payloadEncoding;
+
     @Inject
     private DataSourceRegistry dataSourceRegistry;
     @Inject
     private TransactionContext transactionContext;
     @Inject
+    private Clock clock;
+    @Inject
+    private ExecutorInstrumentation executorInstrumentation;
+    @Inject
     private TypeManager typemanager;
     @Inject
     private QueryExecutor queryExecutor;
@@ -51,19 +93,98 @@ public class SqlCredentialStoreExtension implements ServiceExtension {
     @Inject
     private SqlSchemaBootstrapper sqlSchemaBootstrapper;
 
+    private ExecutorService shardExecutor;
+    private ShardedStoreSupport<CredentialStore> shardSupport;
+
     @Override
     public void initialize(ServiceExtensionContext context) {
-        sqlSchemaBootstrapper.addStatementFromResource(dataSourceName, "credentials-schema.sql");
+        var schema = partitioned ? "credentials-schema-partitioned.sql" : "credentials-schema.sql";
+        var shardNames = ShardedStoreSupport.parseShardNames(shards);
+        ShardedStoreSupport.checkNoReadReplica(shardNames, readDataSourceName, "edc.sql.store.credentials.shards", "edc.sql.store.credentials.read.datasource");
+        if (shardNames.isEmpty()) {
+            sqlSchemaBootstrapper.addStatementFromResource(dataSourceName, schema);
+        } else {
+            shardNames.forEach(shard -> sqlSchemaBootstrapper.addStatementFromResource(shard, schema));
+            sqlSchemaBootstrapper.addStatementFromResource(dataSourceName, "shard-directory-schema.sql");
+        }
+        sqlSchemaBootstrapper.addStatementFromResource(dataSourceName, "watchdog-cursor-schema.sql");
+        sqlSchemaBootstrapper.addStatementFromResource(dataSourceName, "status-list-cache-schema.sql");
     }
 
     @Provider
     public CredentialStore createSqlStore(ServiceExtensionContext context) {
+        var codec = new CredentialPayloadCodec(typemanager.getMapper(), getPayloadEncoding());
+        var shardNames = ShardedStoreSupport.parseShardNames(shards);
+        if (!shardNames.isEmpty()) {
+            var stores = shardNames.stream().collect(toMap(identity(), shard -> (CredentialStore) new SqlCredentialStore(dataSourceRegistry, shard,
+                    transactionContext, typemanager.getMapper(), queryExecutor, getStatementImpl(), codec,
+                    ReadReplicaRouter.primaryOnly(dataSourceRegistry, shard, transactionContext))));
+            shardSupport = new ShardedStoreSupport<>(stores, createShardDirectory(), transactionContext, createShardExecutor(shardNames.size()));
+            return new ShardedCredentialStore(shardSupport);
+        }
         return new SqlCredentialStore(dataSourceRegistry, dataSourceName, transactionContext, typemanager.getMapper(),
-                queryExecutor, getStatementImpl());
+                queryExecutor, getStatementImpl(), codec, createRouter());
+    }
+
+    /**
+     * The credential watchdogs of all instances that share the database coordinate through this cursor. With sharding, the
+     * cursor is kept in the datasource that is configured in 'edc.sql.store.credentials.datasource'.
+     */
+    @Provider
+    public WatchdogCursorStore createWatchdogCursorStore() {
+        return new SqlWatchdogCursorStore(dataSourceRegistry, dataSourceName, transactionContext, typemanager.getMapper(), queryExecutor, getStatementImpl());
+    }
+
+    /**
+     * Persists the status list cache of the revocation services. With sharding, the cache is kept in the datasource that is
+     * configured in 'edc.sql.store.credentials.datasource'.
+     */
+    @Provider
+    public StatusListCacheStore createStatusListCacheStore() {
+        return new SqlStatusListCacheStore(dataSourceRegistry, dataSourceName, transactionContext, typemanager.getMapper(), queryExecutor, getStatementImpl());
+    }
+
+    private PayloadEncoding getPayloadEncoding() {
+        try {
+            return PayloadEncoding.valueOf(payloadEncoding.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new EdcException("Invalid value for setting 'edc.sql.store.credentials.payload.encoding': " + payloadEncoding);
+        }
+    }
+
+    /**
+     * Checks the configured shards against the shard directory, once the schema bootstrapper has created its tables.
+     */
+    @Override
+    public void start() {
+        if (shardSupport != null) {
+            shardSupport.initialize(ShardedCredentialStore.inventory());
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        if (shardExecutor != null) {
+            shardExecutor.shutdownNow();
+        }
     }
 
     private CredentialStoreStatements getStatementImpl() {
         return statements != null ? statements : new PostgresDialectStatements();
     }
 
+    private ReadReplicaRouter createRouter() {
+        return new ReadReplicaRouter(dataSourceRegistry, dataSourceName, readDataSourceName, transactionContext,
+                Duration.ofMillis(readStalenessMillis), clock);
+    }
+
+    private ShardDirectory createShardDirectory() {
+        return new SqlShardDirectory(dataSourceRegistry, dataSourceName, transactionContext, typemanager.getMapper(), queryExecutor,
+                new ShardDirectoryStatements(), "credentials");
+    }
+
+    private ExecutorService createShardExecutor(int shardCount) {
+        shardExecutor = executorInstrumentation.instrument(Executors.newFixedThreadPool(shardCount), NAME);
+        return shardExecutor;
+    }
 }
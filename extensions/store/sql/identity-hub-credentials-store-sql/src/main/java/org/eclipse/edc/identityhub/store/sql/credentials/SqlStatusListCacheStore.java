@@ -0,0 +1,78 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.store.sql.credentials;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eclipse.edc.identityhub.spi.verifiablecredentials.store.CachedStatusList;
+import org.eclipse.edc.identityhub.spi.verifiablecredentials.store.StatusListCacheStore;
+import org.eclipse.edc.spi.persistence.EdcPersistenceException;
+import org.eclipse.edc.sql.QueryExecutor;
+import org.eclipse.edc.sql.store.AbstractSqlStore;
+import org.eclipse.edc.transaction.datasource.spi.DataSourceRegistry;
+import org.eclipse.edc.transaction.spi.TransactionContext;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.BitSet;
+
+/**
+ * SQL-based {@link StatusListCacheStore}. The bitstring is stored in the (little-endian) format of {@link BitSet#toByteArray()}.
+ */
+public class SqlStatusListCacheStore extends AbstractSqlStore implements StatusListCacheStore {
+
+    private final CredentialStoreStatements statements;
+
+    public SqlStatusListCacheStore(DataSourceRegistry dataSourceRegistry, String dataSourceName, TransactionContext transactionContext,
+                                   ObjectMapper objectMapper, QueryExecutor queryExecutor, CredentialStoreStatements statements) {
+        super(dataSourceRegistry, dataSourceName, transactionContext, objectMapper, queryExecutor);
+        this.statements = statements;
+    }
+
+    @Override
+    @Nullable
+    public CachedStatusList findByUrl(String url) {
+        return transactionContext.execute(() -> {
+            try (var connection = getConnection()) {
+                return queryExecutor.single(connection, false, this::mapResultSet, statements.getFindStatusListTemplate(), url);
+            } catch (SQLException e) {
+                throw new EdcPersistenceException(e);
+            }
+        });
+    }
+
+    @Override
+    public void save(CachedStatusList statusList) {
+        transactionContext.execute(() -> {
+            try (var connection = getConnection()) {
+                queryExecutor.execute(connection, statements.getUpsertStatusListTemplate(), statusList.url(), statusList.etag(),
+                        statusList.lastModified(), statusList.fetchedAt(), statusList.statusPurpose(), statusList.statusBits().toByteArray(),
+                        statusList.length());
+            } catch (SQLException e) {
+                throw new EdcPersistenceException(e);
+            }
+        });
+    }
+
+    private CachedStatusList mapResultSet(ResultSet resultSet) throws SQLException {
+        return new CachedStatusList(resultSet.getString(statements.getStatusListUrlColumn()),
+                resultSet.getString(statements.getStatusListEtagColumn()),
+                resultSet.getString(statements.getStatusListLastModifiedColumn()),
+                resultSet.getLong(statements.getStatusListFetchedAtColumn()),
+                resultSet.getString(statements.getStatusListPurposeColumn()),
+                BitSet.valueOf(resultSet.getBytes(statements.getStatusListBitsColumn())),
+                resultSet.getInt(statements.getStatusListLengthColumn()));
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.store.sql.credentials;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eclipse.edc.identityhub.spi.verifiablecredentials.store.WatchdogCursor;
+import org.eclipse.edc.identityhub.spi.verifiablecredentials.store.WatchdogCursorStore;
+import org.eclipse.edc.spi.persistence.EdcPersistenceException;
+import org.eclipse.edc.sql.QueryExecutor;
+import org.eclipse.edc.sql.store.AbstractSqlStore;
+import org.eclipse.edc.transaction.datasource.spi.DataSourceRegistry;
+import org.eclipse.edc.transaction.spi.TransactionContext;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * SQL-based {@link WatchdogCursorStore}, which lets all IdentityHub instances that share a database split the work of the
+ * credential watchdog, and elect the instance that schedules the deadlines. The cursor rows are locked with
+ * {@code SELECT ... FOR UPDATE}.
+ */
+public class SqlWatchdogCursorStore extends AbstractSqlStore implements WatchdogCursorStore {
+    private final CredentialStoreStatements statements;
+
+    public SqlWatchdogCursorStore(DataSourceRegistry dataSourceRegistry, String dataSourceName, TransactionContext transactionContext,
+                                  ObjectMapper objectMapper, QueryExecutor queryExecutor, CredentialStoreStatements statements) {
+        super(dataSourceRegistry, dataSourceName, transactionContext, objectMapper, queryExecutor);
+        this.statements = statements;
+    }
+
+    @Override
+    public WatchdogCursor lock(String name) {
+        return transactionContext.execute(() -> {
+            try (var connection = getConnection()) {
+                var cursor = queryExecutor.single(connection, false, this::mapResultSet, statements.getLockWatchdogCursorTemplate(), name);
+                return cursor != null ? cursor : WatchdogCursor.initial();
+            } catch (SQLException e) {
+                throw new EdcPersistenceException(e);
+            }
+        });
+    }
+
+    @Override
+    public void save(String name, WatchdogCursor cursor) {
+        transactionContext.execute(() -> {
+            try (var connection = getConnection()) {
+                queryExecutor.execute(connection, statements.getUpsertWatchdogCursorTemplate(), name, cursor.lastId(), cursor.nextRoundAt());
+            } catch (SQLException e) {
+                throw new EdcPersistenceException(e);
+            }
+        });
+    }
+
+    private WatchdogCursor mapResultSet(ResultSet resultSet) throws SQLException {
+        return new WatchdogCursor(resultSet.getString(statements.getWatchdogCursorLastIdColumn()),
+                resultSet.getLong(statements.getWatchdogCursorNextRoundAtColumn()));
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+-- only intended for and tested with Postgres!
+-- Variant of credentials-schema.sql where credential_resource is hash-partitioned by participant_context_id. Unique
+-- constraints on partitioned tables must contain the partition key, so the primary key is (participant_context_id, id).
+-- IDs are unique across participant contexts nonetheless: a trigger registers every ID in the unpartitioned table
+-- credential_resource_id, whose primary key rejects an ID that another participant context uses already.
+--
+-- If an unpartitioned credential_resource table exists, it is migrated: the table is renamed to
+-- credential_resource_unpartitioned, and all rows are copied into the new partitioned table. The old table is kept and can
+-- be dropped manually once the migration was verified. Everything runs in one transaction, and locks the old table for
+-- the duration of the copy. The migration fails if any credential has no participant context, because such rows cannot be
+-- assigned to a partition.
+
+-- migrate tables that were created before deadlines were introduced: the deadline of existing credentials is computed
+-- from the issuance date (NOT_YET_VALID) or the expiration date (ISSUED, SUSPENDED), which are serialized either as
+-- seconds or as ISO-8601 strings
+DO
+$$
+    BEGIN
+        IF EXISTS (SELECT 1 FROM information_schema.tables
+                   WHERE table_schema = current_schema() AND table_name = 'credential_resource')
+            AND NOT EXISTS (SELECT 1 FROM information_schema.columns
+                            WHERE table_schema = current_schema() AND table_name = 'credential_resource' AND column_name = 'deadline') THEN
+            ALTER TABLE credential_resource ADD COLUMN deadline BIGINT;
+            UPDATE credential_resource
+            SET deadline = CASE json_typeof(due.value)
+                               WHEN 'number' THEN ((due.value #>> '{}')::NUMERIC * 1000)::BIGINT
+                               WHEN 'string' THEN (extract(EPOCH FROM (due.value #>> '{}')::TIMESTAMPTZ) * 1000)::BIGINT
+                END
+            FROM (SELECT c.id                                                   AS id,
+                         c.participant_context_id                               AS participant_context_id,
+                         CASE c.vc_state
+                             WHEN 900 THEN c.verifiable_credential -> 'issuanceDate'
+                             ELSE c.verifiable_credential -> 'expirationDate' END AS value
+                  FROM credential_resource c
+                  WHERE c.vc_state IN (500, 700, 900)) due
+            WHERE credential_resource.id = due.id
+              AND credential_resource.participant_context_id IS NOT DISTINCT FROM due.participant_context_id;
+        END IF;
+    END
+$$;
+
+DO
+$$
+    DECLARE
+        -- changing the number of partitions of an existing table requires a new migration
+        partition_count CONSTANT INTEGER := 16;
+        table_kind               "char";
+        unowned_count            BIGINT;
+    BEGIN
+        SELECT c.relkind INTO table_kind FROM pg_class c WHERE c.relname = 'credential_resource' AND pg_table_is_visible(c.oid);
+
+        IF table_kind = 'p' THEN
+            -- already partitioned, columns added to the parent table are propagated to all partitions
+            ALTER TABLE credential_resource ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 1;
+            RETURN;
+        END IF;
+
+        IF table_kind = 'r' THEN
+            -- rows without a participant context cannot be routed to a partition. They are not moved silently, the operator
+            -- has to assign or delete them, otherwise they would end up owned by a participant context that does not exist
+            SELECT count(*) INTO unowned_count FROM credential_resource WHERE participant_context_id IS NULL;
+            IF unowned_count > 0 THEN
+                RAISE EXCEPTION 'Cannot partition credential_resource: % credential(s) have no participant_context_id. Assign them to a participant context or delete them, then restart.', unowned_count;
+            END IF;
+
+            ALTER TABLE credential_resource ADD COLUMN IF NOT EXISTS issuance_policy_bin BYTEA;
+            ALTER TABLE credential_resource ADD COLUMN IF NOT EXISTS reissuance_policy_bin BYTEA;
+            ALTER TABLE credential_resource ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 1;
+            ALTER TABLE credential_resource RENAME TO credential_resource_unpartitioned;
+            ALTER TABLE credential_resource_unpartitioned RENAME CONSTRAINT credential_resource_pkey TO credential_resource_unpartitioned_pkey;
+            ALTER INDEX IF EXISTS credential_resource_credential_id_uindex RENAME TO credential_resource_unpartitioned_id_uindex;
+            -- index names are unique per schema, the partitioned table would otherwise be left without a deadline index
+            ALTER INDEX IF EXISTS credential_resource_deadline_index RENAME TO credential_resource_unpartitioned_deadline_index;
+        END IF;
+
+        CREATE TABLE credential_resource
+        (
+            id                     VARCHAR COLLATE "C" NOT NULL, -- ID of the VC, duplicated here for indexing purposes
+            create_timestamp       BIGINT  NOT NULL, -- POSIX timestamp of the creation of the VC
+            issuer_id              VARCHAR NOT NULL,
+            holder_id              VARCHAR NOT NULL,
+            vc_state               INTEGER NOT NULL,
+            issuance_policy        JSON,
+            reissuance_policy      JSON,
+            issuance_policy_bin    BYTEA,            -- binary (Smile) representation of the issuance policy, if configured
+            reissuance_policy_bin  BYTEA,            -- binary (Smile) representation of the reissuance policy, if configured
+            raw_vc                 VARCHAR NOT NULL, -- Representation of the VC exactly as it was received by the issuer. Can be JWT or JSON(-LD)
+            vc_format              INTEGER NOT NULL, -- 0 = JSON-LD, 1 = JWT
+            verifiable_credential  JSON    NOT NULL, -- JSON-representation of the verifiable credential
+            participant_context_id VARCHAR NOT NULL, -- ID of the ParticipantContext that owns this credential, partition key
+            version                BIGINT  NOT NULL DEFAULT 1, -- incremented with every update, used for optimistic locking
+            deadline               BIGINT,           -- epoch millis of the next time-based status transition, if any
+            PRIMARY KEY (participant_context_id, id)
+        ) PARTITION BY HASH (participant_context_id);
+
+        FOR i IN 0..partition_count - 1
+            LOOP
+                EXECUTE format('CREATE TABLE credential_resource_p%s PARTITION OF credential_resource FOR VALUES WITH (MODULUS %s, REMAINDER %s)',
+                               i, partition_count, i);
+            END LOOP;
+
+        IF table_kind = 'r' THEN
+            INSERT INTO credential_resource (id, create_timestamp, issuer_id, holder_id, vc_state, issuance_policy, reissuance_policy,
+                                             issuance_policy_bin, reissuance_policy_bin, raw_vc, vc_format, verifiable_credential,
+                                             participant_context_id, version, deadline)
+            SELECT id,
+                   create_timestamp,
+                   issuer_id,
+                   holder_id,
+                   vc_state,
+                   issuance_policy,
+                   reissuance_policy,
+                   issuance_policy_bin,
+                   reissuance_policy_bin,
+                   raw_vc,
+                   vc_format,
+                   verifiable_credential,
+                   participant_context_id,
+                   version,
+                   deadline
+            FROM credential_resource_unpartitioned;
+            RAISE NOTICE 'Migrated credential_resource to % hash partitions. The old table credential_resource_unpartitioned can be dropped.', partition_count;
+        END IF;
+    END
+$$;
+
+-- keyset pagination compares and sorts by id, byte-wise, so that the order is the same as in Java and across shards
+DO
+$$
+    BEGIN
+        IF (SELECT collation_name FROM information_schema.columns
+            WHERE table_schema = current_schema() AND table_name = 'credential_resource' AND column_name = 'id') IS DISTINCT FROM 'C' THEN
+            ALTER TABLE credential_resource ALTER COLUMN id TYPE VARCHAR COLLATE "C";
+        END IF;
+    END
+$$;
+
+-- registry of the IDs of all credentials, see above
+CREATE TABLE IF NOT EXISTS credential_resource_id
+(
+    id VARCHAR COLLATE "C" NOT NULL PRIMARY KEY
+);
+
+CREATE OR REPLACE FUNCTION credential_resource_register_id() RETURNS TRIGGER AS
+$$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO credential_resource_id (id) VALUES (NEW.id);
+    ELSIF TG_OP = 'DELETE' THEN
+        DELETE FROM credential_resource_id WHERE id = OLD.id;
+    ELSIF OLD.id IS DISTINCT FROM NEW.id THEN
+        DELETE FROM credential_resource_id WHERE id = OLD.id;
+        INSERT INTO credential_resource_id (id) VALUES (NEW.id);
+    END IF;
+    RETURN NULL;
+END
+$$ LANGUAGE plpgsql;
+
+-- registers the IDs of existing credentials before the trigger is created, which requires that they are unique already.
+-- Moving a credential to another participant context is a delete and an insert, which keeps the registry consistent
+DO
+$$
+    BEGIN
+        IF NOT EXISTS (SELECT 1 FROM pg_trigger
+                       WHERE tgname = 'credential_resource_register_id' AND tgrelid = 'credential_resource'::regclass) THEN
+            LOCK TABLE credential_resource IN SHARE ROW EXCLUSIVE MODE;
+            IF EXISTS (SELECT 1 FROM credential_resource GROUP BY id HAVING count(*) > 1) THEN
+                RAISE EXCEPTION 'Cannot enforce unique credential IDs: some IDs are used by more than one participant context. Rename or delete the duplicates, then restart.';
+            END IF;
+            -- without the trigger, the registry may contain IDs of credentials that no longer exist
+            DELETE FROM credential_resource_id;
+            INSERT INTO credential_resource_id (id) SELECT id FROM credential_resource;
+            CREATE TRIGGER credential_resource_register_id
+                AFTER INSERT OR DELETE OR UPDATE OF id
+                ON credential_resource
+                FOR EACH ROW
+            EXECUTE FUNCTION credential_resource_register_id();
+        END IF;
+    END
+$$;
+
+-- indexes on the partitioned table are created on every partition
+CREATE INDEX IF NOT EXISTS credential_resource_id_index ON credential_resource USING btree (id);
+CREATE INDEX IF NOT EXISTS credential_resource_participant_state_index ON credential_resource USING btree (participant_context_id, vc_state);
+-- used to find credentials that are due for a time-based status transition
+CREATE INDEX IF NOT EXISTS credential_resource_deadline_index ON credential_resource (deadline) WHERE deadline IS NOT NULL;
+COMMENT ON COLUMN credential_resource.id IS 'ID of the VC, duplicated here for indexing purposes';
+COMMENT ON COLUMN credential_resource.raw_vc IS 'Representation of the VC exactly as it was received by the issuer. Can be JWT or JSON(-LD) ';
+COMMENT ON COLUMN credential_resource.vc_format IS '0 = JSON-LD, 1 = JWT';
+COMMENT ON COLUMN credential_resource.verifiable_credential IS 'JSON-representation of the VerifiableCredential';
+COMMENT ON COLUMN credential_resource.issuance_policy_bin IS 'Smile-encoded, optionally deflated issuance policy. Takes precedence over issuance_policy';
+COMMENT ON COLUMN credential_resource.reissuance_policy_bin IS 'Smile-encoded, optionally deflated reissuance policy. Takes precedence over reissuance_policy';
+COMMENT ON COLUMN credential_resource.participant_context_id IS 'ID of the owning ParticipantContext, hash partition key';
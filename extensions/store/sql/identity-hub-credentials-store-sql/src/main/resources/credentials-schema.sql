@@ -15,21 +15,72 @@
 -- only intended for and tested with Postgres!
 CREATE TABLE IF NOT EXISTS credential_resource
 (
-    id                    VARCHAR PRIMARY KEY NOT NULL, -- ID of the VC, duplicated here for indexing purposes
+    id                    VARCHAR COLLATE "C" PRIMARY KEY NOT NULL, -- ID of the VC, duplicated here for indexing purposes
     create_timestamp      BIGINT              NOT NULL, -- POSIX timestamp of the creation of the VC
     issuer_id             VARCHAR             NOT NULL,
     holder_id             VARCHAR             NOT NULL,
     vc_state              INTEGER             NOT NULL,
     issuance_policy       JSON,
     reissuance_policy     JSON,
+    issuance_policy_bin   BYTEA,                        -- binary (Smile) representation of the issuance policy, if configured
+    reissuance_policy_bin BYTEA,                        -- binary (Smile) representation of the reissuance policy, if configured
     raw_vc                VARCHAR             NOT NULL, -- Representation of the VC exactly as it was received by the issuer. Can be JWT or JSON(-LD)
     vc_format             INTEGER             NOT NULL, -- 0 = JSON-LD, 1 = JWT
     verifiable_credential JSON                NOT NULL, -- JSON-representation of the verifiable credential
-    participant_context_id        VARCHAR                       -- ID of the ParticipantContext that owns this credentisl
+    participant_context_id        VARCHAR,                      -- ID of the ParticipantContext that owns this credentisl
+    version               BIGINT              NOT NULL DEFAULT 1, -- incremented with every update, used for optimistic locking
+    deadline              BIGINT                        -- epoch millis of the next time-based status transition, if any
 );
 CREATE UNIQUE INDEX IF NOT EXISTS credential_resource_credential_id_uindex ON credential_resource USING btree (id);
+-- migrate tables that were created before the binary policy columns were introduced
+ALTER TABLE credential_resource ADD COLUMN IF NOT EXISTS issuance_policy_bin BYTEA;
+ALTER TABLE credential_resource ADD COLUMN IF NOT EXISTS reissuance_policy_bin BYTEA;
+-- migrate tables that were created before optimistic locking was introduced
+ALTER TABLE credential_resource ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 1;
+-- migrate tables that were created before deadlines were introduced: the deadline of existing credentials is computed
+-- from the issuance date (NOT_YET_VALID) or the expiration date (ISSUED, SUSPENDED), which are serialized either as
+-- seconds or as ISO-8601 strings
+DO
+$$
+    BEGIN
+        IF EXISTS (SELECT 1 FROM information_schema.tables
+                   WHERE table_schema = current_schema() AND table_name = 'credential_resource')
+            AND NOT EXISTS (SELECT 1 FROM information_schema.columns
+                            WHERE table_schema = current_schema() AND table_name = 'credential_resource' AND column_name = 'deadline') THEN
+            ALTER TABLE credential_resource ADD COLUMN deadline BIGINT;
+            UPDATE credential_resource
+            SET deadline = CASE json_typeof(due.value)
+                               WHEN 'number' THEN ((due.value #>> '{}')::NUMERIC * 1000)::BIGINT
+                               WHEN 'string' THEN (extract(EPOCH FROM (due.value #>> '{}')::TIMESTAMPTZ) * 1000)::BIGINT
+                END
+            FROM (SELECT c.id                                                   AS id,
+                         c.participant_context_id                               AS participant_context_id,
+                         CASE c.vc_state
+                             WHEN 900 THEN c.verifiable_credential -> 'issuanceDate'
+                             ELSE c.verifiable_credential -> 'expirationDate' END AS value
+                  FROM credential_resource c
+                  WHERE c.vc_state IN (500, 700, 900)) due
+            WHERE credential_resource.id = due.id
+              AND credential_resource.participant_context_id IS NOT DISTINCT FROM due.participant_context_id;
+        END IF;
+    END
+$$;
+-- used to find credentials that are due for a time-based status transition
+CREATE INDEX IF NOT EXISTS credential_resource_deadline_index ON credential_resource (deadline) WHERE deadline IS NOT NULL;
+-- keyset pagination compares and sorts by id, byte-wise, so that the order is the same as in Java and across shards
+DO
+$$
+    BEGIN
+        IF (SELECT collation_name FROM information_schema.columns
+            WHERE table_schema = current_schema() AND table_name = 'credential_resource' AND column_name = 'id') IS DISTINCT FROM 'C' THEN
+            ALTER TABLE credential_resource ALTER COLUMN id TYPE VARCHAR COLLATE "C";
+        END IF;
+    END
+$$;
 COMMENT ON COLUMN credential_resource.id IS 'ID of the VC, duplicated here for indexing purposes';
 COMMENT ON COLUMN credential_resource.raw_vc IS 'Representation of the VC exactly as it was received by the issuer. Can be JWT or JSON(-LD) ';
 COMMENT ON COLUMN credential_resource.vc_format IS '0 = JSON-LD, 1 = JWT';
 COMMENT ON COLUMN credential_resource.verifiable_credential IS 'JSON-representation of the VerifiableCredential';
+COMMENT ON COLUMN credential_resource.issuance_policy_bin IS 'Smile-encoded, optionally deflated issuance policy. Takes precedence over issuance_policy';
+COMMENT ON COLUMN credential_resource.reissuance_policy_bin IS 'Smile-encoded, optionally deflated reissuance policy. Takes precedence over reissuance_policy';
 
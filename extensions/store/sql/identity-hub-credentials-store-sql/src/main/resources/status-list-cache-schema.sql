@@ -0,0 +1,29 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+-- only intended for and tested with Postgres!
+CREATE TABLE IF NOT EXISTS status_list_cache
+(
+    url            VARCHAR PRIMARY KEY NOT NULL, -- URL of the status list credential
+    etag           VARCHAR,                      -- ETag header of the last response, used for conditional requests
+    last_modified  VARCHAR,                      -- Last-Modified header of the last response, used for conditional requests
+    fetched_at     BIGINT  NOT NULL,             -- POSIX timestamp (millis) of the last fetch or revalidation
+    status_purpose VARCHAR,                      -- status purpose declared by the status list credential
+    status_bits    BYTEA   NOT NULL,             -- decoded bitstring, in java.util.BitSet#toByteArray format
+    status_length  INTEGER NOT NULL              -- number of entries in the decoded bitstring
+);
+
+-- entries that were cached before the length was recorded are dropped, they are fetched again on the next lookup
+ALTER TABLE status_list_cache ADD COLUMN IF NOT EXISTS status_length INTEGER;
+DELETE FROM status_list_cache WHERE status_length IS NULL;
@@ -0,0 +1,23 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+-- only intended for and tested with Postgres!
+CREATE TABLE IF NOT EXISTS credential_watchdog_cursor
+(
+    name          VARCHAR PRIMARY KEY NOT NULL,
+    last_id       VARCHAR,                      -- ID of the last credential that was claimed in the current round, or of the lease holder
+    next_round_at BIGINT  NOT NULL DEFAULT 0    -- POSIX timestamp (millis) before which no new round may start
+);
+-- the rows must exist, so that concurrent instances can lock them
+INSERT INTO credential_watchdog_cursor (name) VALUES ('default'), ('deadline-lease') ON CONFLICT DO NOTHING;
@@ -0,0 +1,122 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.store.sql.credentials;
+
+import org.eclipse.edc.iam.verifiablecredentials.spi.model.CredentialSubject;
+import org.eclipse.edc.iam.verifiablecredentials.spi.model.Issuer;
+import org.eclipse.edc.iam.verifiablecredentials.spi.model.VerifiableCredential;
+import org.eclipse.edc.json.JacksonTypeManager;
+import org.eclipse.edc.policy.model.Action;
+import org.eclipse.edc.policy.model.AtomicConstraint;
+import org.eclipse.edc.policy.model.LiteralExpression;
+import org.eclipse.edc.policy.model.Operator;
+import org.eclipse.edc.policy.model.Permission;
+import org.eclipse.edc.policy.model.Policy;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the storage size and the decode throughput of the {@link PayloadEncoding}s against JSON. The numbers are only
+ * meaningful relative to each other, so this is not part of the regular build. Run it with
+ * {@code RUN_BENCHMARKS=true ./gradlew :extensions:store:sql:identity-hub-credentials-store-sql:test --tests '*CredentialPayloadCodecBenchmarkTest'}.
+ * The results are published as report entries of the tests, so that they appear in the test reports instead of on the console.
+ * <p>
+ * The {@code verifiable_credential} column is measured for reference only: it is always stored as JSON, because it is
+ * queried with JSON operators, just like {@code raw_vc} is queried with {@code LIKE}.
+ */
+@EnabledIfEnvironmentVariable(named = "RUN_BENCHMARKS", matches = "true")
+class CredentialPayloadCodecBenchmarkTest {
+
+    private static final int WARMUP_ITERATIONS = 20_000;
+    private static final int MEASURED_ITERATIONS = 100_000;
+
+    private final JacksonTypeManager typeManager = new JacksonTypeManager();
+
+    @Test
+    void policy_sizeAndDecodeThroughput(TestReporter reporter) {
+        var policy = createPolicy();
+
+        for (var encoding : PayloadEncoding.values()) {
+            var codec = new CredentialPayloadCodec(typeManager.getMapper(), encoding);
+            var binary = codec.encodePolicyBinary(policy);
+            var json = codec.encodePolicyJson(policy);
+            var size = binary != null ? binary.length : json.getBytes(StandardCharsets.UTF_8).length;
+
+            var opsPerSecond = measure(() -> codec.decodePolicy(binary, json));
+
+            report(reporter, "policy", encoding.name(), size, opsPerSecond);
+        }
+    }
+
+    @Test
+    void credential_sizeAndDecodeThroughput(TestReporter reporter) {
+        var codec = new CredentialPayloadCodec(typeManager.getMapper(), PayloadEncoding.JSON);
+        var json = codec.encodeCredential(createCredential());
+
+        var opsPerSecond = measure(() -> codec.decodeCredential(json));
+
+        report(reporter, "verifiable_credential", PayloadEncoding.JSON.name(), json.getBytes(StandardCharsets.UTF_8).length, opsPerSecond);
+    }
+
+    private double measure(Supplier<Object> decode) {
+        for (var i = 0; i < WARMUP_ITERATIONS; i++) {
+            assertThat(decode.get()).isNotNull();
+        }
+        var start = System.nanoTime();
+        for (var i = 0; i < MEASURED_ITERATIONS; i++) {
+            decode.get();
+        }
+        var elapsed = System.nanoTime() - start;
+        return MEASURED_ITERATIONS * 1_000_000_000.0 / elapsed;
+    }
+
+    private void report(TestReporter reporter, String column, String encoding, int size, double opsPerSecond) {
+        assertThat(size).isPositive();
+        assertThat(opsPerSecond).isPositive();
+        reporter.publishEntry(column + "." + encoding, "%d bytes, %.0f decodes/s".formatted(size, opsPerSecond));
+    }
+
+    private Policy createPolicy() {
+        var builder = Policy.Builder.newInstance();
+        IntStream.range(0, 10).forEach(i -> builder.permission(Permission.Builder.newInstance()
+                .action(Action.Builder.newInstance().type("use").build())
+                .constraint(AtomicConstraint.Builder.newInstance()
+                        .leftExpression(new LiteralExpression("MembershipCredential"))
+                        .operator(Operator.EQ)
+                        .rightExpression(new LiteralExpression("active" + i))
+                        .build())
+                .build()));
+        return builder.build();
+    }
+
+    private VerifiableCredential createCredential() {
+        return VerifiableCredential.Builder.newInstance()
+                .credentialSubject(CredentialSubject.Builder.newInstance().id("test-subject").claim("test-key", "test-val").build())
+                .issuanceDate(Instant.now())
+                .type("VerifiableCredential")
+                .issuer(new Issuer("test-issuer", Map.of()))
+                .id("did:web:test-credential")
+                .build();
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.store.sql.credentials;
+
+import org.eclipse.edc.json.JacksonTypeManager;
+import org.eclipse.edc.policy.model.Action;
+import org.eclipse.edc.policy.model.AtomicConstraint;
+import org.eclipse.edc.policy.model.LiteralExpression;
+import org.eclipse.edc.policy.model.Operator;
+import org.eclipse.edc.policy.model.Permission;
+import org.eclipse.edc.policy.model.Policy;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CredentialPayloadCodecTest {
+
+    private final JacksonTypeManager typeManager = new JacksonTypeManager();
+
+    @ParameterizedTest
+    @EnumSource(PayloadEncoding.class)
+    void policy_roundTrip(PayloadEncoding encoding) {
+        var codec = new CredentialPayloadCodec(typeManager.getMapper(), encoding);
+        var policy = createPolicy();
+
+        var decoded = codec.decodePolicy(codec.encodePolicyBinary(policy), codec.encodePolicyJson(policy));
+
+        assertThat(decoded).usingRecursiveComparison().isEqualTo(policy);
+    }
+
+    @ParameterizedTest
+    @EnumSource(PayloadEncoding.class)
+    void policy_null(PayloadEncoding encoding) {
+        var codec = new CredentialPayloadCodec(typeManager.getMapper(), encoding);
+
+        assertThat(codec.encodePolicyJson(null)).isNull();
+        assertThat(codec.encodePolicyBinary(null)).isNull();
+        assertThat(codec.decodePolicy(null, null)).isNull();
+    }
+
+    @Test
+    void decode_ignoresConfiguredEncoding() {
+        var policy = createPolicy();
+        var deflated = new CredentialPayloadCodec(typeManager.getMapper(), PayloadEncoding.SMILE_DEFLATE).encodePolicyBinary(policy);
+        var json = new CredentialPayloadCodec(typeManager.getMapper(), PayloadEncoding.JSON).encodePolicyJson(policy);
+
+        var smileCodec = new CredentialPayloadCodec(typeManager.getMapper(), PayloadEncoding.SMILE);
+
+        assertThat(smileCodec.decodePolicy(deflated, null)).usingRecursiveComparison().isEqualTo(policy);
+        assertThat(smileCodec.decodePolicy(null, json)).usingRecursiveComparison().isEqualTo(policy);
+    }
+
+    /**
+     * Compares the storage footprint of the encodings. Binary encodings are expected to be smaller than JSON for any
+     * non-trivial policy.
+     */
+    @Test
+    void encodedSize() {
+        var policy = createPolicy();
+        var jsonSize = new CredentialPayloadCodec(typeManager.getMapper(), PayloadEncoding.JSON).encodePolicyJson(policy).getBytes(StandardCharsets.UTF_8).length;
+        var smileSize = new CredentialPayloadCodec(typeManager.getMapper(), PayloadEncoding.SMILE).encodePolicyBinary(policy).length;
+        var deflatedSize = new CredentialPayloadCodec(typeManager.getMapper(), PayloadEncoding.SMILE_DEFLATE).encodePolicyBinary(policy).length;
+
+        assertThat(smileSize).isLessThan(jsonSize);
+        assertThat(deflatedSize).isLessThan(smileSize);
+    }
+
+    private Policy createPolicy() {
+        var builder = Policy.Builder.newInstance();
+        IntStream.range(0, 10).forEach(i -> builder.permission(Permission.Builder.newInstance()
+                .action(Action.Builder.newInstance().type("use").build())
+                .constraint(AtomicConstraint.Builder.newInstance()
+                        .leftExpression(new LiteralExpression("MembershipCredential"))
+                        .operator(Operator.EQ)
+                        .rightExpression(new LiteralExpression("active" + i))
+                        .build())
+                .build()));
+        return builder.build();
+    }
+}
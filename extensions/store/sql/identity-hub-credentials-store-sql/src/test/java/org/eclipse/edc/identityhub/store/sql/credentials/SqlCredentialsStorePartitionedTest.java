@@ -0,0 +1,147 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.store.sql.credentials;
+
+import org.eclipse.edc.identityhub.spi.verifiablecredentials.store.CredentialStore;
+import org.eclipse.edc.identityhub.store.sql.credentials.schema.postgres.PostgresDialectStatements;
+import org.eclipse.edc.identityhub.verifiablecredentials.store.CredentialStoreTestBase;
+import org.eclipse.edc.json.JacksonTypeManager;
+import org.eclipse.edc.junit.annotations.ComponentTest;
+import org.eclipse.edc.junit.testfixtures.TestUtils;
+import org.eclipse.edc.spi.persistence.EdcPersistenceException;
+import org.eclipse.edc.spi.query.QuerySpec;
+import org.eclipse.edc.sql.QueryExecutor;
+import org.eclipse.edc.sql.testfixtures.PostgresqlStoreSetupExtension;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.eclipse.edc.junit.assertions.AbstractResultAssert.assertThat;
+
+@ComponentTest
+@ExtendWith(PostgresqlStoreSetupExtension.class)
+class SqlCredentialsStorePartitionedTest extends CredentialStoreTestBase {
+
+    private static final String PARTITIONED_SCHEMA = "credentials-schema-partitioned.sql";
+    private final CredentialStoreStatements statements = new PostgresDialectStatements();
+    private final JacksonTypeManager typeManager = new JacksonTypeManager();
+    private SqlCredentialStore store;
+
+    @BeforeEach
+    void setup(PostgresqlStoreSetupExtension extension, QueryExecutor queryExecutor) {
+        store = new SqlCredentialStore(extension.getDataSourceRegistry(), extension.getDatasourceName(),
+                extension.getTransactionContext(), typeManager.getMapper(), queryExecutor, statements);
+
+        extension.runQuery(TestUtils.getResourceFileContentAsString(PARTITIONED_SCHEMA));
+    }
+
+    @AfterEach
+    void tearDown(PostgresqlStoreSetupExtension extension) {
+        extension.runQuery("DROP TABLE IF EXISTS " + statements.getCredentialResourceTable() + " CASCADE");
+        extension.runQuery("DROP TABLE IF EXISTS credential_resource_unpartitioned CASCADE");
+        extension.runQuery("DROP TABLE IF EXISTS credential_resource_id CASCADE");
+    }
+
+    @Test
+    void migrate_fromUnpartitionedTable(PostgresqlStoreSetupExtension extension) {
+        extension.runQuery("DROP TABLE IF EXISTS " + statements.getCredentialResourceTable() + " CASCADE");
+        extension.runQuery(TestUtils.getResourceFileContentAsString("credentials-schema.sql"));
+        var credential = createCredential();
+        assertThat(store.create(credential)).isSucceeded();
+
+        extension.runQuery(TestUtils.getResourceFileContentAsString(PARTITIONED_SCHEMA));
+
+        var result = store.query(QuerySpec.max());
+        assertThat(result).isSucceeded();
+        assertThat(result.getContent()).singleElement().usingRecursiveComparison().isEqualTo(credential);
+    }
+
+    @Test
+    void migrate_shouldIndexDeadlinesOfPartitionedTable(PostgresqlStoreSetupExtension extension, QueryExecutor queryExecutor) {
+        extension.runQuery("DROP TABLE IF EXISTS " + statements.getCredentialResourceTable() + " CASCADE");
+        extension.runQuery(TestUtils.getResourceFileContentAsString("credentials-schema.sql"));
+
+        extension.runQuery(TestUtils.getResourceFileContentAsString(PARTITIONED_SCHEMA));
+
+        var table = extension.getTransactionContext().execute(() -> queryExecutor.single(connection(extension), true, r -> r.getString("tablename"),
+                "SELECT tablename FROM pg_indexes WHERE schemaname = current_schema() AND indexname = ?", "credential_resource_deadline_index"));
+        assertThat(table).isEqualTo(statements.getCredentialResourceTable());
+    }
+
+    @Test
+    void insert_whenIdUsedByOtherParticipantContext_shouldFail(PostgresqlStoreSetupExtension extension) {
+        var credential = createCredential();
+        assertThat(store.create(credential)).isSucceeded();
+
+        // bypasses the check of the store, like a concurrent create would
+        assertThatThrownBy(() -> extension.runQuery(("INSERT INTO credential_resource (id, create_timestamp, issuer_id, holder_id, vc_state, raw_vc, vc_format, " +
+                "verifiable_credential, participant_context_id) VALUES ('%s', 0, 'issuer', 'holder', 500, 'raw', 1, '{}', 'other-participant')").formatted(credential.getId())))
+                .hasStackTraceContaining("credential_resource_id_pkey");
+    }
+
+    @Test
+    void create_whenIdWasDeletedInOtherParticipantContext_shouldSucceed() {
+        var credential = createCredential();
+        assertThat(store.create(credential)).isSucceeded();
+        assertThat(store.deleteById(credential.getId())).isSucceeded();
+
+        var recreated = createCredentialBuilder().id(credential.getId()).participantContextId("other-participant").build();
+
+        assertThat(store.create(recreated)).isSucceeded();
+    }
+
+    @Test
+    void migrate_whenIdsNotUnique_shouldFail(PostgresqlStoreSetupExtension extension) {
+        var credential = createCredential();
+        assertThat(store.create(credential)).isSucceeded();
+        extension.runQuery("DROP TRIGGER credential_resource_register_id ON credential_resource");
+        extension.runQuery(("INSERT INTO credential_resource (id, create_timestamp, issuer_id, holder_id, vc_state, raw_vc, vc_format, " +
+                "verifiable_credential, participant_context_id) VALUES ('%s', 0, 'issuer', 'holder', 500, 'raw', 1, '{}', 'other-participant')").formatted(credential.getId()));
+
+        assertThatThrownBy(() -> extension.runQuery(TestUtils.getResourceFileContentAsString(PARTITIONED_SCHEMA)))
+                .hasStackTraceContaining("Cannot enforce unique credential IDs");
+    }
+
+    @Test
+    void bootstrap_isIdempotent(PostgresqlStoreSetupExtension extension) {
+        var credential = createCredential();
+        assertThat(store.create(credential)).isSucceeded();
+
+        extension.runQuery(TestUtils.getResourceFileContentAsString(PARTITIONED_SCHEMA));
+
+        var result = store.query(QuerySpec.max());
+        assertThat(result).isSucceeded();
+        assertThat(result.getContent()).hasSize(1);
+    }
+
+    private Connection connection(PostgresqlStoreSetupExtension extension) {
+        try {
+            return extension.getDataSourceRegistry().resolve(extension.getDatasourceName()).getConnection();
+        } catch (SQLException e) {
+            throw new EdcPersistenceException(e);
+        }
+    }
+
+    @Override
+    protected CredentialStore getStore() {
+        return store;
+    }
+}
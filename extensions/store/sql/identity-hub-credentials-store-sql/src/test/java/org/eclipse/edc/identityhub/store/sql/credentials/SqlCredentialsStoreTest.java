@@ -20,22 +20,31 @@ import org.eclipse.edc.identityhub.verifiablecredentials.store.CredentialStoreTe
 import org.eclipse.edc.json.JacksonTypeManager;
 import org.eclipse.edc.junit.annotations.ComponentTest;
 import org.eclipse.edc.junit.testfixtures.TestUtils;
+import org.eclipse.edc.policy.model.Action;
+import org.eclipse.edc.policy.model.Permission;
+import org.eclipse.edc.policy.model.Policy;
+import org.eclipse.edc.spi.query.QuerySpec;
 import org.eclipse.edc.sql.QueryExecutor;
 import org.eclipse.edc.sql.testfixtures.PostgresqlStoreSetupExtension;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.eclipse.edc.junit.assertions.AbstractResultAssert.assertThat;
 
 @ComponentTest
 @ExtendWith(PostgresqlStoreSetupExtension.class)
 class SqlCredentialsStoreTest extends CredentialStoreTestBase {
 
     private final CredentialStoreStatements statements = new PostgresDialectStatements();
+    private final JacksonTypeManager typeManager = new JacksonTypeManager();
     private SqlCredentialStore store;
 
     @BeforeEach
     void setup(PostgresqlStoreSetupExtension extension, QueryExecutor queryExecutor) {
-        var typeManager = new JacksonTypeManager();
         store = new SqlCredentialStore(extension.getDataSourceRegistry(), extension.getDatasourceName(),
                 extension.getTransactionContext(), typeManager.getMapper(), queryExecutor, statements);
 
@@ -48,6 +57,28 @@ class SqlCredentialsStoreTest extends CredentialStoreTestBase {
         extension.runQuery("DROP TABLE " + statements.getCredentialResourceTable() + " CASCADE");
     }
 
+    @ParameterizedTest
+    @EnumSource(PayloadEncoding.class)
+    void create_withPolicies_mixedEncodings(PayloadEncoding encoding, PostgresqlStoreSetupExtension extension, QueryExecutor queryExecutor) {
+        var binaryStore = new SqlCredentialStore(extension.getDataSourceRegistry(), extension.getDatasourceName(),
+                extension.getTransactionContext(), typeManager.getMapper(), queryExecutor, statements,
+                new CredentialPayloadCodec(typeManager.getMapper(), encoding));
+        var policy = Policy.Builder.newInstance()
+                .permission(Permission.Builder.newInstance().action(Action.Builder.newInstance().type("use").build()).build())
+                .build();
+        var credential = createCredentialBuilder().issuancePolicy(policy).reissuancePolicy(policy).build();
+
+        assertThat(binaryStore.create(credential)).isSucceeded();
+
+        // rows written with any encoding must be readable regardless of the configured encoding
+        var result = store.query(QuerySpec.max());
+        assertThat(result).isSucceeded();
+        assertThat(result.getContent()).singleElement().satisfies(vcr -> {
+            assertThat(vcr.getIssuancePolicy()).usingRecursiveComparison().isEqualTo(policy);
+            assertThat(vcr.getReissuancePolicy()).usingRecursiveComparison().isEqualTo(policy);
+        });
+    }
+
     @Override
     protected CredentialStore getStore() {
         return store;
@@ -0,0 +1,82 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.store.sql.credentials;
+
+import org.eclipse.edc.identityhub.spi.verifiablecredentials.store.CachedStatusList;
+import org.eclipse.edc.identityhub.store.sql.credentials.schema.postgres.PostgresDialectStatements;
+import org.eclipse.edc.json.JacksonTypeManager;
+import org.eclipse.edc.junit.annotations.ComponentTest;
+import org.eclipse.edc.junit.testfixtures.TestUtils;
+import org.eclipse.edc.sql.QueryExecutor;
+import org.eclipse.edc.sql.testfixtures.PostgresqlStoreSetupExtension;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.BitSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ComponentTest
+@ExtendWith(PostgresqlStoreSetupExtension.class)
+class SqlStatusListCacheStoreTest {
+
+    private static final String URL = "https://issuer.example/status/1";
+    private final CredentialStoreStatements statements = new PostgresDialectStatements();
+    private SqlStatusListCacheStore store;
+
+    @BeforeEach
+    void setup(PostgresqlStoreSetupExtension extension, QueryExecutor queryExecutor) {
+        store = new SqlStatusListCacheStore(extension.getDataSourceRegistry(), extension.getDatasourceName(),
+                extension.getTransactionContext(), new JacksonTypeManager().getMapper(), queryExecutor, statements);
+
+        extension.runQuery(TestUtils.getResourceFileContentAsString("status-list-cache-schema.sql"));
+    }
+
+    @AfterEach
+    void tearDown(PostgresqlStoreSetupExtension extension) {
+        extension.runQuery("DROP TABLE " + statements.getStatusListCacheTable() + " CASCADE");
+    }
+
+    @Test
+    void findByUrl_notFound() {
+        assertThat(store.findByUrl(URL)).isNull();
+    }
+
+    @Test
+    void save_thenFind() {
+        var bits = new BitSet();
+        bits.set(3);
+        bits.set(131_071);
+        var list = new CachedStatusList(URL, "\"v1\"", "Wed, 21 Oct 2015 07:28:00 GMT", 1000L, "revocation", bits, 131_072);
+
+        store.save(list);
+
+        assertThat(store.findByUrl(URL)).isEqualTo(list);
+    }
+
+    @Test
+    void save_whenExists_shouldReplace() {
+        store.save(new CachedStatusList(URL, "\"v1\"", null, 1000L, "revocation", new BitSet(), 131_072));
+        var bits = new BitSet();
+        bits.set(7);
+        var updated = new CachedStatusList(URL, "\"v2\"", null, 2000L, "revocation", bits, 131_072);
+
+        store.save(updated);
+
+        assertThat(store.findByUrl(URL)).isEqualTo(updated);
+    }
+}
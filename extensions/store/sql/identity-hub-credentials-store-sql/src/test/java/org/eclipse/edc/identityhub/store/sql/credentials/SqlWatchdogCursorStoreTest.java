@@ -0,0 +1,96 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.store.sql.credentials;
+
+import org.eclipse.edc.identityhub.spi.verifiablecredentials.store.WatchdogCursor;
+import org.eclipse.edc.identityhub.spi.verifiablecredentials.store.WatchdogCursorStore;
+import org.eclipse.edc.identityhub.store.sql.credentials.schema.postgres.PostgresDialectStatements;
+import org.eclipse.edc.json.JacksonTypeManager;
+import org.eclipse.edc.junit.annotations.ComponentTest;
+import org.eclipse.edc.junit.testfixtures.TestUtils;
+import org.eclipse.edc.sql.QueryExecutor;
+import org.eclipse.edc.sql.testfixtures.PostgresqlStoreSetupExtension;
+import org.eclipse.edc.transaction.spi.TransactionContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ComponentTest
+@ExtendWith(PostgresqlStoreSetupExtension.class)
+class SqlWatchdogCursorStoreTest {
+
+    private final CredentialStoreStatements statements = new PostgresDialectStatements();
+    private SqlWatchdogCursorStore store;
+    private TransactionContext transactionContext;
+
+    @BeforeEach
+    void setup(PostgresqlStoreSetupExtension extension, QueryExecutor queryExecutor) {
+        transactionContext = extension.getTransactionContext();
+        store = new SqlWatchdogCursorStore(extension.getDataSourceRegistry(), extension.getDatasourceName(),
+                transactionContext, new JacksonTypeManager().getMapper(), queryExecutor, statements);
+
+        extension.runQuery(TestUtils.getResourceFileContentAsString("watchdog-cursor-schema.sql"));
+    }
+
+    @AfterEach
+    void tearDown(PostgresqlStoreSetupExtension extension) {
+        extension.runQuery("DROP TABLE " + statements.getWatchdogCursorTable() + " CASCADE");
+    }
+
+    @Test
+    void lock_initial() {
+        var cursor = transactionContext.execute(() -> store.lock());
+
+        assertThat(cursor).isEqualTo(WatchdogCursor.initial());
+    }
+
+    @Test
+    void save_thenLock() {
+        transactionContext.execute(() -> {
+            store.lock();
+            store.save(new WatchdogCursor("id-42", 1000L));
+        });
+
+        assertThat(transactionContext.execute(() -> store.lock())).isEqualTo(new WatchdogCursor("id-42", 1000L));
+
+        transactionContext.execute(() -> store.save(new WatchdogCursor(null, 2000L)));
+
+        assertThat(transactionContext.execute(() -> store.lock())).isEqualTo(new WatchdogCursor(null, 2000L));
+    }
+
+    @Test
+    void save_namedCursor_shouldNotAffectDefault() {
+        transactionContext.execute(() -> {
+            store.lock(WatchdogCursorStore.DEADLINE_LEASE);
+            store.save(WatchdogCursorStore.DEADLINE_LEASE, new WatchdogCursor("instance-1", 5000L));
+        });
+
+        assertThat(transactionContext.execute(() -> store.lock(WatchdogCursorStore.DEADLINE_LEASE))).isEqualTo(new WatchdogCursor("instance-1", 5000L));
+        assertThat(transactionContext.execute(() -> store.lock())).isEqualTo(WatchdogCursor.initial());
+    }
+
+    @Test
+    void lock_whenRowMissing_returnsInitial(PostgresqlStoreSetupExtension extension) {
+        extension.runQuery("DELETE FROM " + statements.getWatchdogCursorTable());
+
+        assertThat(transactionContext.execute(() -> store.lock())).isEqualTo(WatchdogCursor.initial());
+
+        transactionContext.execute(() -> store.save(new WatchdogCursor("id-1", 0L)));
+        assertThat(transactionContext.execute(() -> store.lock()).lastId()).isEqualTo("id-1");
+    }
+}
@@ -18,6 +18,7 @@ plugins {
 
 dependencies {
     api(project(":spi:did-spi"))
+    implementation(project(":extensions:store:sql:identity-hub-sql-lib"))
     implementation(libs.edc.lib.sql)
     implementation(libs.edc.sql.bootstrapper)
     implementation(libs.edc.spi.transaction.datasource)
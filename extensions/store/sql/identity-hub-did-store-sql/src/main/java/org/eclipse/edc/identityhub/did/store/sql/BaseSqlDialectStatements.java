@@ -19,6 +19,8 @@ import org.eclipse.edc.spi.query.QuerySpec;
 import org.eclipse.edc.sql.translation.PostgresqlOperatorTranslator;
 import org.eclipse.edc.sql.translation.SqlQueryStatement;
 
+import java.util.Collections;
+
 import static java.lang.String.format;
 
 public class BaseSqlDialectStatements implements DidResourceStatements {
@@ -31,6 +33,7 @@ public class BaseSqlDialectStatements implements DidResourceStatements {
                 .column(getStateTimestampColumn())
                 .jsonColumn(getDidDocumentColumn())
                 .column(getParticipantContextId())
+                .column(getVersionColumn())
                 .insertInto(getDidResourceTableName());
     }
 
@@ -43,7 +46,8 @@ public class BaseSqlDialectStatements implements DidResourceStatements {
                 .column(getStateTimestampColumn())
                 .jsonColumn(getDidDocumentColumn())
                 .column(getParticipantContextId())
-                .update(getDidResourceTableName(), getIdColumn());
+                .column(getVersionColumn())
+                .update(getDidResourceTableName(), getIdColumn()) + format(" AND %s = ?", getVersionColumn());
     }
 
     @Override
@@ -51,12 +55,23 @@ public class BaseSqlDialectStatements implements DidResourceStatements {
         return executeStatement().delete(getDidResourceTableName(), getIdColumn());
     }
 
+    @Override
+    public String getDeleteByParticipantContextIdTemplate() {
+        return executeStatement().delete(getDidResourceTableName(), getParticipantContextId());
+    }
+
     @Override
     public String getFindByIdTemplate() {
         return format("SELECT * FROM %s WHERE %s = ?", getDidResourceTableName(), getIdColumn());
 
     }
 
+    @Override
+    public String getLockVersionsTemplate(int count) {
+        return format("SELECT %s, %s FROM %s WHERE %s IN (%s) FOR UPDATE", getIdColumn(), getVersionColumn(), getDidResourceTableName(), getIdColumn(),
+                String.join(", ", Collections.nCopies(count, "?")));
+    }
+
     @Override
     public SqlQueryStatement createQuery(QuerySpec querySpec) {
         var select = getSelectStatement();
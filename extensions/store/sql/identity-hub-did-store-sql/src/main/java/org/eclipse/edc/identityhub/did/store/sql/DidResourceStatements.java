@@ -51,14 +51,34 @@ public interface DidResourceStatements extends SqlStatements {
         return "participant_context_id";
     }
 
+    default String getVersionColumn() {
+        return "version";
+    }
+
     String getInsertTemplate();
 
+    /**
+     * Conditional update: the parameters are the values of all columns including the new version, followed by the DID and
+     * the expected (current) version.
+     */
     String getUpdateTemplate();
 
     String getDeleteByIdTemplate();
 
+    /**
+     * Deletes all DID resources of the participant context that is passed as the only parameter.
+     */
+    String getDeleteByParticipantContextIdTemplate();
+
     String getFindByIdTemplate();
 
+    /**
+     * Selects the DID and the version of the DID resources with the given DIDs, and locks them until the end of the transaction.
+     *
+     * @param count the number of DIDs, each of which is passed as a parameter
+     */
+    String getLockVersionsTemplate(int count);
+
     SqlQueryStatement createQuery(QuerySpec query);
 
     String getSelectStatement();
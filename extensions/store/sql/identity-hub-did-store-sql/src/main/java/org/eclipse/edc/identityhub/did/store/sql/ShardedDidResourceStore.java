@@ -0,0 +1,114 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.did.store.sql;
+
+import org.eclipse.edc.identityhub.spi.did.model.DidResource;
+import org.eclipse.edc.identityhub.spi.did.store.DidResourceStore;
+import org.eclipse.edc.identityhub.spi.participantcontext.store.OptimisticLocking;
+import org.eclipse.edc.identityhub.sql.sharding.ShardedStoreSupport;
+import org.eclipse.edc.spi.persistence.EdcPersistenceException;
+import org.eclipse.edc.spi.query.Criterion;
+import org.eclipse.edc.spi.query.QuerySpec;
+import org.eclipse.edc.spi.result.StoreResult;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * {@link DidResourceStore} that distributes DID resources across multiple datasources ("shards") by their participant context ID.
+ * Every shard is a regular {@link SqlDidResourceStore}. Queries that are restricted to one participant context hit only one
+ * shard, all other queries fan out to all shards and are merged. Only the placement of participant contexts is kept in the
+ * shard directory, so DIDs are only unique per shard, and finding or deleting a resource by its DID asks every shard.
+ */
+public class ShardedDidResourceStore implements DidResourceStore {
+    private final ShardedStoreSupport<DidResourceStore> shards;
+
+    public ShardedDidResourceStore(ShardedStoreSupport<DidResourceStore> shards) {
+        this.shards = shards;
+    }
+
+    /**
+     * Lists the DIDs of one shard, so that their participant contexts can be recorded in the shard directory.
+     */
+    public static ShardedStoreSupport.Inventory<DidResourceStore> inventory() {
+        return (store, afterId, limit) -> {
+            var query = QuerySpec.Builder.newInstance().sortField("did").limit(limit);
+            if (afterId != null) {
+                query.filter(new Criterion("did", ">", afterId));
+            }
+            return store.query(query.build()).stream()
+                    .map(resource -> new ShardedStoreSupport.Inventory.Entry(resource.getDid(), resource.getParticipantContextId()))
+                    .toList();
+        };
+    }
+
+    @Override
+    public StoreResult<Void> save(DidResource resource) {
+        return shards.inTransaction(() -> shards.placeParticipant(resource.getParticipantContextId()).save(resource));
+    }
+
+    @Override
+    public StoreResult<Void> update(DidResource resource) {
+        return shards.forParticipant(resource.getParticipantContextId()).update(resource);
+    }
+
+    /**
+     * Updates the resources of every participant context with one batch on its shard. If the batch of a participant context
+     * fails after those of others succeeded, an exception is thrown, so that the surrounding transaction is rolled back.
+     */
+    @Override
+    public StoreResult<Void> updateAll(Collection<DidResource> resources) {
+        var byParticipant = resources.stream().collect(Collectors.groupingBy(DidResource::getParticipantContextId, LinkedHashMap::new, Collectors.toList()));
+        var updated = 0;
+        for (var entry : byParticipant.entrySet()) {
+            var result = shards.forParticipant(entry.getKey()).updateAll(entry.getValue());
+            if (result.failed()) {
+                if (updated > 0) {
+                    OptimisticLocking.throwOnConflict(result);
+                    throw new EdcPersistenceException("Updating the DidResources of participant '%s' failed after %d others were updated: %s"
+                            .formatted(entry.getKey(), updated, result.getFailureDetail()));
+                }
+                return result;
+            }
+            updated += entry.getValue().size();
+        }
+        return StoreResult.success();
+    }
+
+    @Override
+    public DidResource findById(String did) {
+        var located = shards.findEntity(did, store -> store.findById(did));
+        return located != null ? located.entity() : null;
+    }
+
+    @Override
+    public Collection<DidResource> query(QuerySpec query) {
+        return shards.query(query, DidResourceStore::query);
+    }
+
+    @Override
+    public StoreResult<Void> deleteById(String did) {
+        return shards.inTransaction(() -> {
+            var located = shards.findEntity(did, store -> store.findById(did));
+            return located != null ? located.store().deleteById(did) : StoreResult.notFound(notFoundErrorMessage(did));
+        });
+    }
+
+    @Override
+    public StoreResult<Integer> deleteByParticipantContextId(String participantContextId) {
+        return shards.forParticipant(participantContextId).deleteByParticipantContextId(participantContextId);
+    }
+}
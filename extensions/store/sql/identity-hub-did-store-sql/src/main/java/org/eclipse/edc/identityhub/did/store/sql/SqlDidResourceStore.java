@@ -18,6 +18,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.eclipse.edc.iam.did.spi.document.DidDocument;
 import org.eclipse.edc.identityhub.spi.did.model.DidResource;
 import org.eclipse.edc.identityhub.spi.did.store.DidResourceStore;
+import org.eclipse.edc.identityhub.spi.participantcontext.store.OptimisticLocking;
+import org.eclipse.edc.identityhub.sql.routing.ReadReplicaRouter;
 import org.eclipse.edc.spi.persistence.EdcPersistenceException;
 import org.eclipse.edc.spi.query.QuerySpec;
 import org.eclipse.edc.spi.result.StoreResult;
@@ -26,10 +28,16 @@ import org.eclipse.edc.sql.store.AbstractSqlStore;
 import org.eclipse.edc.transaction.datasource.spi.DataSourceRegistry;
 import org.eclipse.edc.transaction.spi.TransactionContext;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.stream.Collectors;
 
 
 /**
@@ -38,11 +46,19 @@ import java.util.Objects;
 public class SqlDidResourceStore extends AbstractSqlStore implements DidResourceStore {
 
     private final DidResourceStatements statements;
+    private final ReadReplicaRouter router;
 
     public SqlDidResourceStore(DataSourceRegistry dataSourceRegistry, String dataSourceName, TransactionContext transactionContext,
                                ObjectMapper objectMapper, QueryExecutor queryExecutor, DidResourceStatements statements) {
+        this(dataSourceRegistry, dataSourceName, transactionContext, objectMapper, queryExecutor, statements,
+                ReadReplicaRouter.primaryOnly(dataSourceRegistry, dataSourceName, transactionContext));
+    }
+
+    public SqlDidResourceStore(DataSourceRegistry dataSourceRegistry, String dataSourceName, TransactionContext transactionContext,
+                               ObjectMapper objectMapper, QueryExecutor queryExecutor, DidResourceStatements statements, ReadReplicaRouter router) {
         super(dataSourceRegistry, dataSourceName, transactionContext, objectMapper, queryExecutor);
         this.statements = statements;
+        this.router = router;
     }
 
 
@@ -62,7 +78,10 @@ public class SqlDidResourceStore extends AbstractSqlStore implements DidResource
                         resource.getCreateTimestamp(),
                         resource.getStateTimestamp(),
                         toJson(resource.getDocument()),
-                        resource.getParticipantContextId());
+                        resource.getParticipantContextId(),
+                        1L);
+                resource.setVersion(1);
+                router.recordWrite(resource.getParticipantContextId());
                 return StoreResult.success();
             } catch (SQLException e) {
                 throw new EdcPersistenceException(e);
@@ -77,29 +96,122 @@ public class SqlDidResourceStore extends AbstractSqlStore implements DidResource
         Objects.requireNonNull(did);
         return transactionContext.execute(() -> {
             try (var connection = getConnection()) {
-                if (findById(did) != null) {
-                    queryExecutor.execute(connection, statements.getUpdateTemplate(),
-                            did,
-                            resource.getState(),
-                            resource.getCreateTimestamp(),
-                            resource.getStateTimestamp(),
-                            toJson(resource.getDocument()),
-                            resource.getParticipantContextId(),
-                            did);
-                    return StoreResult.success();
+                var expectedVersion = resource.getVersion();
+                if (expectedVersion == 0) {
+                    var existing = findById(did);
+                    if (existing == null) {
+                        return StoreResult.notFound(notFoundErrorMessage(did));
+                    }
+                    expectedVersion = existing.getVersion();
                 }
-                return StoreResult.notFound(notFoundErrorMessage(did));
+                var updated = queryExecutor.execute(connection, statements.getUpdateTemplate(),
+                        did,
+                        resource.getState(),
+                        resource.getCreateTimestamp(),
+                        resource.getStateTimestamp(),
+                        toJson(resource.getDocument()),
+                        resource.getParticipantContextId(),
+                        expectedVersion + 1,
+                        did,
+                        expectedVersion);
+                if (updated == 0) {
+                    return findById(did) == null ?
+                            StoreResult.notFound(notFoundErrorMessage(did)) :
+                            OptimisticLocking.versionConflict("DidResource", did);
+                }
+                resource.setVersion(expectedVersion + 1);
+                router.recordWrite(resource.getParticipantContextId());
+                return StoreResult.success();
             } catch (SQLException e) {
                 throw new EdcPersistenceException(e);
             }
         });
     }
 
+    /**
+     * Locks all resources and checks their versions with one query, and then sends the updates of all resources to the database
+     * as one JDBC batch. A resource that does not exist or has another version fails the update before anything is written.
+     */
+    @Override
+    public StoreResult<Void> updateAll(Collection<DidResource> resources) {
+        if (resources.isEmpty()) {
+            return StoreResult.success();
+        }
+        return transactionContext.execute(() -> {
+            try (var connection = getConnection()) {
+                var dids = resources.stream().map(resource -> Objects.requireNonNull(resource.getDid())).distinct().toList();
+                Map<String, Long> currentVersions;
+                try (var versions = queryExecutor.query(connection, false, this::mapVersion, statements.getLockVersionsTemplate(dids.size()), dids.toArray())) {
+                    currentVersions = versions.collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+                }
+                var expectedVersions = new ArrayList<Long>(resources.size());
+                for (var resource : resources) {
+                    var currentVersion = currentVersions.get(resource.getDid());
+                    if (currentVersion == null) {
+                        return StoreResult.notFound(notFoundErrorMessage(resource.getDid()));
+                    }
+                    var expectedVersion = resource.getVersion() == 0 ? currentVersion : resource.getVersion();
+                    if (expectedVersion != currentVersion) {
+                        return OptimisticLocking.versionConflict("DidResource", resource.getDid());
+                    }
+                    expectedVersions.add(expectedVersion);
+                }
+                executeBatch(connection, resources, expectedVersions);
+                var index = 0;
+                for (var resource : resources) {
+                    resource.setVersion(expectedVersions.get(index++) + 1);
+                    router.recordWrite(resource.getParticipantContextId());
+                }
+                return StoreResult.success();
+            } catch (SQLException e) {
+                throw new EdcPersistenceException(e);
+            }
+        });
+    }
+
+    /**
+     * Executes the updates of the resources as one JDBC batch. The resources are locked, so every update is expected to
+     * succeed. Should one fail nevertheless, an exception is thrown, so that the updates that were applied are rolled back.
+     */
+    private void executeBatch(Connection connection, Collection<DidResource> resources, List<Long> expectedVersions) throws SQLException {
+        try (var statement = connection.prepareStatement(statements.getUpdateTemplate())) {
+            var index = 0;
+            for (var resource : resources) {
+                var did = resource.getDid();
+                var expectedVersion = expectedVersions.get(index++);
+                setParameters(statement,
+                        did,
+                        resource.getState(),
+                        resource.getCreateTimestamp(),
+                        resource.getStateTimestamp(),
+                        toJson(resource.getDocument()),
+                        resource.getParticipantContextId(),
+                        expectedVersion + 1,
+                        did,
+                        expectedVersion);
+                statement.addBatch();
+            }
+
+            var updateCounts = statement.executeBatch();
+            index = 0;
+            for (var resource : resources) {
+                if (updateCounts[index++] == 0) {
+                    throw new OptimisticLocking.VersionConflictException("DidResource '%s' was modified concurrently, please retry.".formatted(resource.getDid()));
+                }
+            }
+        }
+    }
+
+    private Map.Entry<String, Long> mapVersion(ResultSet resultSet) throws SQLException {
+        return Map.entry(resultSet.getString(statements.getIdColumn()), resultSet.getLong(statements.getVersionColumn()));
+    }
+
     @Override
     public DidResource findById(String did) {
         Objects.requireNonNull(did);
+        var useReplica = router.canReadFromReplica((String) null);
         return transactionContext.execute(() -> {
-            try (var connection = getConnection()) {
+            try (var connection = router.getReadConnection(useReplica)) {
                 var sql = statements.getFindByIdTemplate();
                 return queryExecutor.single(connection, false, this::mapResultSet, sql, did);
             } catch (Exception exception) {
@@ -110,8 +222,9 @@ public class SqlDidResourceStore extends AbstractSqlStore implements DidResource
 
     @Override
     public Collection<DidResource> query(QuerySpec query) {
+        var useReplica = router.canReadFromReplica(query);
         return transactionContext.execute(() -> {
-            try (var connection = getConnection()) {
+            try (var connection = router.getReadConnection(useReplica)) {
                 var sql = statements.createQuery(query);
                 return queryExecutor.query(connection, true, this::mapResultSet, sql.getQueryAsString(), sql.getParameters()).toList();
             } catch (Exception exception) {
@@ -125,9 +238,11 @@ public class SqlDidResourceStore extends AbstractSqlStore implements DidResource
         Objects.requireNonNull(did);
         return transactionContext.execute(() -> {
             try (var connection = getConnection()) {
-                if (findById(did) != null) {
+                var existing = findById(did);
+                if (existing != null) {
                     var stmt = statements.getDeleteByIdTemplate();
                     queryExecutor.execute(connection, stmt, did);
+                    router.recordWrite(existing.getParticipantContextId());
                     return StoreResult.success();
                 }
                 return StoreResult.notFound(notFoundErrorMessage(did));
@@ -137,6 +252,26 @@ public class SqlDidResourceStore extends AbstractSqlStore implements DidResource
         });
     }
 
+    @Override
+    public StoreResult<Integer> deleteByParticipantContextId(String participantContextId) {
+        Objects.requireNonNull(participantContextId);
+        return transactionContext.execute(() -> {
+            try (var connection = getConnection()) {
+                var deleted = queryExecutor.execute(connection, statements.getDeleteByParticipantContextIdTemplate(), participantContextId);
+                router.recordWrite(participantContextId);
+                return StoreResult.success(deleted);
+            } catch (SQLException e) {
+                throw new EdcPersistenceException(e);
+            }
+        });
+    }
+
+    private void setParameters(PreparedStatement statement, Object... parameters) throws SQLException {
+        for (var i = 0; i < parameters.length; i++) {
+            statement.setObject(i + 1, parameters[i]);
+        }
+    }
+
     private DidResource mapResultSet(ResultSet resultSet) throws Exception {
         return DidResource.Builder.newInstance()
                 .did(resultSet.getString(statements.getIdColumn()))
@@ -145,6 +280,7 @@ public class SqlDidResourceStore extends AbstractSqlStore implements DidResource
                 .document(fromJson(resultSet.getString(statements.getDidDocumentColumn()), DidDocument.class))
                 .state(resultSet.getInt(statements.getStateColumn()))
                 .participantContextId(resultSet.getString(statements.getParticipantContextId()))
+                .version(resultSet.getLong(statements.getVersionColumn()))
                 .build();
     }
 }
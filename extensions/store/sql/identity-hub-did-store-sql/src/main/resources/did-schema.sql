@@ -15,11 +15,25 @@
 -- only intended for and tested with Postgres!
 CREATE TABLE IF NOT EXISTS did_resources
 (
-    did              VARCHAR NOT NULL,
+    did              VARCHAR COLLATE "C" NOT NULL,
     create_timestamp BIGINT  NOT NULL,
     state_timestamp  BIGINT  NOT NULL,
     state            INT     NOT NULL,
     did_document     JSON    NOT NULL,
     participant_context_id   VARCHAR,
+    version          BIGINT  NOT NULL DEFAULT 1, -- incremented with every update, used for optimistic locking
     PRIMARY KEY (did)
 );
+
+-- migrate tables that were created before optimistic locking was introduced
+ALTER TABLE did_resources ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 1;
+-- keyset pagination compares and sorts by did, byte-wise, so that the order is the same as in Java and across shards
+DO
+$$
+    BEGIN
+        IF (SELECT collation_name FROM information_schema.columns
+            WHERE table_schema = current_schema() AND table_name = 'did_resources' AND column_name = 'did') IS DISTINCT FROM 'C' THEN
+            ALTER TABLE did_resources ALTER COLUMN did TYPE VARCHAR COLLATE "C";
+        END IF;
+    END
+$$;
@@ -14,6 +14,7 @@
 
 package org.eclipse.edc.identityhub.store.sql.keypair;
 
+import org.eclipse.edc.identityhub.spi.keypair.model.KeyPairState;
 import org.eclipse.edc.identityhub.store.sql.keypair.schema.postgres.KeyPairResourceMapping;
 import org.eclipse.edc.spi.query.QuerySpec;
 import org.eclipse.edc.sql.translation.PostgresqlOperatorTranslator;
@@ -33,10 +34,12 @@ public class BaseSqlDialectStatements implements KeyPairResourceStoreStatements
                 .column(getIsDefaultKeyPairColumn())
                 .column(getUseDurationColumn())
                 .column(getRotationDurationColumn())
+                .column(getRotationTimestampColumn())
                 .column(getSerializedPublicKeyColumn())
                 .column(getPrivateKeyAliasColumn())
                 .column(getStateColumn())
                 .column(getKeyContextColumn())
+                .column(getVersionColumn())
                 .insertInto(getTableName());
     }
 
@@ -51,11 +54,13 @@ public class BaseSqlDialectStatements implements KeyPairResourceStoreStatements
                 .column(getIsDefaultKeyPairColumn())
                 .column(getUseDurationColumn())
                 .column(getRotationDurationColumn())
+                .column(getRotationTimestampColumn())
                 .column(getSerializedPublicKeyColumn())
                 .column(getPrivateKeyAliasColumn())
                 .column(getStateColumn())
                 .column(getKeyContextColumn())
-                .update(getTableName(), getIdColumn());
+                .column(getVersionColumn())
+                .update(getTableName(), getIdColumn()) + format(" AND %s = ?", getVersionColumn());
     }
 
     @Override
@@ -63,12 +68,29 @@ public class BaseSqlDialectStatements implements KeyPairResourceStoreStatements
         return executeStatement().delete(getTableName(), getIdColumn());
     }
 
+    @Override
+    public String getDeleteByParticipantContextIdTemplate() {
+        return executeStatement().delete(getTableName(), getParticipantIdColumn());
+    }
+
     @Override
     public String getFindByIdTemplate() {
         return format("SELECT * FROM %s WHERE %s = ?", getTableName(), getIdColumn());
 
     }
 
+    @Override
+    public String getFindDueForRotationTemplate() {
+        return findDueTemplate(format("%s = %d", getStateColumn(), KeyPairState.ACTIVATED.code()), format("%s + %s", getTimestampColumn(), getUseDurationColumn()));
+    }
+
+    @Override
+    public String getFindDueForRetirementTemplate() {
+        // a rotation timestamp of 0 is unknown, such key pairs are never due
+        return findDueTemplate(format("%s = %d AND %s > 0", getStateColumn(), KeyPairState.ROTATED.code(), getRotationTimestampColumn()),
+                format("%s + %s", getRotationTimestampColumn(), getRotationDurationColumn()));
+    }
+
     @Override
     public SqlQueryStatement createQuery(QuerySpec querySpec) {
         var select = getSelectStatement();
@@ -79,4 +101,10 @@ public class BaseSqlDialectStatements implements KeyPairResourceStoreStatements
     public String getSelectStatement() {
         return format("SELECT * FROM %s", getTableName());
     }
+
+    // the expressions must match the partial indexes in the schema, so that they can be used. The state is inlined, because
+    // generic plans of prepared statements cannot use partial indexes whose predicate depends on a parameter
+    private String findDueTemplate(String condition, String dueAt) {
+        return format("SELECT * FROM %s WHERE %s AND (%s) <= ? ORDER BY (%s) LIMIT ?", getTableName(), condition, dueAt, dueAt);
+    }
 }
@@ -59,6 +59,10 @@ public interface KeyPairResourceStoreStatements extends SqlStatements {
         return "rotation_duration";
     }
 
+    default String getRotationTimestampColumn() {
+        return "rotation_timestamp";
+    }
+
     default String getSerializedPublicKeyColumn() {
         return "serialized_public_key";
     }
@@ -75,14 +79,38 @@ public interface KeyPairResourceStoreStatements extends SqlStatements {
         return "key_context";
     }
 
+    default String getVersionColumn() {
+        return "version";
+    }
+
     String getInsertTemplate();
 
+    /**
+     * Conditional update: the parameters are the values of all columns including the new version, followed by the ID and
+     * the expected (current) version.
+     */
     String getUpdateTemplate();
 
     String getDeleteByIdTemplate();
 
+    /**
+     * Deletes all key pairs of the participant context that is passed as the only parameter.
+     */
+    String getDeleteByParticipantContextIdTemplate();
+
     String getFindByIdTemplate();
 
+    /**
+     * Selects the activated key pairs whose use duration has ended. The parameters are the deadline and the limit.
+     */
+    String getFindDueForRotationTemplate();
+
+    /**
+     * Selects the rotated key pairs whose rotation duration has ended, skipping those without rotation timestamp. The parameters
+     * are the deadline and the limit.
+     */
+    String getFindDueForRetirementTemplate();
+
     SqlQueryStatement createQuery(QuerySpec query);
 
     String getSelectStatement();
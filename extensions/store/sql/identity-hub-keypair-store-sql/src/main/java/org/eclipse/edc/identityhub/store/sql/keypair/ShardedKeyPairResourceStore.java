@@ -0,0 +1,114 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.store.sql.keypair;
+
+import org.eclipse.edc.identityhub.spi.keypair.model.KeyPairResource;
+import org.eclipse.edc.identityhub.spi.keypair.store.KeyPairResourceStore;
+import org.eclipse.edc.identityhub.sql.sharding.ShardedStoreSupport;
+import org.eclipse.edc.spi.persistence.EdcPersistenceException;
+import org.eclipse.edc.spi.query.Criterion;
+import org.eclipse.edc.spi.query.QuerySpec;
+import org.eclipse.edc.spi.result.StoreResult;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * {@link KeyPairResourceStore} that distributes key pairs across multiple datasources ("shards") by their participant context ID.
+ * Every shard is a regular {@link SqlKeyPairResourceStore}. Queries that are restricted to one participant context hit only
+ * one shard, all other queries fan out to all shards and are merged. Only the placement of participant contexts is kept in
+ * the shard directory, so key pair IDs are only unique per shard, and deleting a key pair by its ID alone asks every shard.
+ */
+public class ShardedKeyPairResourceStore implements KeyPairResourceStore {
+    private final ShardedStoreSupport<KeyPairResourceStore> shards;
+
+    public ShardedKeyPairResourceStore(ShardedStoreSupport<KeyPairResourceStore> shards) {
+        this.shards = shards;
+    }
+
+    /**
+     * Lists the key pairs of one shard, so that their participant contexts can be recorded in the shard directory.
+     */
+    public static ShardedStoreSupport.Inventory<KeyPairResourceStore> inventory() {
+        return (store, afterId, limit) -> {
+            var query = QuerySpec.Builder.newInstance().sortField("id").limit(limit);
+            if (afterId != null) {
+                query.filter(new Criterion("id", ">", afterId));
+            }
+            return store.query(query.build())
+                    .orElseThrow(f -> new EdcPersistenceException(f.getFailureDetail()))
+                    .stream()
+                    .map(keyPair -> new ShardedStoreSupport.Inventory.Entry(keyPair.getId(), keyPair.getParticipantContextId()))
+                    .toList();
+        };
+    }
+
+    @Override
+    public StoreResult<Void> create(KeyPairResource keyPairResource) {
+        return shards.inTransaction(() -> shards.placeParticipant(keyPairResource.getParticipantContextId()).create(keyPairResource));
+    }
+
+    @Override
+    public StoreResult<Collection<KeyPairResource>> query(QuerySpec query) {
+        return StoreResult.success(shards.query(query, (store, q) -> store.query(q)
+                .orElseThrow(f -> new EdcPersistenceException(f.getFailureDetail()))));
+    }
+
+    @Override
+    public StoreResult<Void> update(KeyPairResource keyPairResource) {
+        return shards.forParticipant(keyPairResource.getParticipantContextId()).update(keyPairResource);
+    }
+
+    @Override
+    public StoreResult<Void> deleteById(String id) {
+        return shards.inTransaction(() -> {
+            var located = shards.findEntity(id, store -> store.query(QuerySpec.Builder.newInstance().filter(new Criterion("id", "=", id)).build())
+                    .orElseThrow(f -> new EdcPersistenceException(f.getFailureDetail()))
+                    .stream()
+                    .findFirst()
+                    .orElse(null));
+            return located != null ?
+                    located.store().deleteById(id) :
+                    StoreResult.notFound("A KeyPairResource with ID '%s' does not exist.".formatted(id));
+        });
+    }
+
+    @Override
+    public StoreResult<Integer> deleteByParticipantContextId(String participantContextId) {
+        return shards.forParticipant(participantContextId).deleteByParticipantContextId(participantContextId);
+    }
+
+    @Override
+    public StoreResult<Collection<KeyPairResource>> findDueForRotation(long deadline, int limit) {
+        return findDue(store -> store.findDueForRotation(deadline, limit), kpr -> kpr.getTimestamp() + kpr.getUseDuration(), limit);
+    }
+
+    @Override
+    public StoreResult<Collection<KeyPairResource>> findDueForRetirement(long deadline, int limit) {
+        return findDue(store -> store.findDueForRetirement(deadline, limit), kpr -> kpr.getRotationTimestamp() + kpr.getRotationDuration(), limit);
+    }
+
+    private StoreResult<Collection<KeyPairResource>> findDue(Function<KeyPairResourceStore, StoreResult<Collection<KeyPairResource>>> query,
+                                                             ToLongFunction<KeyPairResource> dueAt, int limit) {
+        var merged = shards.forAll(store -> query.apply(store).orElseThrow(f -> new EdcPersistenceException(f.getFailureDetail())));
+        return StoreResult.success(merged.stream()
+                .flatMap(Collection::stream)
+                .sorted(Comparator.comparingLong(dueAt))
+                .limit(limit)
+                .toList());
+    }
+}
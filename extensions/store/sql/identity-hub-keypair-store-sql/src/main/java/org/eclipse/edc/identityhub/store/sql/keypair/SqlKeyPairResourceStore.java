@@ -17,6 +17,8 @@ package org.eclipse.edc.identityhub.store.sql.keypair;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.eclipse.edc.identityhub.spi.keypair.model.KeyPairResource;
 import org.eclipse.edc.identityhub.spi.keypair.store.KeyPairResourceStore;
+import org.eclipse.edc.identityhub.spi.participantcontext.store.OptimisticLocking;
+import org.eclipse.edc.identityhub.sql.routing.ReadReplicaRouter;
 import org.eclipse.edc.spi.persistence.EdcPersistenceException;
 import org.eclipse.edc.spi.query.QuerySpec;
 import org.eclipse.edc.spi.result.StoreResult;
@@ -39,10 +41,18 @@ import static org.eclipse.edc.spi.result.StoreResult.success;
 public class SqlKeyPairResourceStore extends AbstractSqlStore implements KeyPairResourceStore {
 
     private final KeyPairResourceStoreStatements statements;
+    private final ReadReplicaRouter router;
 
     public SqlKeyPairResourceStore(DataSourceRegistry dataSourceRegistry, String dataSourceName, TransactionContext transactionContext, ObjectMapper objectMapper, QueryExecutor queryExecutor, KeyPairResourceStoreStatements statements) {
+        this(dataSourceRegistry, dataSourceName, transactionContext, objectMapper, queryExecutor, statements,
+                ReadReplicaRouter.primaryOnly(dataSourceRegistry, dataSourceName, transactionContext));
+    }
+
+    public SqlKeyPairResourceStore(DataSourceRegistry dataSourceRegistry, String dataSourceName, TransactionContext transactionContext, ObjectMapper objectMapper,
+                                   QueryExecutor queryExecutor, KeyPairResourceStoreStatements statements, ReadReplicaRouter router) {
         super(dataSourceRegistry, dataSourceName, transactionContext, objectMapper, queryExecutor);
         this.statements = statements;
+        this.router = router;
     }
 
     @Override
@@ -62,11 +72,14 @@ public class SqlKeyPairResourceStore extends AbstractSqlStore implements KeyPair
                         keyPairResource.isDefaultPair(),
                         keyPairResource.getUseDuration(),
                         keyPairResource.getRotationDuration(),
+                        keyPairResource.getRotationTimestamp(),
                         keyPairResource.getSerializedPublicKey(),
                         keyPairResource.getPrivateKeyAlias(),
                         keyPairResource.getState(),
-                        keyPairResource.getKeyContext());
-
+                        keyPairResource.getKeyContext(),
+                        1L);
+                keyPairResource.setVersion(1);
+                router.recordWrite(keyPairResource.getParticipantContextId());
                 return success();
             } catch (SQLException e) {
                 throw new EdcPersistenceException(e);
@@ -76,8 +89,9 @@ public class SqlKeyPairResourceStore extends AbstractSqlStore implements KeyPair
 
     @Override
     public StoreResult<Collection<KeyPairResource>> query(QuerySpec querySpec) {
+        var useReplica = router.canReadFromReplica(querySpec);
         return transactionContext.execute(() -> {
-            try (var connection = getConnection()) {
+            try (var connection = router.getReadConnection(useReplica)) {
                 var query = statements.createQuery(querySpec);
                 return success(queryExecutor.query(connection, true, this::mapResultSet, query.getQueryAsString(), query.getParameters()).toList());
             } catch (SQLException e) {
@@ -93,12 +107,17 @@ public class SqlKeyPairResourceStore extends AbstractSqlStore implements KeyPair
             try (var connection = getConnection()) {
 
                 var id = keyPairResource.getId();
-                if (findByIdInternal(connection, id) == null) {
-                    return notFound("A KeyPairResource with ID '%s' does not exist.".formatted(id));
+                var expectedVersion = keyPairResource.getVersion();
+                if (expectedVersion == 0) {
+                    var existing = findByIdInternal(connection, id);
+                    if (existing == null) {
+                        return notFound("A KeyPairResource with ID '%s' does not exist.".formatted(id));
+                    }
+                    expectedVersion = existing.getVersion();
                 }
 
                 var updateStmt = statements.getUpdateTemplate();
-                queryExecutor.execute(connection, updateStmt, id,
+                var updated = queryExecutor.execute(connection, updateStmt, id,
                         keyPairResource.getParticipantContextId(),
                         keyPairResource.getTimestamp(),
                         keyPairResource.getKeyId(),
@@ -106,12 +125,21 @@ public class SqlKeyPairResourceStore extends AbstractSqlStore implements KeyPair
                         keyPairResource.isDefaultPair(),
                         keyPairResource.getUseDuration(),
                         keyPairResource.getRotationDuration(),
+                        keyPairResource.getRotationTimestamp(),
                         keyPairResource.getSerializedPublicKey(),
                         keyPairResource.getPrivateKeyAlias(),
                         keyPairResource.getState(),
                         keyPairResource.getKeyContext(),
-                        id);
-
+                        expectedVersion + 1,
+                        id,
+                        expectedVersion);
+                if (updated == 0) {
+                    return findByIdInternal(connection, id) == null ?
+                            notFound("A KeyPairResource with ID '%s' does not exist.".formatted(id)) :
+                            OptimisticLocking.versionConflict("KeyPairResource", id);
+                }
+                keyPairResource.setVersion(expectedVersion + 1);
+                router.recordWrite(keyPairResource.getParticipantContextId());
                 return success();
             } catch (SQLException e) {
                 throw new EdcPersistenceException(e);
@@ -123,13 +151,14 @@ public class SqlKeyPairResourceStore extends AbstractSqlStore implements KeyPair
     public StoreResult<Void> deleteById(String id) {
         return transactionContext.execute(() -> {
             try (var connection = getConnection()) {
-                if (findByIdInternal(connection, id) == null) {
+                var existing = findByIdInternal(connection, id);
+                if (existing == null) {
                     return notFound("A KeyPairResource with ID '%s' does not exist.".formatted(id));
                 }
 
                 var deleteStmt = statements.getDeleteByIdTemplate();
                 queryExecutor.execute(connection, deleteStmt, id);
-
+                router.recordWrite(existing.getParticipantContextId());
                 return success();
             } catch (SQLException e) {
                 throw new EdcPersistenceException(e);
@@ -137,6 +166,40 @@ public class SqlKeyPairResourceStore extends AbstractSqlStore implements KeyPair
         });
     }
 
+    @Override
+    public StoreResult<Integer> deleteByParticipantContextId(String participantContextId) {
+        Objects.requireNonNull(participantContextId);
+        return transactionContext.execute(() -> {
+            try (var connection = getConnection()) {
+                var deleted = queryExecutor.execute(connection, statements.getDeleteByParticipantContextIdTemplate(), participantContextId);
+                router.recordWrite(participantContextId);
+                return success(deleted);
+            } catch (SQLException e) {
+                throw new EdcPersistenceException(e);
+            }
+        });
+    }
+
+    @Override
+    public StoreResult<Collection<KeyPairResource>> findDueForRotation(long deadline, int limit) {
+        return findDue(statements.getFindDueForRotationTemplate(), deadline, limit);
+    }
+
+    @Override
+    public StoreResult<Collection<KeyPairResource>> findDueForRetirement(long deadline, int limit) {
+        return findDue(statements.getFindDueForRetirementTemplate(), deadline, limit);
+    }
+
+    private StoreResult<Collection<KeyPairResource>> findDue(String template, long deadline, int limit) {
+        return transactionContext.execute(() -> {
+            try (var connection = getConnection()) {
+                return success(queryExecutor.query(connection, true, this::mapResultSet, template, deadline, limit).toList());
+            } catch (SQLException e) {
+                throw new EdcPersistenceException(e);
+            }
+        });
+    }
+
     private @Nullable KeyPairResource findByIdInternal(Connection connection, String id) {
         return transactionContext.execute(() -> {
             var stmt = statements.getFindByIdTemplate();
@@ -155,10 +218,12 @@ public class SqlKeyPairResourceStore extends AbstractSqlStore implements KeyPair
                 .isDefaultPair(resultSet.getBoolean(statements.getIsDefaultKeyPairColumn()))
                 .useDuration(resultSet.getLong(statements.getUseDurationColumn()))
                 .rotationDuration(resultSet.getLong(statements.getRotationDurationColumn()))
+                .rotationTimestamp(resultSet.getLong(statements.getRotationTimestampColumn()))
                 .serializedPublicKey(resultSet.getString(statements.getSerializedPublicKeyColumn()))
                 .privateKeyAlias(resultSet.getString(statements.getPrivateKeyAliasColumn()))
                 .state(resultSet.getInt(statements.getStateColumn()))
                 .keyContext(resultSet.getString(statements.getKeyContextColumn()))
+                .version(resultSet.getLong(statements.getVersionColumn()))
                 .build();
     }
 
@@ -27,6 +27,7 @@ public class KeyPairResourceMapping extends TranslationMapping {
         add("isDefaultPair", stmt.getIsDefaultKeyPairColumn());
         add("useDuration", stmt.getUseDurationColumn());
         add("rotationDuration", stmt.getRotationDurationColumn());
+        add("rotationTimestamp", stmt.getRotationTimestampColumn());
         add("serializedPublicKey", stmt.getSerializedPublicKeyColumn());
         add("privateKeyAlias", stmt.getPrivateKeyAliasColumn());
         add("state", stmt.getStateColumn());
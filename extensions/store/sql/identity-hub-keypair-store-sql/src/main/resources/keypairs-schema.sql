@@ -15,7 +15,7 @@
 -- only intended for and tested with Postgres!
 CREATE TABLE IF NOT EXISTS keypair_resource
 (
-    id                    VARCHAR PRIMARY KEY NOT NULL,               -- primary key
+    id                    VARCHAR COLLATE "C" PRIMARY KEY NOT NULL,   -- primary key
     participant_context_id        VARCHAR,                                    -- ID of the owning ParticipantContext. this is a loose business key, not a FK!
     timestamp             BIGINT              NOT NULL,               -- creation timestamp
     key_id                VARCHAR             NOT NULL,               -- name/key-id of this key pair. for use in JWTs etc.
@@ -23,9 +23,29 @@ CREATE TABLE IF NOT EXISTS keypair_resource
     is_default_pair       BOOLEAN                      DEFAULT FALSE, -- whether this keypair is the default one for a participant context
     use_duration          BIGINT,                                     -- maximum time this keypair can be active before it gets rotated
     rotation_duration     BIGINT,                                     -- duration during which this keypair is in a transitional state (rotated, not yet deactivated)
+    rotation_timestamp    BIGINT              NOT NULL DEFAULT 0,     -- point in time when the rotation was started
     serialized_public_key VARCHAR             NOT NULL,               -- serialized public key (PEM, JWK,...)
     private_key_alias     VARCHAR             NOT NULL,               -- alias under which the private key is stored in the HSM/Vault
     state                 INT                 NOT NULL DEFAULT 100,   -- KeyPairState
-    key_context           VARCHAR                                     --the key context, will end up in the VerificationMethod of the DID Document
+    key_context           VARCHAR,                                    --the key context, will end up in the VerificationMethod of the DID Document
+    version               BIGINT              NOT NULL DEFAULT 1      -- incremented with every update, used for optimistic locking
 );
-
+-- migrate tables that were created before optimistic locking was introduced
+ALTER TABLE keypair_resource ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 1;
+ALTER TABLE keypair_resource ADD COLUMN IF NOT EXISTS rotation_timestamp BIGINT NOT NULL DEFAULT 0;
+-- key pairs that were rotated before the rotation timestamp was introduced count as rotated at migration time, otherwise
+-- they would all be retired at once by the first rotation run
+UPDATE keypair_resource SET rotation_timestamp = (EXTRACT(EPOCH FROM now()) * 1000)::BIGINT WHERE state = 300 AND rotation_timestamp = 0;
+-- keyset pagination compares and sorts by id, byte-wise, so that the order is the same as in Java and across shards
+DO
+$$
+    BEGIN
+        IF (SELECT collation_name FROM information_schema.columns
+            WHERE table_schema = current_schema() AND table_name = 'keypair_resource' AND column_name = 'id') IS DISTINCT FROM 'C' THEN
+            ALTER TABLE keypair_resource ALTER COLUMN id TYPE VARCHAR COLLATE "C";
+        END IF;
+    END
+$$;
+-- used to find key pairs that are due for rotation or retirement
+CREATE INDEX IF NOT EXISTS keypair_resource_rotation_due_index ON keypair_resource ((timestamp + use_duration)) WHERE state = 200;
+CREATE INDEX IF NOT EXISTS keypair_resource_retirement_due_index ON keypair_resource ((rotation_timestamp + rotation_duration)) WHERE state = 300;
@@ -30,8 +30,10 @@ public class BaseSqlDialectStatements implements ParticipantContextStoreStatemen
                 .column(getLastModifiedTimestampColumn())
                 .column(getStateColumn())
                 .column(getApiTokenAliasColumn())
+                .column(getApiTokenHashColumn())
                 .column(getDidColumn())
                 .jsonColumn(getRolesRolumn())
+                .column(getVersionColumn())
                 .insertInto(getParticipantContextTable());
     }
 
@@ -43,9 +45,11 @@ public class BaseSqlDialectStatements implements ParticipantContextStoreStatemen
                 .column(getLastModifiedTimestampColumn())
                 .column(getStateColumn())
                 .column(getApiTokenAliasColumn())
+                .column(getApiTokenHashColumn())
                 .column(getDidColumn())
                 .jsonColumn(getRolesRolumn())
-                .update(getParticipantContextTable(), getIdColumn());
+                .column(getVersionColumn())
+                .update(getParticipantContextTable(), getIdColumn()) + format(" AND %s = ?", getVersionColumn());
     }
 
     @Override
@@ -47,6 +47,10 @@ public interface ParticipantContextStoreStatements extends SqlStatements {
         return "api_token_alias";
     }
 
+    default String getApiTokenHashColumn() {
+        return "api_token_hash";
+    }
+
     default String getDidColumn() {
         return "did";
     }
@@ -55,8 +59,16 @@ public interface ParticipantContextStoreStatements extends SqlStatements {
         return "roles";
     }
 
+    default String getVersionColumn() {
+        return "version";
+    }
+
     String getInsertTemplate();
 
+    /**
+     * Conditional update: the parameters are the values of all columns including the new version, followed by the ID and
+     * the expected (current) version.
+     */
     String getUpdateTemplate();
 
     String getDeleteByIdTemplate();
@@ -0,0 +1,81 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.store.sql.participantcontext;
+
+import org.eclipse.edc.identityhub.spi.participantcontext.model.ParticipantContext;
+import org.eclipse.edc.identityhub.spi.participantcontext.store.ParticipantContextStore;
+import org.eclipse.edc.identityhub.sql.sharding.ShardedStoreSupport;
+import org.eclipse.edc.spi.persistence.EdcPersistenceException;
+import org.eclipse.edc.spi.query.Criterion;
+import org.eclipse.edc.spi.query.QuerySpec;
+import org.eclipse.edc.spi.result.StoreResult;
+
+import java.util.Collection;
+
+/**
+ * {@link ParticipantContextStore} that distributes participant contexts across multiple datasources ("shards") by their ID.
+ * Every shard is a regular {@link SqlParticipantContextStore}. Since the ID of a participant context is its shard key,
+ * all single-entity operations hit exactly one shard.
+ */
+public class ShardedParticipantContextStore implements ParticipantContextStore {
+    private final ShardedStoreSupport<ParticipantContextStore> shards;
+
+    public ShardedParticipantContextStore(ShardedStoreSupport<ParticipantContextStore> shards) {
+        this.shards = shards;
+    }
+
+    /**
+     * Lists the participant contexts of one shard, so that they can be recorded in the shard directory.
+     */
+    public static ShardedStoreSupport.Inventory<ParticipantContextStore> inventory() {
+        return (store, afterId, limit) -> {
+            var query = QuerySpec.Builder.newInstance().sortField("participantContextId").limit(limit);
+            if (afterId != null) {
+                query.filter(new Criterion("participantContextId", ">", afterId));
+            }
+            return store.query(query.build())
+                    .orElseThrow(f -> new EdcPersistenceException(f.getFailureDetail()))
+                    .stream()
+                    .map(context -> new ShardedStoreSupport.Inventory.Entry(context.getParticipantContextId(), context.getParticipantContextId()))
+                    .toList();
+        };
+    }
+
+    @Override
+    public StoreResult<Void> create(ParticipantContext context) {
+        return shards.placeParticipant(context.getParticipantContextId()).create(context);
+    }
+
+    @Override
+    public StoreResult<Collection<ParticipantContext>> query(QuerySpec querySpec) {
+        return StoreResult.success(shards.query(querySpec, (store, query) -> store.query(query)
+                .orElseThrow(f -> new EdcPersistenceException(f.getFailureDetail()))));
+    }
+
+    @Override
+    public StoreResult<Void> update(ParticipantContext participantContext) {
+        return shards.forParticipant(participantContext.getParticipantContextId()).update(participantContext);
+    }
+
+    @Override
+    public StoreResult<Void> deleteById(String id) {
+        return shards.forParticipant(id).deleteById(id);
+    }
+
+    @Override
+    public StoreResult<ParticipantContext> findById(String participantContextId) {
+        return shards.forParticipant(participantContextId).findById(participantContextId);
+    }
+}
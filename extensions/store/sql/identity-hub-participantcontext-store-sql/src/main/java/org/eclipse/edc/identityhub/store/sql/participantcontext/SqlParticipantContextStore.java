@@ -18,7 +18,9 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.eclipse.edc.identityhub.spi.participantcontext.model.ParticipantContext;
 import org.eclipse.edc.identityhub.spi.participantcontext.model.ParticipantContextState;
+import org.eclipse.edc.identityhub.spi.participantcontext.store.OptimisticLocking;
 import org.eclipse.edc.identityhub.spi.participantcontext.store.ParticipantContextStore;
+import org.eclipse.edc.identityhub.sql.routing.ReadReplicaRouter;
 import org.eclipse.edc.spi.persistence.EdcPersistenceException;
 import org.eclipse.edc.spi.query.QuerySpec;
 import org.eclipse.edc.spi.result.StoreResult;
@@ -46,6 +48,7 @@ public class SqlParticipantContextStore extends AbstractSqlStore implements Part
     private static final TypeReference<List<String>> LIST_REF = new TypeReference<>() {
     };
     private final ParticipantContextStoreStatements statements;
+    private final ReadReplicaRouter router;
 
     public SqlParticipantContextStore(DataSourceRegistry dataSourceRegistry,
                                       String dataSourceName,
@@ -53,8 +56,20 @@ public class SqlParticipantContextStore extends AbstractSqlStore implements Part
                                       ObjectMapper objectMapper,
                                       QueryExecutor queryExecutor,
                                       ParticipantContextStoreStatements statements) {
+        this(dataSourceRegistry, dataSourceName, transactionContext, objectMapper, queryExecutor, statements,
+                ReadReplicaRouter.primaryOnly(dataSourceRegistry, dataSourceName, transactionContext));
+    }
+
+    public SqlParticipantContextStore(DataSourceRegistry dataSourceRegistry,
+                                      String dataSourceName,
+                                      TransactionContext transactionContext,
+                                      ObjectMapper objectMapper,
+                                      QueryExecutor queryExecutor,
+                                      ParticipantContextStoreStatements statements,
+                                      ReadReplicaRouter router) {
         super(dataSourceRegistry, dataSourceName, transactionContext, objectMapper, queryExecutor);
         this.statements = statements;
+        this.router = router;
     }
 
     @Override
@@ -73,9 +88,13 @@ public class SqlParticipantContextStore extends AbstractSqlStore implements Part
                         participantContext.getLastModified(),
                         participantContext.getState(),
                         participantContext.getApiTokenAlias(),
+                        participantContext.getApiTokenHash(),
                         participantContext.getDid(),
-                        toJson(participantContext.getRoles())
+                        toJson(participantContext.getRoles()),
+                        1L
                 );
+                participantContext.setVersion(1);
+                router.recordWrite(id);
                 return success();
 
             } catch (SQLException e) {
@@ -86,8 +105,9 @@ public class SqlParticipantContextStore extends AbstractSqlStore implements Part
 
     @Override
     public StoreResult<Collection<ParticipantContext>> query(QuerySpec querySpec) {
+        var useReplica = router.canReadFromReplica(querySpec);
         return transactionContext.execute(() -> {
-            try (var connection = getConnection()) {
+            try (var connection = router.getReadConnection(useReplica)) {
                 var query = statements.createQuery(querySpec);
                 return success(queryExecutor.query(connection, true, this::mapResultSet, query.getQueryAsString(), query.getParameters()).toList());
             } catch (SQLException e) {
@@ -104,20 +124,35 @@ public class SqlParticipantContextStore extends AbstractSqlStore implements Part
         Objects.requireNonNull(id);
         return transactionContext.execute(() -> {
             try (var connection = getConnection()) {
-                if (findByIdInternal(connection, id) != null) {
-                    queryExecutor.execute(connection,
-                            statements.getUpdateTemplate(),
-                            id,
-                            participantContext.getCreatedAt(),
-                            participantContext.getLastModified(),
-                            participantContext.getState(),
-                            participantContext.getApiTokenAlias(),
-                            participantContext.getDid(),
-                            toJson(participantContext.getRoles()),
-                            id);
-                    return StoreResult.success();
+                var expectedVersion = participantContext.getVersion();
+                if (expectedVersion == 0) {
+                    var existing = findByIdInternal(connection, id);
+                    if (existing == null) {
+                        return StoreResult.notFound(notFoundErrorMessage(id));
+                    }
+                    expectedVersion = existing.getVersion();
                 }
-                return StoreResult.notFound(notFoundErrorMessage(id));
+                var updated = queryExecutor.execute(connection,
+                        statements.getUpdateTemplate(),
+                        id,
+                        participantContext.getCreatedAt(),
+                        participantContext.getLastModified(),
+                        participantContext.getState(),
+                        participantContext.getApiTokenAlias(),
+                        participantContext.getApiTokenHash(),
+                        participantContext.getDid(),
+                        toJson(participantContext.getRoles()),
+                        expectedVersion + 1,
+                        id,
+                        expectedVersion);
+                if (updated == 0) {
+                    return findByIdInternal(connection, id) == null ?
+                            StoreResult.notFound(notFoundErrorMessage(id)) :
+                            OptimisticLocking.versionConflict("ParticipantContext", id);
+                }
+                participantContext.setVersion(expectedVersion + 1);
+                router.recordWrite(id);
+                return StoreResult.success();
             } catch (SQLException e) {
                 throw new EdcPersistenceException(e);
             }
@@ -132,6 +167,7 @@ public class SqlParticipantContextStore extends AbstractSqlStore implements Part
                 if (findByIdInternal(connection, id) != null) {
                     var stmt = statements.getDeleteByIdTemplate();
                     queryExecutor.execute(connection, stmt, id);
+                    router.recordWrite(id);
                     return success();
                 }
                 return StoreResult.notFound(notFoundErrorMessage(id));
@@ -155,6 +191,7 @@ public class SqlParticipantContextStore extends AbstractSqlStore implements Part
         var lastmodified = resultSet.getLong(statements.getLastModifiedTimestampColumn());
         var state = resultSet.getInt(statements.getStateColumn());
         var tokenAliase = resultSet.getString(statements.getApiTokenAliasColumn());
+        var tokenHash = resultSet.getString(statements.getApiTokenHashColumn());
         var did = resultSet.getString(statements.getDidColumn());
         var roles = fromJson(resultSet.getString(statements.getRolesRolumn()), LIST_REF);
 
@@ -164,8 +201,10 @@ public class SqlParticipantContextStore extends AbstractSqlStore implements Part
                 .lastModified(lastmodified)
                 .state(ParticipantContextState.values()[state])
                 .apiTokenAlias(tokenAliase)
+                .apiTokenHash(tokenHash)
                 .did(did)
                 .roles(roles)
+                .version(resultSet.getLong(statements.getVersionColumn()))
                 .build();
     }
 }
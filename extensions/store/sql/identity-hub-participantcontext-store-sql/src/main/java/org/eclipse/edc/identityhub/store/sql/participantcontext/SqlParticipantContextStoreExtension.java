@@ -15,11 +15,17 @@
 package org.eclipse.edc.identityhub.store.sql.participantcontext;
 
 import org.eclipse.edc.identityhub.spi.participantcontext.store.ParticipantContextStore;
+import org.eclipse.edc.identityhub.sql.routing.ReadReplicaRouter;
+import org.eclipse.edc.identityhub.sql.sharding.ShardDirectory;
+import org.eclipse.edc.identityhub.sql.sharding.ShardDirectoryStatements;
+import org.eclipse.edc.identityhub.sql.sharding.ShardedStoreSupport;
+import org.eclipse.edc.identityhub.sql.sharding.SqlShardDirectory;
 import org.eclipse.edc.identityhub.store.sql.participantcontext.schema.postgres.PostgresDialectStatements;
 import org.eclipse.edc.runtime.metamodel.annotation.Extension;
 import org.eclipse.edc.runtime.metamodel.annotation.Inject;
 import org.eclipse.edc.runtime.metamodel.annotation.Provider;
 import org.eclipse.edc.runtime.metamodel.annotation.Setting;
+import org.eclipse.edc.spi.system.ExecutorInstrumentation;
 import org.eclipse.edc.spi.system.ServiceExtension;
 import org.eclipse.edc.spi.system.ServiceExtensionContext;
 import org.eclipse.edc.spi.types.TypeManager;
@@ -28,6 +34,13 @@ import org.eclipse.edc.sql.bootstrapper.SqlSchemaBootstrapper;
 import org.eclipse.edc.transaction.datasource.spi.DataSourceRegistry;
 import org.eclipse.edc.transaction.spi.TransactionContext;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.toMap;
 import static org.eclipse.edc.identityhub.store.sql.participantcontext.SqlParticipantContextStoreExtension.NAME;
 
 @Extension(value = NAME)
@@ -37,11 +50,27 @@ public class SqlParticipantContextStoreExtension implements ServiceExtension {
     @Setting(value = "The datasource to be used", defaultValue = DataSourceRegistry.DEFAULT_DATASOURCE, key = "edc.sql.store.participantcontext.datasource")
     private String dataSourceName;
 
+    @Setting(description = "The datasource of a read replica. If set, queries are served by the replica, unless they are executed within a transaction or shortly after a write. Cannot be combined with sharding.",
+            key = "edc.sql.store.participantcontext.read.datasource", required = false)
+    private String readDataSourceName;
+
+    @Setting(description = "The time in milliseconds after a write during which all reads still go to the primary datasource. Should be larger than the expected replication lag.",
+            defaultValue = ReadReplicaRouter.DEFAULT_STALENESS_MILLIS, key = "edc.sql.store.participantcontext.read.staleness")
+    private long readStalenessMillis;
+
+    @Setting(description = "Comma-separated list of datasources across which participant contexts are sharded by their ID. If set, the 'edc.sql.store.participantcontext.datasource' datasource only holds the shard directory, which records the shard of every participant context. Shards can be added, but not removed.",
+            key = "edc.sql.store.participantcontext.shards", required = false)
+    private String shards;
+
     @Inject
     private DataSourceRegistry dataSourceRegistry;
     @Inject
     private TransactionContext transactionContext;
     @Inject
+    private Clock clock;
+    @Inject
+    private ExecutorInstrumentation executorInstrumentation;
+    @Inject
     private TypeManager typemanager;
     @Inject
     private QueryExecutor queryExecutor;
@@ -50,19 +79,68 @@ public class SqlParticipantContextStoreExtension implements ServiceExtension {
     @Inject
     private SqlSchemaBootstrapper sqlSchemaBootstrapper;
 
+    private ExecutorService shardExecutor;
+    private ShardedStoreSupport<ParticipantContextStore> shardSupport;
+
     @Override
     public void initialize(ServiceExtensionContext context) {
-        sqlSchemaBootstrapper.addStatementFromResource(dataSourceName, "participant-schema.sql");
+        var shardNames = ShardedStoreSupport.parseShardNames(shards);
+        ShardedStoreSupport.checkNoReadReplica(shardNames, readDataSourceName, "edc.sql.store.participantcontext.shards", "edc.sql.store.participantcontext.read.datasource");
+        if (shardNames.isEmpty()) {
+            sqlSchemaBootstrapper.addStatementFromResource(dataSourceName, "participant-schema.sql");
+        } else {
+            shardNames.forEach(shard -> sqlSchemaBootstrapper.addStatementFromResource(shard, "participant-schema.sql"));
+            sqlSchemaBootstrapper.addStatementFromResource(dataSourceName, "shard-directory-schema.sql");
+        }
     }
 
     @Provider
     public ParticipantContextStore createSqlStore(ServiceExtensionContext context) {
+        var shardNames = ShardedStoreSupport.parseShardNames(shards);
+        if (!shardNames.isEmpty()) {
+            var stores = shardNames.stream().collect(toMap(identity(), shard -> (ParticipantContextStore) new SqlParticipantContextStore(dataSourceRegistry, shard,
+                    transactionContext, typemanager.getMapper(), queryExecutor, getStatementImpl(),
+                    ReadReplicaRouter.primaryOnly(dataSourceRegistry, shard, transactionContext))));
+            shardSupport = new ShardedStoreSupport<>(stores, createShardDirectory(), transactionContext, createShardExecutor(shardNames.size()));
+            return new ShardedParticipantContextStore(shardSupport);
+        }
         return new SqlParticipantContextStore(dataSourceRegistry, dataSourceName, transactionContext, typemanager.getMapper(),
-                queryExecutor, getStatementImpl());
+                queryExecutor, getStatementImpl(), createRouter());
+    }
+
+    /**
+     * Checks the configured shards against the shard directory, once the schema bootstrapper has created its tables.
+     */
+    @Override
+    public void start() {
+        if (shardSupport != null) {
+            shardSupport.initialize(ShardedParticipantContextStore.inventory());
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        if (shardExecutor != null) {
+            shardExecutor.shutdownNow();
+        }
     }
 
     private ParticipantContextStoreStatements getStatementImpl() {
         return statements != null ? statements : new PostgresDialectStatements();
     }
 
+    private ReadReplicaRouter createRouter() {
+        return new ReadReplicaRouter(dataSourceRegistry, dataSourceName, readDataSourceName, transactionContext,
+                Duration.ofMillis(readStalenessMillis), clock);
+    }
+
+    private ShardDirectory createShardDirectory() {
+        return new SqlShardDirectory(dataSourceRegistry, dataSourceName, transactionContext, typemanager.getMapper(), queryExecutor,
+                new ShardDirectoryStatements(), "participantcontext");
+    }
+
+    private ExecutorService createShardExecutor(int shardCount) {
+        shardExecutor = executorInstrumentation.instrument(Executors.newFixedThreadPool(shardCount), NAME);
+        return shardExecutor;
+    }
 }
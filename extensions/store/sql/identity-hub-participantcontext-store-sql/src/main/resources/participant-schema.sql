@@ -20,8 +20,13 @@ CREATE TABLE IF NOT EXISTS participant_context
     last_modified_date BIGINT,                       -- POSIX timestamp of the last modified date
     state              INTEGER             NOT NULL, -- 0 = CREATED, 1 = ACTIVE, 2 = DEACTIVATED
     api_token_alias    VARCHAR             NOT NULL, -- alias under which this PC's api token is stored in the vault
+    api_token_hash     VARCHAR,                      -- keyed hash of this PC's api token, if tokens are not stored in the vault
     did                VARCHAR,                      -- the DID with which this participant is identified
-    roles              JSON                          -- JSON array containing all the roles a user has. may be empty
+    roles              JSON,                         -- JSON array containing all the roles a user has. may be empty
+    version            BIGINT              NOT NULL DEFAULT 1 -- incremented with every update, used for optimistic locking
 );
 CREATE UNIQUE INDEX IF NOT EXISTS participant_context_participant_context_id_uindex ON participant_context USING btree (participant_context_id);
-
+-- migrate tables that were created before optimistic locking was introduced
+ALTER TABLE participant_context ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 1;
+-- migrate tables that were created before hashed api tokens were introduced
+ALTER TABLE participant_context ADD COLUMN IF NOT EXISTS api_token_hash VARCHAR;
@@ -0,0 +1,41 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.sql;
+
+import org.eclipse.edc.transaction.spi.TransactionContext;
+
+/**
+ * Determines whether a transaction is active on the current thread.
+ */
+public final class TransactionProbe {
+
+    private TransactionProbe() {
+    }
+
+    /**
+     * The {@link TransactionContext} does not expose whether a transaction is active, but transaction synchronizations
+     * can only be registered while one is. A no-op synchronization does not change the outcome of the enclosing transaction.
+     * Transaction contexts that do not track transactions at all are considered to always have an active transaction.
+     */
+    public static boolean isTransactionActive(TransactionContext transactionContext) {
+        try {
+            transactionContext.registerSynchronization(() -> {
+            });
+            return true;
+        } catch (IllegalStateException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.sql.routing;
+
+import org.eclipse.edc.identityhub.sql.sharding.ShardedStoreSupport;
+import org.eclipse.edc.spi.persistence.EdcPersistenceException;
+import org.eclipse.edc.spi.query.QuerySpec;
+import org.eclipse.edc.transaction.datasource.spi.DataSourceRegistry;
+import org.eclipse.edc.transaction.spi.TransactionContext;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.lang.String.format;
+
+/**
+ * Decides whether a read operation of a SQL store can be served by a read replica, or whether it has to go to the primary
+ * datasource. A read is only routed to the replica if all of the following is true:
+ * <ul>
+ *     <li>a read datasource is configured</li>
+ *     <li>no transaction is active. Reads within a transaction may be part of a read-modify-write flow, or may need to see
+ *     writes that were done earlier in the same transaction, so they always go to the primary</li>
+ *     <li>the last committed write of the participant context that is read is older than the configured maximum staleness.
+ *     This gives the replica time to catch up, so that clients that read directly after a write see their own writes. Reads
+ *     that are not restricted to a single participant context consider the last write of any participant context</li>
+ * </ul>
+ * Stores must call {@link #recordWrite(String)} whenever they modify data. Writes are collected per transaction, and only
+ * start the staleness window when the transaction completes, so that long-running transactions cannot use up the window
+ * before their writes are even visible. Writes are tracked per runtime instance: clients that are load-balanced across
+ * several instances only see their own writes if their requests stick to one instance.
+ */
+public class ReadReplicaRouter {
+    public static final String DEFAULT_STALENESS_MILLIS = "1000";
+    private static final long NEVER = Long.MIN_VALUE / 2;
+    // denotes writes whose participant context is not known
+    private static final String UNSCOPED = "";
+
+    private final DataSourceRegistry dataSourceRegistry;
+    private final String primaryDataSourceName;
+    private final String readDataSourceName;
+    private final TransactionContext transactionContext;
+    private final long maxStalenessMillis;
+    private final Clock clock;
+    private final AtomicLong lastWrite = new AtomicLong(NEVER);
+    private final AtomicLong lastUnscopedWrite = new AtomicLong(NEVER);
+    private final Map<String, Long> lastWriteByParticipant = new ConcurrentHashMap<>();
+    // the writes of the transaction on the current thread, if the router has registered a synchronization with it
+    private final ThreadLocal<Set<String>> pendingWrites = new ThreadLocal<>();
+
+    /**
+     * Creates a new router.
+     *
+     * @param dataSourceRegistry    the registry to resolve datasources from
+     * @param primaryDataSourceName the name of the primary (read-write) datasource
+     * @param readDataSourceName    the name of the read replica datasource. If null, all reads go to the primary datasource.
+     * @param transactionContext    the transaction context
+     * @param maxStaleness          for how long after a write reads must still go to the primary datasource
+     * @param clock                 the clock
+     */
+    public ReadReplicaRouter(DataSourceRegistry dataSourceRegistry, String primaryDataSourceName, @Nullable String readDataSourceName,
+                             TransactionContext transactionContext, Duration maxStaleness, Clock clock) {
+        this.dataSourceRegistry = dataSourceRegistry;
+        this.primaryDataSourceName = primaryDataSourceName;
+        this.readDataSourceName = readDataSourceName;
+        this.transactionContext = transactionContext;
+        this.maxStalenessMillis = maxStaleness.toMillis();
+        this.clock = clock;
+    }
+
+    /**
+     * Creates a router that sends all reads to the primary datasource.
+     */
+    public static ReadReplicaRouter primaryOnly(DataSourceRegistry dataSourceRegistry, String primaryDataSourceName, TransactionContext transactionContext) {
+        return new ReadReplicaRouter(dataSourceRegistry, primaryDataSourceName, null, transactionContext, Duration.ZERO, Clock.systemUTC());
+    }
+
+    /**
+     * Returns a connection for a read-only operation.
+     *
+     * @param useReplica the outcome of {@link #canReadFromReplica(String)}
+     */
+    public Connection getReadConnection(boolean useReplica) throws SQLException {
+        var name = useReplica ? readDataSourceName : primaryDataSourceName;
+        var dataSource = dataSourceRegistry.resolve(name);
+        if (dataSource == null) {
+            throw new EdcPersistenceException(format("DataSource %s could not be resolved", name));
+        }
+        return dataSource.getConnection();
+    }
+
+    /**
+     * Determines whether the given query can be served by the read replica. The query is attributed to a participant context
+     * if it contains a {@code participantContextId = <id>} criterion.
+     */
+    public boolean canReadFromReplica(QuerySpec querySpec) {
+        return canReadFromReplica(ShardedStoreSupport.participantContextIdOf(querySpec));
+    }
+
+    /**
+     * Determines whether the next read can be served by the read replica. Must be evaluated <em>outside</em> of the store's
+     * own transaction block.
+     *
+     * @param participantContextId the participant context whose data is read, or null if the read is not restricted to one
+     */
+    public boolean canReadFromReplica(@Nullable String participantContextId) {
+        if (!hasReplica()) {
+            return false;
+        }
+        if (pendingWrites.get() != null) {
+            return false;
+        }
+        if (clock.millis() - lastWriteOf(participantContextId) < maxStalenessMillis) {
+            return false;
+        }
+        return !joinTransaction();
+    }
+
+    /**
+     * Records that data of the given participant context was written through the primary datasource. If a transaction is
+     * active, the write is recorded when the transaction completes.
+     *
+     * @param participantContextId the participant context whose data was written, or null if it is not known
+     */
+    public void recordWrite(@Nullable String participantContextId) {
+        if (!hasReplica()) {
+            return;
+        }
+        var key = participantContextId == null ? UNSCOPED : participantContextId;
+        if (joinTransaction()) {
+            pendingWrites.get().add(key);
+        } else {
+            publish(Set.of(key));
+        }
+    }
+
+    public String getPrimaryDataSourceName() {
+        return primaryDataSourceName;
+    }
+
+    @Nullable
+    public String getReadDataSourceName() {
+        return readDataSourceName;
+    }
+
+    private boolean hasReplica() {
+        return readDataSourceName != null && !readDataSourceName.equals(primaryDataSourceName);
+    }
+
+    private long lastWriteOf(@Nullable String participantContextId) {
+        if (participantContextId == null) {
+            return lastWrite.get();
+        }
+        return Math.max(lastWriteByParticipant.getOrDefault(participantContextId, NEVER), lastUnscopedWrite.get());
+    }
+
+    /**
+     * Registers a synchronization with the transaction that is active on the current thread, unless this router has done
+     * so already. The synchronization records the writes of the transaction once it completes. Transaction contexts do
+     * not expose whether a transaction is active, but synchronizations can only be registered while one is. Transaction
+     * contexts that do not track transactions at all are considered to always have an active transaction.
+     *
+     * @return whether a transaction is active
+     */
+    private boolean joinTransaction() {
+        if (pendingWrites.get() != null) {
+            return true;
+        }
+        var writes = new HashSet<String>();
+        try {
+            transactionContext.registerSynchronization(() -> {
+                pendingWrites.remove();
+                if (!writes.isEmpty()) {
+                    publish(writes);
+                }
+            });
+        } catch (IllegalStateException e) {
+            return false;
+        }
+        pendingWrites.set(writes);
+        return true;
+    }
+
+    /**
+     * Starts the staleness window of the given participant contexts. Entries whose window has passed are pruned, so that the map only holds recently written
+     * participant contexts.
+     */
+    private void publish(Set<String> participantContextIds) {
+        var now = clock.millis();
+        lastWrite.set(now);
+        participantContextIds.forEach(id -> {
+            if (UNSCOPED.equals(id)) {
+                lastUnscopedWrite.set(now);
+            } else {
+                lastWriteByParticipant.put(id, now);
+            }
+        });
+        lastWriteByParticipant.values().removeIf(time -> now - time >= maxStalenessMillis);
+    }
+}
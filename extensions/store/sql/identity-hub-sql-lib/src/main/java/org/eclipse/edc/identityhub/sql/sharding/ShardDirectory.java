@@ -0,0 +1,50 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.sql.sharding;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Set;
+
+/**
+ * Persistent record of where the data of a sharded store lives. Once a participant context has been placed on a shard, it
+ * stays there, even if shards are added later on. The directory only knows participant contexts, not their entities, so
+ * that it is only written when a participant context is placed.
+ */
+public interface ShardDirectory {
+
+    /**
+     * Returns the shard the participant context has been placed on, or null if it has not been placed yet.
+     */
+    @Nullable
+    String findShard(String participantContextId);
+
+    /**
+     * Places the participant context on the given shard, unless it has been placed already.
+     *
+     * @return the shard the participant context is placed on, which is a different one if it had been placed before
+     */
+    String placeParticipant(String participantContextId, String shard);
+
+    /**
+     * Returns all shards whose data has been recorded in the directory.
+     */
+    Set<String> getShards();
+
+    /**
+     * Records that the data of the given shard is contained in the directory.
+     */
+    void registerShard(String shard);
+}
@@ -0,0 +1,60 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.sql.sharding;
+
+import static java.lang.String.format;
+
+/**
+ * Table and column names and statement templates of the {@link SqlShardDirectory}. Only intended for and tested with PostgreSQL.
+ */
+public class ShardDirectoryStatements {
+
+    public String getShardTable() {
+        return "edc_shard";
+    }
+
+    public String getParticipantTable() {
+        return "edc_shard_participant";
+    }
+
+    public String getStoreColumn() {
+        return "store";
+    }
+
+    public String getShardColumn() {
+        return "shard";
+    }
+
+    public String getParticipantContextIdColumn() {
+        return "participant_context_id";
+    }
+
+    public String getFindShardTemplate() {
+        return format("SELECT %s FROM %s WHERE %s = ? AND %s = ?", getShardColumn(), getParticipantTable(), getStoreColumn(), getParticipantContextIdColumn());
+    }
+
+    public String getInsertParticipantTemplate() {
+        return format("INSERT INTO %s (%s, %s, %s) VALUES (?, ?, ?) ON CONFLICT DO NOTHING", getParticipantTable(), getStoreColumn(),
+                getParticipantContextIdColumn(), getShardColumn());
+    }
+
+    public String getFindShardsTemplate() {
+        return format("SELECT %s FROM %s WHERE %s = ?", getShardColumn(), getShardTable(), getStoreColumn());
+    }
+
+    public String getInsertShardTemplate() {
+        return format("INSERT INTO %s (%s, %s) VALUES (?, ?) ON CONFLICT DO NOTHING", getShardTable(), getStoreColumn(), getShardColumn());
+    }
+}
@@ -0,0 +1,369 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.sql.sharding;
+
+import org.eclipse.edc.identityhub.sql.TransactionProbe;
+import org.eclipse.edc.spi.EdcException;
+import org.eclipse.edc.spi.persistence.EdcPersistenceException;
+import org.eclipse.edc.spi.query.Criterion;
+import org.eclipse.edc.spi.query.QuerySpec;
+import org.eclipse.edc.spi.query.SortOrder;
+import org.eclipse.edc.transaction.spi.TransactionContext;
+import org.eclipse.edc.util.reflection.ReflectionUtil;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static java.lang.String.format;
+
+/**
+ * Routes store operations to one of several shards, each of which is a store instance backed by its own datasource.
+ * <ul>
+ *     <li>Operations that are scoped to a participant context are routed to exactly one shard. The {@link ConsistentHashRing}
+ *     only decides where a participant context is placed when its first entity is created. From then on, the placement is
+ *     read from the {@link ShardDirectory}, so that adding shards does not move existing participant contexts. This includes
+ *     all queries that contain a {@code participantContextId = <id>} criterion, such as those created by
+ *     {@code ParticipantResource.queryByParticipantContextId()}.</li>
+ *     <li>Entities are placed by their participant context only, nothing records where a single entity is. The rare
+ *     operations that only know the ID of an entity ask every shard, see {@link #findEntity(String, Function)}. IDs are therefore
+ *     only unique per shard, unless the store guarantees otherwise.</li>
+ *     <li>All other queries fan out to all shards. The shards are queried in parallel, unless a transaction is active on the
+ *     calling thread (the transaction context is thread-bound). The results are merged, sorted and paged in memory.</li>
+ * </ul>
+ * The directory is only written when a participant context creates its first entity. {@link #initialize(Inventory)} must be
+ * called on startup. It refuses to start if a shard that holds data is not configured anymore, and records the participant
+ * contexts of shards that are not contained in the directory yet.
+ *
+ * @param <S> the type of store
+ */
+public class ShardedStoreSupport<S> {
+    public static final String PARTICIPANT_CONTEXT_ID_PROPERTY = "participantContextId";
+    static final int INVENTORY_PAGE_SIZE = 500;
+
+    private final Map<String, S> shards;
+    private final ConsistentHashRing ring;
+    private final ShardDirectory directory;
+    private final TransactionContext transactionContext;
+    private final ExecutorService executorService;
+    // placements never change, so they can be cached indefinitely
+    private final Map<String, String> placements = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new instance.
+     *
+     * @param shards             the store instance for every shard, keyed by shard (datasource) name
+     * @param directory          the directory of participant contexts
+     * @param transactionContext the transaction context
+     * @param executorService    the executor used to query shards in parallel
+     */
+    public ShardedStoreSupport(Map<String, S> shards, ShardDirectory directory, TransactionContext transactionContext, ExecutorService executorService) {
+        this.shards = Map.copyOf(shards);
+        this.ring = new ConsistentHashRing(shards.keySet().stream().sorted().toList());
+        this.directory = directory;
+        this.transactionContext = transactionContext;
+        this.executorService = executorService;
+    }
+
+    /**
+     * Parses a comma-separated list of shard (datasource) names.
+     *
+     * @return the shard names, or an empty list if sharding is not configured
+     */
+    public static List<String> parseShardNames(@Nullable String value) {
+        if (value == null) {
+            return List.of();
+        }
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .distinct()
+                .toList();
+    }
+
+    /**
+     * Fails if a read replica is configured together with shards. Every shard is read from its own datasource, because a single
+     * replica cannot mirror several shards.
+     *
+     * @throws EdcException if both are configured
+     */
+    public static void checkNoReadReplica(List<String> shardNames, @Nullable String readDataSourceName, String shardsKey, String readDataSourceKey) {
+        if (!shardNames.isEmpty() && readDataSourceName != null) {
+            throw new EdcException(format("'%s' cannot be combined with '%s', shards are always read from their own datasource.", readDataSourceKey, shardsKey));
+        }
+    }
+
+    /**
+     * Returns the participant context ID if the query is restricted to exactly one participant context.
+     */
+    @Nullable
+    public static String participantContextIdOf(QuerySpec querySpec) {
+        return querySpec.getFilterExpression().stream()
+                .filter(c -> PARTICIPANT_CONTEXT_ID_PROPERTY.equals(c.getOperandLeft()) && "=".equals(c.getOperator()))
+                .map(Criterion::getOperandRight)
+                .filter(String.class::isInstance)
+                .map(String.class::cast)
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * Checks the configured shards against the directory, and records the participant contexts of all shards that are not
+     * contained in the directory yet. That is the case when sharding is enabled for the first time, or when a shard is added.
+     *
+     * @param inventory lists the entities of a shard
+     * @throws EdcException if a shard that holds data is not configured anymore, or if a participant context is found on
+     *                      more than one shard
+     */
+    public void initialize(Inventory<S> inventory) {
+        var recorded = directory.getShards();
+        var removed = recorded.stream().filter(shard -> !shards.containsKey(shard)).sorted().toList();
+        if (!removed.isEmpty()) {
+            throw new EdcException(format("The shards %s hold data, but are not configured anymore. Shards cannot be removed.", removed));
+        }
+        for (var shard : ring.getShards()) {
+            if (recorded.contains(shard)) {
+                continue;
+            }
+            String afterId = null;
+            List<Inventory.Entry> page;
+            var participants = new HashSet<String>();
+            do {
+                page = inventory.list(shards.get(shard), afterId, INVENTORY_PAGE_SIZE);
+                for (var entry : page) {
+                    if (participants.add(keyOf(entry.participantContextId()))) {
+                        record(shard, entry);
+                    }
+                    afterId = entry.id();
+                }
+            } while (page.size() >= INVENTORY_PAGE_SIZE);
+            directory.registerShard(shard);
+        }
+    }
+
+    /**
+     * Returns the store that holds the data of the given participant context. Participant contexts that have not been placed
+     * yet do not have any data, and the store they would be placed on is returned.
+     */
+    public S forParticipant(@Nullable String participantContextId) {
+        var key = keyOf(participantContextId);
+        var shard = placements.get(key);
+        if (shard == null) {
+            shard = directory.findShard(key);
+            if (shard == null) {
+                return shards.get(ring.shardFor(key));
+            }
+            placements.put(key, shard);
+        }
+        return storeOf(shard);
+    }
+
+    /**
+     * Returns the store that holds the data of the given participant context, and places the participant context if this has
+     * not happened yet. Must be used when entities are created.
+     */
+    public S placeParticipant(@Nullable String participantContextId) {
+        var key = keyOf(participantContextId);
+        var shard = placements.get(key);
+        if (shard == null) {
+            shard = directory.findShard(key);
+            if (shard != null) {
+                placements.put(key, shard);
+            } else {
+                // not cached here, because the placement is rolled back if the transaction fails
+                shard = directory.placeParticipant(key, ring.shardFor(key));
+            }
+        }
+        return storeOf(shard);
+    }
+
+    /**
+     * Finds an entity by its ID alone, by asking every shard. Only intended for operations that do not know the participant
+     * context of the entity.
+     *
+     * @param id     the ID of the entity
+     * @param lookup returns the entity with that ID from one shard, or null if the shard does not hold it
+     * @return the entity and the store that holds it, or null if no shard holds an entity with that ID
+     * @throws EdcPersistenceException if more than one shard holds an entity with that ID
+     */
+    @Nullable
+    public <T> Located<S, T> findEntity(String id, Function<S, T> lookup) {
+        var found = forAll(store -> {
+            var entity = lookup.apply(store);
+            return entity != null ? new Located<>(store, entity) : null;
+        }).stream().filter(Objects::nonNull).toList();
+        if (found.size() > 1) {
+            throw new EdcPersistenceException(format("The ID '%s' is used on %d shards, its participant context has to be specified.", id, found.size()));
+        }
+        return found.isEmpty() ? null : found.get(0);
+    }
+
+    /**
+     * Executes an operation within a transaction, so that directory and shard are changed together.
+     */
+    public <R> R inTransaction(Supplier<R> operation) {
+        return transactionContext.execute(() -> operation.get());
+    }
+
+    /**
+     * Executes a query either on a single shard, or on all shards.
+     *
+     * @param querySpec the query
+     * @param query     executes the query on one shard
+     */
+    public <T> List<T> query(QuerySpec querySpec, BiFunction<S, QuerySpec, Collection<T>> query) {
+        var participantContextId = participantContextIdOf(querySpec);
+        if (participantContextId != null) {
+            return new ArrayList<>(query.apply(forParticipant(participantContextId), querySpec));
+        }
+
+        // every shard must deliver enough elements to fill the requested page after the merge
+        var window = (int) Math.min((long) querySpec.getOffset() + querySpec.getLimit(), Integer.MAX_VALUE);
+        var shardQuery = QuerySpec.Builder.newInstance()
+                .filter(querySpec.getFilterExpression())
+                .sortField(querySpec.getSortField())
+                .sortOrder(querySpec.getSortOrder())
+                .offset(0)
+                .limit(window)
+                .build();
+
+        var merged = new ArrayList<T>();
+        forAll(store -> query.apply(store, shardQuery)).forEach(merged::addAll);
+
+        var sortField = querySpec.getSortField();
+        if (sortField != null) {
+            Comparator<T> comparator = propertyComparator(sortField);
+            merged.sort(querySpec.getSortOrder() == SortOrder.DESC ? comparator.reversed() : comparator);
+        }
+        return merged.stream()
+                .skip(querySpec.getOffset())
+                .limit(querySpec.getLimit())
+                .toList();
+    }
+
+    /**
+     * Executes an operation on all shards and returns the results. Runs in parallel if no transaction is active.
+     */
+    public <R> List<R> forAll(Function<S, R> operation) {
+        var stores = ring.getShards().stream().map(shards::get).toList();
+        if (TransactionProbe.isTransactionActive(transactionContext)) {
+            return stores.stream().map(operation).toList();
+        }
+        var futures = stores.stream()
+                .map(store -> CompletableFuture.supplyAsync(() -> operation.apply(store), executorService))
+                .toList();
+        try {
+            return futures.stream().map(CompletableFuture::join).toList();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new EdcPersistenceException(e.getCause());
+        }
+    }
+
+    private void record(String shard, Inventory.Entry entry) {
+        var key = keyOf(entry.participantContextId());
+        var placed = directory.placeParticipant(key, shard);
+        if (!placed.equals(shard)) {
+            throw new EdcException(format("Participant context '%s' has data on the shards '%s' and '%s'.", key, placed, shard));
+        }
+    }
+
+    private S storeOf(String shard) {
+        var store = shards.get(shard);
+        if (store == null) {
+            throw new EdcPersistenceException(format("The data is placed on shard '%s', which is not configured.", shard));
+        }
+        return store;
+    }
+
+    /**
+     * Entities without participant context are placed like a participant context with an empty ID.
+     */
+    private static String keyOf(@Nullable String participantContextId) {
+        return participantContextId == null ? "" : participantContextId;
+    }
+
+    /**
+     * Sorts by the natural order of the property, except for strings, which are sorted by code point. That is the order
+     * of their UTF-8 bytes, in which the shards return the columns declared with {@code COLLATE "C"}, as all keys used
+     * for keyset pagination are. {@link String#compareTo(String)} would differ for characters outside the Basic
+     * Multilingual Plane, and with a linguistic collation, the shards would return their rows in a different order than
+     * the merge. Either way, a {@code key > lastKey} page could skip rows.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static <T> Comparator<T> propertyComparator(String property) {
+        Comparator<Object> valueOrder = (value, other) -> value instanceof String string && other instanceof String otherString ?
+                compareCodePoints(string, otherString) : ((Comparable) value).compareTo(other);
+        return Comparator.comparing(o -> ReflectionUtil.getFieldValue(o, property), Comparator.nullsFirst(valueOrder));
+    }
+
+    /**
+     * Compares two strings by code point, which is the order of their UTF-8 bytes.
+     */
+    public static int compareCodePoints(String value, String other) {
+        var i = 0;
+        var j = 0;
+        while (i < value.length() && j < other.length()) {
+            var codePoint = value.codePointAt(i);
+            var otherCodePoint = other.codePointAt(j);
+            if (codePoint != otherCodePoint) {
+                return Integer.compare(codePoint, otherCodePoint);
+            }
+            i += Character.charCount(codePoint);
+            j += Character.charCount(otherCodePoint);
+        }
+        return Integer.compare(value.length() - i, other.length() - j);
+    }
+
+    /**
+     * An entity, and the store of the shard that holds it.
+     */
+    public record Located<S, T>(S store, T entity) {
+    }
+
+    /**
+     * Lists the entities of one shard, so that their participant contexts can be recorded in the {@link ShardDirectory}.
+     *
+     * @param <S> the type of store
+     */
+    @FunctionalInterface
+    public interface Inventory<S> {
+
+        /**
+         * Returns at most {@code limit} entities of the given shard, ordered by ID, whose ID is greater than {@code afterId}.
+         *
+         * @param afterId the ID of the last entity of the previous page, or null for the first page
+         */
+        List<Entry> list(S store, @Nullable String afterId, int limit);
+
+        record Entry(String id, @Nullable String participantContextId) {
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.sql.sharding;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eclipse.edc.spi.persistence.EdcPersistenceException;
+import org.eclipse.edc.sql.QueryExecutor;
+import org.eclipse.edc.sql.store.AbstractSqlStore;
+import org.eclipse.edc.transaction.datasource.spi.DataSourceRegistry;
+import org.eclipse.edc.transaction.spi.TransactionContext;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.SQLException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * SQL-based {@link ShardDirectory}. The directory lives in a datasource of its own, which is not one of the shards, and can be
+ * shared by several stores, each of which has its own namespace.
+ */
+public class SqlShardDirectory extends AbstractSqlStore implements ShardDirectory {
+    private final String storeName;
+    private final ShardDirectoryStatements statements;
+
+    /**
+     * Creates a new directory.
+     *
+     * @param storeName the name of the store the directory belongs to, e.g. {@code didresource}
+     */
+    public SqlShardDirectory(DataSourceRegistry dataSourceRegistry, String dataSourceName, TransactionContext transactionContext,
+                             ObjectMapper objectMapper, QueryExecutor queryExecutor, ShardDirectoryStatements statements, String storeName) {
+        super(dataSourceRegistry, dataSourceName, transactionContext, objectMapper, queryExecutor);
+        this.statements = statements;
+        this.storeName = storeName;
+    }
+
+    @Override
+    public @Nullable String findShard(String participantContextId) {
+        return single(statements.getFindShardTemplate(), participantContextId);
+    }
+
+    @Override
+    public String placeParticipant(String participantContextId, String shard) {
+        return transactionContext.execute(() -> {
+            execute(statements.getInsertParticipantTemplate(), participantContextId, shard);
+            return Objects.requireNonNull(findShard(participantContextId));
+        });
+    }
+
+    @Override
+    public Set<String> getShards() {
+        return transactionContext.execute(() -> {
+            try (var connection = getConnection()) {
+                return queryExecutor.query(connection, true, rs -> rs.getString(statements.getShardColumn()), statements.getFindShardsTemplate(), storeName)
+                        .collect(Collectors.toSet());
+            } catch (SQLException e) {
+                throw new EdcPersistenceException(e);
+            }
+        });
+    }
+
+    @Override
+    public void registerShard(String shard) {
+        execute(statements.getInsertShardTemplate(), shard);
+    }
+
+    /**
+     * Runs a query that returns a single string column. The store name is prepended to the parameters.
+     */
+    private @Nullable String single(String sql, String parameter) {
+        return transactionContext.execute(() -> {
+            try (var connection = getConnection()) {
+                return queryExecutor.single(connection, false, rs -> rs.getString(1), sql, storeName, parameter);
+            } catch (SQLException e) {
+                throw new EdcPersistenceException(e);
+            }
+        });
+    }
+
+    /**
+     * Runs a statement. The store name is prepended to the parameters.
+     */
+    private int execute(String sql, String... parameters) {
+        var params = new Object[parameters.length + 1];
+        params[0] = storeName;
+        System.arraycopy(parameters, 0, params, 1, parameters.length);
+        return transactionContext.execute(() -> {
+            try (var connection = getConnection()) {
+                return queryExecutor.execute(connection, sql, params);
+            } catch (SQLException e) {
+                throw new EdcPersistenceException(e);
+            }
+        });
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+-- only intended for and tested with Postgres!
+-- the shards whose data has been recorded in the directory
+CREATE TABLE IF NOT EXISTS edc_shard
+(
+    store VARCHAR NOT NULL,
+    shard VARCHAR NOT NULL,
+    PRIMARY KEY (store, shard)
+);
+
+-- the shard every participant context has been placed on. Never changes once written.
+CREATE TABLE IF NOT EXISTS edc_shard_participant
+(
+    store                  VARCHAR NOT NULL,
+    participant_context_id VARCHAR NOT NULL,
+    shard                  VARCHAR NOT NULL,
+    PRIMARY KEY (store, participant_context_id)
+);
+
+-- entities were registered individually in earlier versions, which wrote to the directory on every create
+DROP TABLE IF EXISTS edc_shard_entity;
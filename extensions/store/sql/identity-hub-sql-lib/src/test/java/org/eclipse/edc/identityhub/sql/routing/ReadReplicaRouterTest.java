@@ -0,0 +1,181 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.sql.routing;
+
+import org.eclipse.edc.spi.persistence.EdcPersistenceException;
+import org.eclipse.edc.spi.query.Criterion;
+import org.eclipse.edc.spi.query.QuerySpec;
+import org.eclipse.edc.transaction.datasource.spi.DataSourceRegistry;
+import org.eclipse.edc.transaction.spi.TransactionContext;
+import org.eclipse.edc.transaction.spi.TransactionSynchronization;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReadReplicaRouterTest {
+
+    private static final String PRIMARY = "primary";
+    private static final String REPLICA = "replica";
+    private final DataSourceRegistry registry = mock();
+    private final TransactionContext transactionContext = mock();
+    private final Clock clock = mock();
+    private ReadReplicaRouter router;
+
+    @BeforeEach
+    void setup() {
+        when(clock.millis()).thenReturn(10_000L);
+        noTransaction();
+        router = new ReadReplicaRouter(registry, PRIMARY, REPLICA, transactionContext, Duration.ofMillis(1000), clock);
+    }
+
+    @Test
+    void canReadFromReplica() {
+        assertThat(router.canReadFromReplica("participant")).isTrue();
+        assertThat(router.canReadFromReplica((String) null)).isTrue();
+    }
+
+    @Test
+    void canReadFromReplica_noReplicaConfigured() {
+        var primaryOnly = ReadReplicaRouter.primaryOnly(registry, PRIMARY, transactionContext);
+
+        assertThat(primaryOnly.canReadFromReplica("participant")).isFalse();
+    }
+
+    @Test
+    void canReadFromReplica_withinTransaction() {
+        inTransaction();
+
+        assertThat(router.canReadFromReplica("participant")).isFalse();
+        assertThat(router.canReadFromReplica("participant")).isFalse();
+
+        // joins the transaction only once
+        verify(transactionContext, times(1)).registerSynchronization(any());
+    }
+
+    @Test
+    void canReadFromReplica_afterWrite() {
+        router.recordWrite("participant");
+        assertThat(router.canReadFromReplica("participant")).isFalse();
+
+        when(clock.millis()).thenReturn(10_999L);
+        assertThat(router.canReadFromReplica("participant")).isFalse();
+
+        when(clock.millis()).thenReturn(11_000L);
+        assertThat(router.canReadFromReplica("participant")).isTrue();
+    }
+
+    @Test
+    void canReadFromReplica_afterWriteOfOtherParticipant() {
+        router.recordWrite("participant");
+
+        assertThat(router.canReadFromReplica("other-participant")).isTrue();
+        assertThat(router.canReadFromReplica((String) null)).isFalse();
+    }
+
+    @Test
+    void canReadFromReplica_afterUnscopedWrite() {
+        router.recordWrite(null);
+
+        assertThat(router.canReadFromReplica("participant")).isFalse();
+        assertThat(router.canReadFromReplica((String) null)).isFalse();
+    }
+
+    @Test
+    void canReadFromReplica_query() {
+        router.recordWrite("participant");
+
+        assertThat(router.canReadFromReplica(QuerySpec.Builder.newInstance()
+                .filter(new Criterion("participantContextId", "=", "participant")).build())).isFalse();
+        assertThat(router.canReadFromReplica(QuerySpec.Builder.newInstance()
+                .filter(new Criterion("participantContextId", "=", "other-participant")).build())).isTrue();
+        assertThat(router.canReadFromReplica(QuerySpec.none())).isFalse();
+    }
+
+    @Test
+    void recordWrite_withinTransaction_recordedOnCompletion() {
+        inTransaction();
+        var synchronization = ArgumentCaptor.forClass(TransactionSynchronization.class);
+
+        router.recordWrite("participant");
+        router.recordWrite("participant");
+        verify(transactionContext, times(1)).registerSynchronization(synchronization.capture());
+
+        // the transaction completes long after the write statement
+        noTransaction();
+        when(clock.millis()).thenReturn(20_000L);
+        synchronization.getValue().beforeCompletion();
+
+        assertThat(router.canReadFromReplica("participant")).isFalse();
+        when(clock.millis()).thenReturn(21_000L);
+        assertThat(router.canReadFromReplica("participant")).isTrue();
+    }
+
+    @Test
+    void recordWrite_noReplicaConfigured_shouldNotJoinTransaction() {
+        inTransaction();
+        var primaryOnly = ReadReplicaRouter.primaryOnly(registry, PRIMARY, transactionContext);
+
+        primaryOnly.recordWrite("participant");
+
+        verify(transactionContext, never()).registerSynchronization(any());
+    }
+
+    @Test
+    void getReadConnection() throws SQLException {
+        var primaryConnection = mock(Connection.class);
+        var replicaConnection = mock(Connection.class);
+        when(registry.resolve(PRIMARY)).thenReturn(dataSource(primaryConnection));
+        when(registry.resolve(REPLICA)).thenReturn(dataSource(replicaConnection));
+
+        assertThat(router.getReadConnection(true)).isSameAs(replicaConnection);
+        assertThat(router.getReadConnection(false)).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void getReadConnection_dataSourceNotFound() {
+        assertThatThrownBy(() -> router.getReadConnection(true)).isInstanceOf(EdcPersistenceException.class);
+    }
+
+    private void noTransaction() {
+        doThrow(new IllegalStateException("A transaction is not active")).when(transactionContext).registerSynchronization(any());
+    }
+
+    private void inTransaction() {
+        doNothing().when(transactionContext).registerSynchronization(any());
+    }
+
+    private DataSource dataSource(Connection connection) throws SQLException {
+        var dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        return dataSource;
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.sql.sharding;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link ShardDirectory} that keeps everything in memory.
+ */
+class InMemoryShardDirectory implements ShardDirectory {
+    private final Map<String, String> placements = new ConcurrentHashMap<>();
+    private final Set<String> shards = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public String findShard(String participantContextId) {
+        return placements.get(participantContextId);
+    }
+
+    @Override
+    public String placeParticipant(String participantContextId, String shard) {
+        return placements.computeIfAbsent(participantContextId, id -> shard);
+    }
+
+    @Override
+    public Set<String> getShards() {
+        return new HashSet<>(shards);
+    }
+
+    @Override
+    public void registerShard(String shard) {
+        shards.add(shard);
+    }
+}
@@ -0,0 +1,261 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.sql.sharding;
+
+import org.eclipse.edc.spi.EdcException;
+import org.eclipse.edc.spi.persistence.EdcPersistenceException;
+import org.eclipse.edc.spi.query.Criterion;
+import org.eclipse.edc.spi.query.QuerySpec;
+import org.eclipse.edc.spi.query.SortOrder;
+import org.eclipse.edc.transaction.spi.TransactionContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class ShardedStoreSupportTest {
+
+    private final TransactionContext transactionContext = mock();
+    private final ExecutorService executor = Executors.newFixedThreadPool(3);
+    private final Map<String, List<TestEntity>> shardData = Map.of("shard1", new ArrayList<>(), "shard2", new ArrayList<>(), "shard3", new ArrayList<>());
+    private final InMemoryShardDirectory directory = spy(new InMemoryShardDirectory());
+    private ShardedStoreSupport<List<TestEntity>> support;
+
+    @BeforeEach
+    void setup() {
+        doThrow(new IllegalStateException("no transaction")).when(transactionContext).registerSynchronization(any());
+        support = new ShardedStoreSupport<>(shardData, directory, transactionContext, executor);
+        IntStream.range(0, 30).forEach(i -> {
+            var entity = new TestEntity("id-%02d".formatted(i), "participant" + (i % 10));
+            support.forParticipant(entity.participantContextId).add(entity);
+        });
+    }
+
+    @AfterEach
+    void teardown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void ring_isStable() {
+        var ring1 = new ConsistentHashRing(List.of("a", "b", "c"));
+        var ring2 = new ConsistentHashRing(List.of("a", "b", "c"));
+
+        IntStream.range(0, 100).forEach(i -> assertThat(ring1.shardFor("p" + i)).isEqualTo(ring2.shardFor("p" + i)));
+    }
+
+    @Test
+    void ring_addingShard_movesOnlySomeKeys() {
+        var ring = new ConsistentHashRing(List.of("a", "b", "c"));
+        var extended = new ConsistentHashRing(List.of("a", "b", "c", "d"));
+
+        var moved = IntStream.range(0, 1000).filter(i -> !ring.shardFor("p" + i).equals(extended.shardFor("p" + i))).count();
+
+        assertThat(moved).isLessThan(500);
+        assertThat(IntStream.range(0, 1000)
+                .filter(i -> !ring.shardFor("p" + i).equals(extended.shardFor("p" + i)))
+                .mapToObj(i -> extended.shardFor("p" + i)))
+                .allMatch("d"::equals);
+    }
+
+    @Test
+    void parseShardNames() {
+        assertThat(ShardedStoreSupport.parseShardNames(null)).isEmpty();
+        assertThat(ShardedStoreSupport.parseShardNames(" a, b,,a ")).containsExactly("a", "b");
+    }
+
+    @Test
+    void checkNoReadReplica() {
+        ShardedStoreSupport.checkNoReadReplica(List.of(), "replica", "shards-key", "read-key");
+        ShardedStoreSupport.checkNoReadReplica(List.of("shard1"), null, "shards-key", "read-key");
+
+        assertThatThrownBy(() -> ShardedStoreSupport.checkNoReadReplica(List.of("shard1"), "replica", "shards-key", "read-key"))
+                .isInstanceOf(EdcException.class)
+                .hasMessageContaining("read-key")
+                .hasMessageContaining("shards-key");
+    }
+
+    @Test
+    void query_singleParticipant_hitsOneShard() {
+        var query = QuerySpec.Builder.newInstance().filter(new Criterion("participantContextId", "=", "participant3")).build();
+
+        var result = support.query(query, this::queryShard);
+
+        assertThat(result).hasSize(3).allMatch(e -> e.participantContextId.equals("participant3"));
+        assertThat(shardData.get("shard1")).isNotEmpty(); // sanity check: data is actually distributed
+    }
+
+    @Test
+    void query_fanOut_mergesSortedAndPaged() {
+        var query = QuerySpec.Builder.newInstance().sortField("id").sortOrder(SortOrder.DESC).offset(5).limit(10).build();
+
+        var result = support.query(query, this::queryShard);
+
+        assertThat(result).extracting(e -> e.id)
+                .containsExactlyElementsOf(IntStream.range(0, 30).mapToObj("id-%02d"::formatted).sorted((a, b) -> b.compareTo(a)).skip(5).limit(10).toList());
+    }
+
+    @Test
+    void compareCodePoints_shouldMatchByteOrder() {
+        var supplementary = "id-\uD83D\uDE00"; // U+1F600
+        var basic = "id-\uFFFD";
+
+        assertThat(supplementary.compareTo(basic)).isNegative(); // UTF-16 order differs
+        assertThat(ShardedStoreSupport.compareCodePoints(supplementary, basic)).isPositive();
+        assertThat(ShardedStoreSupport.compareCodePoints(basic, supplementary)).isNegative();
+        assertThat(ShardedStoreSupport.compareCodePoints("id-1", "id-10")).isNegative();
+        assertThat(ShardedStoreSupport.compareCodePoints(supplementary, "id-\uD83D\uDE00")).isZero();
+    }
+
+    @Test
+    void placeParticipant_isKeptWhenShardIsAdded() {
+        var extendedData = new HashMap<>(shardData);
+        extendedData.put("shard4", new ArrayList<>());
+        var extendedRing = new ConsistentHashRing(List.of("shard1", "shard2", "shard3", "shard4"));
+        var ring = new ConsistentHashRing(List.of("shard1", "shard2", "shard3"));
+        // a participant context that the extended ring would move to the new shard
+        var participantContextId = IntStream.range(0, 1000).mapToObj(i -> "moved" + i)
+                .filter(id -> !ring.shardFor(id).equals(extendedRing.shardFor(id)))
+                .findFirst().orElseThrow();
+
+        var placed = support.placeParticipant(participantContextId);
+        var extended = new ShardedStoreSupport<>(extendedData, directory, transactionContext, executor);
+
+        assertThat(extended.forParticipant(participantContextId)).isSameAs(placed).isSameAs(shardData.get(ring.shardFor(participantContextId)));
+    }
+
+    @Test
+    void forParticipant_placedOnUnconfiguredShard_shouldThrow() {
+        directory.placeParticipant("participant", "shard4");
+
+        assertThatThrownBy(() -> support.forParticipant("participant")).isInstanceOf(EdcPersistenceException.class);
+    }
+
+    @Test
+    void placeParticipant_whenPlacedAlready_shouldNotWriteDirectory() {
+        support.placeParticipant("participant");
+        support.placeParticipant("participant");
+        support.placeParticipant("participant");
+
+        verify(directory, times(1)).placeParticipant(eq("participant"), any());
+    }
+
+    @Test
+    void findEntity_shouldAskEveryShard() {
+        var located = support.findEntity("id-07", shard -> shard.stream().filter(e -> e.id.equals("id-07")).findFirst().orElse(null));
+
+        assertThat(located).isNotNull();
+        assertThat(located.store()).isSameAs(support.forParticipant("participant7"));
+        assertThat(located.entity().participantContextId).isEqualTo("participant7");
+        assertThat(support.findEntity("unknown", shard -> null)).isNull();
+    }
+
+    @Test
+    void findEntity_onMoreThanOneShard_shouldThrow() {
+        assertThatThrownBy(() -> support.findEntity("id", shard -> "entity"))
+                .isInstanceOf(EdcPersistenceException.class)
+                .hasMessageContaining("3 shards");
+    }
+
+    @Test
+    void initialize_recordsExistingData() {
+        var listed = new AtomicInteger();
+
+        support.initialize((store, afterId, limit) -> {
+            listed.incrementAndGet();
+            return inventory(store, afterId, limit);
+        });
+
+        assertThat(directory.getShards()).containsExactlyInAnyOrder("shard1", "shard2", "shard3");
+        shardData.forEach((shard, entities) -> entities.forEach(entity ->
+                assertThat(directory.findShard(entity.participantContextId)).isEqualTo(shard)));
+
+        // shards that are recorded already are not listed again
+        var listedBefore = listed.get();
+        support.initialize((store, afterId, limit) -> {
+            listed.incrementAndGet();
+            return inventory(store, afterId, limit);
+        });
+        assertThat(listed.get()).isEqualTo(listedBefore);
+    }
+
+    @Test
+    void initialize_shardRemoved_shouldThrow() {
+        directory.registerShard("shard4");
+
+        assertThatThrownBy(() -> support.initialize(this::inventory))
+                .isInstanceOf(EdcException.class)
+                .hasMessageContaining("shard4");
+    }
+
+    @Test
+    void initialize_participantOnTwoShards_shouldThrow() {
+        var shard = shardData.entrySet().stream().filter(e -> e.getValue().stream().anyMatch(entity -> entity.participantContextId.equals("participant0")))
+                .map(Map.Entry::getKey).findFirst().orElseThrow();
+        var otherShard = shardData.keySet().stream().filter(s -> !s.equals(shard)).findFirst().orElseThrow();
+        shardData.get(otherShard).add(new TestEntity("id-99", "participant0"));
+
+        assertThatThrownBy(() -> support.initialize(this::inventory))
+                .isInstanceOf(EdcException.class)
+                .hasMessageContaining("participant0");
+    }
+
+    private List<ShardedStoreSupport.Inventory.Entry> inventory(List<TestEntity> shard, String afterId, int limit) {
+        return shard.stream()
+                .filter(e -> afterId == null || e.id.compareTo(afterId) > 0)
+                .sorted(Comparator.comparing(e -> e.id))
+                .limit(limit)
+                .map(e -> new ShardedStoreSupport.Inventory.Entry(e.id, e.participantContextId))
+                .toList();
+    }
+
+    private Collection<TestEntity> queryShard(List<TestEntity> shard, QuerySpec query) {
+        var participantContextId = ShardedStoreSupport.participantContextIdOf(query);
+        var stream = shard.stream().filter(e -> participantContextId == null || e.participantContextId.equals(participantContextId));
+        var sorted = query.getSortOrder() == SortOrder.DESC ?
+                stream.sorted((a, b) -> b.id.compareTo(a.id)) : stream.sorted((a, b) -> a.id.compareTo(b.id));
+        return sorted.skip(query.getOffset()).limit(query.getLimit()).toList();
+    }
+
+    private static class TestEntity {
+        private final String id;
+        private final String participantContextId;
+
+        TestEntity(String id, String participantContextId) {
+            this.id = id;
+            this.participantContextId = participantContextId;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.sql.sharding;
+
+import org.eclipse.edc.json.JacksonTypeManager;
+import org.eclipse.edc.junit.annotations.ComponentTest;
+import org.eclipse.edc.junit.testfixtures.TestUtils;
+import org.eclipse.edc.sql.QueryExecutor;
+import org.eclipse.edc.sql.testfixtures.PostgresqlStoreSetupExtension;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ComponentTest
+@ExtendWith(PostgresqlStoreSetupExtension.class)
+class SqlShardDirectoryTest {
+
+    private final ShardDirectoryStatements statements = new ShardDirectoryStatements();
+    private SqlShardDirectory directory;
+    private SqlShardDirectory otherStoreDirectory;
+
+    @BeforeEach
+    void setup(PostgresqlStoreSetupExtension extension, QueryExecutor queryExecutor) {
+        var mapper = new JacksonTypeManager().getMapper();
+        directory = new SqlShardDirectory(extension.getDataSourceRegistry(), extension.getDatasourceName(), extension.getTransactionContext(),
+                mapper, queryExecutor, statements, "test-store");
+        otherStoreDirectory = new SqlShardDirectory(extension.getDataSourceRegistry(), extension.getDatasourceName(), extension.getTransactionContext(),
+                mapper, queryExecutor, statements, "other-store");
+
+        extension.runQuery(TestUtils.getResourceFileContentAsString("shard-directory-schema.sql"));
+    }
+
+    @AfterEach
+    void tearDown(PostgresqlStoreSetupExtension extension) {
+        extension.runQuery("DROP TABLE " + statements.getShardTable() + " CASCADE");
+        extension.runQuery("DROP TABLE " + statements.getParticipantTable() + " CASCADE");
+    }
+
+    @Test
+    void placeParticipant() {
+        assertThat(directory.findShard("participant")).isNull();
+
+        assertThat(directory.placeParticipant("participant", "shard1")).isEqualTo("shard1");
+        assertThat(directory.findShard("participant")).isEqualTo("shard1");
+    }
+
+    @Test
+    void placeParticipant_whenPlacedAlready_keepsShard() {
+        directory.placeParticipant("participant", "shard1");
+
+        assertThat(directory.placeParticipant("participant", "shard2")).isEqualTo("shard1");
+        assertThat(directory.findShard("participant")).isEqualTo("shard1");
+    }
+
+    @Test
+    void registerShard() {
+        assertThat(directory.getShards()).isEmpty();
+
+        directory.registerShard("shard1");
+        directory.registerShard("shard1");
+        directory.registerShard("shard2");
+
+        assertThat(directory.getShards()).containsExactlyInAnyOrder("shard1", "shard2");
+    }
+
+    @Test
+    void storesAreSeparated() {
+        directory.placeParticipant("participant", "shard1");
+        directory.registerShard("shard1");
+
+        assertThat(otherStoreDirectory.findShard("participant")).isNull();
+        assertThat(otherStoreDirectory.getShards()).isEmpty();
+    }
+}
@@ -39,12 +39,15 @@ include(":core:identity-hub-did")
 // lib modules
 include(":core:lib:keypair-lib")
 include(":core:lib:accesstoken-lib")
+include(":core:lib:cache-lib")
 
 // extension modules
 include(":extensions:store:sql:identity-hub-did-store-sql")
 include(":extensions:store:sql:identity-hub-credentials-store-sql")
 include(":extensions:store:sql:identity-hub-participantcontext-store-sql")
 include(":extensions:store:sql:identity-hub-keypair-store-sql")
+include(":extensions:store:sql:identity-hub-sql-lib")
+include(":extensions:store:sql:identity-hub-cluster-events-sql")
 include(":extensions:did:local-did-publisher")
 include(":extensions:common:credential-watchdog")
 include(":extensions:sts:sts-account-provisioner")
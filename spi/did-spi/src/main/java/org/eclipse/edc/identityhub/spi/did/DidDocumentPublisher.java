@@ -15,9 +15,13 @@
 package org.eclipse.edc.identityhub.spi.did;
 
 import org.eclipse.edc.iam.did.spi.document.DidDocument;
+import org.eclipse.edc.identityhub.spi.did.model.DidResource;
 import org.eclipse.edc.runtime.metamodel.annotation.ExtensionPoint;
 import org.eclipse.edc.spi.result.Result;
 
+import java.util.Collection;
+import java.util.function.Function;
+
 /**
  * The DidDocumentPublisher is responsible for taking a {@link DidDocument} and making it available at a VDR (verifiable data registry).
  * For example, an implementation may choose to publish the DID to a CDN.
@@ -49,4 +53,38 @@ public interface DidDocumentPublisher {
      * @return a {@link Result} object indicating the success or failure of the operation.
      */
     Result<Void> unpublish(String did);
+
+    /**
+     * Publishes several DID documents at once. The resources were loaded by the caller in the current transaction, so
+     * implementations should not load them again, and should update them and notify listeners together. The default
+     * implementation publishes the documents one by one.
+     *
+     * @param resources the resources of the documents to publish, all of which can be handled by this publisher
+     * @return a {@link Result} object indicating the success or failure of the operation. If it failed, some documents may
+     *         have been published already.
+     */
+    default Result<Void> publishAll(Collection<DidResource> resources) {
+        return forEach(resources, resource -> publish(resource.getDid()));
+    }
+
+    /**
+     * Un-publishes several DID documents at once, analogous to {@link #publishAll(Collection)}. The default implementation
+     * un-publishes the documents one by one.
+     *
+     * @param resources the resources of the documents to un-publish, all of which can be handled by this publisher
+     * @return a {@link Result} object indicating the success or failure of the operation. If it failed, some documents may
+     *         have been un-published already.
+     */
+    default Result<Void> unpublishAll(Collection<DidResource> resources) {
+        return forEach(resources, resource -> unpublish(resource.getDid()));
+    }
+
+    private Result<Void> forEach(Collection<DidResource> resources, Function<DidResource, Result<Void>> operation) {
+        var failures = resources.stream()
+                .map(operation)
+                .filter(Result::failed)
+                .map(Result::getFailureDetail)
+                .toList();
+        return failures.isEmpty() ? Result.success() : Result.failure(failures);
+    }
 }
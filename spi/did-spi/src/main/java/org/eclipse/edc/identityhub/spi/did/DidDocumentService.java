@@ -21,6 +21,7 @@ import org.eclipse.edc.spi.query.QuerySpec;
 import org.eclipse.edc.spi.result.ServiceResult;
 
 import java.util.Collection;
+import java.util.function.Function;
 
 /**
  * The {@code DidDocumentService} gives access to a {@link DidDocument} that are held in storage.
@@ -58,6 +59,29 @@ public interface DidDocumentService {
      */
     ServiceResult<Void> unpublish(String did);
 
+    /**
+     * Publishes several already existing DID documents at once. Implementations should load every participant context only
+     * once, and hand all documents of the same publisher to {@link DidDocumentPublisher#publishAll(Collection)}. The default
+     * implementation publishes the documents one by one.
+     *
+     * @param dids The IDs of the DID documents to publish. All of them must exist in the database.
+     * @return success, or a failure indicating what went wrong.
+     */
+    default ServiceResult<Void> publishAll(Collection<String> dids) {
+        return forEach(dids, this::publish);
+    }
+
+    /**
+     * Un-publishes several already existing DID documents at once, analogous to {@link #publishAll(Collection)}. Documents
+     * that are not published are skipped. The default implementation un-publishes the documents one by one.
+     *
+     * @param dids The IDs of the DID documents to un-publish. All of them must exist in the database.
+     * @return success, or a failure indicating what went wrong.
+     */
+    default ServiceResult<Void> unpublishAll(Collection<String> dids) {
+        return forEach(dids, this::unpublish);
+    }
+
 
     /**
      * Queries the {@link DidDocument} objects based on the given query specification.
@@ -67,6 +91,16 @@ public interface DidDocumentService {
      */
     ServiceResult<Collection<DidDocument>> queryDocuments(QuerySpec spec);
 
+    private ServiceResult<Void> forEach(Collection<String> dids, Function<String, ServiceResult<Void>> operation) {
+        for (var did : dids) {
+            var result = operation.apply(did);
+            if (result.failed()) {
+                return result;
+            }
+        }
+        return ServiceResult.success();
+    }
+
     default String notFoundMessage(String did) {
         return "A DID document with ID '%s' does not exist.".formatted(did);
     }
@@ -78,7 +112,7 @@ public interface DidDocumentService {
     DidResource findById(String did);
 
     /**
-     * Adds a service endpoint entry to a did document.
+     * Adds a service endpoint entry to a did document. A published document is republished.
      *
      * @param did     The DID of the document to which the entry should be added.
      * @param service The service endpoint to add.
@@ -87,7 +121,7 @@ public interface DidDocumentService {
     ServiceResult<Void> addService(String did, Service service);
 
     /**
-     * Replaces a service endpoint entry in a did document.
+     * Replaces a service endpoint entry in a did document. A published document is republished.
      *
      * @param did     The DID of the document in which the entry should be replaced.
      * @param service The new service endpoint .
@@ -96,7 +130,7 @@ public interface DidDocumentService {
     ServiceResult<Void> replaceService(String did, Service service);
 
     /**
-     * Removes a service endpoint entry from a did document.
+     * Removes a service endpoint entry from a did document. A published document is republished.
      *
      * @param did       The DID of the document from which the entry should be removed.
      * @param serviceId The service endpoint to remove.
@@ -64,6 +64,7 @@ public class DidResource extends ParticipantResource {
 
     public void transitionState(DidState newState) {
         this.state = newState.code();
+        this.stateTimestamp = clock.millis();
     }
 
     public static final class Builder extends ParticipantResource.Builder<DidResource, DidResource.Builder> {
@@ -15,7 +15,10 @@
 package org.eclipse.edc.identityhub.spi.did.store;
 
 import org.eclipse.edc.identityhub.spi.did.model.DidResource;
+import org.eclipse.edc.identityhub.spi.participantcontext.model.ParticipantResource;
+import org.eclipse.edc.identityhub.spi.participantcontext.store.OptimisticLocking;
 import org.eclipse.edc.runtime.metamodel.annotation.ExtensionPoint;
+import org.eclipse.edc.spi.persistence.EdcPersistenceException;
 import org.eclipse.edc.spi.query.QuerySpec;
 import org.eclipse.edc.spi.result.StoreResult;
 
@@ -47,6 +50,36 @@ public interface DidResourceStore {
      */
     StoreResult<Void> update(DidResource resource);
 
+    /**
+     * Updates several {@link DidResource} objects, each with the same semantics as {@link #update(DidResource)}.
+     * Implementations should send all updates to the database together, the default implementation updates the resources
+     * one by one.
+     * <p>
+     * The update is atomic: if any resource does not exist or was modified concurrently, its failure is returned and no
+     * resource is updated. If an update fails after others were applied already, an {@link EdcPersistenceException} is thrown
+     * instead, so that the surrounding transaction is rolled back. Version conflicts are thrown as
+     * {@link OptimisticLocking.VersionConflictException}, so that they can be retried.
+     *
+     * @param resources The {@link DidResource} objects to be updated.
+     * @return A {@link StoreResult} object indicating the success or failure of the operation.
+     */
+    default StoreResult<Void> updateAll(Collection<DidResource> resources) {
+        var updated = 0;
+        for (var resource : resources) {
+            var result = update(resource);
+            if (result.failed()) {
+                if (updated > 0) {
+                    OptimisticLocking.throwOnConflict(result);
+                    throw new EdcPersistenceException("Updating DidResource '%s' failed after %d others were updated: %s"
+                            .formatted(resource.getDid(), updated, result.getFailureDetail()));
+                }
+                return result;
+            }
+            updated++;
+        }
+        return StoreResult.success();
+    }
+
     /**
      * Retrieves a {@link DidResource} object from the store for the provided DID.
      *
@@ -71,6 +104,21 @@ public interface DidResourceStore {
      */
     StoreResult<Void> deleteById(String did);
 
+    /**
+     * Deletes all {@link DidResource} objects of a participant context. Implementations should do this with a single
+     * statement, the default implementation deletes the DID resources one by one.
+     *
+     * @param participantContextId The ID of the participant context.
+     * @return A {@link StoreResult} containing the number of deleted {@link DidResource} objects.
+     */
+    default StoreResult<Integer> deleteByParticipantContextId(String participantContextId) {
+        var deleted = query(ParticipantResource.queryByParticipantContextId(participantContextId).limit(Integer.MAX_VALUE).build()).stream()
+                .map(resource -> deleteById(resource.getDid()))
+                .filter(StoreResult::succeeded)
+                .count();
+        return StoreResult.success((int) deleted);
+    }
+
     default String alreadyExistsErrorMessage(String did) {
         return "A DidResource with ID %s already exists.".formatted(did);
     }
@@ -67,12 +67,96 @@ public abstract class DidResourceStoreTestBase {
         Assertions.assertThat(fromDb).usingRecursiveComparison().isEqualTo(didResource2);
     }
 
+    @Test
+    void update_incrementsVersion() {
+        var didResource = createDidResource(DID).build();
+        getStore().save(didResource);
+        Assertions.assertThat(didResource.getVersion()).isEqualTo(1);
+
+        assertThat(getStore().update(createDidResource(DID).version(1).state(DidState.GENERATED).build())).isSucceeded();
+
+        var fromDb = getStore().findById(DID);
+        Assertions.assertThat(fromDb.getVersion()).isEqualTo(2);
+        Assertions.assertThat(fromDb.getState()).isEqualTo(DidState.GENERATED.code());
+    }
+
+    @Test
+    void update_whenVersionOutdated_fails() {
+        getStore().save(createDidResource(DID).build());
+        assertThat(getStore().update(createDidResource(DID).version(1).state(DidState.GENERATED).build())).isSucceeded();
+
+        var updateRes = getStore().update(createDidResource(DID).version(1).state(DidState.PUBLISHED).build());
+
+        assertThat(updateRes).isFailed().detail().contains("was modified concurrently");
+        Assertions.assertThat(getStore().findById(DID).getState()).isEqualTo(DidState.GENERATED.code());
+    }
+
+    @Test
+    void update_withoutVersion_overwrites() {
+        getStore().save(createDidResource(DID).build());
+        assertThat(getStore().update(createDidResource(DID).version(1).state(DidState.GENERATED).build())).isSucceeded();
+
+        assertThat(getStore().update(createDidResource(DID).state(DidState.PUBLISHED).build())).isSucceeded();
+
+        var fromDb = getStore().findById(DID);
+        Assertions.assertThat(fromDb.getVersion()).isEqualTo(3);
+        Assertions.assertThat(fromDb.getState()).isEqualTo(DidState.PUBLISHED.code());
+    }
+
     @Test
     void update_notExists() {
         assertThat(getStore().update(createDidResource(DID).build())).isFailed()
                 .detail().isEqualTo("A DidResource with ID %s was not found.".formatted(DID));
     }
 
+    @Test
+    void updateAll() {
+        getStore().save(createDidResource(DID).build());
+        getStore().save(createDidResource("did:web:another").build());
+        var resources = List.of(getStore().findById(DID), getStore().findById("did:web:another"));
+        resources.forEach(resource -> resource.transitionState(DidState.PUBLISHED));
+
+        assertThat(getStore().updateAll(resources)).isSucceeded();
+
+        Assertions.assertThat(resources).allSatisfy(resource -> Assertions.assertThat(resource.getVersion()).isEqualTo(2));
+        Assertions.assertThat(getStore().query(QuerySpec.max()))
+                .hasSize(2)
+                .allSatisfy(resource -> Assertions.assertThat(resource.getState()).isEqualTo(DidState.PUBLISHED.code()));
+    }
+
+    @Test
+    void updateAll_notExists() {
+        getStore().save(createDidResource(DID).build());
+
+        assertThat(getStore().updateAll(List.of(createDidResource(DID).build(), createDidResource("did:web:notexist").build())))
+                .isFailed()
+                .detail().isEqualTo("A DidResource with ID %s was not found.".formatted("did:web:notexist"));
+    }
+
+    @Test
+    void updateAll_oneNotExists_shouldUpdateNothing() {
+        getStore().save(createDidResource(DID).state(DidState.GENERATED).build());
+
+        assertThat(getStore().updateAll(List.of(createDidResource(DID).version(1).state(DidState.PUBLISHED).build(),
+                createDidResource("did:web:notexist").version(1).state(DidState.PUBLISHED).build())))
+                .isFailed();
+
+        var stored = getStore().findById(DID);
+        Assertions.assertThat(stored.getState()).isEqualTo(DidState.GENERATED.code());
+        Assertions.assertThat(stored.getVersion()).isEqualTo(1);
+    }
+
+    @Test
+    void updateAll_versionConflict() {
+        getStore().save(createDidResource(DID).build());
+        assertThat(getStore().update(createDidResource(DID).version(1).state(DidState.GENERATED).build())).isSucceeded();
+
+        assertThat(getStore().updateAll(List.of(createDidResource(DID).version(1).state(DidState.PUBLISHED).build())))
+                .isFailed()
+                .detail().contains("modified concurrently");
+        Assertions.assertThat(getStore().findById(DID).getState()).isEqualTo(DidState.GENERATED.code());
+    }
+
     @Test
     void findById() {
         var didResource = createDidResource(DID).build();
@@ -132,6 +216,38 @@ public abstract class DidResourceStoreTestBase {
                 .isSortedAccordingTo(Comparator.reverseOrder());
     }
 
+    @Test
+    void query_keysetPagination() {
+        var dids = range(0, 25)
+                .mapToObj(i -> DID + ":" + i)
+                .toList();
+        dids.forEach(did -> getStore().save(createDidResource(did).build()));
+
+        var first = queryPage(null, 10);
+        var second = queryPage(first.get(9), 10);
+        var third = queryPage(second.get(9), 10);
+
+        Assertions.assertThat(third).hasSize(5);
+        Assertions.assertThat(queryPage(third.get(4), 10)).isEmpty();
+        var all = new ArrayList<>(first);
+        all.addAll(second);
+        all.addAll(third);
+        Assertions.assertThat(all).containsExactlyElementsOf(dids.stream().sorted().toList());
+    }
+
+    @Test
+    void query_keysetPagination_comparesOrdinally() {
+        // a linguistic collation would order these keys differently
+        var dids = List.of("did:web:ab", "did:web:a-b", "did:web:aB", "did:web:A");
+        dids.forEach(did -> getStore().save(createDidResource(did).build()));
+
+        var first = queryPage(null, 2);
+        var second = queryPage(first.get(1), 2);
+
+        Assertions.assertThat(first).containsExactly("did:web:A", "did:web:a-b");
+        Assertions.assertThat(second).containsExactly("did:web:aB", "did:web:ab");
+    }
+
     @Test
     void query_bySimpleProperty() {
         var dids = new ArrayList<>(range(0, 50)
@@ -274,8 +390,31 @@ public abstract class DidResourceStoreTestBase {
                 .detail().isEqualTo("A DidResource with ID %s was not found.".formatted(DID));
     }
 
+    @Test
+    void deleteByParticipantContextId() {
+        getStore().save(createDidResource(DID).build());
+        getStore().save(createDidResource("did:web:another").build());
+        getStore().save(createDidResource("did:web:other-participant").participantContextId("another-participant").build());
+
+        assertThat(getStore().deleteByParticipantContextId("test-participant")).isSucceeded().isEqualTo(2);
+        Assertions.assertThat(getStore().query(QuerySpec.max())).extracting(DidResource::getDid).containsExactly("did:web:other-participant");
+    }
+
+    @Test
+    void deleteByParticipantContextId_whenNoneExist() {
+        assertThat(getStore().deleteByParticipantContextId("test-participant")).isSucceeded().isEqualTo(0);
+    }
+
     protected abstract DidResourceStore getStore();
 
+    private List<String> queryPage(String lastDid, int limit) {
+        var query = QuerySpec.Builder.newInstance().sortField("did").sortOrder(SortOrder.ASC).limit(limit);
+        if (lastDid != null) {
+            query.filter(new Criterion("did", ">", lastDid));
+        }
+        return getStore().query(query.build()).stream().map(DidResource::getDid).toList();
+    }
+
     private DidResource.Builder createDidResource(String did) {
         return DidResource.Builder.newInstance()
                 .did(did)
@@ -15,8 +15,12 @@
 package org.eclipse.edc.identityhub.spi.authorization;
 
 import jakarta.ws.rs.core.SecurityContext;
+import org.eclipse.edc.identityhub.spi.authentication.ServicePrincipal;
 import org.eclipse.edc.identityhub.spi.participantcontext.model.ParticipantResource;
+import org.eclipse.edc.spi.query.Criterion;
+import org.eclipse.edc.spi.query.QuerySpec;
 import org.eclipse.edc.spi.result.ServiceResult;
+import org.jetbrains.annotations.Nullable;
 
 import java.security.Principal;
 import java.util.function.Function;
@@ -36,9 +40,65 @@ public interface AuthorizationService {
      */
     ServiceResult<Void> isAuthorized(SecurityContext securityContext, String resourceId, Class<? extends ParticipantResource> resourceClass);
 
+    /**
+     * Checks whether the principal is authorized to access a particular resource, and returns the resource, which had to be
+     * loaded for the check anyway. Callers that need the resource should use this method rather than
+     * {@link #isAuthorized(SecurityContext, String, Class)} followed by loading the resource again.
+     *
+     * @param securityContext The {@link SecurityContext} that was obtained during the authentication phase of the request. Not null.
+     * @param resourceId      The ID of the resource.
+     * @param resourceClass   The concrete type of the resource.
+     * @return the resource if authorized, {@link ServiceResult#unauthorized(String)} if not authorized, {@link ServiceResult#notFound(String)} if the resource does not exist
+     */
+    default <T extends ParticipantResource> ServiceResult<T> authorize(SecurityContext securityContext, String resourceId, Class<T> resourceClass) {
+        return isAuthorized(securityContext, resourceId, resourceClass).compose(authorized -> {
+            var lookupFunction = getLookupFunction(resourceClass);
+            var resource = lookupFunction != null ? lookupFunction.apply(resourceId) : null;
+            return resourceClass.isInstance(resource) ?
+                    ServiceResult.success(resourceClass.cast(resource)) :
+                    ServiceResult.notFound("No Resource of type '%s' with ID '%s' was found.".formatted(resourceClass, resourceId));
+        });
+    }
+
+    /**
+     * Restricts a query to the resources that the principal is authorized to access, so that list endpoints do not need to
+     * check every result with {@link #isAuthorized(SecurityContext, String, Class)}. For principals that are not admins, a
+     * criterion on the {@code participantContextId} is added to the query. The query must target a {@link ParticipantResource}.
+     *
+     * @param securityContext The {@link SecurityContext} that was obtained during the authentication phase of the request. Not null.
+     * @param querySpec       The original query. Not null.
+     * @return a query that only matches resources that the principal is authorized to access
+     */
+    default QuerySpec restrictToAuthorized(SecurityContext securityContext, QuerySpec querySpec) {
+        if (securityContext.isUserInRole(ServicePrincipal.ROLE_ADMIN)) {
+            return querySpec;
+        }
+
+        var name = securityContext.getUserPrincipal().getName();
+        return QuerySpec.Builder.newInstance()
+                .filter(querySpec.getFilterExpression())
+                .filter(new Criterion("participantContextId", "=", name))
+                .offset(querySpec.getOffset())
+                .limit(querySpec.getLimit())
+                .sortField(querySpec.getSortField())
+                .sortOrder(querySpec.getSortOrder())
+                .build();
+    }
+
     /**
      * Register a function, that can lookup a particular resource type by ID. Typically, every resource that should be protected with
      * authorization, registers a lookup function for the type of resource.
      */
     void addLookupFunction(Class<?> resourceClass, Function<String, ParticipantResource> checkFunction);
+
+    /**
+     * Returns the lookup function that was registered for a resource type, which {@link #authorize(SecurityContext, String, Class)}
+     * uses to load the resource after {@link #isAuthorized(SecurityContext, String, Class)} succeeded. Implementations that do not
+     * override this method must override {@link #authorize(SecurityContext, String, Class)}.
+     *
+     * @return the lookup function, or null if none was registered.
+     */
+    default @Nullable Function<String, ParticipantResource> getLookupFunction(Class<?> resourceClass) {
+        return null;
+    }
 }
@@ -0,0 +1,44 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.spi.cluster;
+
+import org.eclipse.edc.runtime.metamodel.annotation.ExtensionPoint;
+import org.eclipse.edc.spi.event.Event;
+import org.eclipse.edc.spi.event.EventRouter;
+import org.eclipse.edc.spi.event.EventSubscriber;
+
+/**
+ * Delivers events to subscribers regardless of which node of an IdentityHub cluster the event was raised on. Subscribers
+ * that maintain in-process state derived from the stores, such as caches, must register here rather than with the
+ * {@link EventRouter}, which only delivers local events.
+ * <p>
+ * Local events are delivered synchronously, just like {@link EventRouter#registerSync(Class, EventSubscriber)}. Events
+ * from other nodes are delivered asynchronously and only shortly after they were raised, so subscribers should only use them
+ * to invalidate state, and must not rely on their order relative to local events.
+ * <p>
+ * Events that are replayed from other nodes are <em>not</em> published to the local {@link EventRouter}, so business logic
+ * that reacts to events is still executed exactly once in the cluster.
+ */
+@ExtensionPoint
+public interface ClusterEventRouter {
+
+    /**
+     * Registers a subscriber for local and remote events of the given kind, including all subtypes.
+     *
+     * @param eventKind  the event (super-)type
+     * @param subscriber the subscriber
+     */
+    <E extends Event> void registerSubscriber(Class<E> eventKind, EventSubscriber subscriber);
+}
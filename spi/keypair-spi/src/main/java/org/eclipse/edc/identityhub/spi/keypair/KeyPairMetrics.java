@@ -0,0 +1,60 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.spi.keypair;
+
+import org.eclipse.edc.runtime.metamodel.annotation.ExtensionPoint;
+
+import java.time.Duration;
+
+/**
+ * Receives the measurements of the key pair service. Implementations can forward them to a metrics backend, e.g. count pool
+ * hits and misses per profile, which reveals a key pair pool whose watermarks are too low for the onboarding rate, and expose
+ * the number of skipped key pairs of the rotation engine as a gauge, which reveals key pairs that are stuck. All methods are
+ * no-ops by default.
+ */
+@ExtensionPoint
+public interface KeyPairMetrics {
+
+    KeyPairMetrics NOOP = new KeyPairMetrics() {
+    };
+
+    /**
+     * Called when a key pair was taken from the pool of pre-generated key pairs.
+     *
+     * @param profile the profile of the key pair, e.g. {@code RSA/2048}
+     */
+    default void poolHit(String profile) {
+    }
+
+    /**
+     * Called when a key pair of a pooled profile had to be generated synchronously, because the pool was empty.
+     *
+     * @param profile the profile of the key pair, e.g. {@code RSA/2048}
+     */
+    default void poolMiss(String profile) {
+    }
+
+    /**
+     * Called when a run of the key pair rotation engine has completed.
+     *
+     * @param duration the duration of the run
+     * @param rotated  the number of key pairs that were rotated in the run
+     * @param retired  the number of key pairs that were retired in the run
+     * @param failed   the number of key pairs that could not be rotated or retired in the run
+     * @param skipped  the total number of key pairs that are skipped, because they could not be rotated or retired before
+     */
+    default void rotationRunCompleted(Duration duration, int rotated, int retired, int failed, int skipped) {
+    }
+}
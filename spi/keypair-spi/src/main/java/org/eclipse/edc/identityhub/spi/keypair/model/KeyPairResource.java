@@ -22,6 +22,7 @@ import org.eclipse.edc.spi.query.QuerySpec;
 import org.eclipse.edc.spi.security.Vault;
 
 import java.time.Duration;
+import java.time.Instant;
 import java.util.Objects;
 
 /**
@@ -37,6 +38,7 @@ public class KeyPairResource extends ParticipantResource {
     private boolean defaultPair;
     private long useDuration;
     private long rotationDuration;
+    private long rotationTimestamp;
     private String serializedPublicKey;
     private String privateKeyAlias;
     private int state;
@@ -89,6 +91,13 @@ public class KeyPairResource extends ParticipantResource {
         return rotationDuration;
     }
 
+    /**
+     * The Epoch Millis when the rotation of this KeyPair was started, or 0 if it was not rotated.
+     */
+    public long getRotationTimestamp() {
+        return rotationTimestamp;
+    }
+
     /**
      * The public key in JWK or PEM format. Consider using a {@code KeyParserRegistry} to restore the key.
      */
@@ -129,6 +138,7 @@ public class KeyPairResource extends ParticipantResource {
     public void rotate(long duration) {
         state = KeyPairState.ROTATED.code();
         rotationDuration = duration;
+        rotationTimestamp = Instant.now().toEpochMilli();
         defaultPair = false;
     }
 
@@ -199,6 +209,11 @@ public class KeyPairResource extends ParticipantResource {
             return this;
         }
 
+        public Builder rotationTimestamp(long rotationTimestamp) {
+            entity.rotationTimestamp = rotationTimestamp;
+            return this;
+        }
+
         public Builder serializedPublicKey(String serializedPublicKey) {
             entity.serializedPublicKey = serializedPublicKey;
             return this;
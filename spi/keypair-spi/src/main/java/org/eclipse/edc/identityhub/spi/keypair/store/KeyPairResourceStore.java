@@ -15,10 +15,15 @@
 package org.eclipse.edc.identityhub.spi.keypair.store;
 
 import org.eclipse.edc.identityhub.spi.keypair.model.KeyPairResource;
+import org.eclipse.edc.identityhub.spi.keypair.model.KeyPairState;
+import org.eclipse.edc.identityhub.spi.participantcontext.model.ParticipantResource;
+import org.eclipse.edc.spi.query.Criterion;
 import org.eclipse.edc.spi.query.QuerySpec;
 import org.eclipse.edc.spi.result.StoreResult;
 
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.function.ToLongFunction;
 
 
 /**
@@ -57,4 +62,58 @@ public interface KeyPairResourceStore {
      * @return failure if the specified KeyPairResource does not exist.
      */
     StoreResult<Void> deleteById(String id);
+
+    /**
+     * Deletes all KeyPairResources of a participant context. Implementations should do this with a single statement, the
+     * default implementation deletes the key pairs one by one.
+     *
+     * @param participantContextId The ID of the participant context.
+     * @return the number of deleted key pairs.
+     */
+    default StoreResult<Integer> deleteByParticipantContextId(String participantContextId) {
+        return query(ParticipantResource.queryByParticipantContextId(participantContextId).limit(Integer.MAX_VALUE).build())
+                .map(keyPairs -> (int) keyPairs.stream()
+                        .map(keyPair -> deleteById(keyPair.getId()))
+                        .filter(StoreResult::succeeded)
+                        .count());
+    }
+
+    /**
+     * Finds activated KeyPairResources whose use duration ends before the given point in time, i.e. whose
+     * {@code timestamp + useDuration} is less than or equal to {@code deadline}, ordered by that point in time.
+     * Implementations should back this with an index, the default implementation loads all activated key pairs.
+     *
+     * @param deadline the point in time (epoch millis)
+     * @param limit    the maximum number of results
+     * @return the key pairs that are due for rotation, never null.
+     */
+    default StoreResult<Collection<KeyPairResource>> findDueForRotation(long deadline, int limit) {
+        return findDue(KeyPairState.ACTIVATED, kpr -> kpr.getTimestamp() + kpr.getUseDuration(), deadline, limit);
+    }
+
+    /**
+     * Finds rotated KeyPairResources whose rotation duration ends before the given point in time, i.e. whose
+     * {@code rotationTimestamp + rotationDuration} is less than or equal to {@code deadline}, ordered by that point in time.
+     * A rotation timestamp of 0 means that it is unknown when the key pair was rotated, such key pairs are never due.
+     * Implementations should back this with an index, the default implementation loads all rotated key pairs.
+     *
+     * @param deadline the point in time (epoch millis)
+     * @param limit    the maximum number of results
+     * @return the key pairs that are due to be retired, never null.
+     */
+    default StoreResult<Collection<KeyPairResource>> findDueForRetirement(long deadline, int limit) {
+        return findDue(KeyPairState.ROTATED, kpr -> kpr.getRotationTimestamp() > 0 ? kpr.getRotationTimestamp() + kpr.getRotationDuration() : Long.MAX_VALUE, deadline, limit);
+    }
+
+    private StoreResult<Collection<KeyPairResource>> findDue(KeyPairState state, ToLongFunction<KeyPairResource> dueAt, long deadline, int limit) {
+        var query = QuerySpec.Builder.newInstance()
+                .filter(new Criterion("state", "=", state.code()))
+                .limit(Integer.MAX_VALUE)
+                .build();
+        return query(query).map(list -> list.stream()
+                .filter(kpr -> dueAt.applyAsLong(kpr) <= deadline)
+                .sorted(Comparator.comparingLong(dueAt))
+                .limit(limit)
+                .toList());
+    }
 }
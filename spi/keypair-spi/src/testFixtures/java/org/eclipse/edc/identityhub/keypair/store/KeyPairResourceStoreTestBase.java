@@ -21,9 +21,11 @@ import org.eclipse.edc.identityhub.spi.keypair.store.KeyPairResourceStore;
 import org.eclipse.edc.identityhub.spi.participantcontext.model.ParticipantResource;
 import org.eclipse.edc.spi.query.Criterion;
 import org.eclipse.edc.spi.query.QuerySpec;
+import org.eclipse.edc.spi.query.SortOrder;
 import org.junit.jupiter.api.Test;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -61,6 +63,37 @@ public abstract class KeyPairResourceStoreTestBase {
                 .satisfies(str -> Assertions.assertThat(str).hasSize(1));
     }
 
+    @Test
+    void query_keysetPagination() {
+        var ids = range(0, 25)
+                .mapToObj(i -> "id-" + i)
+                .toList();
+        ids.forEach(id -> getStore().create(createKeyPairResource().id(id).build()));
+
+        var first = queryPage(null, 10);
+        var second = queryPage(first.get(9), 10);
+        var third = queryPage(second.get(9), 10);
+
+        Assertions.assertThat(third).hasSize(5);
+        Assertions.assertThat(queryPage(third.get(4), 10)).isEmpty();
+        var all = new ArrayList<>(first);
+        all.addAll(second);
+        all.addAll(third);
+        Assertions.assertThat(all).containsExactlyElementsOf(ids.stream().sorted().toList());
+    }
+
+    @Test
+    void query_keysetPagination_comparesOrdinally() {
+        // a linguistic collation would order these keys differently
+        List.of("ab", "a-b", "aB", "A").forEach(id -> getStore().create(createKeyPairResource().id(id).build()));
+
+        var first = queryPage(null, 2);
+        var second = queryPage(first.get(1), 2);
+
+        Assertions.assertThat(first).containsExactly("A", "a-b");
+        Assertions.assertThat(second).containsExactly("aB", "ab");
+    }
+
     @Test
     void query_byProperty() {
         var keyPairResource = createKeyPairResource().state(KeyPairState.CREATED).build();
@@ -158,6 +191,42 @@ public abstract class KeyPairResourceStoreTestBase {
         assertThat(updateRes).isSucceeded();
     }
 
+    @Test
+    void update_incrementsVersion() {
+        var keyPairResource = createKeyPairResource().id("test-keypair").build();
+        getStore().create(keyPairResource);
+        Assertions.assertThat(keyPairResource.getVersion()).isEqualTo(1);
+
+        assertThat(getStore().update(createKeyPairResource().id("test-keypair").version(1).state(KeyPairState.ROTATED).build())).isSucceeded();
+
+        var stored = findById("test-keypair");
+        Assertions.assertThat(stored.getVersion()).isEqualTo(2);
+        Assertions.assertThat(stored.getState()).isEqualTo(KeyPairState.ROTATED.code());
+    }
+
+    @Test
+    void update_whenVersionOutdated_fails() {
+        getStore().create(createKeyPairResource().id("test-keypair").build());
+        assertThat(getStore().update(createKeyPairResource().id("test-keypair").version(1).state(KeyPairState.ROTATED).build())).isSucceeded();
+
+        var updateRes = getStore().update(createKeyPairResource().id("test-keypair").version(1).state(KeyPairState.REVOKED).build());
+
+        assertThat(updateRes).isFailed().detail().contains("was modified concurrently");
+        Assertions.assertThat(findById("test-keypair").getState()).isEqualTo(KeyPairState.ROTATED.code());
+    }
+
+    @Test
+    void update_withoutVersion_overwrites() {
+        getStore().create(createKeyPairResource().id("test-keypair").build());
+        assertThat(getStore().update(createKeyPairResource().id("test-keypair").version(1).state(KeyPairState.ROTATED).build())).isSucceeded();
+
+        assertThat(getStore().update(createKeyPairResource().id("test-keypair").state(KeyPairState.REVOKED).build())).isSucceeded();
+
+        var stored = findById("test-keypair");
+        Assertions.assertThat(stored.getVersion()).isEqualTo(3);
+        Assertions.assertThat(stored.getState()).isEqualTo(KeyPairState.REVOKED.code());
+    }
+
     @Test
     void update_whenIdChanges_fails() {
         var keyPairResource = createKeyPairResource();
@@ -189,8 +258,69 @@ public abstract class KeyPairResourceStoreTestBase {
                 .detail().contains("with ID 'not-exist' does not exist.");
     }
 
+    @Test
+    void deleteByParticipantContextId() {
+        getStore().create(createKeyPairResource().build());
+        getStore().create(createKeyPairResource().build());
+        var other = createKeyPairResource().participantContextId("another-participant").build();
+        getStore().create(other);
+
+        assertThat(getStore().deleteByParticipantContextId("test-participant")).isSucceeded().isEqualTo(2);
+        assertThat(getStore().query(QuerySpec.max())).isSucceeded()
+                .satisfies(list -> Assertions.assertThat(list).extracting(KeyPairResource::getId).containsExactly(other.getId()));
+    }
+
+    @Test
+    void deleteByParticipantContextId_whenNoneExist() {
+        assertThat(getStore().deleteByParticipantContextId("test-participant")).isSucceeded().isEqualTo(0);
+    }
+
+    @Test
+    void findDueForRotation() {
+        getStore().create(createKeyPairResource().id("due-later").state(KeyPairState.ACTIVATED).timestamp(2000).useDuration(1000).build());
+        getStore().create(createKeyPairResource().id("due-first").state(KeyPairState.ACTIVATED).timestamp(1000).useDuration(1000).build());
+        getStore().create(createKeyPairResource().id("not-due").state(KeyPairState.ACTIVATED).timestamp(5000).useDuration(1000).build());
+        getStore().create(createKeyPairResource().id("not-active").state(KeyPairState.CREATED).timestamp(0).useDuration(1000).build());
+
+        assertThat(getStore().findDueForRotation(3000, 10)).isSucceeded()
+                .satisfies(list -> Assertions.assertThat(list).extracting(KeyPairResource::getId).containsExactly("due-first", "due-later"));
+        assertThat(getStore().findDueForRotation(3000, 1)).isSucceeded()
+                .satisfies(list -> Assertions.assertThat(list).extracting(KeyPairResource::getId).containsExactly("due-first"));
+    }
+
+    @Test
+    void findDueForRetirement() {
+        getStore().create(createKeyPairResource().id("due").state(KeyPairState.ROTATED).rotationTimestamp(1000).rotationDuration(1000).build());
+        getStore().create(createKeyPairResource().id("not-due").state(KeyPairState.ROTATED).rotationTimestamp(1000).rotationDuration(5000).build());
+        getStore().create(createKeyPairResource().id("active").state(KeyPairState.ACTIVATED).timestamp(0).useDuration(1000).build());
+
+        assertThat(getStore().findDueForRetirement(3000, 10)).isSucceeded()
+                .satisfies(list -> Assertions.assertThat(list).extracting(KeyPairResource::getId).containsExactly("due"));
+    }
+
+    @Test
+    void findDueForRetirement_withoutRotationTimestamp_shouldSkip() {
+        getStore().create(createKeyPairResource().id("unknown").state(KeyPairState.ROTATED).rotationTimestamp(0).rotationDuration(1000).build());
+
+        assertThat(getStore().findDueForRetirement(3000, 10)).isSucceeded()
+                .satisfies(list -> Assertions.assertThat(list).isEmpty());
+    }
+
     protected abstract KeyPairResourceStore getStore();
 
+    private List<String> queryPage(String lastId, int limit) {
+        var query = QuerySpec.Builder.newInstance().sortField("id").sortOrder(SortOrder.ASC).limit(limit);
+        if (lastId != null) {
+            query.filter(new Criterion("id", ">", lastId));
+        }
+        return getStore().query(query.build()).getContent().stream().map(KeyPairResource::getId).toList();
+    }
+
+    private KeyPairResource findById(String id) {
+        var query = QuerySpec.Builder.newInstance().filter(new Criterion("id", "=", id)).build();
+        return getStore().query(query).getContent().iterator().next();
+    }
+
     private KeyPairResource.Builder createKeyPairResource() {
         return KeyPairResource.Builder.newInstance()
                 .id(UUID.randomUUID().toString())
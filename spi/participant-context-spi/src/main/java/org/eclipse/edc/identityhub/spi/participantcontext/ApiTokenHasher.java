@@ -0,0 +1,43 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.spi.participantcontext;
+
+import org.eclipse.edc.identityhub.spi.participantcontext.model.ParticipantContext;
+
+/**
+ * Computes keyed hashes of API tokens. If an API token hasher is configured, API tokens are not stored in the vault, instead
+ * their hash is persisted with the {@link ParticipantContext} (see {@link ParticipantContext#getApiTokenHash()}), so that
+ * API tokens can be verified without resolving them from the vault.
+ */
+public interface ApiTokenHasher {
+
+    /**
+     * Computes the hash of the given API token.
+     *
+     * @param apiToken the API token
+     * @return the hash, encoded as string
+     */
+    String hash(String apiToken);
+
+    /**
+     * Verifies the given API token against a hash that was previously created with {@link #hash(String)}. The comparison
+     * takes constant time.
+     *
+     * @param apiToken the API token
+     * @param hash     the hash
+     * @return true if the hash was created from the API token, false otherwise
+     */
+    boolean verify(String apiToken, String hash);
+}
@@ -71,6 +71,19 @@ public interface ParticipantContextService {
      */
     ServiceResult<Void> updateParticipant(String participantContextId, Consumer<ParticipantContext> modificationFunction);
 
+    /**
+     * Migrates the API tokens of all {@link ParticipantContext}s that do not have a hash yet: the API token is resolved from the
+     * vault, and its hash is persisted with the participant context. The API token itself does not change, so no event is emitted.
+     * This is a one-off step that operators trigger explicitly, it never happens while API tokens are verified.
+     *
+     * @param deleteFromVault whether the API tokens are deleted from the vault once their hash is stored. Only set this once no
+     *                        node verifies API tokens against the vault anymore.
+     * @return the number of migrated API tokens, or a failure if API tokens cannot be hashed or a participant context could not be updated
+     */
+    default ServiceResult<Integer> migrateApiTokenHashes(boolean deleteFromVault) {
+        return ServiceResult.badRequest("Migrating API tokens to hashes is not supported.");
+    }
+
     /**
      * Returns a collection of {@link ParticipantContext} objects that match the specified query.
      */
@@ -0,0 +1,63 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.spi.participantcontext.events;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonPOJOBuilder;
+import org.eclipse.edc.identityhub.spi.participantcontext.model.ParticipantContext;
+
+/**
+ * Event that signals that the API token of a {@link ParticipantContext} was regenerated, i.e. the previous token is no longer valid
+ */
+@JsonDeserialize(builder = ParticipantContextApiTokenRegenerated.Builder.class)
+public class ParticipantContextApiTokenRegenerated extends ParticipantContextEvent {
+    private String apiTokenAlias;
+
+    @Override
+    public String name() {
+        return "participantcontext.apitoken.regenerated";
+    }
+
+    /**
+     * The vault alias of the API token, so that nodes which cache secrets can invalidate the previous token.
+     */
+    public String getApiTokenAlias() {
+        return apiTokenAlias;
+    }
+
+    @JsonPOJOBuilder(withPrefix = "")
+    public static class Builder extends ParticipantContextEvent.Builder<ParticipantContextApiTokenRegenerated, Builder> {
+
+        private Builder() {
+            super(new ParticipantContextApiTokenRegenerated());
+        }
+
+        @JsonCreator
+        public static Builder newInstance() {
+            return new Builder();
+        }
+
+        @Override
+        public Builder self() {
+            return this;
+        }
+
+        public Builder apiTokenAlias(String apiTokenAlias) {
+            this.event.apiTokenAlias = apiTokenAlias;
+            return self();
+        }
+    }
+}
@@ -45,6 +45,16 @@ public interface ParticipantContextListener {
 
     }
 
+    /**
+     * Notifies about the fact that the API token of a {@link ParticipantContext} has been regenerated, and the previous token
+     * is no longer valid.
+     *
+     * @param participantContext The participant context, whose new API token is already stored in the vault
+     */
+    default void apiTokenRegenerated(ParticipantContext participantContext) {
+
+    }
+
     /**
      * Notifies about the fact that the deletion of a {@link ParticipantContext} is imminent. This is useful if resources like keypairs,
      * DID documents etc. should be cleaned up <em>before the deletion of the {@link ParticipantContext}</em>.
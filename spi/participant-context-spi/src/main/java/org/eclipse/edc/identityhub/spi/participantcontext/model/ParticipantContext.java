@@ -36,6 +36,7 @@ public class ParticipantContext extends ParticipantResource {
     private long lastModified;
     private int state; // CREATED, ACTIVATED, DEACTIVATED
     private String apiTokenAlias;
+    private String apiTokenHash;
 
     private ParticipantContext() {
     }
@@ -74,6 +75,19 @@ public class ParticipantContext extends ParticipantResource {
         return apiTokenAlias;
     }
 
+    /**
+     * Get the keyed hash of the API token of this {@link ParticipantContext}, if API tokens are stored as hashes rather than
+     * in the {@link org.eclipse.edc.spi.security.Vault}. Returns {@code null} if the API token is stored in the vault.
+     */
+    @JsonIgnore
+    public String getApiTokenHash() {
+        return apiTokenHash;
+    }
+
+    public void setApiTokenHash(String apiTokenHash) {
+        this.apiTokenHash = apiTokenHash;
+    }
+
     /**
      * Updates the last-modified field.
      */
@@ -165,6 +179,11 @@ public class ParticipantContext extends ParticipantResource {
             return this;
         }
 
+        public Builder apiTokenHash(String apiTokenHash) {
+            this.entity.apiTokenHash = apiTokenHash;
+            return this;
+        }
+
         public Builder did(String did) {
             this.entity.did = did;
             return this;
@@ -22,6 +22,7 @@ import org.eclipse.edc.spi.query.QuerySpec;
  */
 public abstract class ParticipantResource {
     protected String participantContextId;
+    protected long version;
 
     public static QuerySpec.Builder queryByParticipantContextId(String participantContextId) {
         return QuerySpec.Builder.newInstance().filter(new Criterion("participantContextId", "=", participantContextId));
@@ -35,6 +36,23 @@ public abstract class ParticipantResource {
         return participantContextId;
     }
 
+    /**
+     * The version of the resource, which is used for optimistic locking. Stores set it to 1 when the resource is created, and
+     * increment it with every update. Updating a resource with version {@code n > 0} only succeeds if the stored resource
+     * still has version {@code n}. A version of 0 means that the resource was not read from a store, and overwrites the
+     * stored resource regardless of its version.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Sets the version. Only intended to be called by stores, after the resource was written.
+     */
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     public abstract static class Builder<T extends ParticipantResource, B extends ParticipantResource.Builder<T, B>> {
         protected final T entity;
 
@@ -49,6 +67,11 @@ public abstract class ParticipantResource {
             return self();
         }
 
+        public B version(long version) {
+            entity.version = version;
+            return self();
+        }
+
         protected T build() {
             return entity;
         }
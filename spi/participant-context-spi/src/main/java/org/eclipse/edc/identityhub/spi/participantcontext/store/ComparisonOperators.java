@@ -0,0 +1,67 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.spi.participantcontext.store;
+
+import org.eclipse.edc.spi.query.CriterionOperatorRegistry;
+import org.eclipse.edc.spi.query.OperatorPredicate;
+
+import java.util.function.IntPredicate;
+
+/**
+ * The comparison operators {@code <, <=, >, >=} for in-memory stores. Keyset pagination selects every page with
+ * {@code key > lastKey}, which in-memory stores must evaluate in the same order in which they sort. Strings are therefore
+ * compared with {@link String#compareTo(String)}, which is the order of UTF-16 code units that in-memory stores sort by.
+ * <p>
+ * This is not the order of SQL stores, which compare keys declared with {@code COLLATE "C"} byte by byte: characters
+ * outside the Basic Multilingual Plane are encoded as surrogates {@code U+D800-U+DFFF} in UTF-16, so they sort before
+ * the characters {@code U+E000-U+FFFF} here, but after them in the database. Both orders are consistent within one
+ * store, which is all that keyset pagination requires.
+ */
+public final class ComparisonOperators {
+
+    private ComparisonOperators() {
+    }
+
+    /**
+     * Registers the comparison operators with the given registry, replacing existing ones.
+     */
+    public static void register(CriterionOperatorRegistry registry) {
+        registry.registerOperatorPredicate("<", comparing(result -> result < 0));
+        registry.registerOperatorPredicate("<=", comparing(result -> result <= 0));
+        registry.registerOperatorPredicate(">", comparing(result -> result > 0));
+        registry.registerOperatorPredicate(">=", comparing(result -> result >= 0));
+    }
+
+    private static OperatorPredicate comparing(IntPredicate test) {
+        return (value, comparedTo) -> {
+            var result = compare(value, comparedTo);
+            return result != null && test.test(result);
+        };
+    }
+
+    /**
+     * Compares the two values, or returns null if they cannot be compared, e.g. because one of them is null.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static Integer compare(Object value, Object comparedTo) {
+        if (value instanceof Number number && comparedTo instanceof Number other) {
+            return Double.compare(number.doubleValue(), other.doubleValue());
+        }
+        if (value instanceof Comparable comparable && comparedTo != null && value.getClass().isInstance(comparedTo)) {
+            return comparable.compareTo(comparedTo);
+        }
+        return null;
+    }
+}
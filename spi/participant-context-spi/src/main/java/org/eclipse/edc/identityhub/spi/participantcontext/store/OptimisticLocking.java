@@ -0,0 +1,121 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.spi.participantcontext.store;
+
+import org.eclipse.edc.identityhub.spi.participantcontext.model.ParticipantResource;
+import org.eclipse.edc.spi.persistence.EdcPersistenceException;
+import org.eclipse.edc.spi.result.ServiceResult;
+import org.eclipse.edc.spi.result.StoreFailure;
+import org.eclipse.edc.spi.result.StoreResult;
+
+import java.util.function.Supplier;
+
+/**
+ * Helpers for optimistic locking of {@link ParticipantResource}s.
+ * <p>
+ * Stores reject the update of a resource whose {@link ParticipantResource#getVersion()} does not match the stored version
+ * with {@link StoreFailure.Reason#ALREADY_EXISTS}, which is translated to a conflict by {@link ServiceResult#from(StoreResult)}.
+ * Services that read, modify and write a resource can use {@link #retryOnConflict(Supplier)} to repeat the whole
+ * operation in that case:
+ * <pre>
+ *     return OptimisticLocking.retryOnConflict(() -&gt; transactionContext.execute(() -&gt; {
+ *         var resource = store.findById(id);
+ *         // modify resource
+ *         return ServiceResult.from(OptimisticLocking.throwOnConflict(store.update(resource)));
+ *     }));
+ * </pre>
+ */
+public final class OptimisticLocking {
+    public static final int DEFAULT_MAX_ATTEMPTS = 3;
+
+    private OptimisticLocking() {
+    }
+
+    /**
+     * The result a store returns from an update if the version of the resource does not match the stored version.
+     */
+    public static <T> StoreResult<T> versionConflict(String resourceType, String id) {
+        return StoreResult.alreadyExists("%s '%s' was modified concurrently, please retry.".formatted(resourceType, id));
+    }
+
+    /**
+     * Whether an update failed because of a version conflict. Stores only return {@link StoreFailure.Reason#ALREADY_EXISTS}
+     * from an update in that case.
+     */
+    public static boolean isVersionConflict(StoreResult<?> updateResult) {
+        return updateResult.failed() && updateResult.reason() == StoreFailure.Reason.ALREADY_EXISTS;
+    }
+
+    /**
+     * Throws a {@link VersionConflictException} if the update failed because of a version conflict, which rolls back the
+     * surrounding transaction and lets {@link #retryOnConflict(Supplier)} repeat the operation. Otherwise, returns the result.
+     */
+    public static <T> StoreResult<T> throwOnConflict(StoreResult<T> updateResult) {
+        if (isVersionConflict(updateResult)) {
+            throw new VersionConflictException(updateResult.getFailureDetail());
+        }
+        return updateResult;
+    }
+
+    /**
+     * Executes a read-modify-write operation at most {@link #DEFAULT_MAX_ATTEMPTS} times, until it does not throw a
+     * {@link VersionConflictException}.
+     */
+    public static <T> ServiceResult<T> retryOnConflict(Supplier<ServiceResult<T>> operation) {
+        return retryOnConflict(DEFAULT_MAX_ATTEMPTS, operation);
+    }
+
+    /**
+     * Executes a read-modify-write operation at most {@code maxAttempts} times, until it does not throw a
+     * {@link VersionConflictException}. Every attempt must read the resource again.
+     *
+     * @return the result of the first attempt without conflict, or a conflict if all attempts failed
+     */
+    public static <T> ServiceResult<T> retryOnConflict(int maxAttempts, Supplier<ServiceResult<T>> operation) {
+        VersionConflictException lastConflict = null;
+        for (var attempt = 0; attempt < maxAttempts; attempt++) {
+            try {
+                return operation.get();
+            } catch (RuntimeException e) {
+                lastConflict = findConflict(e);
+                if (lastConflict == null) {
+                    throw e;
+                }
+            }
+        }
+        return ServiceResult.conflict(lastConflict != null ? lastConflict.getMessage() : "Concurrent modification");
+    }
+
+    /**
+     * Transaction contexts may wrap exceptions that are thrown inside a transaction block.
+     */
+    private static VersionConflictException findConflict(Throwable throwable) {
+        for (var t = throwable; t != null; t = t.getCause()) {
+            if (t instanceof VersionConflictException conflict) {
+                return conflict;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Signals that a resource could not be updated because it was modified concurrently.
+     */
+    public static class VersionConflictException extends EdcPersistenceException {
+        public VersionConflictException(String message) {
+            super(message);
+        }
+    }
+}
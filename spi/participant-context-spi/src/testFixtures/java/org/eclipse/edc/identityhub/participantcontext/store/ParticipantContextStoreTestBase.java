@@ -141,6 +141,56 @@ public abstract class ParticipantContextStoreTestBase {
         assertThat(updateRes).isSucceeded();
     }
 
+    @Test
+    void update_incrementsVersion() {
+        var context = createParticipantContext();
+        getStore().create(context);
+        Assertions.assertThat(context.getVersion()).isEqualTo(1);
+
+        assertThat(getStore().update(createParticipantContextBuilder().state(ACTIVATED).version(1).build())).isSucceeded();
+
+        var stored = getStore().findById(context.getParticipantContextId());
+        assertThat(stored).isSucceeded();
+        Assertions.assertThat(stored.getContent().getVersion()).isEqualTo(2);
+        Assertions.assertThat(stored.getContent().getState()).isEqualTo(ACTIVATED.code());
+    }
+
+    @Test
+    void update_apiTokenHash() {
+        var context = createParticipantContext();
+        getStore().create(context);
+        Assertions.assertThat(getStore().findById(context.getParticipantContextId()).getContent().getApiTokenHash()).isNull();
+
+        context.setApiTokenHash("test-hash");
+        assertThat(getStore().update(context)).isSucceeded();
+
+        var stored = getStore().findById(context.getParticipantContextId());
+        assertThat(stored).isSucceeded();
+        Assertions.assertThat(stored.getContent().getApiTokenHash()).isEqualTo("test-hash");
+    }
+
+    @Test
+    void update_whenVersionOutdated_fails() {
+        getStore().create(createParticipantContext());
+        assertThat(getStore().update(createParticipantContextBuilder().state(ACTIVATED).version(1).build())).isSucceeded();
+
+        var updateRes = getStore().update(createParticipantContextBuilder().state(DEACTIVATED).version(1).build());
+
+        assertThat(updateRes).isFailed().detail().contains("was modified concurrently");
+        Assertions.assertThat(getStore().findById("test-participant").getContent().getState()).isEqualTo(ACTIVATED.code());
+    }
+
+    @Test
+    void update_withoutVersion_overwrites() {
+        getStore().create(createParticipantContext());
+        assertThat(getStore().update(createParticipantContextBuilder().state(ACTIVATED).version(1).build())).isSucceeded();
+
+        var updateRes = getStore().update(createParticipantContextBuilder().state(DEACTIVATED).build());
+
+        assertThat(updateRes).isSucceeded();
+        Assertions.assertThat(getStore().findById("test-participant").getContent().getVersion()).isEqualTo(3);
+    }
+
     @Test
     void update_whenIdChanges_fails() {
         var context = createParticipantContextBuilder();
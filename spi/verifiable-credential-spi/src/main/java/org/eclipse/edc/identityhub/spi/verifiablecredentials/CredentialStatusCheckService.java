@@ -18,6 +18,11 @@ import org.eclipse.edc.identityhub.spi.verifiablecredentials.model.VcStatus;
 import org.eclipse.edc.identityhub.spi.verifiablecredentials.model.VerifiableCredentialResource;
 import org.eclipse.edc.spi.result.Result;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
 /**
  * Checks if a {@link VerifiableCredentialResource} is revoked, expired, not-yet-valid or suspended. Once a credential is {@link VcStatus#EXPIRED},
  * it can never transition to another status.
@@ -34,4 +39,31 @@ public interface CredentialStatusCheckService {
      * @return A successful result with the new status, or a failure if a check (e.g. a remote call) failed.
      */
     Result<VcStatus> checkStatus(VerifiableCredentialResource resource);
+
+    /**
+     * Checks the current status of several {@link VerifiableCredentialResource}s at once. Implementations should use this to fetch
+     * every distinct status list only once, and to fetch different status lists concurrently. The default implementation checks
+     * the resources one by one.
+     *
+     * @param resources The resources to check. {@link VerifiableCredentialResource#getVerifiableCredential()} cannot be null for any of them.
+     * @return The result of {@link #checkStatus(VerifiableCredentialResource)} for every resource, keyed by resource ID, in the order of the input.
+     */
+    default Map<String, Result<VcStatus>> checkStatuses(Collection<VerifiableCredentialResource> resources) {
+        var results = new LinkedHashMap<String, Result<VcStatus>>();
+        resources.forEach(resource -> results.put(resource.getId(), checkStatus(resource)));
+        return results;
+    }
+
+    /**
+     * Same as {@link #checkStatuses(Collection)}, but fetches the status lists on the given executor instead of the one of the
+     * service. Background tasks that check many credentials use this to fetch different status lists concurrently on their own
+     * threads. The default implementation ignores the executor.
+     *
+     * @param resources The resources to check.
+     * @param executor  The executor on which the status lists are fetched.
+     * @return The result of {@link #checkStatus(VerifiableCredentialResource)} for every resource, keyed by resource ID, in the order of the input.
+     */
+    default Map<String, Result<VcStatus>> checkStatuses(Collection<VerifiableCredentialResource> resources, Executor executor) {
+        return checkStatuses(resources);
+    }
 }
@@ -0,0 +1,65 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.spi.verifiablecredentials;
+
+import org.eclipse.edc.identityhub.spi.verifiablecredentials.model.VcStatus;
+import org.eclipse.edc.runtime.metamodel.annotation.ExtensionPoint;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Receives the measurements of the credential watchdog. Implementations can forward them to a metrics backend, e.g. record
+ * run durations and status check latencies as histograms, count transitions per {@link VcStatus}, and expose the time since
+ * the last completed run as a gauge, which reveals a watchdog that falls behind or has stopped. All methods are no-ops by default.
+ */
+@ExtensionPoint
+public interface CredentialWatchdogMetrics {
+
+    CredentialWatchdogMetrics NOOP = new CredentialWatchdogMetrics() {
+    };
+
+    /**
+     * Called when a run of the watchdog starts.
+     */
+    default void runStarted(Instant startedAt) {
+    }
+
+    /**
+     * Called when a run of the watchdog has completed.
+     *
+     * @param completedAt the point in time at which the run completed
+     * @param duration    the duration of the run
+     * @param checked     the number of credentials that were checked in the run
+     */
+    default void runCompleted(Instant completedAt, Duration duration, int checked) {
+    }
+
+    /**
+     * Called when the statuses of a chunk of credentials were checked.
+     *
+     * @param duration the duration of the status check, including revocation lookups
+     * @param checked  the number of credentials that were checked
+     * @param failed   the number of credentials whose status could not be determined
+     */
+    default void statusChecked(Duration duration, int checked, int failed) {
+    }
+
+    /**
+     * Called when a credential transitioned from one status to another.
+     */
+    default void statusChanged(VcStatus from, VcStatus to) {
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.spi.verifiablecredentials.store;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.BitSet;
+
+/**
+ * A decoded status list credential, as kept by the status list cache.
+ *
+ * @param url           the URL the status list credential was fetched from
+ * @param etag          the {@code ETag} header of the last response, used to revalidate the entry
+ * @param lastModified  the {@code Last-Modified} header of the last response, used to revalidate the entry
+ * @param fetchedAt     the point in time (epoch millis) at which the entry was last fetched or revalidated
+ * @param statusPurpose the status purpose declared by the status list credential, if any
+ * @param statusBits    the decoded bitstring. Bit {@code i} is set if the status at index {@code i} is set.
+ * @param length        the number of entries in the decoded bitstring. {@link BitSet#length()} cannot be used for this, because
+ *                      it ignores trailing entries that are not set.
+ */
+public record CachedStatusList(String url, @Nullable String etag, @Nullable String lastModified, long fetchedAt,
+                               @Nullable String statusPurpose, BitSet statusBits, int length) {
+
+    /**
+     * Returns a copy of this entry that was revalidated at the given point in time.
+     */
+    public CachedStatusList revalidatedAt(long timestamp) {
+        return new CachedStatusList(url, etag, lastModified, timestamp, statusPurpose, statusBits, length);
+    }
+}
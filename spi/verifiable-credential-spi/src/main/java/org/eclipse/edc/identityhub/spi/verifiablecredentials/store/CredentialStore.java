@@ -15,17 +15,28 @@
 package org.eclipse.edc.identityhub.spi.verifiablecredentials.store;
 
 
+import org.eclipse.edc.identityhub.spi.participantcontext.model.ParticipantResource;
+import org.eclipse.edc.identityhub.spi.verifiablecredentials.model.VcStatus;
 import org.eclipse.edc.identityhub.spi.verifiablecredentials.model.VerifiableCredentialResource;
+import org.eclipse.edc.spi.query.Criterion;
 import org.eclipse.edc.spi.query.QuerySpec;
 import org.eclipse.edc.spi.result.StoreResult;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
 
 /**
  * The CredentialStore interface represents a store that manages verifiable credentials.
  * It provides methods for creating, querying, updating, and deleting credentials.
  */
 public interface CredentialStore {
+    /**
+     * The states in which a credential still has a time-based status transition ahead.
+     */
+    List<Integer> TRANSITION_STATES = List.of(VcStatus.ISSUED.code(), VcStatus.NOT_YET_VALID.code(), VcStatus.SUSPENDED.code());
+
     /**
      * Creates a verifiable credential resource in the store.
      *
@@ -58,6 +69,97 @@ public interface CredentialStore {
      */
     StoreResult<Void> deleteById(String id);
 
+    /**
+     * Deletes a verifiable credential resource of a participant context. Stores that partition or shard credentials by
+     * participant context only have to look at the data of that participant context, rather than searching for the ID
+     * everywhere. The default implementation checks the participant context and then deletes by ID.
+     *
+     * @param participantContextId The ID of the participant context that owns the credential.
+     * @param id                   The ID of the verifiable credential resource to delete.
+     * @return A {@link StoreResult} object indicating the result of the operation. Not found, if the credential does not
+     *         exist or is owned by another participant context.
+     */
+    default StoreResult<Void> deleteById(String participantContextId, String id) {
+        var query = ParticipantResource.queryByParticipantContextId(participantContextId)
+                .filter(new Criterion("id", "=", id))
+                .build();
+        return query(query).compose(credentials -> credentials.isEmpty() ? StoreResult.notFound(notFoundErrorMessage(id)) : deleteById(id));
+    }
+
+    /**
+     * Deletes all verifiable credential resources of a participant context. Implementations should do this with a single
+     * statement, the default implementation deletes the credentials one by one.
+     *
+     * @param participantContextId The ID of the participant context.
+     * @return A {@link StoreResult} containing the number of deleted credentials.
+     */
+    default StoreResult<Integer> deleteByParticipantContextId(String participantContextId) {
+        return query(ParticipantResource.queryByParticipantContextId(participantContextId).limit(Integer.MAX_VALUE).build())
+                .map(credentials -> (int) credentials.stream()
+                        .map(credential -> deleteById(credential.getId()))
+                        .filter(StoreResult::succeeded)
+                        .count());
+    }
+
+    /**
+     * Finds credentials whose next time-based status transition (c.f. {@link #transitionDeadlineOf(VerifiableCredentialResource)})
+     * is due before the given point in time, ordered by that point in time.
+     *
+     * @param deadline the point in time (epoch millis)
+     * @param limit    the maximum number of results
+     * @return the first credentials that are due for a transition, never null.
+     * @see #findDueForTransition(long, long, String, int)
+     */
+    default StoreResult<Collection<VerifiableCredentialResource>> findDueForTransition(long deadline, int limit) {
+        return findDueForTransition(deadline, Long.MIN_VALUE, "", limit);
+    }
+
+    /**
+     * Finds credentials whose next time-based status transition (c.f. {@link #transitionDeadlineOf(VerifiableCredentialResource)})
+     * is due before the given point in time, ordered by that point in time and then by ID. Only the credentials after the given
+     * position in that order are returned, so that credentials which are due but cannot transition do not hide the ones after
+     * them. Implementations should back this with an index, the default implementation loads all credentials that are in one
+     * of the {@link #TRANSITION_STATES}.
+     *
+     * @param deadline      the point in time (epoch millis)
+     * @param afterDeadline the deadline of the last credential of the previous page, {@link Long#MIN_VALUE} for the first page
+     * @param afterId       the ID of the last credential of the previous page, an empty string for the first page
+     * @param limit         the maximum number of results
+     * @return the credentials that are due for a transition, never null.
+     */
+    default StoreResult<Collection<VerifiableCredentialResource>> findDueForTransition(long deadline, long afterDeadline, String afterId, int limit) {
+        var query = QuerySpec.Builder.newInstance()
+                .filter(new Criterion("state", "in", TRANSITION_STATES))
+                .limit(Integer.MAX_VALUE)
+                .build();
+        return query(query).map(credentials -> credentials.stream()
+                .filter(credential -> {
+                    var dueAt = transitionDeadlineOf(credential);
+                    return dueAt != null && dueAt <= deadline &&
+                            (dueAt > afterDeadline || dueAt == afterDeadline && credential.getId().compareTo(afterId) > 0);
+                })
+                .sorted(Comparator.comparing(CredentialStore::transitionDeadlineOf).thenComparing(VerifiableCredentialResource::getId))
+                .limit(limit)
+                .toList());
+    }
+
+    /**
+     * The point in time (epoch millis) of the next time-based status transition of a credential: the issuance date of a
+     * {@link VcStatus#NOT_YET_VALID} credential, or the expiration date of an {@link VcStatus#ISSUED} or {@link VcStatus#SUSPENDED}
+     * credential.
+     *
+     * @return the point in time, or null if the credential has no time-based transition ahead.
+     */
+    static @Nullable Long transitionDeadlineOf(VerifiableCredentialResource resource) {
+        var container = resource.getVerifiableCredential();
+        if (container == null || container.credential() == null || !TRANSITION_STATES.contains(resource.getState())) {
+            return null;
+        }
+        var credential = container.credential();
+        var dueAt = resource.getStateAsEnum() == VcStatus.NOT_YET_VALID ? credential.getIssuanceDate() : credential.getExpirationDate();
+        return dueAt != null ? dueAt.toEpochMilli() : null;
+    }
+
     default String alreadyExistsErrorMessage(String id) {
         return "A VerifiableCredentialResource with ID '%s' already exists.".formatted(id);
     }
@@ -0,0 +1,37 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.spi.verifiablecredentials.store;
+
+import org.eclipse.edc.runtime.metamodel.annotation.ExtensionPoint;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Persists decoded status list credentials, so that the status list cache does not start empty after a restart, and so that
+ * several IdentityHub instances that share a database can revalidate a list instead of downloading it again.
+ */
+@ExtensionPoint
+public interface StatusListCacheStore {
+
+    /**
+     * Returns the cached status list that was fetched from the given URL, or null if there is none.
+     */
+    @Nullable
+    CachedStatusList findByUrl(String url);
+
+    /**
+     * Inserts or replaces the cached status list for its URL.
+     */
+    void save(CachedStatusList statusList);
+}
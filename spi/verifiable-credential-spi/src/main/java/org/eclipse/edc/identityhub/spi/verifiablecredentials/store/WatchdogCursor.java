@@ -0,0 +1,28 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.spi.verifiablecredentials.store;
+
+/**
+ * Position of the credential watchdog.
+ *
+ * @param lastId      the ID of the last credential that was claimed in the current round, or null if no round is in progress
+ * @param nextRoundAt the earliest point in time (epoch millis) at which the next round may start
+ */
+public record WatchdogCursor(String lastId, long nextRoundAt) {
+
+    public static WatchdogCursor initial() {
+        return new WatchdogCursor(null, 0);
+    }
+}
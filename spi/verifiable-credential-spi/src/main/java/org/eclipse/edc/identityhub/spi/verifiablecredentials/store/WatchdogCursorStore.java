@@ -0,0 +1,67 @@
+/*
+ *  Copyright (c) 2024 Metaform Systems, Inc.
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Metaform Systems, Inc. - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.identityhub.spi.verifiablecredentials.store;
+
+import org.eclipse.edc.runtime.metamodel.annotation.ExtensionPoint;
+
+/**
+ * Stores the position of the credential watchdog in the credential store. If the store is shared by several IdentityHub
+ * instances, they coordinate through the cursor: every instance locks the cursor, claims the next chunk of credentials
+ * after it, advances it and releases the lock, so that every chunk is processed by exactly one instance.
+ * <p>
+ * Besides the {@link #DEFAULT_CURSOR default cursor} of the watchdog, the store keeps further named cursors, e.g. the
+ * {@link #DEADLINE_LEASE lease} of the instance that schedules the deadlines of all credentials.
+ */
+@ExtensionPoint
+public interface WatchdogCursorStore {
+
+    /**
+     * The cursor of the credential watchdog.
+     */
+    String DEFAULT_CURSOR = "default";
+
+    /**
+     * The lease of the credential deadline scheduler: {@link WatchdogCursor#lastId()} is the ID of the instance that holds
+     * the lease, {@link WatchdogCursor#nextRoundAt()} the point in time at which it expires.
+     */
+    String DEADLINE_LEASE = "deadline-lease";
+
+    /**
+     * Returns the cursor with the given name, and locks it until the current transaction ends. Other instances that call
+     * this method in the meantime are blocked. Must be called within a transaction.
+     *
+     * @return the cursor, never null.
+     */
+    WatchdogCursor lock(String name);
+
+    /**
+     * Saves the cursor with the given name. Must be called within the same transaction as {@link #lock(String)}.
+     */
+    void save(String name, WatchdogCursor cursor);
+
+    /**
+     * Returns the {@link #DEFAULT_CURSOR default cursor}, and locks it until the current transaction ends.
+     */
+    default WatchdogCursor lock() {
+        return lock(DEFAULT_CURSOR);
+    }
+
+    /**
+     * Saves the {@link #DEFAULT_CURSOR default cursor}.
+     */
+    default void save(WatchdogCursor cursor) {
+        save(DEFAULT_CURSOR, cursor);
+    }
+}
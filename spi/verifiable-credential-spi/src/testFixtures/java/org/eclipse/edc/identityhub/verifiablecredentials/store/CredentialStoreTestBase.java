@@ -26,6 +26,7 @@ import org.eclipse.edc.identityhub.spi.verifiablecredentials.model.VerifiableCre
 import org.eclipse.edc.identityhub.spi.verifiablecredentials.store.CredentialStore;
 import org.eclipse.edc.spi.query.Criterion;
 import org.eclipse.edc.spi.query.QuerySpec;
+import org.eclipse.edc.spi.query.SortOrder;
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.Test;
 
@@ -130,6 +131,37 @@ public abstract class CredentialStoreTestBase {
                 .satisfies(str -> Assertions.assertThat(str).hasSize(1));
     }
 
+    @Test
+    void query_keysetPagination() {
+        var ids = range(0, 25)
+                .mapToObj(i -> "id-" + i)
+                .toList();
+        ids.forEach(id -> getStore().create(createCredentialBuilder().id(id).build()));
+
+        var first = queryPage(null, 10);
+        var second = queryPage(first.get(9), 10);
+        var third = queryPage(second.get(9), 10);
+
+        Assertions.assertThat(third).hasSize(5);
+        Assertions.assertThat(queryPage(third.get(4), 10)).isEmpty();
+        var all = new ArrayList<>(first);
+        all.addAll(second);
+        all.addAll(third);
+        Assertions.assertThat(all).containsExactlyElementsOf(ids.stream().sorted().toList());
+    }
+
+    @Test
+    void query_keysetPagination_comparesOrdinally() {
+        // a linguistic collation would order these keys differently
+        List.of("ab", "a-b", "aB", "A").forEach(id -> getStore().create(createCredentialBuilder().id(id).build()));
+
+        var first = queryPage(null, 2);
+        var second = queryPage(first.get(1), 2);
+
+        Assertions.assertThat(first).containsExactly("A", "a-b");
+        Assertions.assertThat(second).containsExactly("aB", "ab");
+    }
+
     @Test
     void query_byParticipantId() {
         range(0, 5)
@@ -472,6 +504,42 @@ public abstract class CredentialStoreTestBase {
         assertThat(updateRes).isSucceeded();
     }
 
+    @Test
+    void update_incrementsVersion() {
+        var credential = createCredentialBuilder().id("test-credential").build();
+        getStore().create(credential);
+        Assertions.assertThat(credential.getVersion()).isEqualTo(1);
+
+        assertThat(getStore().update(createCredentialBuilder().id("test-credential").version(1).state(VcStatus.REVOKED).build())).isSucceeded();
+
+        var stored = findById("test-credential");
+        Assertions.assertThat(stored.getVersion()).isEqualTo(2);
+        Assertions.assertThat(stored.getState()).isEqualTo(VcStatus.REVOKED.code());
+    }
+
+    @Test
+    void update_whenVersionOutdated_fails() {
+        getStore().create(createCredentialBuilder().id("test-credential").build());
+        assertThat(getStore().update(createCredentialBuilder().id("test-credential").version(1).state(VcStatus.REVOKED).build())).isSucceeded();
+
+        var updateRes = getStore().update(createCredentialBuilder().id("test-credential").version(1).state(VcStatus.EXPIRED).build());
+
+        assertThat(updateRes).isFailed().detail().contains("was modified concurrently");
+        Assertions.assertThat(findById("test-credential").getState()).isEqualTo(VcStatus.REVOKED.code());
+    }
+
+    @Test
+    void update_withoutVersion_overwrites() {
+        getStore().create(createCredentialBuilder().id("test-credential").build());
+        assertThat(getStore().update(createCredentialBuilder().id("test-credential").version(1).state(VcStatus.REVOKED).build())).isSucceeded();
+
+        assertThat(getStore().update(createCredentialBuilder().id("test-credential").state(VcStatus.EXPIRED).build())).isSucceeded();
+
+        var stored = findById("test-credential");
+        Assertions.assertThat(stored.getVersion()).isEqualTo(3);
+        Assertions.assertThat(stored.getState()).isEqualTo(VcStatus.EXPIRED.code());
+    }
+
     @Test
     void update_whenIdChanges_fails() {
         var credential = createCredentialBuilder();
@@ -503,8 +571,113 @@ public abstract class CredentialStoreTestBase {
                 .detail().contains("with ID 'not-exist' does not exist.");
     }
 
+    @Test
+    void deleteById_withParticipantContextId() {
+        var credential = createCredential();
+        getStore().create(credential);
+
+        assertThat(getStore().deleteById(TEST_PARTICIPANT_CONTEXT_ID, credential.getId())).isSucceeded();
+        assertThat(getStore().query(QuerySpec.max())).isSucceeded()
+                .satisfies(list -> Assertions.assertThat(list).isEmpty());
+    }
+
+    @Test
+    void deleteById_withOtherParticipantContextId_notFound() {
+        var credential = createCredential();
+        getStore().create(credential);
+
+        assertThat(getStore().deleteById("another-participant", credential.getId())).isFailed()
+                .detail().contains("with ID '%s' does not exist.".formatted(credential.getId()));
+        assertThat(getStore().query(QuerySpec.max())).isSucceeded()
+                .satisfies(list -> Assertions.assertThat(list).hasSize(1));
+    }
+
+    @Test
+    void deleteByParticipantContextId() {
+        getStore().create(createCredential());
+        getStore().create(createCredential());
+        var other = createCredentialBuilder().participantContextId("another-participant").build();
+        getStore().create(other);
+
+        assertThat(getStore().deleteByParticipantContextId(TEST_PARTICIPANT_CONTEXT_ID)).isSucceeded().isEqualTo(2);
+        assertThat(getStore().query(QuerySpec.max())).isSucceeded()
+                .satisfies(list -> Assertions.assertThat(list).extracting(VerifiableCredentialResource::getId).containsExactly(other.getId()));
+    }
+
+    @Test
+    void deleteByParticipantContextId_whenNoneExist() {
+        assertThat(getStore().deleteByParticipantContextId(TEST_PARTICIPANT_CONTEXT_ID)).isSucceeded().isEqualTo(0);
+    }
+
+    @Test
+    void findDueForTransition() {
+        var expiring = createCredentialWithDates("expiring", VcStatus.ISSUED, Instant.ofEpochMilli(0), Instant.ofEpochMilli(2000));
+        var activating = createCredentialWithDates("activating", VcStatus.NOT_YET_VALID, Instant.ofEpochMilli(1000), null);
+        List.of(expiring, activating,
+                createCredentialWithDates("revoked", REVOKED, Instant.ofEpochMilli(0), Instant.ofEpochMilli(500)),
+                createCredentialWithDates("later", VcStatus.ISSUED, Instant.ofEpochMilli(0), Instant.ofEpochMilli(5000)),
+                createCredentialWithDates("unlimited", VcStatus.ISSUED, Instant.ofEpochMilli(0), null)
+        ).forEach(getStore()::create);
+
+        assertThat(getStore().findDueForTransition(3000, 10)).isSucceeded()
+                .satisfies(due -> Assertions.assertThat(due).extracting(VerifiableCredentialResource::getId).containsExactly("activating", "expiring"));
+        assertThat(getStore().findDueForTransition(3000, 1)).isSucceeded()
+                .satisfies(due -> Assertions.assertThat(due).extracting(VerifiableCredentialResource::getId).containsExactly("activating"));
+    }
+
+    @Test
+    void findDueForTransition_afterPosition() {
+        List.of(
+                createCredentialWithDates("a", VcStatus.ISSUED, Instant.ofEpochMilli(0), Instant.ofEpochMilli(1000)),
+                createCredentialWithDates("b", VcStatus.ISSUED, Instant.ofEpochMilli(0), Instant.ofEpochMilli(1000)),
+                createCredentialWithDates("c", VcStatus.ISSUED, Instant.ofEpochMilli(0), Instant.ofEpochMilli(1000)),
+                createCredentialWithDates("d", VcStatus.ISSUED, Instant.ofEpochMilli(0), Instant.ofEpochMilli(2000))
+        ).forEach(getStore()::create);
+
+        assertThat(getStore().findDueForTransition(3000, Long.MIN_VALUE, "", 2)).isSucceeded()
+                .satisfies(due -> Assertions.assertThat(due).extracting(VerifiableCredentialResource::getId).containsExactly("a", "b"));
+        assertThat(getStore().findDueForTransition(3000, 1000, "b", 2)).isSucceeded()
+                .satisfies(due -> Assertions.assertThat(due).extracting(VerifiableCredentialResource::getId).containsExactly("c", "d"));
+        assertThat(getStore().findDueForTransition(3000, 2000, "d", 2)).isSucceeded()
+                .satisfies(due -> Assertions.assertThat(due).isEmpty());
+    }
+
+    @Test
+    void findDueForTransition_afterTransition_isNotDue() {
+        var expiring = createCredentialWithDates("expiring", VcStatus.ISSUED, Instant.ofEpochMilli(0), Instant.ofEpochMilli(2000));
+        getStore().create(expiring);
+
+        expiring.setCredentialStatus(VcStatus.EXPIRED);
+        assertThat(getStore().update(expiring)).isSucceeded();
+
+        assertThat(getStore().findDueForTransition(3000, 10)).isSucceeded()
+                .satisfies(due -> Assertions.assertThat(due).isEmpty());
+    }
+
     protected abstract CredentialStore getStore();
 
+    private VerifiableCredentialResource createCredentialWithDates(String id, VcStatus status, Instant issuanceDate, Instant expirationDate) {
+        var credential = createVerifiableCredential().issuanceDate(issuanceDate).expirationDate(expirationDate).build();
+        return createCredentialBuilder()
+                .id(id)
+                .state(status)
+                .credential(new VerifiableCredentialContainer(EXAMPLE_VC, CredentialFormat.VC1_0_LD, credential))
+                .build();
+    }
+
+    private List<String> queryPage(String lastId, int limit) {
+        var query = QuerySpec.Builder.newInstance().sortField("id").sortOrder(SortOrder.ASC).limit(limit);
+        if (lastId != null) {
+            query.filter(new Criterion("id", ">", lastId));
+        }
+        return getStore().query(query.build()).getContent().stream().map(VerifiableCredentialResource::getId).toList();
+    }
+
+    private VerifiableCredentialResource findById(String id) {
+        var query = QuerySpec.Builder.newInstance().filter(new Criterion("id", "=", id)).build();
+        return getStore().query(query).getContent().iterator().next();
+    }
+
     protected VerifiableCredentialResource createCredential() {
         return createCredentialBuilder()
                 .build();